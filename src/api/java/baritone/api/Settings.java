@@ -182,6 +182,9 @@ public class Settings {
      * Stop 5 movements before anything that made the path COST_INF.
      * For example, if lava has spread across the path, don't walk right up to it then recalculate, it might
      * still be spreading lol
+     * <p>
+     * These are checked when each movement starts, since it's the only way to notice that e.g. the throwaway blocks
+     * ran out. Block changes anywhere along the path are noticed as they happen regardless.
      */
     public Setting<Integer> costVerificationLookahead = new Setting<>(5);
 
@@ -212,6 +215,147 @@ public class Settings {
      */
     public Setting<Float> pathingMapLoadFactor = new Setting<>(0.75f);
 
+    /**
+     * Store pathing nodes as columns of primitive arrays instead of one PathNode object each.
+     * <p>
+     * Long searches create millions of nodes, and this avoids the GC stutter from all of them. Turn it off to go back
+     * to PathNode objects, for example to compare nodes per second and heap usage on the same search.
+     * <p>
+     * Both searches cost the same graph through the same movement code, so the paths are just as cheap, but only this
+     * one can be an anytime search or run without allocating per node.
+     */
+    public Setting<Boolean> useNodeStore = new Setting<>(false);
+
+    /**
+     * Use a radix heap for the A* open set instead of a binary heap. Insert and decrease-key are O(1) instead of
+     * O(log n), but costs are only ordered to within a hundredth of a tick.
+     * <p>
+     * Compare the nodes per second that get printed at the end of each search with this on and off.
+     */
+    public Setting<Boolean> useRadixHeapOpenSet = new Setting<>(false);
+
+    /**
+     * How many children each node of the A* open set heap has. 2 is the plain binary heap, anything above that uses a
+     * d-ary heap that keeps the costs in their own array, which is friendlier to the cache once the open set gets big.
+     * <p>
+     * Ignored if useRadixHeapOpenSet is on.
+     */
+    public Setting<Integer> openSetHeapArity = new Setting<>(2);
+
+    /**
+     * How many A* searches to run at once, each on its own thread with a different heuristic weight. The first path
+     * that reaches the goal wins and the rest are cancelled.
+     * <p>
+     * 1 means just the one normal search, like always. Only worth raising on a machine with cores to spare.
+     */
+    public Setting<Integer> pathingPortfolioSize = new Setting<>(1);
+
+    /**
+     * How much greedier each additional search in the portfolio is. Search i multiplies the goal heuristic by
+     * 1 + i * this, so the first one is always plain A*.
+     */
+    public Setting<Double> pathingPortfolioWeightStep = new Setting<>(0.5D);
+
+    /**
+     * Start walking as soon as a greedy search finds any path to the goal, then keep searching with a less and less
+     * inflated heuristic, and switch over to each better path as it's found. Only for the first path towards a goal,
+     * not for planning ahead.
+     */
+    public Setting<Boolean> anytimePathing = new Setting<>(false);
+
+    /**
+     * What the anytime search starts out multiplying the heuristic by. Higher finds the first path faster, but a worse one
+     */
+    public Setting<Double> anytimeInitialHeuristicWeight = new Setting<>(3D);
+
+    /**
+     * How much the anytime search lowers the heuristic weight by each time it finds a path, until it gets to 1
+     */
+    public Setting<Double> anytimeHeuristicWeightStep = new Setting<>(0.5D);
+
+    /**
+     * For far away GoalXZ, first find a corridor through the cached chunks with a coarse search over chunk border
+     * entrances, then path along it one segment at a time, instead of running block level A* straight at the goal.
+     */
+    public Setting<Boolean> useAbstractGraph = new Setting<>(false);
+
+    /**
+     * Only use the abstract graph corridor when the goal is at least this many blocks away
+     */
+    public Setting<Integer> abstractGraphMinimumDistance = new Setting<>(256);
+
+    /**
+     * How far along the corridor each path segment goes
+     */
+    public Setting<Integer> abstractGraphSegmentLength = new Setting<>(128);
+
+    /**
+     * How many chunk entrances the corridor search can expand before giving up and falling back to plain A*
+     */
+    public Setting<Integer> abstractGraphMaxNodes = new Setting<>(100000);
+
+    /**
+     * When a movement on the current path becomes impossible or too expensive, first try a quick search for a detour
+     * back onto the rest of the path, before throwing the whole thing away and searching from scratch.
+     * <p>
+     * The detour is a fresh search to whichever of the next few positions is quickest to get back to, so the rest of
+     * the path is kept as it was even where a full search would now find something better.
+     */
+    public Setting<Boolean> incrementalReplan = new Setting<>(false);
+
+    /**
+     * How long the detour search for {@link #incrementalReplan} is allowed to take, in milliseconds
+     */
+    public Setting<Long> incrementalReplanTimeoutMS = new Setting<>(300L);
+
+    /**
+     * Raise the heuristic of block and xz goals using the landmark tables built with the landmarks command. Much fewer
+     * nodes in caves and around walled in areas. The tables only know what the cache knows, so where the only way is
+     * by digging, or through something the cache stores as solid like a door or a ladder, it can overestimate and the
+     * path won't be the cheapest one there.
+     */
+    public Setting<Boolean> useLandmarkHeuristic = new Setting<>(false);
+
+    /**
+     * How many chunks out from each landmark its table covers
+     */
+    public Setting<Integer> landmarkRadius = new Setting<>(32);
+
+    /**
+     * How many landmarks to pick, waypoints first and then the farthest positions from those
+     */
+    public Setting<Integer> landmarkCount = new Setting<>(4);
+
+    /**
+     * Remember calculated movements between searches, so that the next plan ahead segment doesn't recalculate what the
+     * last one already did where they overlap. Forgotten per chunk when it changes.
+     */
+    public Setting<Boolean> movementCostMemo = new Setting<>(false);
+
+    /**
+     * How many movements the memo can hold. Rounded down to a power of two, each one takes 40 bytes.
+     */
+    public Setting<Integer> movementCostMemoSize = new Setting<>(1 << 18);
+
+    /**
+     * Answer the passability questions that movement costs ask by precomputing them for a 16x16x16 section at a time,
+     * instead of working them out from the block state for every single call
+     */
+    public Setting<Boolean> useSectionMasks = new Setting<>(false);
+
+    /**
+     * Copy the loaded chunks when a search starts, and have the search read the copy instead of the live world, which
+     * the client thread is changing underneath it. Unchanged chunks are shared with the previous copy.
+     */
+    public Setting<Boolean> pathOnWorldSnapshot = new Setting<>(false);
+
+    /**
+     * Time every movement cost calculation by move type, and log what each search spent its time on (with chatDebug).
+     * The path's SearchStats has the counts either way, and the timings when this is on. Off by default because reading
+     * the clock twice per movement slows the search down a little.
+     */
+    public Setting<Boolean> searchMoveTimings = new Setting<>(false);
+
     /**
      * How far are you allowed to fall onto solid ground (without a water bucket)?
      * 3 won't deal any damage. But if you just want to get down the mountain quickly and you have
@@ -452,8 +596,10 @@ public class Settings {
      * The function that is called when Baritone will log to chat. This function can be added to
      * via {@link Consumer#andThen(Consumer)} or it can completely be overriden via setting
      * {@link Setting#value};
+     * <p>
+     * Looks up the chat when it's called rather than right away, so that settings can be made with no game running.
      */
-    public Setting<Consumer<ITextComponent>> logger = new Setting<>(Minecraft.getMinecraft().ingameGUI.getChatGUI()::printChatMessage);
+    public Setting<Consumer<ITextComponent>> logger = new Setting<>(message -> Minecraft.getMinecraft().ingameGUI.getChatGUI().printChatMessage(message));
 
     /**
      * The color of the current path
@@ -0,0 +1,45 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.event.events;
+
+import net.minecraft.util.math.BlockPos;
+
+import java.util.List;
+
+/**
+ * Called when the server changes blocks in a loaded chunk, after the world has been updated, so the new states can be
+ * read from it. One event per packet, which may change many blocks at once.
+ */
+public final class BlockChangeEvent {
+
+    /**
+     * The positions of the blocks that changed
+     */
+    private final List<BlockPos> positions;
+
+    public BlockChangeEvent(List<BlockPos> positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * @return The positions of the blocks that changed
+     */
+    public final List<BlockPos> getPositions() {
+        return this.positions;
+    }
+}
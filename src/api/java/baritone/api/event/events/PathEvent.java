@@ -29,5 +29,7 @@ public enum PathEvent {
     PATH_FINISHED_NEXT_STILL_CALCULATING,
     NEXT_CALC_FAILED,
     DISCARD_NEXT,
+    BETTER_PATH_FOUND,
+    SWITCHED_TO_BETTER_PATH,
     CANCELED;
 }
@@ -18,6 +18,7 @@
 package baritone.api.event.listener;
 
 import baritone.api.event.events.*;
+import baritone.api.pathing.calc.SearchStats;
 
 /**
  * An implementation of {@link IGameEventListener} that has all methods
@@ -63,9 +64,15 @@ public interface AbstractGameEventListener extends IGameEventListener {
     @Override
     default void onBlockInteract(BlockInteractEvent event) {}
 
+    @Override
+    default void onBlockChange(BlockChangeEvent event) {}
+
     @Override
     default void onPlayerDeath() {}
 
     @Override
     default void onPathEvent(PathEvent event) {}
+
+    @Override
+    default void onSearchStats(SearchStats stats) {}
 }
@@ -18,17 +18,21 @@
 package baritone.api.event.listener;
 
 import baritone.api.event.events.*;
+import baritone.api.pathing.calc.SearchStats;
 import io.netty.util.concurrent.GenericFutureListener;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.entity.EntityPlayerSP;
 import net.minecraft.client.gui.GuiGameOver;
 import net.minecraft.client.multiplayer.WorldClient;
+import net.minecraft.client.network.NetHandlerPlayClient;
 import net.minecraft.client.renderer.EntityRenderer;
 import net.minecraft.client.settings.GameSettings;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.Packet;
+import net.minecraft.network.play.server.SPacketBlockChange;
+import net.minecraft.network.play.server.SPacketMultiBlockChange;
 import net.minecraft.util.text.ITextComponent;
 
 /**
@@ -123,6 +127,14 @@ public interface IGameEventListener {
      */
     void onBlockInteract(BlockInteractEvent event);
 
+    /**
+     * Called when the server changes one or more blocks, once the world has the new states.
+     *
+     * @see NetHandlerPlayClient#handleBlockChange(SPacketBlockChange)
+     * @see NetHandlerPlayClient#handleMultiBlockChange(SPacketMultiBlockChange)
+     */
+    void onBlockChange(BlockChangeEvent event);
+
     /**
      * Called when the local player dies, as indicated by the creation of the {@link GuiGameOver} screen.
      *
@@ -137,4 +149,11 @@ public interface IGameEventListener {
      * @param event
      */
     void onPathEvent(PathEvent event);
+
+    /**
+     * When a path search finishes, with what it spent its time on. Called on the client thread, like path events.
+     *
+     * @param stats The stats of the search
+     */
+    void onSearchStats(SearchStats stats);
 }
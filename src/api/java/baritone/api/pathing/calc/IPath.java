@@ -23,6 +23,7 @@ import baritone.api.pathing.movement.IMovement;
 import baritone.api.utils.BetterBlockPos;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author leijurv, Brady
@@ -62,6 +63,17 @@ public interface IPath {
         return positions().size();
     }
 
+    /**
+     * Returns an index of {@link IPath#positions()}, for looking up where a position is on this path, or which
+     * position is closest to a point, without going through all of them. The default implementation builds a new one
+     * every call, so implementations that are asked repeatedly should keep theirs.
+     *
+     * @return An index of the positions in this path
+     */
+    default PathIndex index() {
+        return new PathIndex(positions());
+    }
+
     /**
      * @return The goal that this path was calculated towards
      */
@@ -75,6 +87,13 @@ public interface IPath {
      */
     int getNumNodesConsidered();
 
+    /**
+     * @return What the search that found this path spent its time on, if it kept track
+     */
+    default Optional<SearchStats> getSearchStats() {
+        return Optional.empty();
+    }
+
     /**
      * Returns the start position of this path. This is the first element in the
      * {@link List} that is returned by {@link IPath#positions()}.
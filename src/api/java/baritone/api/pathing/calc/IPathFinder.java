@@ -60,4 +60,11 @@ public interface IPathFinder {
      * @return The temporary path
      */
     Optional<IPath> bestPathSoFar();
+
+    /**
+     * @return What the search spent its time on, once it's finished, if it kept track
+     */
+    default Optional<SearchStats> getSearchStats() {
+        return Optional.empty();
+    }
 }
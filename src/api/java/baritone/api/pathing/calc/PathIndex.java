@@ -0,0 +1,178 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.pathing.calc;
+
+import baritone.api.utils.BetterBlockPos;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.List;
+
+/**
+ * An index of the positions along a path, so that the questions asked about it every tick (is this position on the
+ * path, where, and how far is the player from the closest one) don't have to go through the whole list. Lookups by
+ * position are a hash table of packed coordinates, and the closest position is found with a coarse grid of columns
+ * that's searched outwards from the query until nothing further out could be any closer.
+ * <p>
+ * Built once from the positions, so it's only valid for as long as the list doesn't change.
+ */
+public final class PathIndex {
+
+    /**
+     * The grid is {@code CELL} by {@code CELL} columns, any height
+     */
+    private static final int CELL_SHIFT = 3;
+    private static final int CELL = 1 << CELL_SHIFT;
+
+    /**
+     * How many rings of cells to search for the closest position before going through them all instead, for when
+     * the query is a long way from the path
+     */
+    private static final int MAX_RINGS = 8;
+
+    private final List<BetterBlockPos> positions;
+
+    /**
+     * Packed position to the index it first appears at
+     */
+    private final Long2IntOpenHashMap indices;
+
+    /**
+     * Packed cell to the indices of the positions in it
+     */
+    private final Long2ObjectOpenHashMap<int[]> cells;
+
+    public PathIndex(List<BetterBlockPos> positions) {
+        this.positions = positions;
+        this.indices = new Long2IntOpenHashMap(positions.size());
+        this.indices.defaultReturnValue(-1);
+        Long2ObjectOpenHashMap<IntArrayList> building = new Long2ObjectOpenHashMap<>();
+        for (int i = 0; i < positions.size(); i++) {
+            BetterBlockPos pos = positions.get(i);
+            long key = pack(pos.x, pos.y, pos.z);
+            if (!indices.containsKey(key)) {
+                indices.put(key, i);
+            }
+            long cell = cell(pos.x >> CELL_SHIFT, pos.z >> CELL_SHIFT);
+            IntArrayList inCell = building.get(cell);
+            if (inCell == null) {
+                inCell = new IntArrayList();
+                building.put(cell, inCell);
+            }
+            inCell.add(i);
+        }
+        this.cells = new Long2ObjectOpenHashMap<>(building.size());
+        for (Long2ObjectOpenHashMap.Entry<IntArrayList> entry : building.long2ObjectEntrySet()) {
+            cells.put(entry.getLongKey(), entry.getValue().toIntArray());
+        }
+    }
+
+    /**
+     * The same packing as the node store, lossless within the world border
+     */
+    private static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | (long) y & 0xFFFL;
+    }
+
+    private static long cell(int cellX, int cellZ) {
+        return (long) cellX << 32 | cellZ & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @return The first index of this position in the path, or -1 if it isn't on it
+     */
+    public int indexOf(int x, int y, int z) {
+        return indices.get(pack(x, y, z));
+    }
+
+    public int indexOf(BlockPos pos) {
+        return indexOf(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    public boolean contains(BlockPos pos) {
+        return indexOf(pos) != -1;
+    }
+
+    /**
+     * @return The index of the position whose center is closest to this point, the earliest one if there's a tie, or
+     * -1 if the path is empty
+     */
+    public int nearest(double x, double y, double z) {
+        if (positions.isEmpty()) {
+            return -1;
+        }
+        int cellX = (int) Math.floor(x) >> CELL_SHIFT;
+        int cellZ = (int) Math.floor(z) >> CELL_SHIFT;
+        int best = -1;
+        double bestDistSq = Double.MAX_VALUE;
+        for (int ring = 0; ring <= MAX_RINGS; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.abs(dx) != ring && Math.abs(dz) != ring) {
+                        continue; // inside, already searched
+                    }
+                    int[] inCell = cells.get(cell(cellX + dx, cellZ + dz));
+                    if (inCell == null) {
+                        continue;
+                    }
+                    for (int index : inCell) {
+                        double distSq = distanceSq(positions.get(index), x, y, z);
+                        if (distSq < bestDistSq || (distSq == bestDistSq && index < best)) {
+                            best = index;
+                            bestDistSq = distSq;
+                        }
+                    }
+                }
+            }
+            // everything in the next ring out is at least this far away horizontally
+            double nextRing = (double) ring * CELL;
+            if (best != -1 && bestDistSq < nextRing * nextRing) {
+                return best;
+            }
+        }
+        // a long way from the path, just check everything
+        for (int i = 0; i < positions.size(); i++) {
+            double distSq = distanceSq(positions.get(i), x, y, z);
+            if (distSq < bestDistSq || (distSq == bestDistSq && i < best)) {
+                best = i;
+                bestDistSq = distSq;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return How far this point is from the center of the closest position on the path, or -1 if the path is empty
+     */
+    public double distanceToNearest(double x, double y, double z) {
+        int nearest = nearest(x, y, z);
+        if (nearest == -1) {
+            return -1;
+        }
+        return Math.sqrt(distanceSq(positions.get(nearest), x, y, z));
+    }
+
+    private static double distanceSq(BetterBlockPos pos, double x, double y, double z) {
+        double xDiff = x - (pos.x + 0.5);
+        double yDiff = y - (pos.y + 0.5);
+        double zDiff = z - (pos.z + 0.5);
+        return xDiff * xDiff + yDiff * yDiff + zDiff * zDiff;
+    }
+}
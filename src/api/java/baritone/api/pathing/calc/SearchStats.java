@@ -0,0 +1,157 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.pathing.calc;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * What a search spent its time on, to tell which movement types dominate the cost of pathing in a given world.
+ * Counted by the search as it goes, and frozen into one of these when it finishes.
+ */
+public final class SearchStats {
+
+    private final long durationMs;
+    private final int expansions;
+    private final int mapSize;
+    private final int openSetHighWater;
+    private final int chunkBorderHits;
+    private final int memoHits;
+
+    private final String[] moveNames;
+    private final int[] evaluations;
+    private final int[] impossible;
+
+    /**
+     * All zero unless timings were turned on, since reading the clock twice per movement isn't free
+     */
+    private final long[] nanos;
+
+    public SearchStats(long durationMs, int expansions, int mapSize, int openSetHighWater, int chunkBorderHits, int memoHits, String[] moveNames, int[] evaluations, int[] impossible, long[] nanos) {
+        if (evaluations.length != moveNames.length || impossible.length != moveNames.length || nanos.length != moveNames.length) {
+            throw new IllegalArgumentException("Need exactly one count per move type");
+        }
+        this.durationMs = durationMs;
+        this.expansions = expansions;
+        this.mapSize = mapSize;
+        this.openSetHighWater = openSetHighWater;
+        this.chunkBorderHits = chunkBorderHits;
+        this.memoHits = memoHits;
+        this.moveNames = moveNames.clone();
+        this.evaluations = evaluations.clone();
+        this.impossible = impossible.clone();
+        this.nanos = nanos.clone();
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * @return How many nodes were taken off the open set and had their neighbors calculated
+     */
+    public int getExpansions() {
+        return expansions;
+    }
+
+    /**
+     * @return How many nodes the search created, expanded or not
+     */
+    public int getMapSize() {
+        return mapSize;
+    }
+
+    public int getOpenSetHighWater() {
+        return openSetHighWater;
+    }
+
+    /**
+     * @return How many movements were thrown out for leading into a chunk that's neither loaded nor cached
+     */
+    public int getChunkBorderHits() {
+        return chunkBorderHits;
+    }
+
+    /**
+     * @return How many movement costs were remembered from an earlier search instead of calculated
+     */
+    public int getMemoHits() {
+        return memoHits;
+    }
+
+    /**
+     * @return The move types, in the order of the per move arrays
+     */
+    public String[] getMoveNames() {
+        return moveNames.clone();
+    }
+
+    public int getEvaluations(int move) {
+        return evaluations[move];
+    }
+
+    /**
+     * @return How many times this move type came out as COST_INF
+     */
+    public int getImpossible(int move) {
+        return impossible[move];
+    }
+
+    public long getNanos(int move) {
+        return nanos[move];
+    }
+
+    public int getTotalEvaluations() {
+        return Arrays.stream(evaluations).sum();
+    }
+
+    /**
+     * @return The fraction of all movements evaluated that came out as COST_INF
+     */
+    public double getImpossibleShare() {
+        int total = getTotalEvaluations();
+        return total == 0 ? 0 : (double) Arrays.stream(impossible).sum() / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(expansions).append(" expansions in ").append(durationMs).append("ms, ")
+                .append(getTotalEvaluations()).append(" movements (").append(Math.round(getImpossibleShare() * 100)).append("% impossible, ")
+                .append(memoHits).append(" remembered), node map size ").append(mapSize)
+                .append(", open set high water ").append(openSetHighWater)
+                .append(", ").append(chunkBorderHits).append(" chunk border hits");
+        // most expensive first, or most evaluated if there are no timings
+        Integer[] order = new Integer[moveNames.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> nanos[i]).thenComparingInt(i -> evaluations[i]).reversed());
+        for (int i : order) {
+            if (evaluations[i] == 0) {
+                continue;
+            }
+            sb.append('\n').append(moveNames[i]).append(": ").append(evaluations[i]).append(" evaluated, ")
+                    .append(impossible[i]).append(" impossible");
+            if (nanos[i] != 0) {
+                sb.append(", ").append(nanos[i] / 1000000L).append("ms, ").append(nanos[i] / evaluations[i]).append("ns each");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -17,10 +17,13 @@
 
 package baritone.api.pathing.goals;
 
+import baritone.api.utils.interfaces.IGoalRenderPos;
 import net.minecraft.util.math.BlockPos;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * A composite of many goals, any one of which satisfies the composite.
@@ -36,8 +39,30 @@ public class GoalComposite implements Goal {
      */
     private final Goal[] goals;
 
+    /**
+     * The goals that can't go in the index, because their heuristic isn't tied to one X and Z
+     */
+    private final Goal[] unindexed;
+
+    /**
+     * Null if there aren't enough goals for it to be worth it
+     */
+    private final Index index;
+
     public GoalComposite(Goal... goals) {
         this.goals = goals;
+        List<Goal> indexable = new ArrayList<>();
+        List<Goal> unindexed = new ArrayList<>();
+        for (Goal goal : goals) {
+            (Index.canIndex(goal) ? indexable : unindexed).add(goal);
+        }
+        if (indexable.size() >= SpatialGoalIndex.MIN_SIZE) {
+            this.unindexed = unindexed.toArray(new Goal[0]);
+            this.index = new Index(indexable.toArray(new Goal[0]));
+        } else {
+            this.unindexed = goals;
+            this.index = null;
+        }
     }
 
     public GoalComposite(BlockPos... blocks) {
@@ -50,21 +75,24 @@ public class GoalComposite implements Goal {
 
     @Override
     public boolean isInGoal(int x, int y, int z) {
-        for (Goal goal : goals) {
+        for (Goal goal : unindexed) {
             if (goal.isInGoal(x, y, z)) {
                 return true;
             }
         }
-        return false;
+        return index != null && index.anyMatch(x, y, z, index.reach);
     }
 
     @Override
     public double heuristic(int x, int y, int z) {
         double min = Double.MAX_VALUE;
-        for (Goal g : goals) {
+        for (Goal g : unindexed) {
             // TODO technically this isn't admissible...?
             min = Math.min(min, g.heuristic(x, y, z)); // whichever is closest
         }
+        if (index != null) {
+            min = index.minHeuristic(x, y, z, min);
+        }
         return min;
     }
 
@@ -76,4 +104,58 @@ public class GoalComposite implements Goal {
     public Goal[] goals() {
         return goals;
     }
+
+    private static final class Index extends SpatialGoalIndex {
+
+        private final Goal[] goals;
+
+        /**
+         * How far away in X or Z any of these goals can be from a position that's in it
+         */
+        private final int reach;
+
+        private Index(Goal[] goals) {
+            super(xs(goals), zs(goals));
+            this.goals = goals;
+            boolean getToBlock = false;
+            for (Goal goal : goals) {
+                getToBlock |= goal instanceof GoalGetToBlock;
+            }
+            this.reach = getToBlock ? 1 : 0;
+        }
+
+        /**
+         * Only these exact classes, since a subclass could override the heuristic to something lower
+         */
+        private static boolean canIndex(Goal goal) {
+            Class<?> type = goal.getClass();
+            return type == GoalBlock.class || type == GoalTwoBlocks.class || type == GoalGetToBlock.class || type == GoalXZ.class;
+        }
+
+        private static int[] xs(Goal[] goals) {
+            int[] xs = new int[goals.length];
+            for (int i = 0; i < goals.length; i++) {
+                xs[i] = goals[i] instanceof GoalXZ ? ((GoalXZ) goals[i]).getX() : ((IGoalRenderPos) goals[i]).getGoalPos().getX();
+            }
+            return xs;
+        }
+
+        private static int[] zs(Goal[] goals) {
+            int[] zs = new int[goals.length];
+            for (int i = 0; i < goals.length; i++) {
+                zs[i] = goals[i] instanceof GoalXZ ? ((GoalXZ) goals[i]).getZ() : ((IGoalRenderPos) goals[i]).getGoalPos().getZ();
+            }
+            return zs;
+        }
+
+        @Override
+        protected double heuristic(int i, int x, int y, int z) {
+            return goals[i].heuristic(x, y, z);
+        }
+
+        @Override
+        protected boolean matches(int i, int x, int y, int z) {
+            return goals[i].isInGoal(x, y, z);
+        }
+    }
 }
@@ -32,16 +32,25 @@ public class GoalRunAway implements Goal {
 
     private final double distanceSq;
 
+    /**
+     * Null if there aren't enough positions for it to be worth it
+     */
+    private final Index index;
+
     public GoalRunAway(double distance, BlockPos... from) {
         if (from.length == 0) {
             throw new IllegalArgumentException();
         }
         this.from = from;
         this.distanceSq = distance * distance;
+        this.index = from.length >= SpatialGoalIndex.MIN_SIZE ? new Index(from, distanceSq) : null;
     }
 
     @Override
     public boolean isInGoal(int x, int y, int z) {
+        if (index != null) {
+            return !index.anyMatch(x, y, z, index.reach);
+        }
         for (BlockPos p : from) {
             int diffX = x - p.getX();
             int diffZ = z - p.getZ();
@@ -55,6 +64,9 @@ public class GoalRunAway implements Goal {
 
     @Override
     public double heuristic(int x, int y, int z) {//mostly copied from GoalBlock
+        if (index != null) {
+            return -index.minHeuristic(x, y, z, Double.MAX_VALUE);
+        }
         double min = Double.MAX_VALUE;
         for (BlockPos p : from) {
             double h = GoalXZ.calculate(p.getX() - x, p.getZ() - z);
@@ -69,4 +81,39 @@ public class GoalRunAway implements Goal {
     public String toString() {
         return "GoalRunAwayFrom" + Arrays.asList(from);
     }
+
+    private static final class Index extends SpatialGoalIndex {
+
+        private final BlockPos[] from;
+
+        private final double distanceSq;
+
+        /**
+         * Nothing further than this in X or Z can be closer than the distance
+         */
+        private final int reach;
+
+        private Index(BlockPos[] from, double distanceSq) {
+            super(Arrays.stream(from).mapToInt(BlockPos::getX).toArray(), Arrays.stream(from).mapToInt(BlockPos::getZ).toArray());
+            this.from = from;
+            this.distanceSq = distanceSq;
+            this.reach = (int) Math.min(Integer.MAX_VALUE / 2, Math.ceil(Math.sqrt(distanceSq)));
+        }
+
+        @Override
+        protected double heuristic(int i, int x, int y, int z) {
+            return GoalXZ.calculate(from[i].getX() - x, from[i].getZ() - z);
+        }
+
+        /**
+         * @return Whether position i is too close
+         */
+        @Override
+        protected boolean matches(int i, int x, int y, int z) {
+            int diffX = x - from[i].getX();
+            int diffZ = z - from[i].getZ();
+            double distSq = diffX * diffX + diffZ * diffZ;
+            return distSq < distanceSq;
+        }
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.api.pathing.goals;
+
+import baritone.api.BaritoneAPI;
+
+/**
+ * Buckets a lot of goals (or positions) by their X and Z into a grid, so that finding the lowest heuristic or whether
+ * any of them contain a position doesn't have to look at every single one.
+ * <p>
+ * The nearest heuristic is found by looking at rings of cells outwards from the position, stopping once a ring is far
+ * enough away that nothing in it could beat what's already been found. That only works because every entry's heuristic
+ * is at least {@link GoalXZ#calculate(double, double)} of its offset, which is at least costHeuristic times the
+ * larger of the X and Z distances. The results are exactly the same as checking every entry.
+ */
+abstract class SpatialGoalIndex {
+
+    /**
+     * Below this many entries, just checking every one is faster
+     */
+    static final int MIN_SIZE = 8;
+
+    /**
+     * Cells are 2^shift blocks across. Starts at 16 and gets bigger until the grid is a reasonable size
+     */
+    private final int shift;
+
+    private final int minCellX;
+    private final int minCellZ;
+    private final int width;
+    private final int height;
+
+    /**
+     * The entries in cell i are cellEntries[cellStart[i]] through cellEntries[cellStart[i + 1] - 1]
+     */
+    private final int[] cellStart;
+    private final int[] cellEntries;
+
+    SpatialGoalIndex(int[] xs, int[] zs) {
+        int n = xs.length;
+        int minX = Integer.MAX_VALUE;
+        int minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxZ = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minZ = Math.min(minZ, zs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxZ = Math.max(maxZ, zs[i]);
+        }
+        int shift = 4;
+        while (((long) (maxX >> shift) - (minX >> shift) + 1) * ((long) (maxZ >> shift) - (minZ >> shift) + 1) > 4L * n + 16) {
+            shift++;
+        }
+        this.shift = shift;
+        this.minCellX = minX >> shift;
+        this.minCellZ = minZ >> shift;
+        this.width = (maxX >> shift) - minCellX + 1;
+        this.height = (maxZ >> shift) - minCellZ + 1;
+        // counting sort the entries into their cells
+        int[] cellOf = new int[n];
+        this.cellStart = new int[width * height + 1];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = ((zs[i] >> shift) - minCellZ) * width + (xs[i] >> shift) - minCellX;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int i = 0; i < width * height; i++) {
+            cellStart[i + 1] += cellStart[i];
+        }
+        this.cellEntries = new int[n];
+        int[] fill = new int[width * height];
+        for (int i = 0; i < n; i++) {
+            cellEntries[cellStart[cellOf[i]] + fill[cellOf[i]]++] = i;
+        }
+    }
+
+    /**
+     * @return The heuristic of entry i at this position. Must be at least GoalXZ.calculate of the offset to entry i
+     */
+    protected abstract double heuristic(int i, int x, int y, int z);
+
+    /**
+     * @return Whether entry i matches this position. Entry i can only match positions within the reach passed to
+     * {@link #anyMatch(int, int, int, int)} of it in X and Z
+     */
+    protected abstract boolean matches(int i, int x, int y, int z);
+
+    /**
+     * @param best The lowest heuristic found so far some other way, or Double.MAX_VALUE
+     * @return The lower of best and the lowest heuristic of any entry at this position
+     */
+    final double minHeuristic(int x, int y, int z, double best) {
+        int cellX = (x >> shift) - minCellX;
+        int cellZ = (z >> shift) - minCellZ;
+        // rings closer than this don't touch the grid at all, and rings further than this are entirely outside it
+        int firstRing = Math.max(0, Math.max(Math.max(-cellX, cellX - (width - 1)), Math.max(-cellZ, cellZ - (height - 1))));
+        int lastRing = Math.max(Math.max(cellX, width - 1 - cellX), Math.max(cellZ, height - 1 - cellZ));
+        double costHeuristic = BaritoneAPI.getSettings().costHeuristic.get();
+        for (int ring = firstRing; ring <= lastRing; ring++) {
+            // every block in this ring is at least this many blocks away in X or Z
+            if (ring > 0 && costHeuristic > 0 && ((double) ((ring - 1) << shift) + 1) * costHeuristic >= best) {
+                break;
+            }
+            if (ring == 0) {
+                best = minHeuristicInCell(cellX, cellZ, x, y, z, best);
+                continue;
+            }
+            int fromX = Math.max(cellX - ring, 0);
+            int toX = Math.min(cellX + ring, width - 1);
+            if (cellZ - ring >= 0 && cellZ - ring < height) {
+                for (int cx = fromX; cx <= toX; cx++) {
+                    best = minHeuristicInCell(cx, cellZ - ring, x, y, z, best);
+                }
+            }
+            if (cellZ + ring >= 0 && cellZ + ring < height) {
+                for (int cx = fromX; cx <= toX; cx++) {
+                    best = minHeuristicInCell(cx, cellZ + ring, x, y, z, best);
+                }
+            }
+            int fromZ = Math.max(cellZ - ring + 1, 0);
+            int toZ = Math.min(cellZ + ring - 1, height - 1);
+            if (cellX - ring >= 0 && cellX - ring < width) {
+                for (int cz = fromZ; cz <= toZ; cz++) {
+                    best = minHeuristicInCell(cellX - ring, cz, x, y, z, best);
+                }
+            }
+            if (cellX + ring >= 0 && cellX + ring < width) {
+                for (int cz = fromZ; cz <= toZ; cz++) {
+                    best = minHeuristicInCell(cellX + ring, cz, x, y, z, best);
+                }
+            }
+        }
+        return best;
+    }
+
+    private double minHeuristicInCell(int cellX, int cellZ, int x, int y, int z, double best) {
+        if (cellX < 0 || cellX >= width || cellZ < 0 || cellZ >= height) {
+            return best;
+        }
+        int cell = cellZ * width + cellX;
+        for (int j = cellStart[cell]; j < cellStart[cell + 1]; j++) {
+            best = Math.min(best, heuristic(cellEntries[j], x, y, z));
+        }
+        return best;
+    }
+
+    /**
+     * @param reach How far away in X or Z an entry can be and still match
+     * @return Whether any entry matches this position
+     */
+    final boolean anyMatch(int x, int y, int z, int reach) {
+        int fromX = Math.max(((x - reach) >> shift) - minCellX, 0);
+        int toX = Math.min(((x + reach) >> shift) - minCellX, width - 1);
+        int fromZ = Math.max(((z - reach) >> shift) - minCellZ, 0);
+        int toZ = Math.min(((z + reach) >> shift) - minCellZ, height - 1);
+        for (int cellZ = fromZ; cellZ <= toZ; cellZ++) {
+            for (int cellX = fromX; cellX <= toX; cellX++) {
+                int cell = cellZ * width + cellX;
+                for (int j = cellStart[cell]; j < cellStart[cell + 1]; j++) {
+                    if (matches(cellEntries[j], x, y, z)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
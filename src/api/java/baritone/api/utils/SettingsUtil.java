@@ -32,11 +32,17 @@ import java.util.stream.Stream;
 
 public class SettingsUtil {
 
-    private static final File settingsFile = new File(new File(Minecraft.getMinecraft().gameDir, "baritone"), "settings.txt");
+    /**
+     * Null with no game running, e.g. in a benchmark, in which case the settings just stay at their defaults
+     */
+    private static final File settingsFile = Minecraft.getMinecraft() == null ? null : new File(new File(Minecraft.getMinecraft().gameDir, "baritone"), "settings.txt");
 
     private static final Map<Class<?>, SettingsIO> map;
 
     public static void readAndApply(Settings settings) {
+        if (settingsFile == null) {
+            return;
+        }
         try (Scanner scan = new Scanner(settingsFile)) {
             while (scan.hasNextLine()) {
                 String line = scan.nextLine();
@@ -67,6 +73,9 @@ public class SettingsUtil {
     }
 
     public static synchronized void save(Settings settings) {
+        if (settingsFile == null) {
+            return;
+        }
         try (FileOutputStream out = new FileOutputStream(settingsFile)) {
             for (Settings.Setting setting : settings.allSettings) {
                 if (setting.get() == null) {
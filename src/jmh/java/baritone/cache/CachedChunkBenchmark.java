@@ -0,0 +1,106 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.Baritone;
+import baritone.utils.pathing.PathingBlockType;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading blocks back out of a {@link CachedChunk}, and building one, which is mostly calculating its height map.
+ * <p>
+ * getBlock is only measured at the surface, where it answers from the overview. Below the surface it picks a solid
+ * block based on the player's dimension, which needs a player.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachedChunkBenchmark {
+
+    private CachedChunk chunk;
+
+    /**
+     * The y of the top non air block in each column, indexed z << 4 | x
+     */
+    private int[] surface;
+
+    private BitSet data;
+    private IBlockState[] overview;
+    private Map<String, List<BlockPos>> specialBlocks;
+
+    @Setup
+    public void setup() {
+        Baritone.INSTANCE.initHeadless();
+        chunk = ChunkPacker.pack(SyntheticChunks.generate(3, 7, 5021));
+        surface = new int[256];
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                for (int y = 255; y >= 0; y--) {
+                    if (chunk.getType(x, y, z) != PathingBlockType.AIR) {
+                        surface[z << 4 | x] = y;
+                        break;
+                    }
+                }
+            }
+        }
+        data = BitSet.valueOf(chunk.toByteArray());
+        overview = chunk.getOverview();
+        specialBlocks = chunk.getRelativeBlocks();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16 * 16 * 256)
+    public void getType(Blackhole blackhole) {
+        for (int y = 0; y < 256; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    blackhole.consume(chunk.getType(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16 * 16)
+    public void getBlockSurface(Blackhole blackhole) {
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                blackhole.consume(chunk.getBlock(x, surface[z << 4 | x], z));
+            }
+        }
+    }
+
+    /**
+     * What loading a region does for each chunk in it, most of which is calculateHeightMap
+     */
+    @Benchmark
+    public CachedChunk construct() {
+        return new CachedChunk(3, 7, data, overview, specialBlocks, 0);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.Baritone;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading a full region, all 1024 chunks present, through the gzipped region file format. The score is
+ * regions per second, and the byte counters divided by the time give MB/s of chunk data and of file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachedRegionBenchmark {
+
+    /**
+     * Reported per second, like the score
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+
+        /**
+         * The packed chunk data going in or out, not counting the overview and special blocks
+         */
+        public long chunkData;
+
+        /**
+         * The region file itself
+         */
+        public long file;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            chunkData = 0;
+            file = 0;
+        }
+    }
+
+    private Path directory;
+
+    private CachedRegion region;
+
+    private long fileSize;
+
+    @Setup
+    public void setup() throws IOException {
+        Baritone.INSTANCE.initHeadless();
+        directory = Files.createTempDirectory("baritone-region-bench");
+        region = new CachedRegion(0, 0);
+        CachedChunk[][] chunks = SyntheticChunks.packedRegion();
+        for (int x = 0; x < 32; x++) {
+            for (int z = 0; z < 32; z++) {
+                region.updateCachedChunk(x, z, chunks[x][z]);
+            }
+        }
+        region.save(directory.toString());
+        fileSize = Files.size(directory.resolve("r.0.0.bcr"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticChunks.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void save(Bytes bytes) {
+        // saving a region that hasn't changed is a no op, so mark it changed
+        region.updateCachedChunk(0, 0, region.getChunk(0, 0));
+        region.save(directory.toString());
+        bytes.chunkData += 1024L * CachedChunk.SIZE_IN_BYTES;
+        bytes.file += fileSize;
+    }
+
+    @Benchmark
+    public CachedRegion load(Bytes bytes) {
+        CachedRegion loaded = new CachedRegion(0, 0);
+        loaded.load(directory.toString());
+        bytes.chunkData += 1024L * CachedChunk.SIZE_IN_BYTES;
+        bytes.file += fileSize;
+        return loaded;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.utils.pathing.BlockSource;
+import baritone.utils.pathing.ChunkGenerations;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Every .bcr region file in a directory, loaded up front and read as a {@link BlockSource}. The cached chunks count as
+ * loaded, so a replay runs the same rules against them that it would against the live world.
+ */
+public final class CachedRegionSource implements BlockSource {
+
+    private static final Pattern REGION_FILE = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.bcr");
+
+    private final Long2ObjectOpenHashMap<CachedRegion> regions;
+
+    /**
+     * What a solid block is depends on the dimension, and there's no player to ask
+     */
+    private final int dimension;
+
+    CachedRegionSource(Long2ObjectOpenHashMap<CachedRegion> regions, int dimension) {
+        this.regions = regions;
+        this.dimension = dimension;
+    }
+
+    static long key(int regionX, int regionZ) {
+        return (long) regionX & 0xFFFFFFFFL | ((long) regionZ & 0xFFFFFFFFL) << 32;
+    }
+
+    /**
+     * @param dimension The dimension id the regions were cached in
+     */
+    public static CachedRegionSource load(Path directory, int dimension) throws IOException {
+        File[] files = directory.toFile().listFiles();
+        if (files == null) {
+            throw new IOException("Not a directory " + directory);
+        }
+        Long2ObjectOpenHashMap<CachedRegion> regions = new Long2ObjectOpenHashMap<>();
+        for (File file : files) {
+            Matcher matcher = REGION_FILE.matcher(file.getName());
+            if (!matcher.matches()) {
+                continue;
+            }
+            int regionX = Integer.parseInt(matcher.group(1));
+            int regionZ = Integer.parseInt(matcher.group(2));
+            CachedRegion region = new CachedRegion(regionX, regionZ);
+            region.load(directory.toString());
+            regions.put(key(regionX, regionZ), region);
+        }
+        if (regions.isEmpty()) {
+            throw new IOException("No region files in " + directory);
+        }
+        return new CachedRegionSource(regions, dimension);
+    }
+
+    public int size() {
+        return regions.size();
+    }
+
+    @Override
+    public Reader reader() {
+        return new Reader();
+    }
+
+    private final class Reader implements BlockSource.Reader {
+
+        private CachedRegion recent;
+
+        private CachedRegion region(int x, int z) {
+            int regionX = x >> 9;
+            int regionZ = z >> 9;
+            CachedRegion cached = recent;
+            if (cached != null && cached.getX() == regionX && cached.getZ() == regionZ) {
+                return cached;
+            }
+            cached = regions.get(key(regionX, regionZ));
+            if (cached != null) {
+                recent = cached;
+            }
+            return cached;
+        }
+
+        @Override
+        public CachedRegionSource source() {
+            return CachedRegionSource.this;
+        }
+
+        @Override
+        public IBlockState get(int x, int y, int z) {
+            CachedRegion region = region(x, z);
+            if (region == null) {
+                return null;
+            }
+            return region.getBlock(x & 511, y, z & 511, dimension);
+        }
+
+        @Override
+        public boolean isLoaded(int x, int z) {
+            CachedRegion region = region(x, z);
+            return region != null && region.isCached(x & 511, z & 511);
+        }
+
+        /**
+         * The regions are never written to once loaded, so the live counter, which nothing bumps during a run, is as
+         * good as any
+         */
+        @Override
+        public int generation(int x, int z) {
+            return ChunkGenerations.INSTANCE.get(x, z);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.Baritone;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding every diamond ore in the cached regions around a point, which is what mining looks through. A 3x3 square of
+ * full regions is written to disk in setup, and the world loads them on the first search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachedWorldBenchmark {
+
+    /**
+     * 0 is just the center region, 2 is all nine
+     */
+    @Param({"0", "1", "2"})
+    public int maxRegionDistanceSq;
+
+    private Path directory;
+
+    private CachedWorld world;
+
+    private String block;
+
+    @Setup
+    public void setup() throws IOException {
+        Baritone.INSTANCE.initHeadless();
+        directory = Files.createTempDirectory("baritone-world-bench");
+        CachedChunk[][] chunks = SyntheticChunks.packedRegion();
+        for (int regionX = -1; regionX <= 1; regionX++) {
+            for (int regionZ = -1; regionZ <= 1; regionZ++) {
+                // the chunk coordinates come from where it's stored in the file, so one set of chunks can fill them all
+                CachedRegion region = new CachedRegion(regionX, regionZ);
+                for (int x = 0; x < 32; x++) {
+                    for (int z = 0; z < 32; z++) {
+                        region.updateCachedChunk(x, z, chunks[x][z]);
+                    }
+                }
+                region.save(directory.toString());
+            }
+        }
+        world = new CachedWorld(directory);
+        block = ChunkPacker.blockToString(Blocks.DIAMOND_ORE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticChunks.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public LinkedList<BlockPos> getLocationsOf() {
+        return world.getLocationsOf(block, Integer.MAX_VALUE, 256, 256, maxRegionDistanceSq);
+    }
+}
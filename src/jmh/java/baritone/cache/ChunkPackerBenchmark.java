@@ -0,0 +1,57 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.Baritone;
+import net.minecraft.world.chunk.Chunk;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a loaded chunk into a {@link CachedChunk}, which the packer thread does for every chunk the client loads.
+ * The score is chunks per second, run with -prof gc for the bytes each one allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkPackerBenchmark {
+
+    private static final int CHUNKS = 64;
+
+    private Chunk[] chunks;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        Baritone.INSTANCE.initHeadless();
+        chunks = new Chunk[CHUNKS];
+        for (int i = 0; i < CHUNKS; i++) {
+            chunks[i] = SyntheticChunks.generate(i & 7, i >> 3, 5021);
+        }
+    }
+
+    @Benchmark
+    public CachedChunk pack() {
+        return ChunkPacker.pack(chunks[next++ & (CHUNKS - 1)]);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Plausible looking chunks with no world behind them: rolling stone hills under dirt and grass, water in the valleys,
+ * a bedrock floor, and a scattering of ores and chests so that there are special blocks to keep track of.
+ */
+final class SyntheticChunks {
+
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+    private static final IBlockState STONE = Blocks.STONE.getDefaultState();
+    private static final IBlockState DIRT = Blocks.DIRT.getDefaultState();
+    private static final IBlockState GRASS = Blocks.GRASS.getDefaultState();
+    private static final IBlockState WATER = Blocks.WATER.getDefaultState();
+    private static final IBlockState BEDROCK = Blocks.BEDROCK.getDefaultState();
+    private static final IBlockState DIAMOND_ORE = Blocks.DIAMOND_ORE.getDefaultState();
+    private static final IBlockState CHEST = Blocks.CHEST.getDefaultState();
+
+    private static final int SEA_LEVEL = 62;
+
+    private static CachedChunk[][] packedRegion;
+
+    private SyntheticChunks() {}
+
+    /**
+     * A whole region's worth of packed chunks, indexed [x][z] within the region. Packing a thousand chunks takes a
+     * while, so it's only done once per JVM.
+     */
+    static synchronized CachedChunk[][] packedRegion() {
+        if (packedRegion == null) {
+            packedRegion = new CachedChunk[32][32];
+            for (int x = 0; x < 32; x++) {
+                for (int z = 0; z < 32; z++) {
+                    packedRegion[x][z] = ChunkPacker.pack(generate(x, z, 5021));
+                }
+            }
+        }
+        return packedRegion;
+    }
+
+    /**
+     * Chunk.getBlockState wants a world to ask about the debug world type, so read the storage directly instead
+     */
+    private static final class DetachedChunk extends Chunk {
+
+        private DetachedChunk(int x, int z) {
+            super(null, x, z);
+        }
+
+        @Override
+        public IBlockState getBlockState(int x, int y, int z) {
+            if (y < 0 || y >= 256) {
+                return AIR;
+            }
+            ExtendedBlockStorage storage = getBlockStorageArray()[y >> 4];
+            return storage == null ? AIR : storage.get(x & 15, y & 15, z & 15);
+        }
+    }
+
+    /**
+     * The same coordinates and seed always give the same chunk, and neighboring chunks line up
+     */
+    static Chunk generate(int chunkX, int chunkZ, long seed) {
+        Chunk chunk = new DetachedChunk(chunkX, chunkZ);
+        ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+        Random random = new Random(seed ^ (chunkX * 341873128712L + chunkZ * 132897987541L));
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int worldX = chunkX << 4 | x;
+                int worldZ = chunkZ << 4 | z;
+                int height = height(worldX, worldZ, seed);
+                for (int y = 0; y <= Math.max(height, SEA_LEVEL); y++) {
+                    IBlockState state;
+                    if (y == 0) {
+                        state = BEDROCK;
+                    } else if (y < height - 3) {
+                        state = y < 16 && random.nextInt(300) == 0 ? DIAMOND_ORE : STONE;
+                    } else if (y < height) {
+                        state = DIRT;
+                    } else if (y == height) {
+                        state = height < SEA_LEVEL ? DIRT : GRASS;
+                    } else {
+                        state = WATER;
+                    }
+                    set(storage, x, y, z, state);
+                }
+                if (height >= SEA_LEVEL && height < 255 && random.nextInt(2000) == 0) {
+                    set(storage, x, height + 1, z, CHEST);
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private static void set(ExtendedBlockStorage[] storage, int x, int y, int z, IBlockState state) {
+        if (storage[y >> 4] == null) {
+            storage[y >> 4] = new ExtendedBlockStorage(y & ~15, true);
+        }
+        storage[y >> 4].set(x, y & 15, z, state);
+    }
+
+    /**
+     * Two octaves of smooth hills, somewhere between 50 and 90
+     */
+    static int height(int x, int z, long seed) {
+        double phase = (seed & 0xFFFF) / 1000D;
+        double wide = Math.sin(x / 37D + phase) * Math.cos(z / 41D - phase) * 14;
+        double narrow = Math.sin((x + z) / 9D) * Math.cos((x - z) / 11D + phase) * 5;
+        return 68 + (int) Math.round(wide + narrow);
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.utils.BetterBlockPos;
+import baritone.utils.pathing.PathingBlockType;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Parametric terrain generated straight into {@link CachedChunk}s, with no Minecraft world or chunk packing involved,
+ * for seeing how the search scales on different kinds of ground without having to find or build those worlds.
+ * <p>
+ * Every terrain takes an obstacle density from 0 to 1, which means something a little different for each, but in
+ * every case more of it makes the search's job harder. Everything is a pure function of the coordinates and the seed,
+ * so the same parameters always give the same world.
+ */
+public final class SyntheticWorld {
+
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+    private static final IBlockState GRASS = Blocks.GRASS.getDefaultState();
+    private static final IBlockState STONE = Blocks.STONE.getDefaultState();
+    private static final IBlockState SAND = Blocks.SAND.getDefaultState();
+    private static final IBlockState WATER = Blocks.WATER.getDefaultState();
+    private static final IBlockState LOG = Blocks.LOG.getDefaultState();
+    private static final IBlockState STONEBRICK = Blocks.STONEBRICK.getDefaultState();
+    private static final IBlockState BEDROCK = Blocks.BEDROCK.getDefaultState();
+
+    private static final int SEA_LEVEL = 62;
+
+    public enum Terrain {
+
+        /**
+         * Flat grass at y 64. Density is the share of columns with a 2 high log sticking out of them, which stop
+         * being passable around 0.4.
+         */
+        PLAINS,
+
+        /**
+         * Flat grass with 3 high walls on a grid of 3x3 rooms. Density is the chance that each wall between two rooms
+         * is there, past 0.5 most rooms can't reach each other without breaking through.
+         */
+        MAZE,
+
+        /**
+         * Solid stone up to y 90 with caves carved out between y 8 and 60, and lava at the very bottom of them.
+         * Density is how much of the cave layer stays solid, roughly.
+         */
+        CAVES,
+
+        /**
+         * Sea level ocean with islands. Density is how much of it is ocean, roughly.
+         */
+        ARCHIPELAGO,
+
+        /**
+         * Grass with long mountain ridges. Density is how tall the ridges are, up to 60 blocks.
+         */
+        RIDGES,
+
+        /**
+         * A netherrack floor between y 32 and 48 under a ceiling that goes up to bedrock at 127. Density is how high
+         * the lava sea comes up the floor.
+         */
+        NETHER
+    }
+
+    public final Terrain terrain;
+
+    public final double density;
+
+    public final long seed;
+
+    public SyntheticWorld(Terrain terrain, double density, long seed) {
+        if (density < 0 || density > 1) {
+            throw new IllegalArgumentException("Density must be between 0 and 1 " + density);
+        }
+        this.terrain = terrain;
+        this.density = density;
+        this.seed = seed;
+    }
+
+    /**
+     * What a solid block is in the cache depends on the dimension, see {@link ChunkPacker#pathingTypeToBlock}
+     */
+    public int dimension() {
+        return terrain == Terrain.NETHER ? -1 : 0;
+    }
+
+    /**
+     * Fills in one column of the world
+     *
+     * @param column 256 entries, indexed by y, all set to {@link PathingBlockType#AIR} to start with
+     * @return The block at the top of the column, or air if it's all air
+     */
+    public IBlockState column(int x, int z, PathingBlockType[] column) {
+        switch (terrain) {
+            case PLAINS: {
+                fill(column, 0, 64, PathingBlockType.SOLID);
+                if (random(x, z, 1) < density) {
+                    fill(column, 65, 66, PathingBlockType.SOLID);
+                    return LOG;
+                }
+                return GRASS;
+            }
+            case MAZE: {
+                fill(column, 0, 64, PathingBlockType.SOLID);
+                if (isMazeWall(x, z)) {
+                    fill(column, 65, 67, PathingBlockType.SOLID);
+                    return STONEBRICK;
+                }
+                return GRASS;
+            }
+            case CAVES: {
+                fill(column, 0, 90, PathingBlockType.SOLID);
+                double threshold = 0.55 - 0.35 * density;
+                for (int y = 8; y <= 60; y++) {
+                    double n = noise(x, y, z, 16, 2) * 0.7 + noise(x, y, z, 6, 3) * 0.3;
+                    if (n < threshold) {
+                        column[y] = y <= 10 ? PathingBlockType.AVOID : PathingBlockType.AIR;
+                    }
+                }
+                return GRASS;
+            }
+            case ARCHIPELAGO: {
+                double n = noise(x, 0, z, 48, 4) * 0.75 + noise(x, 0, z, 12, 5) * 0.25;
+                double shore = 0.25 + 0.5 * density;
+                if (n >= shore) {
+                    int height = SEA_LEVEL + 1 + (int) ((n - shore) * 40);
+                    fill(column, 0, height, PathingBlockType.SOLID);
+                    return height <= SEA_LEVEL + 2 ? SAND : GRASS;
+                }
+                int floor = 40 + (int) (n / shore * 20);
+                fill(column, 0, floor, PathingBlockType.SOLID);
+                fill(column, floor + 1, SEA_LEVEL, PathingBlockType.WATER);
+                return WATER;
+            }
+            case RIDGES: {
+                double n = noise(x, 0, z, 96, 6);
+                double ridge = 1 - Math.abs(2 * n - 1);
+                int height = 64 + (int) Math.round(density * 60 * ridge * ridge * ridge) + (int) (noise(x, 0, z, 8, 7) * 3);
+                fill(column, 0, height, PathingBlockType.SOLID);
+                return height > 90 ? STONE : GRASS;
+            }
+            case NETHER: {
+                int floor = 32 + (int) (noise(x, 0, z, 24, 8) * 16);
+                int lava = 31 + (int) Math.round(density * 16);
+                int ceiling = 96 + (int) (noise(x, 0, z, 20, 9) * 16);
+                fill(column, 0, floor, PathingBlockType.SOLID);
+                fill(column, floor + 1, lava, PathingBlockType.AVOID);
+                fill(column, ceiling, 127, PathingBlockType.SOLID);
+                return BEDROCK;
+            }
+            default:
+                throw new IllegalStateException(terrain.toString());
+        }
+    }
+
+    public CachedChunk chunk(int chunkX, int chunkZ) {
+        BitSet data = new BitSet(CachedChunk.SIZE);
+        IBlockState[] overview = new IBlockState[256];
+        PathingBlockType[] column = new PathingBlockType[256];
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                Arrays.fill(column, PathingBlockType.AIR);
+                IBlockState top = column(chunkX << 4 | x, chunkZ << 4 | z, column);
+                boolean empty = true;
+                for (int y = 0; y < 256; y++) {
+                    if (column[y] == PathingBlockType.AIR) {
+                        continue;
+                    }
+                    empty = false;
+                    boolean[] bits = column[y].getBits();
+                    int index = CachedChunk.getPositionIndex(x, y, z);
+                    data.set(index, bits[0]);
+                    data.set(index + 1, bits[1]);
+                }
+                overview[z << 4 | x] = empty ? AIR : top;
+            }
+        }
+        return new CachedChunk(chunkX, chunkZ, data, overview, new HashMap<>(), 0);
+    }
+
+    /**
+     * Generates every chunk that touches this box of blocks
+     */
+    public CachedRegionSource generate(int minX, int minZ, int maxX, int maxZ) {
+        Long2ObjectOpenHashMap<CachedRegion> regions = new Long2ObjectOpenHashMap<>();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                long key = CachedRegionSource.key(chunkX >> 5, chunkZ >> 5);
+                CachedRegion region = regions.get(key);
+                if (region == null) {
+                    region = new CachedRegion(chunkX >> 5, chunkZ >> 5);
+                    regions.put(key, region);
+                }
+                region.updateCachedChunk(chunkX & 31, chunkZ & 31, chunk(chunkX, chunkZ));
+            }
+        }
+        return new CachedRegionSource(regions, dimension());
+    }
+
+    /**
+     * The lowest place to stand within this many blocks of a column, the closest one if there's a tie. Lowest so that
+     * it's on the ground and not on top of a wall or a log, in a cave rather than on the surface above it, and on the
+     * nether floor rather than on the roof.
+     *
+     * @return The feet position, or null if there's nowhere to stand
+     */
+    public BetterBlockPos standableNear(int x, int z, int radius) {
+        PathingBlockType[] column = new PathingBlockType[256];
+        BetterBlockPos best = null;
+        int bestDistance = 0;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                Arrays.fill(column, PathingBlockType.AIR);
+                column(x + dx, z + dz, column);
+                int distance = dx * dx + dz * dz;
+                for (int y = 1; y < 255; y++) {
+                    if (best != null && (y > best.y || y == best.y && distance >= bestDistance)) {
+                        break;
+                    }
+                    if (column[y - 1] == PathingBlockType.SOLID && column[y] == PathingBlockType.AIR && column[y + 1] == PathingBlockType.AIR) {
+                        best = new BetterBlockPos(x + dx, y, z + dz);
+                        bestDistance = distance;
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean isMazeWall(int x, int z) {
+        // rooms are 3x3 with walls on every 4th line, and a post wherever two lines cross
+        boolean lineX = (x & 3) == 0;
+        boolean lineZ = (z & 3) == 0;
+        if (lineX && lineZ) {
+            return true;
+        }
+        if (lineX) {
+            return random(x >> 2, z >> 2, 2) < density;
+        }
+        if (lineZ) {
+            return random(x >> 2, z >> 2, 3) < density;
+        }
+        return false;
+    }
+
+    private static void fill(PathingBlockType[] column, int from, int to, PathingBlockType type) {
+        for (int y = Math.max(from, 0); y <= to && y < 256; y++) {
+            column[y] = type;
+        }
+    }
+
+    private long hash(int x, int y, int z, int salt) {
+        long h = seed * 0x9E3779B97F4A7C15L + salt;
+        h = (h ^ x) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ y) * 0x94D049BB133111EBL;
+        h = (h ^ z) * 0xBF58476D1CE4E5B9L;
+        return h ^ h >>> 31;
+    }
+
+    /**
+     * @return Uniform in [0, 1)
+     */
+    private double random(int x, int z, int salt) {
+        return (hash(x, 0, z, salt) >>> 11) * 0x1.0p-53;
+    }
+
+    private double lattice(int x, int y, int z, int salt) {
+        return (hash(x, y, z, salt) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Value noise, smoothly interpolated between random values on a lattice this many blocks apart
+     *
+     * @return Between 0 and 1, though mostly away from the ends
+     */
+    private double noise(int x, int y, int z, int scale, int salt) {
+        int x0 = Math.floorDiv(x, scale);
+        int y0 = Math.floorDiv(y, scale);
+        int z0 = Math.floorDiv(z, scale);
+        double fx = smooth((x - x0 * scale) / (double) scale);
+        double fy = smooth((y - y0 * scale) / (double) scale);
+        double fz = smooth((z - z0 * scale) / (double) scale);
+        double c00 = lerp(fx, lattice(x0, y0, z0, salt), lattice(x0 + 1, y0, z0, salt));
+        double c10 = lerp(fx, lattice(x0, y0 + 1, z0, salt), lattice(x0 + 1, y0 + 1, z0, salt));
+        double c01 = lerp(fx, lattice(x0, y0, z0 + 1, salt), lattice(x0 + 1, y0, z0 + 1, salt));
+        double c11 = lerp(fx, lattice(x0, y0 + 1, z0 + 1, salt), lattice(x0 + 1, y0 + 1, z0 + 1, salt));
+        return lerp(fz, lerp(fy, c00, c10), lerp(fy, c01, c11));
+    }
+
+    private static double smooth(double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static double lerp(double t, double a, double b) {
+        return a + (b - a) * t;
+    }
+
+    @Override
+    public String toString() {
+        return terrain.name().toLowerCase() + " density " + density + " seed " + seed;
+    }
+}
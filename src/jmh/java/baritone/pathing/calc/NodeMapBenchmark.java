@@ -0,0 +1,114 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.utils.BetterBlockPos;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The position to node map that the PathNode search keeps, keyed by {@link BetterBlockPos#longHash(int, int, int)}.
+ * Positions are laid out like the area a search explores: a square around the start, on terrain a few blocks up and
+ * down.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeMapBenchmark {
+
+    static final Goal GOAL = new Goal() {
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            // roughly what GoalXZ says, without needing the settings
+            return Math.sqrt((double) x * x + (double) z * z) * 3.5;
+        }
+    };
+
+    @Param({"1000", "50000", "500000"})
+    public int size;
+
+    private int[] x;
+    private int[] y;
+    private int[] z;
+    private long[] hashes;
+
+    private Long2ObjectOpenHashMap<PathNode> filled;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(5021);
+        int side = (int) Math.ceil(Math.sqrt(size));
+        x = new int[size];
+        y = new int[size];
+        z = new int[size];
+        hashes = new long[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i % side - side / 2;
+            z[i] = i / side - side / 2;
+            y[i] = 64 + random.nextInt(5);
+            hashes[i] = BetterBlockPos.longHash(x[i], y[i], z[i]);
+        }
+        filled = new Long2ObjectOpenHashMap<>();
+        for (int i = 0; i < size; i++) {
+            filled.put(hashes[i], new PathNode(x[i], y[i], z[i], GOAL));
+        }
+    }
+
+    /**
+     * The get then put that AbstractNodeCostSearch.getNodeAtPosition does, into an empty map at the default size
+     */
+    @Benchmark
+    public Long2ObjectOpenHashMap<PathNode> getOrCreate() {
+        Long2ObjectOpenHashMap<PathNode> map = new Long2ObjectOpenHashMap<>();
+        for (int i = 0; i < size; i++) {
+            long hash = BetterBlockPos.longHash(x[i], y[i], z[i]);
+            PathNode node = map.get(hash);
+            if (node == null) {
+                map.put(hash, new PathNode(x[i], y[i], z[i], GOAL));
+            }
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void lookupHit(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(filled.get(hashes[i]));
+        }
+    }
+
+    @Benchmark
+    public void longHash(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(BetterBlockPos.longHash(x[i], y[i], z[i]));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.*;
+import baritone.api.utils.BetterBlockPos;
+import baritone.cache.CachedRegionSource;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.ToolSet;
+import baritone.utils.pathing.BetterWorldBorder;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.border.WorldBorder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * A captured slice of a world to path through: a directory of .bcr region files, next to a scenario.properties that
+ * says where to start and what the goal is. For example
+ * <pre>
+ * start=8 65 8
+ * goal=GoalBlock 180 65 170
+ * # optional, these are the defaults
+ * dimension=0
+ * timeout=10000
+ * tools=
+ * throwaway=true
+ * waterBucket=false
+ * sprint=true
+ * </pre>
+ * The goal is the name of the goal class followed by its constructor arguments, one of GoalBlock x y z, GoalXZ x z,
+ * GoalYLevel y, GoalTwoBlocks x y z, GoalGetToBlock x y z or GoalNear x y z range. tools is a comma separated list of
+ * item names that go on the hotbar from the first slot, and the last three stand in for the player's inventory and
+ * hunger.
+ */
+public final class Scenario {
+
+    public static final String FILE_NAME = "scenario.properties";
+
+    public final String name;
+
+    public final Path directory;
+
+    public final BetterBlockPos start;
+
+    public final Goal goal;
+
+    public final int dimension;
+
+    public final long timeout;
+
+    private final String[] tools;
+    private final boolean throwaway;
+    private final boolean waterBucket;
+    private final boolean sprint;
+
+    private Scenario(Path directory, Properties properties) {
+        this.name = directory.getFileName().toString();
+        this.directory = directory;
+        int[] start = ints(required(properties, "start"), 3);
+        this.start = new BetterBlockPos(start[0], start[1], start[2]);
+        this.goal = parseGoal(required(properties, "goal"));
+        this.dimension = Integer.parseInt(properties.getProperty("dimension", "0").trim());
+        this.timeout = Long.parseLong(properties.getProperty("timeout", "10000").trim());
+        String tools = properties.getProperty("tools", "").trim();
+        this.tools = tools.isEmpty() ? new String[0] : tools.split("\\s*,\\s*");
+        if (this.tools.length > 9) {
+            throw new IllegalArgumentException("There are only 9 hotbar slots, got " + this.tools.length + " tools");
+        }
+        this.throwaway = Boolean.parseBoolean(properties.getProperty("throwaway", "true").trim());
+        this.waterBucket = Boolean.parseBoolean(properties.getProperty("waterBucket", "false").trim());
+        this.sprint = Boolean.parseBoolean(properties.getProperty("sprint", "true").trim());
+    }
+
+    public static boolean isScenario(Path directory) {
+        return Files.isRegularFile(directory.resolve(FILE_NAME));
+    }
+
+    public static Scenario read(Path directory) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(directory.resolve(FILE_NAME))) {
+            properties.load(reader);
+        }
+        try {
+            return new Scenario(directory, properties);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Bad scenario " + directory + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    public CachedRegionSource loadRegions() throws IOException {
+        return CachedRegionSource.load(directory, dimension);
+    }
+
+    /**
+     * A new context each time, since it takes the settings as they are when it's made
+     */
+    public CalculationContext context() {
+        return context(tools, waterBucket, throwaway, sprint);
+    }
+
+    /**
+     * A context for a stand-in player with these tools on the hotbar, in a world with the default border
+     */
+    static CalculationContext context(String[] tools, boolean waterBucket, boolean throwaway, boolean sprint) {
+        ItemStack[] hotbar = new ItemStack[9];
+        Arrays.fill(hotbar, ItemStack.EMPTY);
+        for (int i = 0; i < tools.length; i++) {
+            Item item = Item.getByNameOrId(tools[i]);
+            if (item == null) {
+                throw new IllegalArgumentException("No item called " + tools[i]);
+            }
+            hotbar[i] = new ItemStack(item);
+        }
+        return new CalculationContext(new ToolSet(hotbar), waterBucket, throwaway, sprint, 0, new BetterWorldBorder(new WorldBorder()));
+    }
+
+    private static String required(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        return value.trim();
+    }
+
+    private static int[] ints(String value, int count) {
+        String[] parts = value.trim().split("\\s+");
+        if (parts.length != count) {
+            throw new IllegalArgumentException("Expected " + count + " numbers, got \"" + value + "\"");
+        }
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = Integer.parseInt(parts[i]);
+        }
+        return result;
+    }
+
+    static Goal parseGoal(String value) {
+        String[] parts = value.trim().split("\\s+", 2);
+        String args = parts.length > 1 ? parts[1] : "";
+        switch (parts[0]) {
+            case "GoalBlock": {
+                int[] pos = ints(args, 3);
+                return new GoalBlock(pos[0], pos[1], pos[2]);
+            }
+            case "GoalXZ": {
+                int[] pos = ints(args, 2);
+                return new GoalXZ(pos[0], pos[1]);
+            }
+            case "GoalYLevel":
+                return new GoalYLevel(ints(args, 1)[0]);
+            case "GoalTwoBlocks": {
+                int[] pos = ints(args, 3);
+                return new GoalTwoBlocks(pos[0], pos[1], pos[2]);
+            }
+            case "GoalGetToBlock": {
+                int[] pos = ints(args, 3);
+                return new GoalGetToBlock(new BlockPos(pos[0], pos[1], pos[2]));
+            }
+            case "GoalNear": {
+                int[] pos = ints(args, 4);
+                return new GoalNear(new BlockPos(pos[0], pos[1], pos[2]), pos[3]);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown goal " + parts[0]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " from " + start + " to " + goal;
+    }
+}
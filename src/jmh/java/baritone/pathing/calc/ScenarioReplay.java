@@ -0,0 +1,238 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.SearchStats;
+import baritone.cache.CachedRegionSource;
+import baritone.utils.BlockStateInterface;
+import baritone.utils.pathing.ChunkGenerations;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs {@link AStarPathFinder} on captured {@link Scenario}s with no game client, and reports how it did, to compare
+ * changes to the movement costs or the search from one run to the next.
+ * <p>
+ * Usage: {@code ScenarioReplay <directory> [--runs n] [--warmup n] [--out file.csv] [--baseline file.csv] [name...]}
+ * where the directory is either one scenario or a directory of them. Every run starts from cold caches, like the first
+ * search in a new area. The results go in a csv that a later run can be compared against with --baseline.
+ */
+public final class ScenarioReplay {
+
+    private static final String CSV_HEADER = "scenario,runs,wall_ms_median,wall_ms_min,expansions,nodes,nodes_per_sec,path_cost,path_length,reached_goal";
+
+    private ScenarioReplay() {}
+
+    private static final class Run {
+
+        final double wallMs;
+        final SearchStats stats;
+        final IPath path;
+
+        Run(double wallMs, SearchStats stats, IPath path) {
+            this.wallMs = wallMs;
+            this.stats = stats;
+            this.path = path;
+        }
+    }
+
+    private static final class Result {
+
+        final String scenario;
+        final int runs;
+        final double wallMsMedian;
+        final double wallMsMin;
+        final int expansions;
+        final int nodes;
+        final double nodesPerSec;
+        final double pathCost;
+        final int pathLength;
+        final boolean reachedGoal;
+
+        Result(String scenario, int runs, double wallMsMedian, double wallMsMin, int expansions, int nodes, double nodesPerSec, double pathCost, int pathLength, boolean reachedGoal) {
+            this.scenario = scenario;
+            this.runs = runs;
+            this.wallMsMedian = wallMsMedian;
+            this.wallMsMin = wallMsMin;
+            this.expansions = expansions;
+            this.nodes = nodes;
+            this.nodesPerSec = nodesPerSec;
+            this.pathCost = pathCost;
+            this.pathLength = pathLength;
+            this.reachedGoal = reachedGoal;
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%d,%d,%.0f,%.3f,%d,%b", scenario, runs, wallMsMedian, wallMsMin, expansions, nodes, nodesPerSec, pathCost, pathLength, reachedGoal);
+        }
+
+        static Result fromCsv(String line) {
+            String[] parts = line.split(",");
+            if (parts.length != 10) {
+                throw new IllegalArgumentException("Expected 10 columns, got " + line);
+            }
+            return new Result(parts[0], Integer.parseInt(parts[1]), Double.parseDouble(parts[2]), Double.parseDouble(parts[3]), Integer.parseInt(parts[4]), Integer.parseInt(parts[5]), Double.parseDouble(parts[6]), Double.parseDouble(parts[7]), Integer.parseInt(parts[8]), Boolean.parseBoolean(parts[9]));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int runs = 5;
+        int warmup = 2;
+        Path out = null;
+        Path baseline = null;
+        Path root = null;
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs":
+                    runs = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--out":
+                    out = Paths.get(args[++i]);
+                    break;
+                case "--baseline":
+                    baseline = Paths.get(args[++i]);
+                    break;
+                default:
+                    if (root == null) {
+                        root = Paths.get(args[i]);
+                    } else {
+                        names.add(args[i]);
+                    }
+            }
+        }
+        if (root == null || runs < 1 || warmup < 0) {
+            System.out.println("Usage: ScenarioReplay <directory> [--runs n] [--warmup n] [--out file.csv] [--baseline file.csv] [name...]");
+            System.exit(1);
+            return;
+        }
+
+        Baritone.INSTANCE.initHeadless();
+        Baritone.settings().chatDebug.value = false;
+        Baritone.settings().logger.value = message -> System.out.println(message.getUnformattedText());
+
+        List<Scenario> scenarios = new ArrayList<>();
+        if (Scenario.isScenario(root)) {
+            scenarios.add(Scenario.read(root));
+        } else {
+            try (Stream<Path> children = Files.list(root)) {
+                for (Path child : children.filter(Scenario::isScenario).sorted().collect(Collectors.toList())) {
+                    if (names.isEmpty() || names.contains(child.getFileName().toString())) {
+                        scenarios.add(Scenario.read(child));
+                    }
+                }
+            }
+        }
+        if (scenarios.isEmpty()) {
+            System.out.println("No scenarios in " + root);
+            System.exit(1);
+            return;
+        }
+
+        Map<String, Result> previous = new HashMap<>();
+        if (baseline != null) {
+            for (String line : Files.readAllLines(baseline)) {
+                if (!line.isEmpty() && !line.equals(CSV_HEADER)) {
+                    Result result = Result.fromCsv(line);
+                    previous.put(result.scenario, result);
+                }
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            System.out.println("Replaying " + scenario);
+            results.add(replay(scenario, warmup, runs));
+        }
+        BlockStateInterface.setBlockSource(null);
+
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%-20s %10s %10s %10s %12s %10s %8s %6s", "scenario", "wall ms", "expansions", "nodes", "nodes/sec", "cost", "length", "goal"));
+        for (Result result : results) {
+            System.out.println(String.format(Locale.ROOT, "%-20s %10.1f %10d %10d %12.0f %10.1f %8d %6s", result.scenario, result.wallMsMedian, result.expansions, result.nodes, result.nodesPerSec, result.pathCost, result.pathLength, result.reachedGoal ? "yes" : "no"));
+            Result before = previous.get(result.scenario);
+            if (before != null) {
+                System.out.println(String.format(Locale.ROOT, "%-20s %10s %10s %10s %12s %10s %8s %6s", "  vs baseline", change(before.wallMsMedian, result.wallMsMedian), change(before.expansions, result.expansions), change(before.nodes, result.nodes), change(before.nodesPerSec, result.nodesPerSec), change(before.pathCost, result.pathCost), change(before.pathLength, result.pathLength), before.reachedGoal == result.reachedGoal ? "" : before.reachedGoal ? "lost" : "found"));
+            }
+        }
+        if (out != null) {
+            if (out.getParent() != null) {
+                Files.createDirectories(out.getParent());
+            }
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out))) {
+                writer.println(CSV_HEADER);
+                for (Result result : results) {
+                    writer.println(result.toCsv());
+                }
+            }
+            System.out.println("Wrote " + out);
+        }
+    }
+
+    private static Result replay(Scenario scenario, int warmup, int runs) throws IOException {
+        CachedRegionSource source = scenario.loadRegions();
+        BlockStateInterface.setBlockSource(source);
+        List<Run> measured = new ArrayList<>();
+        for (int i = 0; i < warmup + runs; i++) {
+            Run run = run(scenario);
+            if (i >= warmup) {
+                measured.add(run);
+                System.out.println(String.format(Locale.ROOT, "  run %d: %.1fms, %d expansions, %s", i - warmup + 1, run.wallMs, run.stats.getExpansions(), run.path == null ? "no path" : "cost " + run.path.ticksRemainingFrom(0)));
+            }
+        }
+        // everything but the time is the same on every run, unless the search ran out of time
+        Run last = measured.get(measured.size() - 1);
+        double[] times = measured.stream().mapToDouble(run -> run.wallMs).sorted().toArray();
+        double median = times.length % 2 == 1 ? times[times.length / 2] : (times[times.length / 2 - 1] + times[times.length / 2]) / 2;
+        int expansions = last.stats.getExpansions();
+        boolean reached = last.path != null && scenario.goal.isInGoal(last.path.getDest());
+        return new Result(scenario.name, runs, median, times[0], expansions, last.stats.getMapSize(), expansions * 1000D / median, last.path == null ? 0 : last.path.ticksRemainingFrom(0), last.path == null ? 0 : last.path.length(), reached);
+    }
+
+    private static Run run(Scenario scenario) {
+        // forget everything worked out from the last run, so every run does the same work
+        ChunkGenerations.INSTANCE.invalidateAll();
+        BlockStateInterface.clearCachedChunk();
+        AStarPathFinder finder = new AStarPathFinder(scenario.start.x, scenario.start.y, scenario.start.z, scenario.goal, Optional.empty());
+        finder.setContext(scenario.context());
+        long start = System.nanoTime();
+        Optional<IPath> path = finder.calculate(scenario.timeout);
+        double wallMs = (System.nanoTime() - start) / 1000000D;
+        SearchStats stats = finder.getSearchStats().orElseThrow(() -> new IllegalStateException("No search stats for " + scenario.name));
+        return new Run(wallMs, stats, path.orElse(null));
+    }
+
+    private static String change(double before, double after) {
+        if (before == 0) {
+            return after == 0 ? "0%" : "new";
+        }
+        return String.format(Locale.ROOT, "%+.1f%%", (after - before) * 100 / before);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.SearchStats;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.pathing.goals.GoalXZ;
+import baritone.api.utils.BetterBlockPos;
+import baritone.cache.SyntheticWorld;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.BlockStateInterface;
+import baritone.utils.pathing.ChunkGenerations;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Sweeps {@link AStarPathFinder} over {@link SyntheticWorld}s of each terrain, at a range of obstacle densities and
+ * distances to the goal, to see how the expansions, memory and time grow and where the search falls apart.
+ * <p>
+ * Usage: {@code TerrainSweep [--terrain plains,maze,...] [--distances 64,128,...] [--densities 0,0.1,...] [--seed n]
+ * [--timeout ms] [--warmup n] [--no-break] [--no-place] [--out file.csv]}
+ * <p>
+ * The start is near 0,0 and the goal is the same distance along +x, both moved to somewhere standable if they aren't.
+ * If nowhere near the goal is standable (e.g. open ocean) the goal is just its x and z. Every run starts from cold caches.
+ */
+public final class TerrainSweep {
+
+    private static final String CSV_HEADER = "terrain,density,distance,wall_ms,expansions,nodes,open_set_high_water,node_bytes,allocated_bytes,path_cost,path_length,reached_goal";
+
+    /**
+     * How far to look for somewhere to stand around the requested start and goal
+     */
+    private static final int STANDABLE_RADIUS = 16;
+
+    private TerrainSweep() {}
+
+    private static final class Result {
+
+        final SyntheticWorld.Terrain terrain;
+        final double density;
+        final int distance;
+        final double wallMs;
+        final int expansions;
+        final int nodes;
+        final int openSetHighWater;
+        final long nodeBytes;
+        final long allocatedBytes;
+        final double pathCost;
+        final int pathLength;
+        final boolean reachedGoal;
+
+        Result(SyntheticWorld.Terrain terrain, double density, int distance, double wallMs, int expansions, int nodes, int openSetHighWater, long nodeBytes, long allocatedBytes, double pathCost, int pathLength, boolean reachedGoal) {
+            this.terrain = terrain;
+            this.density = density;
+            this.distance = distance;
+            this.wallMs = wallMs;
+            this.expansions = expansions;
+            this.nodes = nodes;
+            this.openSetHighWater = openSetHighWater;
+            this.nodeBytes = nodeBytes;
+            this.allocatedBytes = allocatedBytes;
+            this.pathCost = pathCost;
+            this.pathLength = pathLength;
+            this.reachedGoal = reachedGoal;
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%.2f,%d,%.3f,%d,%d,%d,%d,%d,%.3f,%d,%b", terrain.name().toLowerCase(Locale.ROOT), density, distance, wallMs, expansions, nodes, openSetHighWater, nodeBytes, allocatedBytes, pathCost, pathLength, reachedGoal);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<SyntheticWorld.Terrain> terrains = new ArrayList<>(Arrays.asList(SyntheticWorld.Terrain.values()));
+        int[] distances = {64, 128, 256, 512};
+        double[] densities = {0, 0.1, 0.2, 0.3, 0.4};
+        long seed = 1;
+        long timeout = 10000;
+        int warmup = 1;
+        boolean allowBreak = true;
+        boolean allowPlace = true;
+        Path out = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--terrain":
+                        terrains.clear();
+                        for (String name : args[++i].split(",")) {
+                            terrains.add(SyntheticWorld.Terrain.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                        }
+                        break;
+                    case "--distances":
+                        distances = Arrays.stream(args[++i].split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+                        break;
+                    case "--densities":
+                        densities = Arrays.stream(args[++i].split(",")).mapToDouble(s -> Double.parseDouble(s.trim())).toArray();
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--timeout":
+                        timeout = Long.parseLong(args[++i]);
+                        break;
+                    case "--warmup":
+                        warmup = Integer.parseInt(args[++i]);
+                        break;
+                    case "--no-break":
+                        allowBreak = false;
+                        break;
+                    case "--no-place":
+                        allowPlace = false;
+                        break;
+                    case "--out":
+                        out = Paths.get(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown argument " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            System.out.println(ex.getMessage());
+            System.out.println("Usage: TerrainSweep [--terrain plains,maze,caves,archipelago,ridges,nether] [--distances 64,128,256,512] [--densities 0,0.1,0.2,0.3,0.4] [--seed n] [--timeout ms] [--warmup n] [--no-break] [--no-place] [--out file.csv]");
+            System.exit(1);
+            return;
+        }
+        if (distances.length == 0 || densities.length == 0 || warmup < 0) {
+            System.out.println("Nothing to sweep");
+            System.exit(1);
+            return;
+        }
+
+        Baritone.INSTANCE.initHeadless();
+        Baritone.settings().chatDebug.value = false;
+        Baritone.settings().logger.value = message -> System.out.println(message.getUnformattedText());
+        Baritone.settings().allowBreak.value = allowBreak;
+        Baritone.settings().allowPlace.value = allowPlace;
+
+        // enough tools to break anything the terrains are made of, and the rest of the hotbar full of throwaway blocks
+        CalculationContext context = Scenario.context(new String[]{"diamond_pickaxe", "diamond_axe", "diamond_shovel"}, true, allowPlace, true);
+        int furthest = Arrays.stream(distances).max().getAsInt();
+        int margin = Math.max(128, furthest / 2);
+
+        List<Result> results = new ArrayList<>();
+        for (SyntheticWorld.Terrain terrain : terrains) {
+            for (double density : densities) {
+                SyntheticWorld world = new SyntheticWorld(terrain, density, seed);
+                long generateStart = System.nanoTime();
+                BlockStateInterface.setBlockSource(world.generate(-margin, -margin, furthest + margin, margin));
+                System.out.println(String.format(Locale.ROOT, "Generated %s in %.0fms", world, (System.nanoTime() - generateStart) / 1000000D));
+                BetterBlockPos start = world.standableNear(0, 0, STANDABLE_RADIUS);
+                if (start == null) {
+                    System.out.println("  nowhere to start near 0,0, skipping");
+                    continue;
+                }
+                for (int distance : distances) {
+                    BetterBlockPos end = world.standableNear(distance, 0, STANDABLE_RADIUS);
+                    Goal goal = end == null ? new GoalXZ(distance, 0) : new GoalBlock(end);
+                    for (int i = 0; i < warmup; i++) {
+                        run(terrain, density, distance, start, goal, context, timeout);
+                    }
+                    Result result = run(terrain, density, distance, start, goal, context, timeout);
+                    results.add(result);
+                    System.out.println(String.format(Locale.ROOT, "  %4d blocks to %s: %.1fms, %d expansions, %s", distance, goal, result.wallMs, result.expansions, result.reachedGoal ? "reached" : "didn't reach"));
+                }
+            }
+        }
+        BlockStateInterface.setBlockSource(null);
+
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%-12s %7s %8s %10s %10s %10s %10s %10s %12s %10s %6s", "terrain", "density", "distance", "wall ms", "expansions", "nodes", "open max", "node KiB", "alloc KiB", "cost", "goal"));
+        for (Result result : results) {
+            System.out.println(String.format(Locale.ROOT, "%-12s %7.2f %8d %10.1f %10d %10d %10d %10s %12s %10.1f %6s", result.terrain.name().toLowerCase(Locale.ROOT), result.density, result.distance, result.wallMs, result.expansions, result.nodes, result.openSetHighWater, kib(result.nodeBytes), kib(result.allocatedBytes), result.pathCost, result.reachedGoal ? "yes" : "no"));
+        }
+        if (out != null) {
+            if (out.getParent() != null) {
+                Files.createDirectories(out.getParent());
+            }
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out))) {
+                writer.println(CSV_HEADER);
+                for (Result result : results) {
+                    writer.println(result.toCsv());
+                }
+            }
+            System.out.println("Wrote " + out);
+        }
+    }
+
+    private static Result run(SyntheticWorld.Terrain terrain, double density, int distance, BetterBlockPos start, Goal goal, CalculationContext context, long timeout) {
+        // forget everything worked out from the last run, so every run does the same work
+        ChunkGenerations.INSTANCE.invalidateAll();
+        BlockStateInterface.clearCachedChunk();
+        AStarPathFinder finder = new AStarPathFinder(start.x, start.y, start.z, goal, Optional.empty());
+        finder.setContext(context);
+        long allocatedBefore = allocatedBytes();
+        long before = System.nanoTime();
+        Optional<IPath> path = finder.calculate(timeout);
+        double wallMs = (System.nanoTime() - before) / 1000000D;
+        long allocatedAfter = allocatedBytes();
+        SearchStats stats = finder.getSearchStats().orElseThrow(() -> new IllegalStateException("No search stats for " + terrain + " " + distance));
+        long nodeBytes = finder.nodeStore != null ? finder.nodeStore.memoryUsage() : -1;
+        IPath found = path.orElse(null);
+        return new Result(terrain, density, distance, wallMs, stats.getExpansions(), stats.getMapSize(), stats.getOpenSetHighWater(), nodeBytes,
+                allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore,
+                found == null ? 0 : found.ticksRemainingFrom(0), found == null ? 0 : found.length(), found != null && goal.isInGoal(found.getDest()));
+    }
+
+    /**
+     * @return How many bytes this thread has allocated so far, or -1 if the JVM can't say
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+            if (sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled()) {
+                return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static String kib(long bytes) {
+        return bytes < 0 ? "?" : Long.toString(bytes / 1024);
+    }
+}
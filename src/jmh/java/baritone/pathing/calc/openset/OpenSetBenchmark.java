@@ -0,0 +1,115 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.pathing.calc.PathNode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills an open set, lowers the cost of half of what's in it, and drains it. That's the mix of operations an A* search
+ * does, without the movement costs around it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenSetBenchmark {
+
+    /**
+     * Never reached, and the heuristic doesn't matter since combinedCost is set directly
+     */
+    private static final Goal GOAL = new Goal() {
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return 0;
+        }
+    };
+
+    @Param({"binary", "linkedlist", "4-ary", "8-ary", "radix"})
+    public String impl;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private PathNode[] nodes;
+    private double[] costs;
+    private double[] decreasedCosts;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(5021);
+        nodes = new PathNode[size];
+        costs = new double[size];
+        decreasedCosts = new double[size];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = new PathNode(i, 64, i * 31, GOAL);
+            costs[i] = random.nextDouble() * 1000;
+            decreasedCosts[i] = costs[i] * random.nextDouble();
+        }
+    }
+
+    private IOpenSet create() {
+        switch (impl) {
+            case "binary":
+                return new BinaryHeapOpenSet();
+            case "linkedlist":
+                return new LinkedListOpenSet();
+            case "4-ary":
+                return new DaryHeapOpenSet(4);
+            case "8-ary":
+                return new DaryHeapOpenSet(8);
+            case "radix":
+                return new RadixHeapOpenSet();
+            default:
+                throw new IllegalStateException(impl);
+        }
+    }
+
+    @Benchmark
+    public void insertUpdateDrain(Blackhole blackhole) {
+        IOpenSet openSet = create();
+        for (int i = 0; i < size; i++) {
+            PathNode node = nodes[i];
+            node.combinedCost = costs[i];
+            node.isOpen = true;
+            openSet.insert(node);
+        }
+        for (int i = 0; i < size; i += 2) {
+            PathNode node = nodes[i];
+            node.combinedCost = decreasedCosts[i];
+            openSet.update(node);
+        }
+        while (!openSet.isEmpty()) {
+            PathNode node = openSet.removeLowest();
+            node.isOpen = false;
+            blackhole.consume(node);
+        }
+    }
+}
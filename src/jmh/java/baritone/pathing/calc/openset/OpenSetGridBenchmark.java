@@ -0,0 +1,135 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.pathing.calc.PathNode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dijkstra over a grid with a movement cost on each cell, like A* with a goal that's never reached. Unlike
+ * {@link OpenSetBenchmark}, the inserts, decrease-keys and removals are interleaved the way a search does them, and the
+ * costs are sums of movement costs rather than uniformly random numbers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenSetGridBenchmark {
+
+    private static final int SIDE = 300;
+
+    private static final double[] STEP_COSTS = {
+            ActionCosts.SPRINT_ONE_BLOCK_COST,
+            ActionCosts.WALK_ONE_BLOCK_COST,
+            ActionCosts.WALK_ONE_BLOCK_COST + ActionCosts.JUMP_ONE_BLOCK_COST,
+            ActionCosts.WALK_OFF_BLOCK_COST + ActionCosts.FALL_N_BLOCKS_COST[2],
+            ActionCosts.SNEAK_ONE_BLOCK_COST
+    };
+
+    private static final Goal GOAL = new Goal() {
+        @Override
+        public boolean isInGoal(int x, int y, int z) {
+            return false;
+        }
+
+        @Override
+        public double heuristic(int x, int y, int z) {
+            return 0;
+        }
+    };
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DZ = {0, 0, 1, -1};
+
+    // the linked list is left out, it's quadratic in the size of the open set
+    @Param({"binary", "4-ary", "8-ary", "radix"})
+    public String impl;
+
+    private PathNode[] nodes;
+    private double[] cellCosts;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(5021);
+        nodes = new PathNode[SIDE * SIDE];
+        cellCosts = new double[SIDE * SIDE];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new PathNode(i % SIDE, 64, i / SIDE, GOAL);
+            cellCosts[i] = STEP_COSTS[random.nextInt(STEP_COSTS.length)];
+        }
+    }
+
+    private IOpenSet create() {
+        switch (impl) {
+            case "binary":
+                return new BinaryHeapOpenSet();
+            case "4-ary":
+                return new DaryHeapOpenSet(4);
+            case "8-ary":
+                return new DaryHeapOpenSet(8);
+            case "radix":
+                return new RadixHeapOpenSet();
+            default:
+                throw new IllegalStateException(impl);
+        }
+    }
+
+    @Benchmark
+    public void search(Blackhole blackhole) {
+        for (PathNode node : nodes) {
+            node.cost = ActionCosts.COST_INF;
+        }
+        IOpenSet openSet = create();
+        nodes[0].cost = 0;
+        nodes[0].combinedCost = 0;
+        nodes[0].isOpen = true;
+        openSet.insert(nodes[0]);
+        while (!openSet.isEmpty()) {
+            PathNode current = openSet.removeLowest();
+            current.isOpen = false;
+            for (int dir = 0; dir < 4; dir++) {
+                int x = current.x + DX[dir];
+                int z = current.z + DZ[dir];
+                if (x < 0 || x >= SIDE || z < 0 || z >= SIDE) {
+                    continue;
+                }
+                PathNode neighbor = nodes[z * SIDE + x];
+                double tentativeCost = current.cost + cellCosts[z * SIDE + x];
+                if (tentativeCost < neighbor.cost) {
+                    neighbor.cost = tentativeCost;
+                    neighbor.combinedCost = tentativeCost;
+                    if (neighbor.isOpen) {
+                        openSet.update(neighbor);
+                    } else {
+                        neighbor.isOpen = true;
+                        openSet.insert(neighbor);
+                    }
+                }
+            }
+        }
+        blackhole.consume(nodes[nodes.length - 1].cost);
+    }
+}
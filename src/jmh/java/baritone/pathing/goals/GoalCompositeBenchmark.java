@@ -0,0 +1,110 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.goals;
+
+import baritone.Baritone;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.pathing.goals.GoalComposite;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GoalComposite as the search sees it: one isInGoal and one heuristic per node, over a fixed set of query positions.
+ * <p>
+ * The goals are GoalBlocks, which get bucketed into the spatial index. The same goals as anonymous subclasses can't go
+ * in the index, so {@link #heuristicWithoutIndex} takes the path through every member with the same heuristic math.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoalCompositeBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"1", "16", "256", "4096"})
+    public int goals;
+
+    /**
+     * How far apart the goals are spread, in blocks
+     */
+    @Param({"64", "4096"})
+    public int spread;
+
+    private GoalComposite indexed;
+    private GoalComposite unindexed;
+
+    private int[] x;
+    private int[] y;
+    private int[] z;
+
+    @Setup
+    public void setup() {
+        Baritone.INSTANCE.initHeadless(); // for costHeuristic
+        Random random = new Random(5021);
+        Goal[] blocks = new Goal[goals];
+        Goal[] subclassed = new Goal[goals];
+        for (int i = 0; i < goals; i++) {
+            int gx = random.nextInt(spread) - spread / 2;
+            int gy = random.nextInt(256);
+            int gz = random.nextInt(spread) - spread / 2;
+            blocks[i] = new GoalBlock(gx, gy, gz);
+            subclassed[i] = new GoalBlock(gx, gy, gz) {};
+        }
+        indexed = new GoalComposite(blocks);
+        unindexed = new GoalComposite(subclassed);
+        x = new int[QUERIES];
+        y = new int[QUERIES];
+        z = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            x[i] = random.nextInt(spread) - spread / 2;
+            y[i] = random.nextInt(256);
+            z[i] = random.nextInt(spread) - spread / 2;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void isInGoal(Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            blackhole.consume(indexed.isInGoal(x[i], y[i], z[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void heuristic(Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            blackhole.consume(indexed.heuristic(x[i], y[i], z[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void heuristicWithoutIndex(Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            blackhole.consume(unindexed.heuristic(x[i], y[i], z[i]));
+        }
+    }
+}
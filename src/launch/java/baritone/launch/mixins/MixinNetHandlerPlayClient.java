@@ -18,16 +18,24 @@
 package baritone.launch.mixins;
 
 import baritone.Baritone;
+import baritone.api.event.events.BlockChangeEvent;
 import baritone.api.event.events.ChunkEvent;
 import baritone.api.event.events.type.EventState;
 import net.minecraft.client.network.NetHandlerPlayClient;
+import net.minecraft.network.play.server.SPacketBlockChange;
 import net.minecraft.network.play.server.SPacketChunkData;
 import net.minecraft.network.play.server.SPacketCombatEvent;
+import net.minecraft.network.play.server.SPacketMultiBlockChange;
+import net.minecraft.util.math.BlockPos;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @author Brady
  * @since 8/3/2018 12:54 AM
@@ -68,6 +76,31 @@ public class MixinNetHandlerPlayClient {
         );
     }
 
+    @Inject(
+            method = "handleBlockChange",
+            at = @At("RETURN")
+    )
+    private void postHandleBlockChange(SPacketBlockChange packetIn, CallbackInfo ci) {
+        Baritone.INSTANCE.getGameEventHandler().onBlockChange(
+                new BlockChangeEvent(
+                        Collections.singletonList(packetIn.getBlockPosition())
+                )
+        );
+    }
+
+    @Inject(
+            method = "handleMultiBlockChange",
+            at = @At("RETURN")
+    )
+    private void postHandleMultiBlockChange(SPacketMultiBlockChange packetIn, CallbackInfo ci) {
+        SPacketMultiBlockChange.BlockUpdateData[] changed = packetIn.getChangedBlocks();
+        List<BlockPos> positions = new ArrayList<>(changed.length);
+        for (SPacketMultiBlockChange.BlockUpdateData update : changed) {
+            positions.add(update.getPos());
+        }
+        Baritone.INSTANCE.getGameEventHandler().onBlockChange(new BlockChangeEvent(positions));
+    }
+
     @Inject(
             method = "handleCombatEvent",
             at = @At(
@@ -25,6 +25,7 @@ import baritone.event.GameEventHandler;
 import baritone.utils.BaritoneAutoTest;
 import baritone.utils.InputOverrideHandler;
 import net.minecraft.client.Minecraft;
+import net.minecraft.init.Bootstrap;
 
 import java.io.File;
 import java.io.IOException;
@@ -102,6 +103,26 @@ public enum Baritone {
         this.initialized = true;
     }
 
+    /**
+     * Just enough to run the pathing and caching code with no game client, for benchmarks and offline tools. The
+     * settings are the defaults rather than whatever is in the settings file, since finding that file needs Minecraft,
+     * but they're the same instance as {@link BaritoneAPI#getSettings()} so that goals see the same values. Nothing is
+     * hooked into the game. Does nothing if {@link #init()} has already run.
+     */
+    public synchronized void initHeadless() {
+        if (initialized || settings != null) {
+            return;
+        }
+        Bootstrap.register();
+        this.threadPool = new ThreadPoolExecutor(4, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), task -> {
+            // the cache has background loops that never end, they shouldn't keep the process alive
+            Thread thread = new Thread(task, "Baritone headless");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.settings = BaritoneAPI.getSettings();
+    }
+
     public boolean isInitialized() {
         return this.initialized;
     }
@@ -19,30 +19,41 @@ package baritone.behavior;
 
 import baritone.Baritone;
 import baritone.api.behavior.IPathingBehavior;
+import baritone.api.event.events.BlockChangeEvent;
+import baritone.api.event.events.ChunkEvent;
 import baritone.api.event.events.PathEvent;
 import baritone.api.event.events.PlayerUpdateEvent;
 import baritone.api.event.events.RenderEvent;
 import baritone.api.event.events.TickEvent;
+import baritone.api.event.events.type.EventState;
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.calc.IPathFinder;
+import baritone.api.pathing.calc.SearchStats;
 import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
 import baritone.api.pathing.goals.GoalXZ;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.interfaces.IGoalRenderPos;
+import baritone.cache.WorldData;
+import baritone.cache.WorldProvider;
 import baritone.pathing.calc.AStarPathFinder;
 import baritone.pathing.calc.AbstractNodeCostSearch;
 import baritone.pathing.calc.CutoffPath;
+import baritone.pathing.calc.PathRepair;
+import baritone.pathing.calc.PortfolioPathFinder;
 import baritone.pathing.movement.MovementHelper;
 import baritone.pathing.path.PathExecutor;
 import baritone.utils.BlockBreakHelper;
+import baritone.utils.BlockStateInterface;
 import baritone.utils.Helper;
 import baritone.utils.PathRenderer;
+import baritone.utils.pathing.WorldSnapshot;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.chunk.EmptyChunk;
 
 import java.util.*;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.stream.Collectors;
 
 public final class PathingBehavior extends Behavior implements IPathingBehavior, Helper {
 
@@ -51,6 +62,16 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
     private PathExecutor current;
     private PathExecutor next;
 
+    /**
+     * A better route to the goal from the anytime search, waiting for the next safe point to switch onto it
+     */
+    private PathExecutor improved;
+
+    /**
+     * Whether the anytime search that's currently running has already handed over a path
+     */
+    private volatile boolean anytimePublished;
+
     private Goal goal;
 
     private volatile boolean isPathCalcInProgress;
@@ -62,6 +83,8 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
 
     private final LinkedBlockingQueue<PathEvent> toDispatch = new LinkedBlockingQueue<>();
 
+    private final LinkedBlockingQueue<SearchStats> statsToDispatch = new LinkedBlockingQueue<>();
+
     private PathingBehavior() {}
 
     private void queuePathEvent(PathEvent event) {
@@ -74,6 +97,11 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         for (PathEvent event : curr) {
             Baritone.INSTANCE.getGameEventHandler().onPathEvent(event);
         }
+        ArrayList<SearchStats> stats = new ArrayList<>();
+        statsToDispatch.drainTo(stats);
+        for (SearchStats searchStats : stats) {
+            Baritone.INSTANCE.getGameEventHandler().onSearchStats(searchStats);
+        }
     }
 
     @Override
@@ -95,14 +123,16 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         boolean safe = current.onTick();
         synchronized (pathPlanLock) {
             if (current.failed() || current.finished()) {
+                PathExecutor ended = current;
                 current = null;
+                improved = null;
                 if (goal == null || goal.isInGoal(playerFeet())) {
                     logDebug("All done. At " + goal);
                     queuePathEvent(PathEvent.AT_GOAL);
                     next = null;
                     return;
                 }
-                if (next != null && !next.getPath().positions().contains(playerFeet())) {
+                if (next != null && !next.getPath().index().contains(playerFeet())) {
                     // if the current path failed, we may not actually be on the next one, so make sure
                     logDebug("Discarding next path as it does not contain current position");
                     // for example if we had a nicely planned ahead path that starts where current ends
@@ -129,13 +159,28 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                         return;
                     }
                     queuePathEvent(PathEvent.CALC_STARTED);
-                    findPathInNewThread(pathStart(), true, Optional.empty());
+                    Optional<PathExecutor> repair = Optional.empty();
+                    if (ended.failed() && ended.getInvalidatedMovement() != -1 && Baritone.settings().incrementalReplan.get()) {
+                        repair = Optional.of(ended);
+                    }
+                    findPathInNewThread(pathStart(), true, Optional.empty(), repair);
                 }
                 return;
             }
             // at this point, we know current is in progress
             if (safe) {
                 // a movement just ended
+                if (improved != null) {
+                    if (improved.snipsnapifpossible()) {
+                        // the anytime search found something better than what we're on, and we're on it too
+                        logDebug("Switching to better path...");
+                        queuePathEvent(PathEvent.SWITCHED_TO_BETTER_PATH);
+                        current = improved;
+                        improved = null;
+                        current.onTick();
+                        return;
+                    }
+                }
                 if (next != null) {
                     if (next.snipsnapifpossible()) {
                         // jump directly onto the next path
@@ -165,12 +210,39 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                     // and this path has 5 seconds or less left
                     logDebug("Path almost over. Planning ahead...");
                     queuePathEvent(PathEvent.NEXT_SEGMENT_CALC_STARTED);
-                    findPathInNewThread(current.getPath().getDest(), false, Optional.of(current.getPath()));
+                    findPathInNewThread(current.getPath().getDest(), false, Optional.of(current.getPath()), Optional.empty());
                 }
             }
         }
     }
 
+    @Override
+    public void onBlockChange(BlockChangeEvent event) {
+        synchronized (pathPlanLock) {
+            if (current != null) {
+                current.onBlockChange(event.getPositions());
+            }
+            if (next != null) {
+                next.onBlockChange(event.getPositions());
+            }
+        }
+    }
+
+    @Override
+    public void onChunkEvent(ChunkEvent event) {
+        if (event.getState() != EventState.POST || event.getType() != ChunkEvent.Type.POPULATE) {
+            return;
+        }
+        synchronized (pathPlanLock) {
+            if (current != null) {
+                current.onChunkChange(event.getX(), event.getZ());
+            }
+            if (next != null) {
+                next.onChunkChange(event.getX(), event.getZ());
+            }
+        }
+    }
+
     @Override
     public void onPlayerUpdate(PlayerUpdateEvent event) {
         if (current != null) {
@@ -231,8 +303,9 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         queuePathEvent(PathEvent.CANCELED);
         current = null;
         next = null;
+        improved = null;
         Baritone.INSTANCE.getInputOverrideHandler().clearAllKeys();
-        AbstractNodeCostSearch.getCurrentlyRunning().ifPresent(AbstractNodeCostSearch::cancel);
+        AbstractNodeCostSearch.cancelCurrentlyRunning();
         BlockBreakHelper.stopBreakingBlock();
     }
 
@@ -262,7 +335,7 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                     return false;
                 }
                 queuePathEvent(PathEvent.CALC_STARTED);
-                findPathInNewThread(pathStart(), true, Optional.empty());
+                findPathInNewThread(pathStart(), true, Optional.empty(), Optional.empty());
                 return true;
             }
         }
@@ -318,44 +391,40 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
      *
      * @param start
      * @param talkAboutIt
+     * @param repair      A path that just broke, to try and repair before falling back to a full search
      */
-    private void findPathInNewThread(final BlockPos start, final boolean talkAboutIt, final Optional<IPath> previous) {
+    private void findPathInNewThread(final BlockPos start, final boolean talkAboutIt, final Optional<IPath> previous, final Optional<PathExecutor> repair) {
         synchronized (pathCalcLock) {
             if (isPathCalcInProgress) {
                 throw new IllegalStateException("Already doing it");
             }
             isPathCalcInProgress = true;
         }
-        Baritone.INSTANCE.getExecutor().execute(() -> {
+        WorldSnapshot snapshot = null;
+        if (Baritone.settings().pathOnWorldSnapshot.get() && !Baritone.settings().pathThroughCachedOnly.get()) {
+            // we're still on the client thread here, so this is the last chance to look at the world safely
+            snapshot = WorldSnapshot.capture(mc.world.getChunkProvider());
+        }
+        Baritone.INSTANCE.getExecutor().execute(BlockStateInterface.withBlockSource(snapshot, () -> {
             if (talkAboutIt) {
                 logDebug("Starting to search for path from " + start + " to " + goal);
             }
 
-            Optional<IPath> path = findPath(start, previous);
-            if (Baritone.settings().cutoffAtLoadBoundary.get()) {
-                path = path.map(p -> {
-                    IPath result = p.cutoffAtLoadedChunks();
-
-                    if (result instanceof CutoffPath) {
-                        logDebug("Cutting off path at edge of loaded chunks");
-                        logDebug("Length decreased by " + (p.length() - result.length()));
-                    } else {
-                        logDebug("Path ends within loaded chunks");
-                    }
-
-                    return result;
-                });
+            anytimePublished = false;
+            Optional<IPath> path = repair.flatMap(broken -> repairPath(start, broken));
+            if (!path.isPresent()) {
+                path = findPath(start, previous);
             }
-
-            Optional<PathExecutor> executor = path.map(p -> {
-                IPath result = p.staticCutoff(goal);
-
-                if (result instanceof CutoffPath) {
-                    logDebug("Static cutoff " + p.length() + " to " + result.length());
+            if (anytimePublished && current != null) {
+                // every path the anytime search found, including this last one, has already gone through onImprovedPath
+                // if current is null, the path it handed over already ended, so fall through and start on this one
+                synchronized (pathCalcLock) {
+                    isPathCalcInProgress = false;
                 }
+                return;
+            }
 
-                return result;
-            }).map(PathExecutor::new);
+            Optional<PathExecutor> executor = path.map(this::cutoff).map(PathExecutor::new);
 
             synchronized (pathPlanLock) {
                 if (current == null) {
@@ -390,7 +459,50 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
             synchronized (pathCalcLock) {
                 isPathCalcInProgress = false;
             }
-        });
+        }));
+    }
+
+    private IPath cutoff(IPath path) {
+        IPath result = path;
+        if (Baritone.settings().cutoffAtLoadBoundary.get()) {
+            result = result.cutoffAtLoadedChunks();
+
+            if (result instanceof CutoffPath) {
+                logDebug("Cutting off path at edge of loaded chunks");
+                logDebug("Length decreased by " + (path.length() - result.length()));
+            } else {
+                logDebug("Path ends within loaded chunks");
+            }
+        }
+
+        IPath staticCutoff = result.staticCutoff(goal);
+
+        if (staticCutoff instanceof CutoffPath) {
+            logDebug("Static cutoff " + result.length() + " to " + staticCutoff.length());
+        }
+
+        return staticCutoff;
+    }
+
+    /**
+     * Called from the anytime search's thread with each better path it finds. If nothing is executing it gets executed
+     * right away, otherwise it gets switched onto in tickPath once we're at a safe point that's on it.
+     *
+     * @param path A path to the goal, better than the last one
+     */
+    private void onImprovedPath(IPath path) {
+        PathExecutor executor = new PathExecutor(cutoff(path));
+        synchronized (pathPlanLock) {
+            if (current == null) {
+                // either this is the first one, or the one we handed over already failed, so start on this one instead
+                queuePathEvent(PathEvent.CALC_FINISHED_NOW_EXECUTING);
+                current = executor;
+            } else {
+                queuePathEvent(PathEvent.BETTER_PATH_FOUND);
+                improved = executor;
+            }
+            anytimePublished = true;
+        }
     }
 
     /**
@@ -416,21 +528,39 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
                 goal = new GoalXZ(pos.getX(), pos.getZ());
             }
         }
+        goal = corridorSegmentGoal(start, goal);
         long timeout;
         if (current == null) {
             timeout = Baritone.settings().pathTimeoutMS.<Long>get();
         } else {
             timeout = Baritone.settings().planAheadTimeoutMS.<Long>get();
         }
-        Optional<HashSet<Long>> favoredPositions;
+        Optional<LongOpenHashSet> favoredPositions;
         if (Baritone.settings().backtrackCostFavoringCoefficient.get() == 1D) {
             favoredPositions = Optional.empty();
         } else {
-            favoredPositions = previous.map(IPath::positions).map(Collection::stream).map(x -> x.map(BetterBlockPos::longHash)).map(x -> x.collect(Collectors.toList())).map(HashSet::new); // <-- okay this is EPIC
+            // primitive longs, so that checking every movement against it doesn't box
+            favoredPositions = previous.map(IPath::positions).map(positions -> {
+                LongOpenHashSet set = new LongOpenHashSet(positions.size());
+                for (BetterBlockPos pos : positions) {
+                    set.add(BetterBlockPos.longHash(pos));
+                }
+                return set;
+            });
         }
         try {
-            IPathFinder pf = new AStarPathFinder(start.getX(), start.getY(), start.getZ(), goal, favoredPositions);
-            return pf.calculate(timeout);
+            IPathFinder pf;
+            int portfolioSize = Baritone.settings().pathingPortfolioSize.get();
+            if (Baritone.settings().anytimePathing.get() && current == null) {
+                pf = new AStarPathFinder(start.getX(), start.getY(), start.getZ(), goal, favoredPositions, this::onImprovedPath);
+            } else if (portfolioSize > 1) {
+                pf = new PortfolioPathFinder(start.getX(), start.getY(), start.getZ(), goal, favoredPositions, portfolioSize);
+            } else {
+                pf = new AStarPathFinder(start.getX(), start.getY(), start.getZ(), goal, favoredPositions);
+            }
+            Optional<IPath> path = pf.calculate(timeout);
+            pf.getSearchStats().ifPresent(statsToDispatch::add);
+            return path;
         } catch (Exception e) {
             logDebug("Pathing exception: " + e);
             e.printStackTrace();
@@ -438,6 +568,73 @@ public final class PathingBehavior extends Behavior implements IPathingBehavior,
         }
     }
 
+    /**
+     * Try to patch a path that broke partway through with a short detour back onto it, see {@link PathRepair}
+     *
+     * @param start  Where the detour starts
+     * @param broken The executor of the path that broke
+     * @return The repaired path, or empty if it couldn't be repaired quickly
+     */
+    private Optional<IPath> repairPath(BlockPos start, PathExecutor broken) {
+        long before = System.nanoTime() / 1000000L;
+        try {
+            Optional<IPath> repaired = PathRepair.repair(start, broken.getPath(), broken.getInvalidatedMovement(), Baritone.settings().incrementalReplanTimeoutMS.<Long>get());
+            if (repaired.isPresent()) {
+                logDebug("Repaired path around movement " + broken.getInvalidatedMovement() + " in " + (System.nanoTime() / 1000000L - before) + "ms");
+            } else {
+                logDebug("Unable to repair path, doing a full search");
+            }
+            return repaired;
+        } catch (Exception e) {
+            logDebug("Path repair exception: " + e);
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * If the goal is far enough away, find a corridor to it in the abstract graph and return a goal for just the next
+     * segment along it. Otherwise, or if there's no corridor through the cache, the goal is returned unchanged.
+     *
+     * @param start The start of the path we're about to calculate
+     * @param goal  The real goal
+     * @return The goal to calculate this segment towards
+     */
+    private Goal corridorSegmentGoal(BlockPos start, Goal goal) {
+        if (!Baritone.settings().useAbstractGraph.get() || !(goal instanceof GoalXZ)) {
+            return goal;
+        }
+        GoalXZ target = (GoalXZ) goal;
+        double distance = Math.sqrt(start.distanceSq(target.getX(), start.getY(), target.getZ()));
+        if (distance < Baritone.settings().abstractGraphMinimumDistance.get()) {
+            return goal;
+        }
+        WorldData world = WorldProvider.INSTANCE.getCurrentWorld();
+        if (world == null) {
+            return goal;
+        }
+        long before = System.nanoTime() / 1000000L;
+        Optional<List<BetterBlockPos>> corridor = world.cache.getAbstractGraph().findCorridor(start, target.getX(), target.getZ(), Baritone.settings().abstractGraphMaxNodes.get());
+        if (!corridor.isPresent() || corridor.get().isEmpty()) {
+            logDebug("No corridor through cached chunks, pathing straight at the goal");
+            return goal;
+        }
+        int segmentLength = Baritone.settings().abstractGraphSegmentLength.get();
+        BlockPos previous = start;
+        double along = 0;
+        BetterBlockPos waypoint = corridor.get().get(0);
+        for (BetterBlockPos pos : corridor.get()) {
+            along += Math.sqrt(previous.distanceSq(pos));
+            if (along > segmentLength) {
+                break;
+            }
+            waypoint = pos;
+            previous = pos;
+        }
+        logDebug("Found corridor of " + corridor.get().size() + " waypoints in " + (System.nanoTime() / 1000000L - before) + "ms, next segment goes to " + waypoint);
+        return new GoalBlock(waypoint);
+    }
+
     public void revalidateGoal() {
         if (!Baritone.settings().cancelOnGoalInvalidation.get()) {
             return;
@@ -0,0 +1,218 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.utils.BetterBlockPos;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.*;
+
+/**
+ * A coarse graph over the cached chunks of a world, for long distance goals. The nodes are the chunk border entrances
+ * from {@link ChunkEntrances}, connected within a chunk by their precomputed step counts and across a border when two
+ * entrances line up.
+ * <p>
+ * Searching this is a few thousand nodes instead of millions of blocks, so it can find the way across thousands of
+ * blocks of cached terrain in milliseconds. The result is a corridor of waypoints for AStarPathFinder to follow one
+ * short segment at a time.
+ * <p>
+ * Chunks are added lazily the first time a search touches them, and rebuilt when they're repacked.
+ */
+public final class AbstractGraph {
+
+    /**
+     * How high an entrance can be above the one it's crossing from, and how far below
+     */
+    private static final int MAX_STEP_UP = 1;
+    private static final int MAX_STEP_DOWN = 3;
+
+    private final CachedWorld world;
+
+    private final Long2ObjectOpenHashMap<ChunkEntrances> chunks = new Long2ObjectOpenHashMap<>();
+
+    AbstractGraph(CachedWorld world) {
+        this.world = world;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX & 0xFFFFFFFFL | ((long) chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+    /**
+     * @return The entrances of this chunk, built if this is the first time we've needed them or if the cached chunk
+     * has been replaced since, or null if the chunk isn't cached
+     */
+    private synchronized ChunkEntrances get(int chunkX, int chunkZ) {
+        CachedRegion region = world.getRegion(chunkX >> 5, chunkZ >> 5);
+        CachedChunk chunk = region == null ? null : region.getChunk(chunkX & 31, chunkZ & 31);
+        long key = chunkKey(chunkX, chunkZ);
+        if (chunk == null) {
+            chunks.remove(key);
+            return null;
+        }
+        ChunkEntrances entrances = chunks.get(key);
+        if (entrances == null || entrances.source != chunk) {
+            entrances = ChunkEntrances.build(chunk);
+            chunks.put(key, entrances);
+        }
+        return entrances;
+    }
+
+    /**
+     * Called from the packer thread when a chunk has been repacked
+     */
+    synchronized void update(CachedChunk chunk) {
+        long key = chunkKey(chunk.x, chunk.z);
+        if (chunks.containsKey(key)) {
+            chunks.put(key, ChunkEntrances.build(chunk));
+        }
+    }
+
+    /**
+     * Called when a region is dropped from ram
+     */
+    synchronized void removeRegion(int regionX, int regionZ) {
+        chunks.keySet().removeIf(key -> (int) key.longValue() >> 5 == regionX && (int) (key >> 32) >> 5 == regionZ);
+    }
+
+    /**
+     * Searches the abstract graph from start to the chunk containing goalX, goalZ, through cached chunks only.
+     *
+     * @param maxNodes How many abstract nodes to expand before giving up
+     * @return The waypoints to follow, one per entrance crossed, or empty if there's no way there through the cache
+     */
+    public Optional<List<BetterBlockPos>> findCorridor(BlockPos start, int goalX, int goalZ, int maxNodes) {
+        int startChunkX = start.getX() >> 4;
+        int startChunkZ = start.getZ() >> 4;
+        int goalChunkX = goalX >> 4;
+        int goalChunkZ = goalZ >> 4;
+        ChunkEntrances first = get(startChunkX, startChunkZ);
+        if (first == null) {
+            return Optional.empty();
+        }
+        if (startChunkX == goalChunkX && startChunkZ == goalChunkZ) {
+            return Optional.of(Collections.emptyList());
+        }
+        Long2ObjectOpenHashMap<Node> nodes = new Long2ObjectOpenHashMap<>();
+        PriorityQueue<Node> open = new PriorityQueue<>(Comparator.comparingInt(node -> node.combined));
+        int[] initial = first.stepsFrom(start.getX() & 15, start.getY(), start.getZ() & 15);
+        for (int i = 0; i < first.count; i++) {
+            int steps;
+            if (initial != null) {
+                steps = initial[i];
+            } else {
+                // we aren't standing anywhere the cache thinks we can stand (e.g. on a slab), so just guess
+                steps = Math.abs(first.repX[i] - (start.getX() & 15)) + Math.abs(first.repZ[i] - (start.getZ() & 15));
+            }
+            if (steps != ChunkEntrances.UNREACHABLE) {
+                relax(nodes, open, startChunkX, startChunkZ, first, i, null, steps, goalX, goalZ);
+            }
+        }
+        int expanded = 0;
+        while (!open.isEmpty() && expanded < maxNodes) {
+            Node node = open.poll();
+            if (node.closed) {
+                continue;
+            }
+            node.closed = true;
+            expanded++;
+            if (node.chunkX == goalChunkX && node.chunkZ == goalChunkZ) {
+                LinkedList<BetterBlockPos> corridor = new LinkedList<>();
+                for (Node current = node; current != null; current = current.previous) {
+                    corridor.addFirst(current.pos);
+                }
+                return Optional.of(new ArrayList<>(corridor));
+            }
+            ChunkEntrances here = get(node.chunkX, node.chunkZ);
+            if (here == null) {
+                continue; // dropped from the cache mid search
+            }
+            if (here.count != node.entrances.count || here.source != node.entrances.source) {
+                continue; // rebuilt mid search, our index could mean anything now
+            }
+            for (int j = 0; j < here.count; j++) {
+                int steps = here.steps(node.index, j);
+                if (j != node.index && steps != ChunkEntrances.UNREACHABLE) {
+                    relax(nodes, open, node.chunkX, node.chunkZ, here, j, node, node.cost + steps, goalX, goalZ);
+                }
+            }
+            int side = here.side[node.index];
+            int neighborX = node.chunkX + (side == ChunkEntrances.WEST ? -1 : side == ChunkEntrances.EAST ? 1 : 0);
+            int neighborZ = node.chunkZ + (side == ChunkEntrances.NORTH ? -1 : side == ChunkEntrances.SOUTH ? 1 : 0);
+            ChunkEntrances neighbor = get(neighborX, neighborZ);
+            if (neighbor == null) {
+                continue;
+            }
+            int opposite = side ^ 1; // NORTH <-> SOUTH, WEST <-> EAST
+            int y = here.y[node.index];
+            for (int j = 0; j < neighbor.count; j++) {
+                if (neighbor.side[j] != opposite) {
+                    continue;
+                }
+                if (neighbor.y[j] > y + MAX_STEP_UP || neighbor.y[j] < y - MAX_STEP_DOWN) {
+                    continue;
+                }
+                if (neighbor.to[j] < here.from[node.index] || neighbor.from[j] > here.to[node.index]) {
+                    continue; // the runs don't overlap along the border
+                }
+                relax(nodes, open, neighborX, neighborZ, neighbor, j, node, node.cost + 1, goalX, goalZ);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void relax(Long2ObjectOpenHashMap<Node> nodes, PriorityQueue<Node> open, int chunkX, int chunkZ, ChunkEntrances entrances, int index, Node previous, int cost, int goalX, int goalZ) {
+        long key = ((long) chunkX & 0x3FFFFFL) << 42 | ((long) chunkZ & 0x3FFFFFL) << 20 | index; // 22 bits covers the world border in chunks, there are never a million entrances
+        Node node = nodes.get(key);
+        if (node == null) {
+            BetterBlockPos pos = new BetterBlockPos(chunkX << 4 | entrances.repX[index], entrances.y[index], chunkZ << 4 | entrances.repZ[index]);
+            node = new Node(chunkX, chunkZ, index, entrances, pos);
+            nodes.put(key, node);
+        } else if (node.closed || cost >= node.cost) {
+            return;
+        }
+        node.cost = cost;
+        node.previous = previous;
+        // manhattan distance is exact for four direction steps on flat ground, so this never overestimates
+        node.combined = cost + Math.abs(node.pos.x - goalX) + Math.abs(node.pos.z - goalZ);
+        open.add(node); // no decrease-key in PriorityQueue, stale entries are skipped once closed
+    }
+
+    private static final class Node {
+
+        final int chunkX;
+        final int chunkZ;
+        final int index;
+        final ChunkEntrances entrances;
+        final BetterBlockPos pos;
+
+        int cost = Integer.MAX_VALUE;
+        int combined;
+        Node previous;
+        boolean closed;
+
+        Node(int chunkX, int chunkZ, int index, ChunkEntrances entrances, BetterBlockPos pos) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.index = index;
+            this.entrances = entrances;
+            this.pos = pos;
+        }
+    }
+}
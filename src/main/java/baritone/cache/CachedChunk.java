@@ -132,14 +132,31 @@ public final class CachedChunk implements IBlockTypeAccess, Helper {
             }*/
             return overview[internalPos];
         }
-        PathingBlockType type = getType(x, y, z);
-        if (type == PathingBlockType.SOLID && y == 127 && mc.player.dimension == -1) {
+        return belowSurface(getType(x, y, z), y, mc.player.dimension);
+    }
+
+    /**
+     * {@link #getBlock(int, int, int)} without looking at which dimension the player is in, for reading a cache with
+     * no game running
+     *
+     * @param dimension The dimension id this chunk is from
+     */
+    public final IBlockState getBlock(int x, int y, int z, int dimension) {
+        int internalPos = z << 4 | x;
+        if (heightMap[internalPos] == y) {
+            return overview[internalPos];
+        }
+        return belowSurface(getType(x, y, z), y, dimension);
+    }
+
+    private static IBlockState belowSurface(PathingBlockType type, int y, int dimension) {
+        if (type == PathingBlockType.SOLID && y == 127 && dimension == -1) {
             return Blocks.BEDROCK.getDefaultState();
         }
-        return ChunkPacker.pathingTypeToBlock(type);
+        return ChunkPacker.pathingTypeToBlock(type, dimension);
     }
 
-    private PathingBlockType getType(int x, int y, int z) {
+    PathingBlockType getType(int x, int y, int z) {
         int index = getPositionIndex(x, y, z);
         return PathingBlockType.fromBits(data.get(index), data.get(index + 1));
     }
@@ -79,11 +79,32 @@ public final class CachedRegion implements ICachedRegion {
         return null;
     }
 
+    /**
+     * @param dimension The dimension id this region is from
+     * @see CachedChunk#getBlock(int, int, int, int)
+     */
+    public final IBlockState getBlock(int x, int y, int z, int dimension) {
+        CachedChunk chunk = chunks[x >> 4][z >> 4];
+        if (chunk != null) {
+            return chunk.getBlock(x & 15, y, z & 15, dimension);
+        }
+        return null;
+    }
+
     @Override
     public final boolean isCached(int x, int z) {
         return chunks[x >> 4][z >> 4] != null;
     }
 
+    /**
+     * @param chunkX The chunk x coordinate within this region, 0 to 31
+     * @param chunkZ The chunk z coordinate within this region, 0 to 31
+     * @return The cached chunk, or null if it isn't cached
+     */
+    final CachedChunk getChunk(int chunkX, int chunkZ) {
+        return chunks[chunkX][chunkZ];
+    }
+
     public final LinkedList<BlockPos> getLocationsOf(String block) {
         LinkedList<BlockPos> res = new LinkedList<>();
         for (int chunkX = 0; chunkX < 32; chunkX++) {
@@ -20,6 +20,7 @@ package baritone.cache;
 import baritone.Baritone;
 import baritone.api.cache.ICachedWorld;
 import baritone.utils.Helper;
+import baritone.utils.pathing.ChunkGenerations;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.util.math.BlockPos;
@@ -56,6 +57,10 @@ public final class CachedWorld implements ICachedWorld, Helper {
 
     private final LinkedBlockingQueue<Chunk> toPack = new LinkedBlockingQueue<>();
 
+    private final AbstractGraph abstractGraph = new AbstractGraph(this);
+
+    private final Landmarks landmarks;
+
     CachedWorld(Path directory) {
         if (!Files.exists(directory)) {
             try {
@@ -65,6 +70,7 @@ public final class CachedWorld implements ICachedWorld, Helper {
         }
         this.directory = directory.toString();
         System.out.println("Cached world directory: " + directory);
+        this.landmarks = new Landmarks(this, this.directory);
         // Insert an invalid region element
         cachedRegions.put(0, null);
         Baritone.INSTANCE.getExecutor().execute(new PackerThread());
@@ -104,9 +110,16 @@ public final class CachedWorld implements ICachedWorld, Helper {
 
     @Override
     public final LinkedList<BlockPos> getLocationsOf(String block, int maximum, int maxRegionDistanceSq) {
+        return getLocationsOf(block, maximum, playerFeet().getX(), playerFeet().getZ(), maxRegionDistanceSq);
+    }
+
+    /**
+     * {@link #getLocationsOf(String, int, int)}, searching outwards from the given block instead of from the player
+     */
+    public final LinkedList<BlockPos> getLocationsOf(String block, int maximum, int centerX, int centerZ, int maxRegionDistanceSq) {
         LinkedList<BlockPos> res = new LinkedList<>();
-        int playerRegionX = playerFeet().getX() >> 9;
-        int playerRegionZ = playerFeet().getZ() >> 9;
+        int centerRegionX = centerX >> 9;
+        int centerRegionZ = centerZ >> 9;
 
         int searchRadius = 0;
         while (searchRadius <= maxRegionDistanceSq) {
@@ -116,8 +129,8 @@ public final class CachedWorld implements ICachedWorld, Helper {
                     if (distance != searchRadius) {
                         continue;
                     }
-                    int regionX = xoff + playerRegionX;
-                    int regionZ = zoff + playerRegionZ;
+                    int regionX = xoff + centerRegionX;
+                    int regionZ = zoff + centerRegionZ;
                     CachedRegion region = getOrCreateRegion(regionX, regionZ);
                     if (region != null) {
                         // TODO: 100% verify if this or addAll is faster.
@@ -136,6 +149,22 @@ public final class CachedWorld implements ICachedWorld, Helper {
     private void updateCachedChunk(CachedChunk chunk) {
         CachedRegion region = getOrCreateRegion(chunk.x >> 5, chunk.z >> 5);
         region.updateCachedChunk(chunk.x & 31, chunk.z & 31, chunk);
+        abstractGraph.update(chunk);
+        ChunkGenerations.INSTANCE.invalidate(chunk.x, chunk.z);
+    }
+
+    /**
+     * @return The abstract graph over this world's cached chunks, for long distance pathing
+     */
+    public final AbstractGraph getAbstractGraph() {
+        return abstractGraph;
+    }
+
+    /**
+     * @return The landmark tables for this world, for tightening the heuristic of far away goals
+     */
+    public final Landmarks getLandmarks() {
+        return landmarks;
     }
 
     @Override
@@ -176,6 +205,7 @@ public final class CachedWorld implements ICachedWorld, Helper {
             if (dist > 1024) {
                 logDebug("Deleting cached region " + region.getX() + "," + region.getZ() + " from ram");
                 cachedRegions.remove(getRegionID(region.getX(), region.getZ()));
+                abstractGraph.removeRegion(region.getX(), region.getZ());
             }
         }
     }
@@ -0,0 +1,264 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.utils.pathing.PathingBlockType;
+
+import java.util.Arrays;
+
+/**
+ * The abstract graph node set of one cached chunk: the entrances on its borders, and how many steps it takes to walk
+ * from each entrance to each other entrance without leaving the chunk.
+ * <p>
+ * An entrance is a run of adjacent border columns you can stand in at the same y. Steps are counted on the 2 bit cached
+ * data, four directions only, jumping up one or falling up to three, so they're a coarse stand-in for the real movement
+ * costs. That's all the top level search needs to pick a corridor, AStarPathFinder does the real work inside it.
+ */
+final class ChunkEntrances {
+
+    static final int NORTH = 0; // z = 0
+    static final int SOUTH = 1; // z = 15
+    static final int WEST = 2; // x = 0
+    static final int EAST = 3; // x = 15
+
+    static final int UNREACHABLE = -1;
+
+    private static final int MAX_FALL = 3;
+
+    /**
+     * The cached chunk this was built from, so that we can tell when it's been replaced
+     */
+    final CachedChunk source;
+
+    final int count;
+
+    /**
+     * Which border each entrance is on
+     */
+    final byte[] side;
+
+    /**
+     * The feet y of each entrance
+     */
+    final int[] y;
+
+    /**
+     * The first and last coordinate along the border (x for north and south, z for west and east) of each entrance
+     */
+    final byte[] from;
+    final byte[] to;
+
+    /**
+     * The middle of each entrance, in chunk local coordinates. This is where the steps are counted from.
+     */
+    final byte[] repX;
+    final byte[] repZ;
+
+    /**
+     * count * count steps between entrances, {@link #UNREACHABLE} if you can't get from one to the other in this chunk
+     */
+    private final int[] steps;
+
+    private ChunkEntrances(CachedChunk source, int count) {
+        this.source = source;
+        this.count = count;
+        this.side = new byte[count];
+        this.y = new int[count];
+        this.from = new byte[count];
+        this.to = new byte[count];
+        this.repX = new byte[count];
+        this.repZ = new byte[count];
+        this.steps = new int[count * count];
+    }
+
+    int steps(int from, int to) {
+        return steps[from * count + to];
+    }
+
+    static ChunkEntrances build(CachedChunk chunk) {
+        // first pass counts, second pass fills in
+        int count = 0;
+        for (int side = 0; side < 4; side++) {
+            count += scanSide(chunk, side, null, 0);
+        }
+        ChunkEntrances result = new ChunkEntrances(chunk, count);
+        int index = 0;
+        for (int side = 0; side < 4; side++) {
+            index += scanSide(chunk, side, result, index);
+        }
+        Search search = new Search(chunk);
+        for (int i = 0; i < count; i++) {
+            search.run(result.repX[i], result.y[i], result.repZ[i]);
+            for (int j = 0; j < count; j++) {
+                result.steps[i * count + j] = search.stepsTo(result.repX[j], result.y[j], result.repZ[j]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of steps from this chunk local position to each entrance, or null if you can't stand there
+     */
+    int[] stepsFrom(int x, int y, int z) {
+        if (!standable(source, x, y, z)) {
+            return null;
+        }
+        Search search = new Search(source);
+        search.run(x, y, z);
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = search.stepsTo(repX[i], this.y[i], repZ[i]);
+        }
+        return result;
+    }
+
+    private static int scanSide(CachedChunk chunk, int side, ChunkEntrances into, int index) {
+        int found = 0;
+        for (int y = 1; y < 255; y++) {
+            int runStart = -1;
+            for (int a = 0; a <= 16; a++) {
+                boolean here = a < 16 && standable(chunk, borderX(side, a), y, borderZ(side, a));
+                if (here && runStart == -1) {
+                    runStart = a;
+                }
+                if (!here && runStart != -1) {
+                    if (into != null) {
+                        int i = index + found;
+                        int mid = (runStart + a - 1) / 2;
+                        into.side[i] = (byte) side;
+                        into.y[i] = y;
+                        into.from[i] = (byte) runStart;
+                        into.to[i] = (byte) (a - 1);
+                        into.repX[i] = (byte) borderX(side, mid);
+                        into.repZ[i] = (byte) borderZ(side, mid);
+                    }
+                    found++;
+                    runStart = -1;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int borderX(int side, int a) {
+        switch (side) {
+            case WEST:
+                return 0;
+            case EAST:
+                return 15;
+            default:
+                return a;
+        }
+    }
+
+    private static int borderZ(int side, int a) {
+        switch (side) {
+            case NORTH:
+                return 0;
+            case SOUTH:
+                return 15;
+            default:
+                return a;
+        }
+    }
+
+    private static boolean air(CachedChunk chunk, int x, int y, int z) {
+        return y >= 0 && y < 256 && chunk.getType(x, y, z) == PathingBlockType.AIR;
+    }
+
+    static boolean standable(CachedChunk chunk, int x, int y, int z) {
+        return y > 0 && y < 255 && air(chunk, x, y, z) && air(chunk, x, y + 1, z) && chunk.getType(x, y - 1, z) == PathingBlockType.SOLID;
+    }
+
+    /**
+     * A breadth first search over the standable positions of one chunk. The arrays are reused between runs, since a
+     * build does one run per entrance.
+     */
+    private static final class Search {
+
+        private static final int[] DX = {0, 0, -1, 1};
+        private static final int[] DZ = {-1, 1, 0, 0};
+
+        private final CachedChunk chunk;
+
+        private final int[] steps = new int[16 * 16 * 256];
+
+        private final int[] queue = new int[16 * 16 * 256];
+
+        Search(CachedChunk chunk) {
+            this.chunk = chunk;
+        }
+
+        private static int index(int x, int y, int z) {
+            return y << 8 | z << 4 | x;
+        }
+
+        int stepsTo(int x, int y, int z) {
+            return steps[index(x, y, z)];
+        }
+
+        void run(int startX, int startY, int startZ) {
+            Arrays.fill(steps, UNREACHABLE);
+            int head = 0;
+            int tail = 0;
+            int start = index(startX, startY, startZ);
+            steps[start] = 0;
+            queue[tail++] = start;
+            while (head < tail) {
+                int current = queue[head++];
+                int x = current & 15;
+                int z = (current >> 4) & 15;
+                int y = current >> 8;
+                int next = steps[current] + 1;
+                for (int dir = 0; dir < 4; dir++) {
+                    int nx = x + DX[dir];
+                    int nz = z + DZ[dir];
+                    if (nx < 0 || nx > 15 || nz < 0 || nz > 15) {
+                        continue;
+                    }
+                    // jump up one, if there's headroom above us
+                    if (air(chunk, x, y + 2, z) && standable(chunk, nx, y + 1, nz)) {
+                        tail = visit(index(nx, y + 1, nz), next, tail);
+                    }
+                    // walk across, or walk off and fall until we land
+                    for (int ny = y; ny >= y - MAX_FALL && ny > 0; ny--) {
+                        if (!air(chunk, nx, ny, nz) || !air(chunk, nx, ny + 1, nz)) {
+                            break;
+                        }
+                        PathingBlockType below = chunk.getType(nx, ny - 1, nz);
+                        if (below == PathingBlockType.SOLID) {
+                            tail = visit(index(nx, ny, nz), next, tail);
+                            break;
+                        }
+                        if (below != PathingBlockType.AIR) {
+                            break; // water or something to avoid
+                        }
+                    }
+                }
+            }
+        }
+
+        private int visit(int index, int steps, int tail) {
+            if (this.steps[index] == UNREACHABLE) {
+                this.steps[index] = steps;
+                queue[tail++] = index;
+            }
+            return tail;
+        }
+    }
+}
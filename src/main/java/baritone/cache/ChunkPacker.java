@@ -17,13 +17,10 @@
 
 package baritone.cache;
 
-import baritone.pathing.movement.MovementHelper;
+import baritone.pathing.movement.BlockFlags;
 import baritone.utils.Helper;
 import baritone.utils.pathing.PathingBlockType;
 import net.minecraft.block.Block;
-import net.minecraft.block.BlockDoublePlant;
-import net.minecraft.block.BlockFlower;
-import net.minecraft.block.BlockTallGrass;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.ResourceLocation;
@@ -124,27 +121,17 @@ public final class ChunkPacker implements Helper {
     }
 
     private static PathingBlockType getPathingBlockType(IBlockState state) {
-        Block block = state.getBlock();
-        if (block.equals(Blocks.WATER)) {
-            // only water source blocks are plausibly usable, flowing water should be avoid
-            return PathingBlockType.WATER;
-        }
-
-        if (MovementHelper.avoidWalkingInto(block) || block == Blocks.FLOWING_WATER || MovementHelper.isBottomSlab(state)) {
-            return PathingBlockType.AVOID;
-        }
-        // We used to do an AABB check here
-        // however, this failed in the nether when you were near a nether fortress
-        // because fences check their adjacent blocks in the world for their fence connection status to determine AABB shape
-        // this caused a nullpointerexception when we saved chunks on unload, because they were unable to check their neighbors
-        if (block == Blocks.AIR || block instanceof BlockTallGrass || block instanceof BlockDoublePlant || block instanceof BlockFlower) {
-            return PathingBlockType.AIR;
-        }
-
-        return PathingBlockType.SOLID;
+        return BlockFlags.pathingType(state);
     }
 
     public static IBlockState pathingTypeToBlock(PathingBlockType type) {
+        return pathingTypeToBlock(type, mc.player.dimension);
+    }
+
+    /**
+     * @param dimension The dimension id, which decides what a solid block is
+     */
+    public static IBlockState pathingTypeToBlock(PathingBlockType type, int dimension) {
         switch (type) {
             case AIR:
                 return Blocks.AIR.getDefaultState();
@@ -154,7 +141,7 @@ public final class ChunkPacker implements Helper {
                 return Blocks.LAVA.getDefaultState();
             case SOLID:
                 // Dimension solid types
-                switch (mc.player.dimension) {
+                switch (dimension) {
                     case -1:
                         return Blocks.NETHERRACK.getDefaultState();
                     case 0:
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+
+/**
+ * A goal whose heuristic is raised by the triangle inequality over landmark tables. If the goal is at least b steps from
+ * a landmark and the node is at most a, the node is at least b - a steps from the goal, and the same the other way
+ * around. Through caves, or around anything walled in, this is far more than the straight line distance the goal
+ * itself estimates. See {@link LandmarkTable} for what a step is, and where it can still overestimate.
+ * <p>
+ * A step is never cheaper than half a sprinted diagonal, so steps are converted to ticks at that rate. Nodes in chunks
+ * that a landmark didn't reach just don't get anything from it.
+ */
+final class LandmarkGoal implements Goal {
+
+    static final double STEP_COST = ActionCosts.SPRINT_ONE_BLOCK_COST / Math.sqrt(2);
+
+    private final Goal goal;
+
+    private final LandmarkTable[] tables;
+
+    /**
+     * The fewest and most steps from each landmark to the chunk the goal is in
+     */
+    private final int[] goalMin;
+    private final int[] goalMax;
+
+    LandmarkGoal(Goal goal, LandmarkTable[] tables, int[] goalMin, int[] goalMax) {
+        this.goal = goal;
+        this.tables = tables;
+        this.goalMin = goalMin;
+        this.goalMax = goalMax;
+    }
+
+    @Override
+    public boolean isInGoal(int x, int y, int z) {
+        return goal.isInGoal(x, y, z);
+    }
+
+    @Override
+    public double heuristic(int x, int y, int z) {
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        int steps = 0;
+        for (int i = 0; i < tables.length; i++) {
+            long range = tables[i].range(chunkX, chunkZ);
+            if (range == LandmarkTable.NO_RANGE) {
+                continue;
+            }
+            steps = Math.max(steps, LandmarkTable.min(range) - goalMax[i]);
+            steps = Math.max(steps, goalMin[i] - LandmarkTable.max(range));
+        }
+        return Math.max(goal.heuristic(x, y, z), steps * STEP_COST);
+    }
+
+    @Override
+    public String toString() {
+        return goal + " with " + tables.length + " landmarks";
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.utils.pathing.PathingBlockType;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * How many steps it is from one landmark to every cached chunk around it, kept per chunk as the nearest and farthest
+ * position in that chunk.
+ * <p>
+ * The steps are counted on a relaxation of the movement graph over the 2 bit cached data. Any cell that isn't solid is
+ * open, water and avoid included, and moving up or down through open cells is free, so falls of any height, swimming,
+ * climbing, pillaring and bridging are all covered. Only a step in one of the four directions, between two open cells
+ * at the same y, counts. Every movement moves at least as many of those steps as it moves blocks along x plus z, and
+ * costs at least {@link LandmarkGoal#STEP_COST} each. Chunks that aren't cached are all open, and so is everything
+ * outside the radius, which the one block wide ring around it stands in for since going around the outside is never
+ * shorter than that in four directions. The graph is symmetric, so the step count to the landmark and back is the
+ * same, and that's what lets {@link LandmarkGoal} subtract two of them.
+ * <p>
+ * What this can't see is a way through a cell the cache calls solid: breaking it, or walking through it if it's a door,
+ * a ladder or the like, which the 2 bit data doesn't tell apart from stone. Where that's the only way, the bound can
+ * overestimate.
+ */
+public final class LandmarkTable {
+
+    /**
+     * Changed when the steps started being counted on the relaxation above, tables counted the old way are thrown out
+     */
+    private static final int LANDMARK_MAGIC = 0x1b2e4f7d;
+
+    /**
+     * Returned by {@link #range(int, int)} when the landmark never reached that chunk
+     */
+    static final long NO_RANGE = -1;
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DZ = {-1, 1, 0, 0};
+
+    /**
+     * Where the cached chunks come from, null if that chunk isn't cached
+     */
+    interface ChunkSource {
+
+        CachedChunk get(int chunkX, int chunkZ);
+    }
+
+    public final int x;
+    public final int y;
+    public final int z;
+
+    /**
+     * Chunk key to the fewest steps from the landmark to that chunk in the high half, and the most in the low half
+     */
+    private final Long2LongOpenHashMap chunks;
+
+    /**
+     * The position the most steps away from the landmark, a good place for the next one. Not saved.
+     */
+    private final BlockPos farthest;
+
+    private LandmarkTable(int x, int y, int z, Long2LongOpenHashMap chunks, BlockPos farthest) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.chunks = chunks;
+        this.farthest = farthest;
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return (long) chunkX & 0xFFFFFFFFL | ((long) chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+    /**
+     * @return The fewest steps in the high 32 bits and the most in the low 32 bits, or {@link #NO_RANGE}
+     */
+    long range(int chunkX, int chunkZ) {
+        return chunks.get(chunkKey(chunkX, chunkZ));
+    }
+
+    static int min(long range) {
+        return (int) (range >>> 32);
+    }
+
+    static int max(long range) {
+        return (int) range;
+    }
+
+    int chunkCount() {
+        return chunks.size();
+    }
+
+    BlockPos farthest() {
+        return farthest;
+    }
+
+    BlockPos getPos() {
+        return new BlockPos(x, y, z);
+    }
+
+    /**
+     * Breadth first search outwards from the landmark through the chunks that are currently cached in ram, at most
+     * radius chunks away from it in x and z.
+     *
+     * @return The table, or null if the landmark isn't somewhere the cache knows is open
+     */
+    static LandmarkTable build(CachedWorld world, BlockPos landmark, int radius) {
+        return build((chunkX, chunkZ) -> {
+            CachedRegion region = world.getRegion(chunkX >> 5, chunkZ >> 5);
+            return region == null ? null : region.getChunk(chunkX & 31, chunkZ & 31);
+        }, landmark, radius);
+    }
+
+    static LandmarkTable build(ChunkSource source, BlockPos landmark, int radius) {
+        Runs runs = new Runs(source, landmark.getX() >> 4, landmark.getZ() >> 4, radius);
+        int start = runs.find(landmark.getX(), landmark.getY(), landmark.getZ());
+        if (start == -1) {
+            return null;
+        }
+        int[] steps = new int[runs.count];
+        Arrays.fill(steps, -1);
+        int[] queue = new int[runs.count];
+        int tail = 0;
+        steps[start] = 0;
+        queue[tail++] = start;
+        Long2LongOpenHashMap chunks = new Long2LongOpenHashMap();
+        chunks.defaultReturnValue(NO_RANGE);
+        int last = start;
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            int column = runs.column[current];
+            int x = runs.x(column);
+            int z = runs.z(column);
+            int here = steps[current];
+            if (runs.inside(x, z)) {
+                if (runs.known(current)) {
+                    last = current;
+                }
+                long key = chunkKey(x >> 4, z >> 4);
+                long range = chunks.get(key);
+                // breadth first, so the first visit to a chunk is its minimum and every later one is at least as far
+                chunks.put(key, range == NO_RANGE ? (long) here << 32 | here : range & 0xFFFFFFFF00000000L | here);
+            }
+            for (int dir = 0; dir < 4; dir++) {
+                int neighbor = runs.column(x + DX[dir], z + DZ[dir]);
+                if (neighbor == -1) {
+                    continue;
+                }
+                for (int next = runs.first[neighbor]; next < runs.first[neighbor + 1]; next++) {
+                    if (steps[next] == -1 && runs.lo[next] <= runs.hi[current] && runs.lo[current] <= runs.hi[next]) {
+                        steps[next] = here + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        int column = runs.column[last];
+        return new LandmarkTable(landmark.getX(), landmark.getY(), landmark.getZ(), chunks, new BlockPos(runs.x(column), runs.lo[last], runs.z(column)));
+    }
+
+    String fileName() {
+        return "l." + x + "." + y + "." + z + ".bcl";
+    }
+
+    void save(Path directory) throws IOException {
+        try (
+                FileOutputStream fileOut = new FileOutputStream(directory.resolve(fileName()).toFile());
+                GZIPOutputStream gzipOut = new GZIPOutputStream(fileOut, 16384);
+                DataOutputStream out = new DataOutputStream(gzipOut)
+        ) {
+            out.writeInt(LANDMARK_MAGIC);
+            out.writeInt(x);
+            out.writeInt(y);
+            out.writeInt(z);
+            out.writeInt(chunks.size());
+            for (Long2LongMap.Entry entry : chunks.long2LongEntrySet()) {
+                out.writeLong(entry.getLongKey());
+                out.writeLong(entry.getLongValue());
+            }
+        }
+    }
+
+    static LandmarkTable load(Path file) throws IOException {
+        try (
+                FileInputStream fileIn = new FileInputStream(file.toFile());
+                GZIPInputStream gzipIn = new GZIPInputStream(fileIn, 32768);
+                DataInputStream in = new DataInputStream(gzipIn)
+        ) {
+            int magic = in.readInt();
+            if (magic != LANDMARK_MAGIC) {
+                throw new IOException("Bad magic value " + magic);
+            }
+            int x = in.readInt();
+            int y = in.readInt();
+            int z = in.readInt();
+            int count = in.readInt();
+            Long2LongOpenHashMap chunks = new Long2LongOpenHashMap(count);
+            chunks.defaultReturnValue(NO_RANGE);
+            for (int i = 0; i < count; i++) {
+                chunks.put(in.readLong(), in.readLong());
+            }
+            return new LandmarkTable(x, y, z, chunks, null);
+        }
+    }
+
+    /**
+     * Every run of open cells in every column within the radius, plus the ring around it, in column order
+     */
+    private static final class Runs {
+
+        private final int minX;
+        private final int minZ;
+        private final int side;
+
+        /**
+         * The runs of column c are first[c] until first[c + 1]
+         */
+        final int[] first;
+        final int[] column;
+        final int[] lo;
+        final int[] hi;
+        final int count;
+
+        Runs(ChunkSource source, int chunkX, int chunkZ, int radius) {
+            this.minX = (chunkX - radius) * 16 - 1;
+            this.minZ = (chunkZ - radius) * 16 - 1;
+            this.side = (2 * radius + 1) * 16 + 2;
+            this.first = new int[side * side + 1];
+            IntArrayList column = new IntArrayList();
+            IntArrayList lo = new IntArrayList();
+            IntArrayList hi = new IntArrayList();
+            CachedChunk chunk = null;
+            long chunkKey = Long.MIN_VALUE;
+            for (int c = 0; c < side * side; c++) {
+                first[c] = lo.size();
+                int x = x(c);
+                int z = z(c);
+                if (!inside(x, z)) {
+                    // outside the radius, we don't know, so it's open
+                    column.add(c);
+                    lo.add(0);
+                    hi.add(255);
+                    continue;
+                }
+                long key = LandmarkTable.chunkKey(x >> 4, z >> 4);
+                if (key != chunkKey) {
+                    chunk = source.get(x >> 4, z >> 4);
+                    chunkKey = key;
+                }
+                int start = -1;
+                for (int y = 0; y <= 256; y++) {
+                    boolean open = y < 256 && (chunk == null || chunk.getType(x & 15, y, z & 15) != PathingBlockType.SOLID);
+                    if (open && start == -1) {
+                        start = y;
+                    }
+                    if (!open && start != -1) {
+                        column.add(c);
+                        lo.add(start);
+                        hi.add(y - 1);
+                        start = -1;
+                    }
+                }
+            }
+            first[side * side] = lo.size();
+            this.column = column.toIntArray();
+            this.lo = lo.toIntArray();
+            this.hi = hi.toIntArray();
+            this.count = this.lo.length;
+        }
+
+        int x(int column) {
+            return minX + column / side;
+        }
+
+        int z(int column) {
+            return minZ + column % side;
+        }
+
+        /**
+         * @return The column, or -1 if it's past the ring
+         */
+        int column(int x, int z) {
+            if (x < minX || x >= minX + side || z < minZ || z >= minZ + side) {
+                return -1;
+            }
+            return (x - minX) * side + (z - minZ);
+        }
+
+        boolean inside(int x, int z) {
+            return x > minX && x < minX + side - 1 && z > minZ && z < minZ + side - 1;
+        }
+
+        /**
+         * @return The run this position is in, or -1 if it's solid or not in a cached chunk within the radius
+         */
+        int find(int x, int y, int z) {
+            int c = column(x, z);
+            if (c == -1 || !inside(x, z)) {
+                return -1;
+            }
+            for (int run = first[c]; run < first[c + 1]; run++) {
+                if (lo[run] <= y && y <= hi[run]) {
+                    return known(run) ? run : -1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * A column with nothing solid in it is almost always a chunk that isn't cached, and either way it's nowhere to
+         * stand, so it's not used as a landmark
+         */
+        boolean known(int run) {
+            return lo[run] != 0 || hi[run] != 255;
+        }
+    }
+}
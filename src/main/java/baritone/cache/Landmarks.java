@@ -0,0 +1,205 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.Baritone;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.pathing.goals.GoalTwoBlocks;
+import baritone.api.pathing.goals.GoalXZ;
+import net.minecraft.util.math.BlockPos;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The landmark tables of one cached world, saved as l.x.y.z.bcl files next to its region files.
+ * <p>
+ * Landmarks are picked from the waypoints near you, then topped up by repeatedly taking whatever position is the most
+ * steps from all the landmarks so far, which is what makes the triangle inequality tight for goals on the far side of
+ * something.
+ * @see LandmarkGoal
+ */
+public final class Landmarks {
+
+    private final CachedWorld world;
+
+    private final Path directory;
+
+    private volatile LandmarkTable[] tables = new LandmarkTable[0];
+
+    Landmarks(CachedWorld world, String directory) {
+        this.world = world;
+        this.directory = Paths.get(directory);
+        load();
+    }
+
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<LandmarkTable> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "l.*.bcl")) {
+            for (Path file : files) {
+                try {
+                    loaded.add(LandmarkTable.load(file));
+                } catch (IOException ex) {
+                    System.out.println("Unable to load landmark " + file + " " + ex);
+                }
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        tables = loaded.toArray(new LandmarkTable[0]);
+        System.out.println("Loaded " + tables.length + " landmarks");
+    }
+
+    /**
+     * Throws away the current landmarks and computes new ones over the chunks that are cached right now. This walks
+     * every standable position within landmarkRadius chunks of each landmark, so it should be run off thread.
+     *
+     * @param candidates Positions to use as landmarks if they're close enough, e.g. waypoints
+     * @param center     Where the landmarks should be around, usually the player
+     * @return How many landmarks there are now
+     */
+    public synchronized int rebuild(Collection<BlockPos> candidates, BlockPos center) {
+        int radius = Baritone.settings().landmarkRadius.get();
+        int count = Baritone.settings().landmarkCount.get();
+        List<LandmarkTable> built = new ArrayList<>();
+        candidates.stream()
+                .filter(pos -> Math.abs((pos.getX() >> 4) - (center.getX() >> 4)) <= radius && Math.abs((pos.getZ() >> 4) - (center.getZ() >> 4)) <= radius)
+                .sorted(Comparator.comparingDouble(pos -> pos.distanceSq(center)))
+                .forEachOrdered(pos -> {
+                    if (built.size() < count) {
+                        LandmarkTable table = LandmarkTable.build(world, pos, radius);
+                        if (table != null) {
+                            built.add(table);
+                        }
+                    }
+                });
+        // farthest point selection, seeded from the center if no waypoint was usable
+        List<LandmarkTable> seeds = new ArrayList<>(built);
+        if (seeds.isEmpty()) {
+            LandmarkTable seed = LandmarkTable.build(world, center, radius);
+            if (seed == null) {
+                System.out.println("Can't stand at " + center + " according to the cache, not adding any landmarks");
+            } else {
+                seeds.add(seed);
+            }
+        }
+        while (built.size() < count && !seeds.isEmpty()) {
+            BlockPos best = null;
+            int bestSteps = 0;
+            for (LandmarkTable seed : seeds) {
+                BlockPos candidate = seed.farthest();
+                if (candidate == null) {
+                    continue; // loaded from disk, don't know
+                }
+                int steps = Integer.MAX_VALUE;
+                for (LandmarkTable table : built) {
+                    long range = table.range(candidate.getX() >> 4, candidate.getZ() >> 4);
+                    steps = Math.min(steps, range == LandmarkTable.NO_RANGE ? 0 : LandmarkTable.min(range));
+                }
+                if (best == null || steps > bestSteps) {
+                    best = candidate;
+                    bestSteps = steps;
+                }
+            }
+            if (best == null || bestSteps == 0) {
+                break; // everything reachable is already a landmark
+            }
+            LandmarkTable table = LandmarkTable.build(world, best, radius);
+            if (table == null) {
+                break;
+            }
+            built.add(table);
+            seeds.add(table);
+        }
+        LandmarkTable[] previous = tables;
+        tables = built.toArray(new LandmarkTable[0]);
+        save(previous);
+        return tables.length;
+    }
+
+    private void save(LandmarkTable[] previous) {
+        try {
+            if (!Files.exists(directory)) {
+                Files.createDirectories(directory);
+            }
+            for (LandmarkTable table : previous) {
+                Files.deleteIfExists(directory.resolve(table.fileName()));
+            }
+            for (LandmarkTable table : tables) {
+                table.save(directory);
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * @return The goal with its heuristic tightened by the landmarks, or the goal itself if it isn't one we can place
+     * in a chunk or there are no landmarks that reach it
+     */
+    public Goal wrap(Goal goal) {
+        BlockPos pos;
+        if (goal instanceof GoalBlock) {
+            pos = ((GoalBlock) goal).getGoalPos();
+        } else if (goal instanceof GoalTwoBlocks) {
+            pos = ((GoalTwoBlocks) goal).getGoalPos();
+        } else if (goal instanceof GoalXZ) {
+            pos = new BlockPos(((GoalXZ) goal).getX(), 0, ((GoalXZ) goal).getZ());
+        } else {
+            return goal;
+        }
+        List<LandmarkTable> usable = new ArrayList<>();
+        List<Long> ranges = new ArrayList<>();
+        for (LandmarkTable table : tables) {
+            long range = table.range(pos.getX() >> 4, pos.getZ() >> 4);
+            if (range != LandmarkTable.NO_RANGE) {
+                usable.add(table);
+                ranges.add(range);
+            }
+        }
+        if (usable.isEmpty()) {
+            return goal;
+        }
+        int[] goalMin = new int[usable.size()];
+        int[] goalMax = new int[usable.size()];
+        for (int i = 0; i < goalMin.length; i++) {
+            goalMin[i] = LandmarkTable.min(ranges.get(i));
+            goalMax[i] = LandmarkTable.max(ranges.get(i));
+        }
+        return new LandmarkGoal(goal, usable.toArray(new LandmarkTable[0]), goalMin, goalMax);
+    }
+
+    public List<BlockPos> getPositions() {
+        List<BlockPos> positions = new ArrayList<>();
+        for (LandmarkTable table : tables) {
+            positions.add(table.getPos());
+        }
+        return positions;
+    }
+}
@@ -21,12 +21,17 @@ import baritone.Baritone;
 import baritone.api.event.events.*;
 import baritone.api.event.events.type.EventState;
 import baritone.api.event.listener.IGameEventListener;
+import baritone.api.pathing.calc.SearchStats;
 import baritone.api.utils.interfaces.Toggleable;
 import baritone.cache.WorldProvider;
 import baritone.utils.BlockStateInterface;
 import baritone.utils.Helper;
 import baritone.utils.InputOverrideHandler;
+import baritone.utils.pathing.ChunkGenerations;
 import net.minecraft.client.settings.KeyBinding;
+import net.minecraft.network.play.server.SPacketBlockChange;
+import net.minecraft.network.play.server.SPacketMultiBlockChange;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.chunk.Chunk;
 import org.lwjgl.input.Keyboard;
 
@@ -42,6 +47,8 @@ public final class GameEventHandler implements IGameEventListener, Helper {
 
     @Override
     public final void onTick(TickEvent event) {
+        ChunkGenerations.INSTANCE.onTick();
+
         listeners.forEach(l -> {
             if (canDispatch(l)) {
                 l.onTick(event);
@@ -107,6 +114,7 @@ public final class GameEventHandler implements IGameEventListener, Helper {
                 && mc.world.getChunkProvider().isChunkGeneratedAt(event.getX(), event.getZ());
 
         if (isPostPopulate || isPreUnload) {
+            ChunkGenerations.INSTANCE.invalidate(event.getX(), event.getZ());
             WorldProvider.INSTANCE.ifWorldLoaded(world -> {
                 Chunk chunk = mc.world.getChunk(event.getX(), event.getZ());
                 world.getCachedWorld().queueForPacking(chunk);
@@ -135,6 +143,7 @@ public final class GameEventHandler implements IGameEventListener, Helper {
         WorldProvider cache = WorldProvider.INSTANCE;
 
         BlockStateInterface.clearCachedChunk();
+        ChunkGenerations.INSTANCE.invalidateAll();
 
         if (event.getState() == EventState.POST) {
             cache.closeWorld();
@@ -161,6 +170,18 @@ public final class GameEventHandler implements IGameEventListener, Helper {
 
     @Override
     public final void onReceivePacket(PacketEvent event) {
+        if (event.getState() == EventState.POST) {
+            if (event.getPacket() instanceof SPacketBlockChange) {
+                BlockPos pos = event.<SPacketBlockChange>cast().getBlockPosition();
+                ChunkGenerations.INSTANCE.onBlockChange(pos.getX(), pos.getZ());
+            }
+            if (event.getPacket() instanceof SPacketMultiBlockChange) {
+                for (SPacketMultiBlockChange.BlockUpdateData update : event.<SPacketMultiBlockChange>cast().getChangedBlocks()) {
+                    ChunkGenerations.INSTANCE.onBlockChange(update.getPos().getX(), update.getPos().getZ());
+                }
+            }
+        }
+
         listeners.forEach(l -> {
             if (canDispatch(l)) {
                 l.onReceivePacket(event);
@@ -186,6 +207,15 @@ public final class GameEventHandler implements IGameEventListener, Helper {
         });
     }
 
+    @Override
+    public void onBlockChange(BlockChangeEvent event) {
+        listeners.forEach(l -> {
+            if (canDispatch(l)) {
+                l.onBlockChange(event);
+            }
+        });
+    }
+
     @Override
     public void onPlayerDeath() {
         listeners.forEach(l -> {
@@ -204,6 +234,15 @@ public final class GameEventHandler implements IGameEventListener, Helper {
         });
     }
 
+    @Override
+    public void onSearchStats(SearchStats stats) {
+        listeners.forEach(l -> {
+            if (canDispatch(l)) {
+                l.onSearchStats(stats);
+            }
+        });
+    }
+
     public final void registerEventListener(IGameEventListener listener) {
         this.listeners.add(listener);
     }
@@ -18,20 +18,26 @@
 package baritone.pathing.calc;
 
 import baritone.Baritone;
+import baritone.api.Settings;
 import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.SearchStats;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.utils.BetterBlockPos;
-import baritone.pathing.calc.openset.BinaryHeapOpenSet;
+import baritone.pathing.calc.openset.*;
 import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.MovementCostMemo;
 import baritone.pathing.movement.Moves;
 import baritone.utils.BlockStateInterface;
 import baritone.utils.Helper;
 import baritone.utils.pathing.BetterWorldBorder;
 import baritone.utils.pathing.MutableMoveResult;
 
-import java.util.HashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * The actual A* pathfinding
@@ -40,19 +46,323 @@ import java.util.Optional;
  */
 public final class AStarPathFinder extends AbstractNodeCostSearch implements Helper {
 
-    private final Optional<HashSet<Long>> favoredPositions;
+    /**
+     * Moves.values() clones the array every time it's called, which would be once per node
+     */
+    private static final Moves[] ALL_MOVES = Moves.values();
+
+    private static final String[] MOVE_NAMES = Arrays.stream(ALL_MOVES).map(Moves::name).toArray(String[]::new);
+
+    private final Optional<LongOpenHashSet> favoredPositions;
+
+    /**
+     * If present, this is an anytime search, and every improved path to the goal gets handed to this as it's found
+     */
+    private final Optional<Consumer<IPath>> improvedPathListener;
+
+    private MutableMoveResult res;
+    private LongOpenHashSet favored;
+    private double favorCoeff;
+    private BetterWorldBorder worldBorder;
+    private int numMovementsConsidered;
+    private int numMemoHits;
+    private int numEmptyChunk;
+
+    /**
+     * For {@link SearchStats}, indexed by {@link Moves#ordinal()}
+     */
+    private final int[] moveEvaluations = new int[MOVE_NAMES.length];
+    private final int[] moveImpossible = new int[MOVE_NAMES.length];
+    private final long[] moveNanos = new long[MOVE_NAMES.length];
+    private boolean timeMoves;
+    private int numExpansions;
+    private int openSetHighWater;
+
+    /**
+     * Null if the memo is off, or another search has it
+     */
+    private MovementCostMemo memo;
+
+    public AStarPathFinder(int startX, int startY, int startZ, Goal goal, Optional<LongOpenHashSet> favoredPositions) {
+        this(startX, startY, startZ, goal, favoredPositions, 1);
+    }
+
+    /**
+     * @param heuristicWeight What to multiply the goal heuristic by. Above 1 makes the search greedier, trading path
+     *                        quality for finding a path sooner.
+     */
+    public AStarPathFinder(int startX, int startY, int startZ, Goal goal, Optional<LongOpenHashSet> favoredPositions, double heuristicWeight) {
+        super(startX, startY, startZ, goal, heuristicWeight);
+        this.favoredPositions = favoredPositions;
+        this.improvedPathListener = Optional.empty();
+    }
 
-    public AStarPathFinder(int startX, int startY, int startZ, Goal goal, Optional<HashSet<Long>> favoredPositions) {
-        super(startX, startY, startZ, goal);
+    /**
+     * An anytime search (ARA*). It finds a path quickly with a heavily inflated heuristic, then keeps lowering the
+     * inflation and improving on that path, reusing the costs it already has, until it's optimal or it runs out of time.
+     * Always uses the node store.
+     *
+     * @param improvedPathListener Called on the search thread with each better path to the goal, already post processed
+     * @see Settings#anytimePathing
+     */
+    public AStarPathFinder(int startX, int startY, int startZ, Goal goal, Optional<LongOpenHashSet> favoredPositions, Consumer<IPath> improvedPathListener) {
+        super(startX, startY, startZ, goal, 1, true);
         this.favoredPositions = favoredPositions;
+        this.improvedPathListener = Optional.of(improvedPathListener);
     }
 
     @Override
     protected Optional<IPath> calculate0(long timeout) {
+        if (context == null) {
+            context = new CalculationContext();
+        }
+        res = new MutableMoveResult();
+        favored = favoredPositions.orElse(null);
+        favorCoeff = Baritone.settings().backtrackCostFavoringCoefficient.get(); // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
+        worldBorder = context.worldBorder();
+        BlockStateInterface.clearCachedChunk();
+        long startTime = System.nanoTime() / 1000000L;
+        boolean slowPath = Baritone.settings().slowPath.get();
+        if (slowPath) {
+            logDebug("slowPath is on, path timeout will be " + Baritone.settings().slowPathTimeoutMS.<Long>get() + "ms instead of " + timeout + "ms");
+        }
+        long timeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.<Long>get() : timeout);
+        timeMoves = Baritone.settings().searchMoveTimings.get();
+        memo = Baritone.settings().movementCostMemo.get() && MovementCostMemo.INSTANCE.acquire(context) ? MovementCostMemo.INSTANCE : null;
+        try {
+            Optional<IPath> path;
+            if (nodeStore != null) {
+                path = calculateWithNodeStore(startTime, timeoutTime, slowPath);
+            } else {
+                path = calculateWithPathNodes(startTime, timeoutTime, slowPath);
+            }
+            SearchStats stats = new SearchStats(System.nanoTime() / 1000000L - startTime, numExpansions, mapSize(), openSetHighWater, numEmptyChunk, numMemoHits, MOVE_NAMES, moveEvaluations, moveImpossible, moveNanos);
+            searchStats = stats;
+            path.ifPresent(result -> {
+                if (result instanceof Path) {
+                    ((Path) result).setSearchStats(stats);
+                }
+            });
+            if (timeMoves) {
+                for (String line : stats.toString().split("\n")) { // one chat message per move type
+                    logDebug(line);
+                }
+            }
+            return path;
+        } finally {
+            if (memo != null) {
+                memo.release();
+                memo = null;
+            }
+        }
+    }
+
+    /**
+     * The search over the {@link NodeStore}. A plain search is the first iteration of an anytime one, at weight 1, that
+     * returns the first time it expands into the goal instead of carrying on to improve the path.
+     */
+    private Optional<IPath> calculateWithNodeStore(long startTime, long timeoutTime, boolean slowPath) {
+        NodeStore store = nodeStore;
+        Consumer<IPath> listener = improvedPathListener.orElse(null);
+        boolean anytime = listener != null;
+        double weight = anytime ? Math.max(1, Baritone.settings().anytimeInitialHeuristicWeight.get()) : 1;
+        double weightStep = Baritone.settings().anytimeHeuristicWeightStep.get();
+        int start = store.getOrCreate(startX, startY, startZ);
+        store.setCost(start, 0);
+        store.setCombinedCost(start, weight * store.estimatedCostToGoal(start));
+        INodeStoreOpenSet openSet = createOpenSet(store);
+        openSet.insert(start);
+        startId = start;
+        int[] bestSoFar = new int[COEFFICIENTS.length];//keep track of the best node by the metric of (estimatedCostToGoal + cost / COEFFICIENTS[i])
+        double[] bestHeuristicSoFar = new double[COEFFICIENTS.length];
+        for (int i = 0; i < bestHeuristicSoFar.length; i++) {
+            bestHeuristicSoFar[i] = store.estimatedCostToGoal(start);
+            bestSoFar[i] = start;
+        }
+        bestSoFarIds = bestSoFar;
+        // anytime only: a node is closed if it's been expanded during the current iteration. if a closed node gets
+        // cheaper, it isn't expanded again until the next iteration, it goes in the inconsistent list instead
+        int iteration = 1;
+        int[] closedIn = anytime ? new int[Math.max(16, store.size())] : null;
+        int[] inconsistent = anytime ? new int[16] : null;
+        int numInconsistent = 0;
+        int bestGoal = NodeStore.NO_NODE;
+        double bestGoalCost = ActionCosts.COST_INF;
+        double publishedCost = ActionCosts.COST_INF;
+        int numNodes = 0;
+        int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.get();
+        boolean minimumImprovementRepropagation = Baritone.settings().minimumImprovementRepropagation.get();
+        loopBegin();
+        while (numEmptyChunk < pathingMaxChunkBorderFetch && System.nanoTime() / 1000000L - timeoutTime < 0 && !cancelRequested) {
+            if (!openSet.isEmpty()) {
+                int currentNode = openSet.removeLowest();
+                int x = store.x(currentNode);
+                int y = store.y(currentNode);
+                int z = store.z(currentNode);
+                if (goal.isInGoal(x, y, z)) {
+                    if (!anytime) {
+                        logDebug("Took " + (System.nanoTime() / 1000000L - startTime) + "ms, " + numMovementsConsidered + " movements considered, " + numMemoHits + " of them remembered");
+                        return Optional.of(new Path(store, start, currentNode, numNodes, goal));
+                    }
+                    // no need to expand past the goal, just remember the cheapest way into it
+                    if (store.cost(currentNode) < bestGoalCost) {
+                        bestGoal = currentNode;
+                        bestGoalCost = store.cost(currentNode);
+                    }
+                    continue;
+                }
+                if (!anytime || store.combinedCost(currentNode) < bestGoalCost) {
+                    if (slowPath) {
+                        try {
+                            Thread.sleep(Baritone.settings().slowPathTimeDelayMS.<Long>get());
+                        } catch (InterruptedException ex) {
+                        }
+                    }
+                    if (anytime) {
+                        if (currentNode >= closedIn.length) {
+                            closedIn = Arrays.copyOf(closedIn, Math.max(store.size(), closedIn.length * 2));
+                        }
+                        closedIn[currentNode] = iteration;
+                    }
+                    mostRecentConsideredId = currentNode;
+                    numNodes++;
+                    numExpansions++;
+                    double currentCost = store.cost(currentNode);
+                    for (Moves moves : ALL_MOVES) {
+                        double actionCost = calculateMove(moves, x, y, z);
+                        if (actionCost >= ActionCosts.COST_INF) {
+                            continue;
+                        }
+                        int neighbor = store.getOrCreate(res.x, res.y, res.z);
+                        double neighborCost = store.cost(neighbor);
+                        double tentativeCost = currentCost + actionCost;
+                        if (tentativeCost < neighborCost) {
+                            if (tentativeCost < 0) {
+                                throw new IllegalStateException(moves + " overflowed into negative " + actionCost + " " + neighborCost + " " + tentativeCost);
+                            }
+                            double improvementBy = neighborCost - tentativeCost;
+                            // see the PathNode search
+                            if (improvementBy < 0.01 && minimumImprovementRepropagation) {
+                                continue;
+                            }
+                            double estimatedCostToGoal = store.estimatedCostToGoal(neighbor);
+                            store.setPrevious(neighbor, currentNode);
+                            store.setCost(neighbor, tentativeCost);
+                            if (anytime && neighbor < closedIn.length && closedIn[neighbor] == iteration) {
+                                if (numInconsistent == inconsistent.length) {
+                                    inconsistent = Arrays.copyOf(inconsistent, inconsistent.length * 2);
+                                }
+                                inconsistent[numInconsistent++] = neighbor;
+                            } else {
+                                store.setCombinedCost(neighbor, tentativeCost + weight * estimatedCostToGoal);
+                                if (store.isOpen(neighbor)) {
+                                    openSet.update(neighbor);
+                                } else {
+                                    openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
+                                    if (openSet.size() > openSetHighWater) {
+                                        openSetHighWater = openSet.size();
+                                    }
+                                }
+                            }
+                            for (int i = 0; i < bestSoFar.length; i++) {
+                                double heuristic = estimatedCostToGoal + tentativeCost / COEFFICIENTS[i];
+                                if (heuristic < bestHeuristicSoFar[i]) {
+                                    if (bestHeuristicSoFar[i] - heuristic < 0.01 && minimumImprovementRepropagation) {
+                                        continue;
+                                    }
+                                    bestHeuristicSoFar[i] = heuristic;
+                                    bestSoFar[i] = neighbor;
+                                }
+                            }
+                        }
+                    }
+                    continue;
+                }
+                // everything left costs at least as much as the path we have, at this weight
+                openSet.insert(currentNode);
+            }
+            // the open set ran dry, or this anytime iteration is over
+            if (bestGoal == NodeStore.NO_NODE) {
+                break; // ran out of nodes without ever reaching the goal
+            }
+            if (bestGoalCost < publishedCost && !cancelRequested) {
+                publishedCost = bestGoalCost;
+                publish(listener, start, bestGoal, numNodes, weight, startTime);
+            }
+            if (weight <= 1) {
+                break; // and it was optimal
+            }
+            weight = weightStep > 0 ? Math.max(1, weight - weightStep) : 1;
+            iteration++;
+            INodeStoreOpenSet reopened = createOpenSet(store);
+            while (!openSet.isEmpty()) {
+                reopen(store, reopened, openSet.removeLowest(), weight);
+            }
+            for (int i = 0; i < numInconsistent; i++) {
+                reopen(store, reopened, inconsistent[i], weight);
+            }
+            numInconsistent = 0;
+            openSet = reopened;
+        }
+        if (cancelRequested) {
+            return Optional.empty();
+        }
+        System.out.println(numMovementsConsidered + " movements considered, " + numMemoHits + " of them remembered");
+        System.out.println("Open set size: " + openSet.size() + " (" + openSet.getClass().getSimpleName() + ")");
+        System.out.println("Node store size: " + mapSize() + " (" + store.memoryUsage() / 1024 + "KiB)");
+        System.out.println((int) (numNodes * 1.0 / ((System.nanoTime() / 1000000L - startTime) / 1000F)) + " nodes per second");
+        if (bestGoal != NodeStore.NO_NODE) {
+            if (bestGoalCost < publishedCost) {
+                // timed out partway through an iteration that had already found something better
+                publish(listener, start, bestGoal, numNodes, weight, startTime);
+            }
+            return Optional.of(new Path(store, start, bestGoal, numNodes, goal));
+        }
+        return partialPath(start, bestSoFar, numNodes, startTime);
+    }
+
+    /**
+     * Puts a node back in the open set for the next iteration, keyed by the new heuristic weight
+     */
+    private static void reopen(NodeStore store, INodeStoreOpenSet openSet, int node, double weight) {
+        if (store.isOpen(node)) {
+            return; // it can be in the inconsistent list more than once
+        }
+        store.setCombinedCost(node, store.cost(node) + weight * store.estimatedCostToGoal(node));
+        openSet.insert(node);
+    }
+
+    private void publish(Consumer<IPath> listener, int start, int end, int numNodes, double weight, long startTime) {
+        Path path = new Path(nodeStore, start, end, numNodes, goal);
+        path.postProcess(context);
+        logDebug("Took " + (System.nanoTime() / 1000000L - startTime) + "ms to find a path costing " + nodeStore.cost(end) + " ticks, heuristic weight " + weight);
+        listener.accept(path);
+    }
+
+    /**
+     * When the goal wasn't reached, picks a path to the best node so far by the first coefficient that gets far enough
+     */
+    private Optional<IPath> partialPath(int start, int[] bestSoFar, int numNodes, long startTime) {
+        double bestDist = 0;
+        for (int i = 0; i < bestSoFar.length; i++) {
+            double dist = getDistFromStartSq(bestSoFar[i]);
+            if (dist > bestDist) {
+                bestDist = dist;
+            }
+            if (dist > MIN_DIST_PATH * MIN_DIST_PATH) { // square the comparison since distFromStartSq is squared
+                logBestSoFar(i, dist, startTime);
+                return Optional.of(new Path(nodeStore, start, bestSoFar[i], numNodes, goal));
+            }
+        }
+        logNoPath(bestDist);
+        return Optional.empty();
+    }
+
+    private Optional<IPath> calculateWithPathNodes(long startTime, long timeoutTime, boolean slowPath) {
         startNode = getNodeAtPosition(startX, startY, startZ, BetterBlockPos.longHash(startX, startY, startZ));
         startNode.cost = 0;
         startNode.combinedCost = startNode.estimatedCostToGoal;
-        BinaryHeapOpenSet openSet = new BinaryHeapOpenSet();
+        IOpenSet openSet = createOpenSet();
         openSet.insert(startNode);
         startNode.isOpen = true;
         bestSoFar = new PathNode[COEFFICIENTS.length];//keep track of the best node by the metric of (estimatedCostToGoal + cost / COEFFICIENTS[i])
@@ -61,24 +371,9 @@ public final class AStarPathFinder extends AbstractNodeCostSearch implements Hel
             bestHeuristicSoFar[i] = startNode.estimatedCostToGoal;
             bestSoFar[i] = startNode;
         }
-        CalculationContext calcContext = new CalculationContext();
-        MutableMoveResult res = new MutableMoveResult();
-        HashSet<Long> favored = favoredPositions.orElse(null);
-        BetterWorldBorder worldBorder = new BetterWorldBorder(world().getWorldBorder());
-        BlockStateInterface.clearCachedChunk();
-        long startTime = System.nanoTime() / 1000000L;
-        boolean slowPath = Baritone.settings().slowPath.get();
-        if (slowPath) {
-            logDebug("slowPath is on, path timeout will be " + Baritone.settings().slowPathTimeoutMS.<Long>get() + "ms instead of " + timeout + "ms");
-        }
-        long timeoutTime = startTime + (slowPath ? Baritone.settings().slowPathTimeoutMS.<Long>get() : timeout);
         //long lastPrintout = 0;
         int numNodes = 0;
-        int numMovementsConsidered = 0;
-        int numEmptyChunk = 0;
-        boolean favoring = favoredPositions.isPresent();
-        int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.get(); // grab all settings beforehand so that changing settings during pathing doesn't cause a crash or unpredictable behavior
-        double favorCoeff = Baritone.settings().backtrackCostFavoringCoefficient.get();
+        int pathingMaxChunkBorderFetch = Baritone.settings().pathingMaxChunkBorderFetch.get();
         boolean minimumImprovementRepropagation = Baritone.settings().minimumImprovementRepropagation.get();
         loopBegin();
         while (!openSet.isEmpty() && numEmptyChunk < pathingMaxChunkBorderFetch && System.nanoTime() / 1000000L - timeoutTime < 0 && !cancelRequested) {
@@ -92,54 +387,17 @@ public final class AStarPathFinder extends AbstractNodeCostSearch implements Hel
             currentNode.isOpen = false;
             mostRecentConsidered = currentNode;
             numNodes++;
+            numExpansions++;
             if (goal.isInGoal(currentNode.x, currentNode.y, currentNode.z)) {
-                logDebug("Took " + (System.nanoTime() / 1000000L - startTime) + "ms, " + numMovementsConsidered + " movements considered");
+                logDebug("Took " + (System.nanoTime() / 1000000L - startTime) + "ms, " + numMovementsConsidered + " movements considered, " + numMemoHits + " of them remembered");
                 return Optional.of(new Path(startNode, currentNode, numNodes, goal));
             }
-            for (Moves moves : Moves.values()) {
-                int newX = currentNode.x + moves.xOffset;
-                int newZ = currentNode.z + moves.zOffset;
-                if (newX >> 4 != currentNode.x >> 4 || newZ >> 4 != currentNode.z >> 4) {
-                    // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
-                    if (!BlockStateInterface.isLoaded(newX, newZ)) {
-                        if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
-                            numEmptyChunk++;
-                        }
-                        continue;
-                    }
-                }
-                if (!moves.dynamicXZ && !worldBorder.entirelyContains(newX, newZ)) {
-                    continue;
-                }
-                if (currentNode.y + moves.yOffset > 256 || currentNode.y + moves.yOffset < 0) {
-                    continue;
-                }
-                res.reset();
-                moves.apply(calcContext, currentNode.x, currentNode.y, currentNode.z, res);
-                numMovementsConsidered++;
-                double actionCost = res.cost;
+            for (Moves moves : ALL_MOVES) {
+                double actionCost = calculateMove(moves, currentNode.x, currentNode.y, currentNode.z);
                 if (actionCost >= ActionCosts.COST_INF) {
                     continue;
                 }
-                if (actionCost <= 0) {
-                    throw new IllegalStateException(moves + " calculated implausible cost " + actionCost);
-                }
-                if (moves.dynamicXZ && !worldBorder.entirelyContains(res.x, res.z)) { // see issue #218
-                    continue;
-                }
-                // check destination after verifying it's not COST_INF -- some movements return a static IMPOSSIBLE object with COST_INF and destination being 0,0,0 to avoid allocating a new result for every failed calculation
-                if (!moves.dynamicXZ && (res.x != newX || res.z != newZ)) {
-                    throw new IllegalStateException(moves + " " + res.x + " " + newX + " " + res.z + " " + newZ);
-                }
-                if (!moves.dynamicY && res.y != currentNode.y + moves.yOffset) {
-                    throw new IllegalStateException(moves + " " + res.x + " " + newX + " " + res.z + " " + newZ);
-                }
-                long hashCode = BetterBlockPos.longHash(res.x, res.y, res.z);
-                if (favoring && favored.contains(hashCode)) {
-                    // see issue #18
-                    actionCost *= favorCoeff;
-                }
-                PathNode neighbor = getNodeAtPosition(res.x, res.y, res.z, hashCode);
+                PathNode neighbor = getNodeAtPosition(res.x, res.y, res.z, BetterBlockPos.longHash(res.x, res.y, res.z));
                 double tentativeCost = currentNode.cost + actionCost;
                 if (tentativeCost < neighbor.cost) {
                     if (tentativeCost < 0) {
@@ -161,6 +419,9 @@ public final class AStarPathFinder extends AbstractNodeCostSearch implements Hel
                     } else {
                         neighbor.isOpen = true;
                         openSet.insert(neighbor);//dont double count, dont insert into open set if it's already there
+                        if (openSet.size() > openSetHighWater) {
+                            openSetHighWater = openSet.size();
+                        }
                     }
                     for (int i = 0; i < bestSoFar.length; i++) {
                         double heuristic = neighbor.estimatedCostToGoal + neighbor.cost / COEFFICIENTS[i];
@@ -178,8 +439,8 @@ public final class AStarPathFinder extends AbstractNodeCostSearch implements Hel
         if (cancelRequested) {
             return Optional.empty();
         }
-        System.out.println(numMovementsConsidered + " movements considered");
-        System.out.println("Open set size: " + openSet.size());
+        System.out.println(numMovementsConsidered + " movements considered, " + numMemoHits + " of them remembered");
+        System.out.println("Open set size: " + openSet.size() + " (" + openSet.getClass().getSimpleName() + ")");
         System.out.println("PathNode map size: " + mapSize());
         System.out.println((int) (numNodes * 1.0 / ((System.nanoTime() / 1000000L - startTime) / 1000F)) + " nodes per second");
         double bestDist = 0;
@@ -192,18 +453,122 @@ public final class AStarPathFinder extends AbstractNodeCostSearch implements Hel
                 bestDist = dist;
             }
             if (dist > MIN_DIST_PATH * MIN_DIST_PATH) { // square the comparison since distFromStartSq is squared
-                logDebug("Took " + (System.nanoTime() / 1000000L - startTime) + "ms, A* cost coefficient " + COEFFICIENTS[i] + ", " + numMovementsConsidered + " movements considered");
-                if (COEFFICIENTS[i] >= 3) {
-                    System.out.println("Warning: cost coefficient is greater than three! Probably means that");
-                    System.out.println("the path I found is pretty terrible (like sneak-bridging for dozens of blocks)");
-                    System.out.println("But I'm going to do it anyway, because yolo");
-                }
-                System.out.println("Path goes for " + Math.sqrt(dist) + " blocks");
+                logBestSoFar(i, dist, startTime);
                 return Optional.of(new Path(startNode, bestSoFar[i], numNodes, goal));
             }
         }
+        logNoPath(bestDist);
+        return Optional.empty();
+    }
+
+    private static IOpenSet createOpenSet() {
+        if (Baritone.settings().useRadixHeapOpenSet.get()) {
+            return new RadixHeapOpenSet();
+        }
+        int arity = Baritone.settings().openSetHeapArity.get();
+        return arity > 2 ? new DaryHeapOpenSet(arity) : new BinaryHeapOpenSet();
+    }
+
+    private static INodeStoreOpenSet createOpenSet(NodeStore store) {
+        if (Baritone.settings().useRadixHeapOpenSet.get()) {
+            return new NodeStoreRadixHeapOpenSet(store);
+        }
+        int arity = Baritone.settings().openSetHeapArity.get();
+        return arity > 2 ? new NodeStoreDaryHeapOpenSet(store, arity) : new NodeStoreBinaryHeapOpenSet(store);
+    }
+
+    /**
+     * Calculates one movement from x, y, z into {@link #res}, and counts it for {@link SearchStats}. Both the node store and the PathNode searches go through
+     * here, so that they're guaranteed to be searching exactly the same graph.
+     *
+     * @return The cost of the movement, including backtrack favoring, or COST_INF if it can't or shouldn't be taken
+     */
+    private double calculateMove(Moves moves, int x, int y, int z) {
+        int ordinal = moves.ordinal();
+        moveEvaluations[ordinal]++;
+        double cost;
+        if (timeMoves) {
+            long before = System.nanoTime();
+            cost = calculateMove0(moves, x, y, z);
+            moveNanos[ordinal] += System.nanoTime() - before;
+        } else {
+            cost = calculateMove0(moves, x, y, z);
+        }
+        if (cost >= ActionCosts.COST_INF) {
+            moveImpossible[ordinal]++;
+        }
+        return cost;
+    }
+
+    private double calculateMove0(Moves moves, int x, int y, int z) {
+        int newX = x + moves.xOffset;
+        int newZ = z + moves.zOffset;
+        if (newX >> 4 != x >> 4 || newZ >> 4 != z >> 4) {
+            // only need to check if the destination is a loaded chunk if it's in a different chunk than the start of the movement
+            if (!BlockStateInterface.isLoaded(newX, newZ)) {
+                if (!moves.dynamicXZ) { // only increment the counter if the movement would have gone out of bounds guaranteed
+                    numEmptyChunk++;
+                }
+                return ActionCosts.COST_INF;
+            }
+        }
+        if (!moves.dynamicXZ && !worldBorder.entirelyContains(newX, newZ)) {
+            return ActionCosts.COST_INF;
+        }
+        if (y + moves.yOffset > 256 || y + moves.yOffset < 0) {
+            return ActionCosts.COST_INF;
+        }
+        MutableMoveResult res = this.res;
+        res.reset();
+        MovementCostMemo memo = this.memo;
+        if (memo == null) {
+            moves.apply(context, x, y, z, res);
+        } else {
+            int generation = memo.generation(x, z);
+            if (memo.get(moves, x, y, z, generation, res)) {
+                numMemoHits++;
+            } else {
+                moves.apply(context, x, y, z, res);
+                memo.put(moves, x, y, z, generation, res);
+            }
+        }
+        numMovementsConsidered++;
+        double actionCost = res.cost;
+        if (actionCost >= ActionCosts.COST_INF) {
+            return ActionCosts.COST_INF;
+        }
+        if (actionCost <= 0) {
+            throw new IllegalStateException(moves + " calculated implausible cost " + actionCost);
+        }
+        if (moves.dynamicXZ && !worldBorder.entirelyContains(res.x, res.z)) { // see issue #218
+            return ActionCosts.COST_INF;
+        }
+        // check destination after verifying it's not COST_INF -- some movements return a static IMPOSSIBLE object with COST_INF and destination being 0,0,0 to avoid allocating a new result for every failed calculation
+        if (!moves.dynamicXZ && (res.x != newX || res.z != newZ)) {
+            throw new IllegalStateException(moves + " " + res.x + " " + newX + " " + res.z + " " + newZ);
+        }
+        if (!moves.dynamicY && res.y != y + moves.yOffset) {
+            throw new IllegalStateException(moves + " " + res.x + " " + newX + " " + res.z + " " + newZ);
+        }
+        if (favored != null && favored.contains(BetterBlockPos.longHash(res.x, res.y, res.z))) {
+            // see issue #18
+            actionCost *= favorCoeff;
+        }
+        return actionCost;
+    }
+
+    private void logBestSoFar(int i, double dist, long startTime) {
+        logDebug("Took " + (System.nanoTime() / 1000000L - startTime) + "ms, A* cost coefficient " + COEFFICIENTS[i] + ", " + numMovementsConsidered + " movements considered, " + numMemoHits + " of them remembered");
+        if (COEFFICIENTS[i] >= 3) {
+            System.out.println("Warning: cost coefficient is greater than three! Probably means that");
+            System.out.println("the path I found is pretty terrible (like sneak-bridging for dozens of blocks)");
+            System.out.println("But I'm going to do it anyway, because yolo");
+        }
+        System.out.println("Path goes for " + Math.sqrt(dist) + " blocks");
+    }
+
+    private void logNoPath(double bestDist) {
         logDebug("Even with a cost coefficient of " + COEFFICIENTS[COEFFICIENTS.length - 1] + ", I couldn't get more than " + Math.sqrt(bestDist) + " blocks");
         logDebug("No path found =(");
-        return Optional.empty();
     }
 }
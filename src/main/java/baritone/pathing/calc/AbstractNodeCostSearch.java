@@ -18,9 +18,16 @@
 package baritone.pathing.calc;
 
 import baritone.Baritone;
+import baritone.api.Settings;
 import baritone.api.pathing.calc.IPath;
 import baritone.api.pathing.calc.IPathFinder;
+import baritone.api.pathing.calc.SearchStats;
 import baritone.api.pathing.goals.Goal;
+import baritone.cache.WorldData;
+import baritone.cache.WorldProvider;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.BlockStateInterface;
+import baritone.utils.pathing.BlockSource;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 
 import java.util.Optional;
@@ -33,9 +40,10 @@ import java.util.Optional;
 public abstract class AbstractNodeCostSearch implements IPathFinder {
 
     /**
-     * The currently running search task
+     * The currently running search task. When it's a {@link PortfolioPathFinder}, that's what's registered here, not
+     * any of its members.
      */
-    private static AbstractNodeCostSearch currentlyRunning = null;
+    private static volatile IPathFinder currentlyRunning = null;
 
     protected final int startX;
     protected final int startY;
@@ -44,6 +52,14 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
     protected final Goal goal;
 
     /**
+     * The goal whose heuristic the nodes are scored by. Same as {@link #goal} unless the heuristic is weighted or
+     * tightened by landmarks.
+     */
+    private final Goal heuristic;
+
+    /**
+     * Only used when the node store is off
+     *
      * @see <a href="https://github.com/cabaletta/baritone/issues/107">Issue #107</a>
      */
     private final Long2ObjectOpenHashMap<PathNode> map;
@@ -54,9 +70,45 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
 
     protected PathNode[] bestSoFar;
 
+    /**
+     * Only used when the node store is on, in which case all of the PathNode fields above are unused
+     *
+     * @see Settings#useNodeStore
+     */
+    protected final NodeStore nodeStore;
+
+    protected int startId = NodeStore.NO_NODE;
+
+    protected volatile int mostRecentConsideredId = NodeStore.NO_NODE;
+
+    protected int[] bestSoFarIds;
+
+    /**
+     * The block source (e.g. a snapshot) that was in effect on the thread that created this search, which it keeps
+     * reading from even if it's calculated on another thread, like the members of a portfolio are
+     */
+    private final BlockSource source = BlockStateInterface.getBlockSource();
+
+    /**
+     * What the movements are costed with. Made from the player when the search starts, unless one was given with
+     * {@link #setContext(CalculationContext)}
+     */
+    protected CalculationContext context;
+
     private volatile boolean isFinished;
 
-    protected boolean cancelRequested;
+    /**
+     * Whether this is one of the searches of a {@link PortfolioPathFinder}, in which case it leaves
+     * {@link #currentlyRunning} to the portfolio
+     */
+    private boolean portfolioMember;
+
+    protected volatile boolean cancelRequested;
+
+    /**
+     * Set by the search once it's finished
+     */
+    protected volatile SearchStats searchStats;
 
     /**
      * This is really complicated and hard to explain. I wrote a comment in the old version of MineBot but it was so
@@ -70,41 +122,91 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
      */
     protected final static double MIN_DIST_PATH = 5;
 
-    AbstractNodeCostSearch(int startX, int startY, int startZ, Goal goal) {
+    AbstractNodeCostSearch(int startX, int startY, int startZ, Goal goal, double heuristicWeight) {
+        this(startX, startY, startZ, goal, heuristicWeight, Baritone.settings().useNodeStore.get());
+    }
+
+    /**
+     * @param useNodeStore Whether to keep nodes in a {@link NodeStore}, for searches that only work with one
+     */
+    AbstractNodeCostSearch(int startX, int startY, int startZ, Goal goal, double heuristicWeight, boolean useNodeStore) {
         this.startX = startX;
         this.startY = startY;
         this.startZ = startZ;
         this.goal = goal;
-        this.map = new Long2ObjectOpenHashMap<>(Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.get());
+        Goal scored = goal;
+        if (Baritone.settings().useLandmarkHeuristic.get()) {
+            WorldData world = WorldProvider.INSTANCE.getCurrentWorld();
+            if (world != null) {
+                scored = world.cache.getLandmarks().wrap(goal);
+            }
+        }
+        this.heuristic = heuristicWeight == 1 ? scored : new WeightedGoal(scored, heuristicWeight);
+        if (useNodeStore) {
+            this.map = null;
+            this.nodeStore = new NodeStore(heuristic, Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.get());
+        } else {
+            this.map = new Long2ObjectOpenHashMap<>(Baritone.settings().pathingMapDefaultSize.value, Baritone.settings().pathingMapLoadFactor.get());
+            this.nodeStore = null;
+        }
+    }
+
+    /**
+     * Calculate with this context instead of one made from the player, e.g. when there is no player. Has to be called
+     * before {@link #calculate(long)}.
+     */
+    public void setContext(CalculationContext context) {
+        this.context = context;
     }
 
     public void cancel() {
         cancelRequested = true;
     }
 
+    /**
+     * Called by the {@link PortfolioPathFinder} this is a member of, before it's calculated
+     */
+    void joinPortfolio() {
+        portfolioMember = true;
+    }
+
     public synchronized Optional<IPath> calculate(long timeout) {
         if (isFinished) {
             throw new IllegalStateException("Path Finder is currently in use, and cannot be reused!");
         }
-        this.cancelRequested = false;
+        BlockSource outer = BlockStateInterface.getBlockSource();
+        BlockStateInterface.setBlockSource(source);
         try {
             Optional<IPath> path = calculate0(timeout);
-            path.ifPresent(IPath::postProcess);
+            path.ifPresent(this::postProcess);
             isFinished = true;
             return path;
         } finally {
             // this is run regardless of what exception may or may not be raised by calculate0
-            currentlyRunning = null;
+            BlockStateInterface.setBlockSource(outer);
+            if (!portfolioMember) {
+                currentlyRunning = null;
+            }
             isFinished = true;
         }
     }
 
+    private void postProcess(IPath path) {
+        if (path instanceof Path && context != null) {
+            ((Path) path).postProcess(context);
+        } else {
+            path.postProcess();
+        }
+    }
+
     /**
      * Don't set currentlyRunning to this until everything is all ready to go, and we're about to enter the main loop.
      * For example, bestSoFar is null so bestPathSoFar (which gets bestSoFar[0]) could NPE if we set currentlyRunning before calculate0
      */
     protected void loopBegin() {
-        currentlyRunning = this;
+        if (!portfolioMember) {
+            currentlyRunning = this;
+        }
     }
 
     protected abstract Optional<IPath> calculate0(long timeout);
@@ -124,6 +226,19 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
         return xDiff * xDiff + yDiff * yDiff + zDiff * zDiff;
     }
 
+    /**
+     * {@link #getDistFromStartSq(PathNode)} for a node in the {@link NodeStore}
+     *
+     * @param node A node id
+     * @return The distance, squared
+     */
+    protected double getDistFromStartSq(int node) {
+        int xDiff = nodeStore.x(node) - startX;
+        int yDiff = nodeStore.y(node) - startY;
+        int zDiff = nodeStore.z(node) - startZ;
+        return xDiff * xDiff + yDiff * yDiff + zDiff * zDiff;
+    }
+
     /**
      * Attempts to search the block position hashCode long to {@link PathNode} map
      * for the node mapped to the specified pos. If no node is found,
@@ -135,7 +250,7 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
     protected PathNode getNodeAtPosition(int x, int y, int z, long hashCode) {
         PathNode node = map.get(hashCode);
         if (node == null) {
-            node = new PathNode(x, y, z, goal);
+            node = new PathNode(x, y, z, heuristic);
             map.put(hashCode, node);
         }
         return node;
@@ -145,6 +260,22 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
         currentlyRunning = null;
     }
 
+    static void setCurrentlyRunning(IPathFinder search) {
+        currentlyRunning = search;
+    }
+
+    /**
+     * Cancel whatever search is currently running, if any
+     */
+    public static void cancelCurrentlyRunning() {
+        IPathFinder search = currentlyRunning;
+        if (search instanceof AbstractNodeCostSearch) {
+            ((AbstractNodeCostSearch) search).cancel();
+        } else if (search instanceof PortfolioPathFinder) {
+            ((PortfolioPathFinder) search).cancel();
+        }
+    }
+
     public PathNode mostRecentNodeConsidered() {
         return mostRecentConsidered;
     }
@@ -160,6 +291,13 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
     @Override
     public Optional<IPath> pathToMostRecentNodeConsidered() {
         try {
+            if (nodeStore != null) {
+                int node = mostRecentConsideredId;
+                if (node == NodeStore.NO_NODE) {
+                    return Optional.empty();
+                }
+                return Optional.of(new Path(nodeStore.columns(), startId, node, 0, goal));
+            }
             return Optional.ofNullable(mostRecentConsidered).map(node -> new Path(startNode, node, 0, goal));
         } catch (IllegalStateException ex) {
             System.out.println("Unable to construct path to render");
@@ -168,12 +306,17 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
     }
 
     protected int mapSize() {
-        return map.size();
+        return nodeStore != null ? nodeStore.size() : map.size();
     }
 
     @Override
     public Optional<IPath> bestPathSoFar() {
-        if (startNode == null || bestSoFar[0] == null) {
+        if (nodeStore != null) {
+            return bestPathSoFarFromStore();
+        }
+        // a portfolio asks its members before they've all started
+        PathNode[] bestSoFar = this.bestSoFar;
+        if (startNode == null || bestSoFar == null || bestSoFar[0] == null) {
             return Optional.empty();
         }
         for (int i = 0; i < bestSoFar.length; i++) {
@@ -194,6 +337,40 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
         return Optional.empty();
     }
 
+    private Optional<IPath> bestPathSoFarFromStore() {
+        int[] bestSoFarIds = this.bestSoFarIds;
+        if (startId == NodeStore.NO_NODE || bestSoFarIds == null) {
+            return Optional.empty();
+        }
+        // this is called from other threads while the search is still adding to the store, so only read what's published
+        NodeStore.Columns columns = nodeStore.columns();
+        for (int i = 0; i < bestSoFarIds.length; i++) {
+            int node = bestSoFarIds[i];
+            if (node == NodeStore.NO_NODE || !columns.contains(node)) {
+                continue;
+            }
+            int xDiff = columns.x[node] - startX;
+            int yDiff = columns.y[node] - startY;
+            int zDiff = columns.z[node] - startZ;
+            if (xDiff * xDiff + yDiff * yDiff + zDiff * zDiff > MIN_DIST_PATH * MIN_DIST_PATH) {
+                try {
+                    return Optional.of(new Path(columns, startId, node, 0, goal));
+                } catch (IllegalStateException ex) {
+                    System.out.println("Unable to construct path to render");
+                    return Optional.empty();
+                }
+            }
+        }
+        // instead of returning bestSoFar[0], be less misleading
+        // if it actually won't find any path, don't make them think it will by rendering a dark blue that will never actually happen
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SearchStats> getSearchStats() {
+        return Optional.ofNullable(searchStats);
+    }
+
     @Override
     public final boolean isFinished() {
         return isFinished;
@@ -204,11 +381,11 @@ public abstract class AbstractNodeCostSearch implements IPathFinder {
         return goal;
     }
 
-    public static Optional<AbstractNodeCostSearch> getCurrentlyRunning() {
+    public static Optional<IPathFinder> getCurrentlyRunning() {
         return Optional.ofNullable(currentlyRunning);
     }
 
-    public static AbstractNodeCostSearch currentlyRunning() {
+    public static IPathFinder currentlyRunning() {
         return currentlyRunning;
     }
 }
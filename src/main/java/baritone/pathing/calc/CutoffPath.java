@@ -18,12 +18,15 @@
 package baritone.pathing.calc;
 
 import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.PathIndex;
+import baritone.api.pathing.calc.SearchStats;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.movement.IMovement;
 import baritone.api.utils.BetterBlockPos;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 public class CutoffPath implements IPath {
 
@@ -35,11 +38,19 @@ public class CutoffPath implements IPath {
 
     private final Goal goal;
 
+    private final Optional<SearchStats> searchStats;
+
+    /**
+     * Built the first time it's asked for
+     */
+    private volatile PathIndex index;
+
     CutoffPath(IPath prev, int lastPositionToInclude) {
         path = prev.positions().subList(0, lastPositionToInclude + 1);
         movements = prev.movements().subList(0, lastPositionToInclude + 1);
         numNodes = prev.getNumNodesConsidered();
         goal = prev.getGoal();
+        searchStats = prev.getSearchStats();
     }
 
     @Override
@@ -57,8 +68,23 @@ public class CutoffPath implements IPath {
         return Collections.unmodifiableList(path);
     }
 
+    @Override
+    public PathIndex index() {
+        PathIndex index = this.index;
+        if (index == null) {
+            index = new PathIndex(path);
+            this.index = index;
+        }
+        return index;
+    }
+
     @Override
     public int getNumNodesConsidered() {
         return numNodes;
     }
+
+    @Override
+    public Optional<SearchStats> getSearchStats() {
+        return searchStats;
+    }
 }
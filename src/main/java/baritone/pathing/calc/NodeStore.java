@@ -0,0 +1,317 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays replacement for {@link PathNode} objects and the Long2ObjectOpenHashMap that holds them.
+ * <p>
+ * Every node is an int id into a set of primitive columns, and the lookup from position to id is an open addressing
+ * table keyed by packed coordinates. A long search allocates a handful of big arrays instead of millions of small
+ * objects, so there's nothing for the GC to trace and no pause when the search is thrown away.
+ * <p>
+ * The columns are reallocated as the store grows, so never hold onto one of the arrays, always go through the accessors.
+ * Only the search's own thread may use the accessors. Anything else, like the renderer drawing the path so far, reads
+ * the {@link Columns} that were published the last time they were reallocated.
+ */
+public final class NodeStore {
+
+    /**
+     * Returned by {@link #getIfPresent(int, int, int)} when there is no node at a position
+     */
+    public static final int NO_NODE = -1;
+
+    private final Goal goal;
+
+    private final float loadFactor;
+
+    private int[] x;
+    private int[] y;
+    private int[] z;
+
+    /**
+     * Cached, should always be equal to goal.heuristic(pos)
+     */
+    private double[] estimatedCostToGoal;
+
+    /**
+     * Total cost of getting from start to here
+     */
+    private double[] cost;
+
+    /**
+     * Should always be equal to estimatedCostToGoal + cost
+     */
+    private double[] combinedCost;
+
+    /**
+     * The id of the node that contributed the cost, or {@link #NO_NODE}
+     */
+    private int[] previous;
+
+    /**
+     * Where is this node in the array flattenization of the binary heap? 0 means not in the open set, since the heap
+     * is 1-indexed. This doubles as PathNode.isOpen.
+     */
+    private int[] heapPosition;
+
+    private volatile Columns columns;
+
+    private int size;
+
+    /**
+     * The packed coordinates of each slot in the hash table
+     */
+    private long[] keys;
+
+    /**
+     * The node id in each slot in the hash table, or {@link #NO_NODE} if the slot is empty
+     */
+    private int[] ids;
+
+    private int mask;
+
+    private int maxFill;
+
+    public NodeStore(Goal goal, int expected, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1 " + loadFactor);
+        }
+        this.goal = goal;
+        this.loadFactor = loadFactor;
+        int tableSize = Integer.highestOneBit(Math.max(16, (int) Math.ceil(Math.max(expected, 1) / loadFactor)) - 1) << 1;
+        this.keys = new long[tableSize];
+        this.ids = new int[tableSize];
+        Arrays.fill(ids, NO_NODE);
+        this.mask = tableSize - 1;
+        this.maxFill = (int) (tableSize * loadFactor);
+        int capacity = Math.max(16, expected);
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.z = new int[capacity];
+        this.estimatedCostToGoal = new double[capacity];
+        this.cost = new double[capacity];
+        this.combinedCost = new double[capacity];
+        this.previous = new int[capacity];
+        this.heapPosition = new int[capacity];
+        this.columns = new Columns(x, y, z, previous);
+    }
+
+    /**
+     * The position and previous columns, as of the last time the store grew, for assembling paths on a thread other
+     * than the search's while it's still adding nodes. The search only ever writes to the latest arrays, and every id
+     * it hands out is either in these arrays or past the end of them, never in some other set of arrays that's since
+     * been thrown away.
+     */
+    public static final class Columns {
+
+        final int[] x;
+        final int[] y;
+        final int[] z;
+        final int[] previous;
+
+        private Columns(int[] x, int[] y, int[] z, int[] previous) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.previous = previous;
+        }
+
+        boolean contains(int node) {
+            return node >= 0 && node < x.length;
+        }
+    }
+
+    public Columns columns() {
+        return columns;
+    }
+
+    /**
+     * Packs a position into a long. X and Z get 26 bits each (enough for the 30 million world border) and Y gets 12.
+     * Unlike BetterBlockPos.longHash, this is lossless, so it can be used as a key without storing the coordinates again.
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | (long) y & 0xFFFL;
+    }
+
+    private static int mix(long key) {
+        // the same murmur3 finalizer that fastutil uses in HashCommon.mix
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ h >>> 16);
+    }
+
+    /**
+     * Finds the node at this position, creating it if it doesn't exist yet
+     *
+     * @return The id of the node
+     */
+    public int getOrCreate(int x, int y, int z) {
+        long key = pack(x, y, z);
+        int slot = mix(key) & mask;
+        int id;
+        while ((id = ids[slot]) != NO_NODE) {
+            if (keys[slot] == key) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        id = allocate(x, y, z);
+        keys[slot] = key;
+        ids[slot] = id;
+        if (size >= maxFill) {
+            rehash(ids.length << 1);
+        }
+        return id;
+    }
+
+    /**
+     * @return The id of the node at this position, or {@link #NO_NODE} if it hasn't been created
+     */
+    public int getIfPresent(int x, int y, int z) {
+        long key = pack(x, y, z);
+        int slot = mix(key) & mask;
+        int id;
+        while ((id = ids[slot]) != NO_NODE) {
+            if (keys[slot] == key) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_NODE;
+    }
+
+    private int allocate(int x, int y, int z) {
+        if (size == this.x.length) {
+            grow(size << 1);
+        }
+        int id = size++;
+        this.x[id] = x;
+        this.y[id] = y;
+        this.z[id] = z;
+        this.estimatedCostToGoal[id] = goal.heuristic(x, y, z);
+        this.cost[id] = ActionCosts.COST_INF;
+        this.combinedCost[id] = 0;
+        this.previous[id] = NO_NODE;
+        this.heapPosition[id] = 0;
+        return id;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        estimatedCostToGoal = Arrays.copyOf(estimatedCostToGoal, capacity);
+        cost = Arrays.copyOf(cost, capacity);
+        combinedCost = Arrays.copyOf(combinedCost, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        heapPosition = Arrays.copyOf(heapPosition, capacity);
+        columns = new Columns(x, y, z, previous);
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = keys;
+        int[] oldIds = ids;
+        long[] newKeys = new long[tableSize];
+        int[] newIds = new int[tableSize];
+        Arrays.fill(newIds, NO_NODE);
+        int newMask = tableSize - 1;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] == NO_NODE) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & newMask;
+            while (newIds[slot] != NO_NODE) {
+                slot = (slot + 1) & newMask;
+            }
+            newKeys[slot] = oldKeys[i];
+            newIds[slot] = oldIds[i];
+        }
+        keys = newKeys;
+        ids = newIds;
+        mask = newMask;
+        maxFill = (int) (tableSize * loadFactor);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Approximately how many bytes the columns and the table are taking up, for comparison against PathNode
+     */
+    public long memoryUsage() {
+        return (long) x.length * (4 * 6 + 8 * 3) + (long) ids.length * (8 + 4);
+    }
+
+    public int x(int node) {
+        return x[node];
+    }
+
+    public int y(int node) {
+        return y[node];
+    }
+
+    public int z(int node) {
+        return z[node];
+    }
+
+    public double estimatedCostToGoal(int node) {
+        return estimatedCostToGoal[node];
+    }
+
+    public double cost(int node) {
+        return cost[node];
+    }
+
+    public void setCost(int node, double cost) {
+        this.cost[node] = cost;
+    }
+
+    public double combinedCost(int node) {
+        return combinedCost[node];
+    }
+
+    public void setCombinedCost(int node, double combinedCost) {
+        this.combinedCost[node] = combinedCost;
+    }
+
+    public int previous(int node) {
+        return previous[node];
+    }
+
+    public void setPrevious(int node, int previous) {
+        this.previous[node] = previous;
+    }
+
+    public int heapPosition(int node) {
+        return heapPosition[node];
+    }
+
+    public void setHeapPosition(int node, int heapPosition) {
+        this.heapPosition[node] = heapPosition;
+    }
+
+    public boolean isOpen(int node) {
+        return heapPosition[node] != 0;
+    }
+}
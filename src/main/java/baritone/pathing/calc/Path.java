@@ -19,19 +19,23 @@ package baritone.pathing.calc;
 
 import baritone.api.BaritoneAPI;
 import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.PathIndex;
+import baritone.api.pathing.calc.SearchStats;
 import baritone.api.pathing.goals.Goal;
 import baritone.api.pathing.movement.IMovement;
 import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
 import baritone.pathing.movement.Movement;
 import baritone.pathing.movement.Moves;
-import net.minecraft.client.Minecraft;
+import baritone.utils.BlockStateInterface;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.chunk.EmptyChunk;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * A node based implementation of IPath
@@ -64,6 +68,13 @@ class Path implements IPath {
 
     private volatile boolean verified;
 
+    private volatile SearchStats searchStats;
+
+    /**
+     * Built the first time it's asked for
+     */
+    private volatile PathIndex index;
+
     Path(PathNode start, PathNode end, int numNodes, Goal goal) {
         this.start = new BetterBlockPos(start.x, start.y, start.z);
         this.end = new BetterBlockPos(end.x, end.y, end.z);
@@ -74,11 +85,56 @@ class Path implements IPath {
         assemblePath(start, end);
     }
 
+    Path(NodeStore store, int start, int end, int numNodes, Goal goal) {
+        this(store.columns(), start, end, numNodes, goal);
+    }
+
+    /**
+     * @param columns What the node store published, which may be older than the store itself if the search is still
+     *                running on another thread
+     */
+    Path(NodeStore.Columns columns, int start, int end, int numNodes, Goal goal) {
+        if (!columns.contains(start) || !columns.contains(end)) {
+            throw new IllegalStateException("Node isn't in the published node store yet");
+        }
+        this.start = new BetterBlockPos(columns.x[start], columns.y[start], columns.z[start]);
+        this.end = new BetterBlockPos(columns.x[end], columns.y[end], columns.z[end]);
+        this.numNodes = numNodes;
+        this.path = new ArrayList<>();
+        this.movements = new ArrayList<>();
+        this.goal = goal;
+        assemblePath(columns, start, end);
+    }
+
+    /**
+     * A path along positions that are already known to be connected by movements, for example two paths spliced together
+     */
+    Path(List<BetterBlockPos> positions, int numNodes, Goal goal) {
+        if (positions.isEmpty()) {
+            throw new IllegalArgumentException("Path must have at least one position");
+        }
+        this.start = positions.get(0);
+        this.end = positions.get(positions.size() - 1);
+        this.numNodes = numNodes;
+        this.path = new ArrayList<>(positions);
+        this.movements = new ArrayList<>();
+        this.goal = goal;
+    }
+
     @Override
     public Goal getGoal() {
         return goal;
     }
 
+    @Override
+    public Optional<SearchStats> getSearchStats() {
+        return Optional.ofNullable(searchStats);
+    }
+
+    void setSearchStats(SearchStats searchStats) {
+        this.searchStats = searchStats;
+    }
+
     /**
      * Assembles this path given the start and end nodes.
      *
@@ -104,6 +160,42 @@ class Path implements IPath {
         path.addAll(tempPath);
     }
 
+    /**
+     * Assembles this path by walking the previous ids back from the end node in the {@link NodeStore}.
+     *
+     * @param columns The node store the search used, as published
+     * @param start   The start node id
+     * @param end     The end node id
+     */
+    private void assemblePath(NodeStore.Columns columns, int start, int end) {
+        if (!path.isEmpty() || !movements.isEmpty()) {
+            throw new IllegalStateException();
+        }
+        // unlike the PathNode linked list we can count the length first, then fill in an array back to front
+        // if the search is still running, previous ids can change under us, so every one is checked before it's used
+        int length = 1;
+        for (int current = end; current != start; current = columns.previous[current]) {
+            if (!columns.contains(current) || length > columns.previous.length) {
+                throw new IllegalStateException("End node is not reachable from start node");
+            }
+            length++;
+        }
+        BetterBlockPos[] tempPath = new BetterBlockPos[length];
+        int current = end;
+        for (int i = length - 1; i > 0; i--) {
+            if (!columns.contains(current)) {
+                throw new IllegalStateException("Path changed while it was being assembled");
+            }
+            tempPath[i] = new BetterBlockPos(columns.x[current], columns.y[current], columns.z[current]);
+            current = columns.previous[current];
+        }
+        if (current != start) {
+            throw new IllegalStateException("Path changed while it was being assembled");
+        }
+        tempPath[0] = this.start;
+        path.addAll(Arrays.asList(tempPath));
+    }
+
     /**
      * Performs a series of checks to ensure that the assembly of the path went as expected.
      */
@@ -130,21 +222,21 @@ class Path implements IPath {
         }
     }
 
-    private void assembleMovements() {
+    private void assembleMovements(CalculationContext context) {
         if (path.isEmpty() || !movements.isEmpty()) {
             throw new IllegalStateException();
         }
         for (int i = 0; i < path.size() - 1; i++) {
-            movements.add(runBackwards(path.get(i), path.get(i + 1)));
+            movements.add(runBackwards(path.get(i), path.get(i + 1), context));
         }
     }
 
-    private static Movement runBackwards(BetterBlockPos src, BetterBlockPos dest) { // TODO this is horrifying
+    private static Movement runBackwards(BetterBlockPos src, BetterBlockPos dest, CalculationContext context) { // TODO this is horrifying
         for (Moves moves : Moves.values()) {
             Movement move = moves.apply0(src);
             if (move.getDest().equals(dest)) {
                 // TODO instead of recalculating here, could we take pathNode.cost - pathNode.prevNode.cost to get the cost as-calculated?
-                move.recalculateCost(); // have to calculate the cost at calculation time so we can accurately judge whether a cost increase happened between cached calculation and real execution
+                move.recalculateCost(context); // have to calculate the cost at calculation time so we can accurately judge whether a cost increase happened between cached calculation and real execution
                 return move;
             }
         }
@@ -154,11 +246,18 @@ class Path implements IPath {
 
     @Override
     public void postProcess() {
+        postProcess(new CalculationContext());
+    }
+
+    /**
+     * @param context What to cost the movements with, the same context the search used so that they come out the same
+     */
+    void postProcess(CalculationContext context) {
         if (verified) {
             throw new IllegalStateException();
         }
         verified = true;
-        assembleMovements();
+        assembleMovements(context);
         // more post processing here
         movements.forEach(Movement::checkLoadedChunk);
         sanityCheck();
@@ -177,6 +276,16 @@ class Path implements IPath {
         return Collections.unmodifiableList(path);
     }
 
+    @Override
+    public PathIndex index() {
+        PathIndex index = this.index;
+        if (index == null) {
+            index = new PathIndex(path);
+            this.index = index;
+        }
+        return index;
+    }
+
     @Override
     public int getNumNodesConsidered() {
         return numNodes;
@@ -196,7 +305,7 @@ class Path implements IPath {
     public IPath cutoffAtLoadedChunks() {
         for (int i = 0; i < positions().size(); i++) {
             BlockPos pos = positions().get(i);
-            if (Minecraft.getMinecraft().world.getChunk(pos) instanceof EmptyChunk) {
+            if (!BlockStateInterface.isChunkLoaded(pos.getX(), pos.getZ())) {
                 return new CutoffPath(this, i);
             }
         }
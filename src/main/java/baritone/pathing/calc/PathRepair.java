@@ -0,0 +1,119 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalComposite;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repairs a path that broke partway through, instead of throwing it away and searching all the way to the goal again.
+ * <p>
+ * When one movement becomes impossible or much more expensive (a bridge block broken, something placed in the way),
+ * everything after it on the path is still fine. So this searches from where we are now to any of the next few
+ * positions after the broken movement, and splices that detour onto the rest of the old path. That's a search of a few
+ * dozen blocks, not the whole path, so it finishes in milliseconds.
+ * <p>
+ * This isn't an incremental search like D* Lite, nothing the original search found is reused. It's a fresh, short A*
+ * to the old path, so the spliced path is only as good as the old path after wherever the detour meets it.
+ */
+public final class PathRepair {
+
+    /**
+     * How many positions after the broken movement we're willing to rejoin the old path at
+     */
+    private static final int REJOIN_WINDOW = 20;
+
+    private PathRepair() {}
+
+    /**
+     * @param start            Where the player is now, the start of the detour
+     * @param broken           The path that broke
+     * @param brokenMovement   The index of the movement in the broken path that became impossible or too expensive
+     * @param timeout          How long the detour search can take
+     * @return The repaired path, post processed and ready to execute, or empty if there's no short enough detour
+     */
+    public static Optional<IPath> repair(BlockPos start, IPath broken, int brokenMovement, long timeout) {
+        return repair(start, broken, brokenMovement, timeout, null);
+    }
+
+    /**
+     * @param context What to search and cost the detour with, or null to make one from the player
+     */
+    static Optional<IPath> repair(BlockPos start, IPath broken, int brokenMovement, long timeout, CalculationContext context) {
+        List<BetterBlockPos> positions = broken.positions();
+        int firstRejoin = brokenMovement + 1;
+        int lastRejoin = Math.min(positions.size() - 1, brokenMovement + REJOIN_WINDOW);
+        if (firstRejoin > lastRejoin) {
+            return Optional.empty();
+        }
+        Goal rejoin = new GoalComposite(new ArrayList<>(positions.subList(firstRejoin, lastRejoin + 1)));
+        AStarPathFinder finder = new AStarPathFinder(start.getX(), start.getY(), start.getZ(), rejoin, Optional.empty());
+        if (context != null) {
+            finder.setContext(context);
+        }
+        Optional<IPath> detour = finder.calculate(timeout);
+        if (!detour.isPresent() || !rejoin.isInGoal(detour.get().getDest())) {
+            return Optional.empty(); // a partial detour isn't worth splicing, fall back to a normal search
+        }
+        List<BetterBlockPos> spliced = splice(detour.get().positions(), positions, firstRejoin);
+        Path path = new Path(spliced, detour.get().getNumNodesConsidered(), broken.getGoal());
+        if (context != null) {
+            path.postProcess(context);
+        } else {
+            path.postProcess();
+        }
+        return Optional.of(path);
+    }
+
+    /**
+     * The detour stops at the first position in the window it gets to, but on the way there it can go through the old
+     * path further along than the window. So it's cut off at the first position it has in common with any of the old
+     * path from the window on, and joins the old path there, otherwise the spliced path would go through some positions
+     * twice.
+     *
+     * @param detour      The positions of a detour that ends on the old path
+     * @param old         The positions of the old path
+     * @param firstRejoin The index of the first position in the old path the detour could rejoin at
+     * @return The start of the detour followed by the rest of the old path
+     */
+    static List<BetterBlockPos> splice(List<BetterBlockPos> detour, List<BetterBlockPos> old, int firstRejoin) {
+        Map<BetterBlockPos, Integer> tail = new HashMap<>();
+        for (int i = firstRejoin; i < old.size(); i++) {
+            tail.putIfAbsent(old.get(i), i);
+        }
+        for (int i = 0; i < detour.size(); i++) {
+            Integer rejoinAt = tail.get(detour.get(i));
+            if (rejoinAt != null) {
+                List<BetterBlockPos> spliced = new ArrayList<>(detour.subList(0, i + 1));
+                spliced.addAll(old.subList(rejoinAt + 1, old.size()));
+                return spliced;
+            }
+        }
+        throw new IllegalArgumentException("Detour doesn't end on the old path");
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.IPathFinder;
+import baritone.api.pathing.calc.SearchStats;
+import baritone.api.pathing.goals.Goal;
+import baritone.utils.Helper;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs several {@link AStarPathFinder}s at once, each with a different heuristic weight, and takes whichever path to
+ * the goal shows up first. The others are cancelled as soon as there's a winner.
+ * <p>
+ * A single weighting can burn the whole timeout in hard terrain, grinding through a huge area that a greedier search
+ * would have skipped, while in easy terrain the unweighted search is just as fast and finds the better path. Running
+ * both means we don't have to pick ahead of time. The members all read the same world through BlockStateInterface,
+ * nothing is copied per search.
+ * <p>
+ * If nobody reaches the goal before the timeout, the best partial path from the least greedy member is used, since
+ * that's the one most likely to be heading the right way.
+ */
+public final class PortfolioPathFinder implements IPathFinder, Helper {
+
+    private final Goal goal;
+
+    /**
+     * In order of preference for a partial path. For the weighted members that's increasing heuristic weight, so index
+     * 0 is plain A*
+     */
+    private final List<AStarPathFinder> members;
+
+    private volatile boolean isFinished;
+
+    private volatile boolean cancelRequested;
+
+    /**
+     * Of the member whose path was used
+     */
+    private volatile SearchStats searchStats;
+
+    public PortfolioPathFinder(int startX, int startY, int startZ, Goal goal, Optional<LongOpenHashSet> favoredPositions, int size) {
+        this(goal, weighted(startX, startY, startZ, goal, favoredPositions, size));
+    }
+
+    /**
+     * @param goal    What a member's path has to end in to win outright
+     * @param members In order of preference for a partial path, none of them calculated yet
+     */
+    PortfolioPathFinder(Goal goal, List<AStarPathFinder> members) {
+        this.goal = goal;
+        this.members = new ArrayList<>(members);
+        this.members.forEach(AbstractNodeCostSearch::joinPortfolio);
+    }
+
+    private static List<AStarPathFinder> weighted(int startX, int startY, int startZ, Goal goal, Optional<LongOpenHashSet> favoredPositions, int size) {
+        List<AStarPathFinder> members = new ArrayList<>(size);
+        double weightStep = Baritone.settings().pathingPortfolioWeightStep.get();
+        for (int i = 0; i < size; i++) {
+            members.add(new AStarPathFinder(startX, startY, startZ, goal, favoredPositions, 1 + i * weightStep));
+        }
+        return members;
+    }
+
+    @Override
+    public Goal getGoal() {
+        return goal;
+    }
+
+    @Override
+    public synchronized Optional<IPath> calculate(long timeout) {
+        if (isFinished) {
+            throw new IllegalStateException("Path Finder is currently in use, and cannot be reused!");
+        }
+        // the members don't register themselves, so the renderer and the executor see all of them through this
+        AbstractNodeCostSearch.setCurrentlyRunning(this);
+        CompletionService<Optional<IPath>> completion = new ExecutorCompletionService<>(Baritone.INSTANCE.getExecutor());
+        Map<Future<Optional<IPath>>, Integer> futures = new HashMap<>();
+        try {
+            for (int i = 0; i < members.size(); i++) {
+                AStarPathFinder member = members.get(i);
+                futures.put(completion.submit(() -> member.calculate(timeout)), i);
+            }
+            IPath fallback = null;
+            int fallbackIndex = Integer.MAX_VALUE;
+            for (int remaining = futures.size(); remaining > 0 && !cancelRequested; remaining--) {
+                Future<Optional<IPath>> future = completion.take();
+                int index = futures.get(future);
+                Optional<IPath> path;
+                try {
+                    path = future.get();
+                } catch (ExecutionException ex) {
+                    logDebug("Pathing exception in portfolio member " + index + ": " + ex.getCause());
+                    ex.getCause().printStackTrace();
+                    continue;
+                }
+                if (!path.isPresent()) {
+                    continue;
+                }
+                if (goal.isInGoal(path.get().getDest())) {
+                    logDebug("Portfolio member " + index + " reached the goal first");
+                    searchStats = path.get().getSearchStats().orElse(null);
+                    return path;
+                }
+                if (index < fallbackIndex) {
+                    fallback = path.get();
+                    fallbackIndex = index;
+                }
+            }
+            if (cancelRequested) {
+                return Optional.empty();
+            }
+            if (fallback != null) {
+                logDebug("No portfolio member reached the goal, using the best path so far from member " + fallbackIndex);
+                searchStats = fallback.getSearchStats().orElse(null);
+            }
+            return Optional.ofNullable(fallback);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            // whoever is still going lost, stop them (or stop them from starting at all)
+            members.forEach(AbstractNodeCostSearch::cancel);
+            futures.keySet().forEach(future -> future.cancel(false));
+            AbstractNodeCostSearch.setCurrentlyRunning(null);
+            isFinished = true;
+        }
+    }
+
+    public void cancel() {
+        cancelRequested = true;
+        members.forEach(AbstractNodeCostSearch::cancel);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return isFinished;
+    }
+
+    @Override
+    public Optional<IPath> pathToMostRecentNodeConsidered() {
+        return members.get(0).pathToMostRecentNodeConsidered();
+    }
+
+    @Override
+    public Optional<IPath> bestPathSoFar() {
+        for (AStarPathFinder member : members) {
+            Optional<IPath> path = member.bestPathSoFar();
+            if (path.isPresent()) {
+                return path;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SearchStats> getSearchStats() {
+        return Optional.ofNullable(searchStats);
+    }
+}
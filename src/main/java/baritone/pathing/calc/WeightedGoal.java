@@ -0,0 +1,50 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.Goal;
+
+/**
+ * A goal with its heuristic multiplied by a constant. Weighting the heuristic above 1 makes A* greedier: it finds a
+ * path sooner, but that path can cost up to weight times more than the best one.
+ */
+final class WeightedGoal implements Goal {
+
+    private final Goal goal;
+    private final double weight;
+
+    WeightedGoal(Goal goal, double weight) {
+        this.goal = goal;
+        this.weight = weight;
+    }
+
+    @Override
+    public boolean isInGoal(int x, int y, int z) {
+        return goal.isInGoal(x, y, z);
+    }
+
+    @Override
+    public double heuristic(int x, int y, int z) {
+        return goal.heuristic(x, y, z) * weight;
+    }
+
+    @Override
+    public String toString() {
+        return goal + " weighted by " + weight;
+    }
+}
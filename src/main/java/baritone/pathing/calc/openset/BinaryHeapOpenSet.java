@@ -52,6 +52,7 @@ public final class BinaryHeapOpenSet implements IOpenSet {
         this.array = new PathNode[size];
     }
 
+    @Override
     public int size() {
         return size;
     }
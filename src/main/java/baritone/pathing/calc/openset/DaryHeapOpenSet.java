@@ -0,0 +1,165 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.pathing.calc.PathNode;
+
+import java.util.Arrays;
+
+/**
+ * A d-ary heap that keeps each node's combinedCost in a double[] alongside the node array.
+ * <p>
+ * {@link BinaryHeapOpenSet} reads combinedCost out of the PathNode for every comparison, and on a big heap every one of
+ * those is a cache miss, since the nodes are scattered all over the heap. Here, sifting only reads the keys array, and
+ * the children of a node are next to each other in it, so picking the smallest of four children is one cache line
+ * instead of four misses. The tree is also half as deep as a binary heap, for the same number of nodes.
+ * <p>
+ * The nodes still get touched to update heapPosition when they move, since update needs to find them.
+ */
+public final class DaryHeapOpenSet implements IOpenSet {
+
+    /**
+     * The initial capacity of the heap (2^10)
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int arity;
+
+    /**
+     * The array backing the heap, 0-indexed. The children of i are arity * i + 1 through arity * i + arity
+     */
+    private PathNode[] nodes;
+
+    /**
+     * keys[i] is always nodes[i].combinedCost
+     */
+    private double[] keys;
+
+    /**
+     * The size of the heap
+     */
+    private int size;
+
+    public DaryHeapOpenSet() {
+        this(4);
+    }
+
+    public DaryHeapOpenSet(int arity) {
+        this(arity, INITIAL_CAPACITY);
+    }
+
+    public DaryHeapOpenSet(int arity, int size) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2 " + arity);
+        }
+        this.arity = arity;
+        this.size = 0;
+        this.nodes = new PathNode[size];
+        this.keys = new double[size];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void insert(PathNode value) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        siftUp(value, value.combinedCost, size++);
+    }
+
+    @Override
+    public void update(PathNode val) {
+        siftUp(val, val.combinedCost, val.heapPosition);
+    }
+
+    private void siftUp(PathNode val, double cost, int index) {
+        PathNode[] nodes = this.nodes;
+        double[] keys = this.keys;
+        while (index > 0) {
+            int parent = (index - 1) / arity;
+            double parentCost = keys[parent];
+            if (parentCost <= cost) {
+                break;
+            }
+            PathNode parentNode = nodes[parent];
+            nodes[index] = parentNode;
+            keys[index] = parentCost;
+            parentNode.heapPosition = index;
+            index = parent;
+        }
+        nodes[index] = val;
+        keys[index] = cost;
+        val.heapPosition = index;
+    }
+
+    @Override
+    public PathNode removeLowest() {
+        if (size == 0) {
+            throw new IllegalStateException();
+        }
+        PathNode[] nodes = this.nodes;
+        double[] keys = this.keys;
+        PathNode result = nodes[0];
+        size--;
+        PathNode val = nodes[size];
+        double cost = keys[size];
+        nodes[size] = null;
+        result.heapPosition = -1;
+        if (size == 0) {
+            return result;
+        }
+        int index = 0;
+        while (true) {
+            int firstChild = index * arity + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int end = Math.min(firstChild + arity, size);
+            int smallestChild = firstChild;
+            double smallestCost = keys[firstChild];
+            for (int child = firstChild + 1; child < end; child++) {
+                if (keys[child] < smallestCost) {
+                    smallestChild = child;
+                    smallestCost = keys[child];
+                }
+            }
+            if (cost <= smallestCost) {
+                break;
+            }
+            PathNode smallestNode = nodes[smallestChild];
+            nodes[index] = smallestNode;
+            keys[index] = smallestCost;
+            smallestNode.heapPosition = index;
+            index = smallestChild;
+        }
+        nodes[index] = val;
+        keys[index] = cost;
+        val.heapPosition = index;
+        return result;
+    }
+}
@@ -51,4 +51,9 @@ public interface IOpenSet {
      * @param node The node
      */
     void update(PathNode node);
+
+    /**
+     * @return The number of nodes in the open set
+     */
+    int size();
 }
@@ -29,6 +29,8 @@ import baritone.pathing.calc.PathNode;
 class LinkedListOpenSet implements IOpenSet {
     private Node first = null;
 
+    private int size;
+
     @Override
     public boolean isEmpty() {
         return first == null;
@@ -40,6 +42,7 @@ class LinkedListOpenSet implements IOpenSet {
         node.val = pathNode;
         node.nextOpen = first;
         first = node;
+        size++;
     }
 
     @Override
@@ -52,6 +55,7 @@ class LinkedListOpenSet implements IOpenSet {
         if (first == null) {
             return null;
         }
+        size--;
         Node current = first.nextOpen;
         if (current == null) {
             Node n = first;
@@ -82,6 +86,11 @@ class LinkedListOpenSet implements IOpenSet {
         return bestNode.val;
     }
 
+    @Override
+    public int size() {
+        return size;
+    }
+
     public static class Node { //wrapper with next
         private Node nextOpen;
         private PathNode val;
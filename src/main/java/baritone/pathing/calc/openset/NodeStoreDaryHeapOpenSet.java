@@ -0,0 +1,155 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.pathing.calc.NodeStore;
+
+import java.util.Arrays;
+
+/**
+ * {@link DaryHeapOpenSet}, but over int node ids in a {@link NodeStore}. Since a heap position of 0 means "not in the
+ * open set" in the store, positions are stored plus one.
+ */
+public final class NodeStoreDaryHeapOpenSet implements INodeStoreOpenSet {
+
+    /**
+     * The initial capacity of the heap (2^10)
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final NodeStore store;
+
+    private final int arity;
+
+    /**
+     * The array backing the heap, 0-indexed. The children of i are arity * i + 1 through arity * i + arity
+     */
+    private int[] nodes;
+
+    /**
+     * keys[i] is always the combinedCost of nodes[i]
+     */
+    private double[] keys;
+
+    /**
+     * The size of the heap
+     */
+    private int size;
+
+    public NodeStoreDaryHeapOpenSet(NodeStore store, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2 " + arity);
+        }
+        this.store = store;
+        this.arity = arity;
+        this.size = 0;
+        this.nodes = new int[INITIAL_CAPACITY];
+        this.keys = new double[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void insert(int value) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        siftUp(value, store.combinedCost(value), size++);
+    }
+
+    @Override
+    public void update(int val) {
+        siftUp(val, store.combinedCost(val), store.heapPosition(val) - 1);
+    }
+
+    private void siftUp(int val, double cost, int index) {
+        NodeStore store = this.store;
+        int[] nodes = this.nodes;
+        double[] keys = this.keys;
+        while (index > 0) {
+            int parent = (index - 1) / arity;
+            double parentCost = keys[parent];
+            if (parentCost <= cost) {
+                break;
+            }
+            int parentNode = nodes[parent];
+            nodes[index] = parentNode;
+            keys[index] = parentCost;
+            store.setHeapPosition(parentNode, index + 1);
+            index = parent;
+        }
+        nodes[index] = val;
+        keys[index] = cost;
+        store.setHeapPosition(val, index + 1);
+    }
+
+    @Override
+    public int removeLowest() {
+        if (size == 0) {
+            throw new IllegalStateException();
+        }
+        NodeStore store = this.store;
+        int[] nodes = this.nodes;
+        double[] keys = this.keys;
+        int result = nodes[0];
+        size--;
+        int val = nodes[size];
+        double cost = keys[size];
+        store.setHeapPosition(result, 0);
+        if (size == 0) {
+            return result;
+        }
+        int index = 0;
+        while (true) {
+            int firstChild = index * arity + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int end = Math.min(firstChild + arity, size);
+            int smallestChild = firstChild;
+            double smallestCost = keys[firstChild];
+            for (int child = firstChild + 1; child < end; child++) {
+                if (keys[child] < smallestCost) {
+                    smallestChild = child;
+                    smallestCost = keys[child];
+                }
+            }
+            if (cost <= smallestCost) {
+                break;
+            }
+            int smallestNode = nodes[smallestChild];
+            nodes[index] = smallestNode;
+            keys[index] = smallestCost;
+            store.setHeapPosition(smallestNode, index + 1);
+            index = smallestChild;
+        }
+        nodes[index] = val;
+        keys[index] = cost;
+        store.setHeapPosition(val, index + 1);
+        return result;
+    }
+}
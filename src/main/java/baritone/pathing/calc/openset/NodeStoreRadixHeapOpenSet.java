@@ -0,0 +1,134 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.pathing.calc.NodeStore;
+
+import java.util.Arrays;
+
+/**
+ * {@link RadixHeapOpenSet}, but over int node ids in a {@link NodeStore}. Since a heap position of 0 means "not in the
+ * open set" in the store, positions are stored plus one.
+ */
+public final class NodeStoreRadixHeapOpenSet implements INodeStoreOpenSet {
+
+    private static final int BUCKETS = 65;
+
+    private static final int BUCKET_BITS = 7;
+
+    private static final int BUCKET_MASK = (1 << BUCKET_BITS) - 1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final NodeStore store;
+
+    private final int[][] buckets = new int[BUCKETS][];
+
+    private final int[] bucketSizes = new int[BUCKETS];
+
+    /**
+     * The key of the most recently removed node. Every key in the heap is at least this.
+     */
+    private long last;
+
+    private int size;
+
+    public NodeStoreRadixHeapOpenSet(NodeStore store) {
+        this.store = store;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new int[INITIAL_CAPACITY];
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void insert(int node) {
+        size++;
+        add(node);
+    }
+
+    private void add(int node) {
+        long key = RadixHeapOpenSet.key(store.combinedCost(node));
+        int bucket = Long.compareUnsigned(key, last) < 0 ? 0 : RadixHeapOpenSet.bucketOf(key, last);
+        int index = bucketSizes[bucket]++;
+        if (index == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], index * 2);
+        }
+        buckets[bucket][index] = node;
+        store.setHeapPosition(node, (index << BUCKET_BITS | bucket) + 1);
+    }
+
+    private void remove(int node) {
+        int position = store.heapPosition(node) - 1;
+        int bucket = position & BUCKET_MASK;
+        int index = position >>> BUCKET_BITS;
+        int[] array = buckets[bucket];
+        int moved = array[--bucketSizes[bucket]];
+        array[index] = moved;
+        store.setHeapPosition(moved, (index << BUCKET_BITS | bucket) + 1);
+    }
+
+    @Override
+    public void update(int node) {
+        remove(node);
+        add(node);
+    }
+
+    @Override
+    public int removeLowest() {
+        if (size == 0) {
+            throw new IllegalStateException();
+        }
+        if (bucketSizes[0] == 0) {
+            int bucket = 1;
+            while (bucketSizes[bucket] == 0) {
+                bucket++;
+            }
+            int[] array = buckets[bucket];
+            int count = bucketSizes[bucket];
+            long min = -1; // largest unsigned
+            for (int i = 0; i < count; i++) {
+                long key = RadixHeapOpenSet.key(store.combinedCost(array[i]));
+                if (Long.compareUnsigned(key, min) < 0) {
+                    min = key;
+                }
+            }
+            if (Long.compareUnsigned(min, last) > 0) {
+                last = min;
+            }
+            // everything in this bucket moves to a strictly lower one now that last has gone up
+            bucketSizes[bucket] = 0;
+            for (int i = 0; i < count; i++) {
+                add(array[i]);
+            }
+        }
+        int result = buckets[0][--bucketSizes[0]];
+        store.setHeapPosition(result, 0);
+        size--;
+        return result;
+    }
+}
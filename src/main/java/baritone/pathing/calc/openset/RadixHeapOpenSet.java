@@ -0,0 +1,157 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc.openset;
+
+import baritone.pathing.calc.PathNode;
+
+import java.util.Arrays;
+
+/**
+ * A radix heap, with combinedCost quantized to hundredths of a tick.
+ * <p>
+ * A* pops nodes in (almost) non-decreasing combinedCost order, which is exactly the case a radix heap is for. Nodes
+ * are kept in 65 buckets by the highest bit in which their key differs from the most recently removed key, so insert
+ * and decrease-key are O(1), and removeLowest only ever moves a node into a lower bucket, at most 64 times over its
+ * life.
+ * <p>
+ * Costs within a hundredth of a tick of each other come out in no particular order. That's the same precision that
+ * minimumImprovementRepropagation already ignores. If a node's cost ever goes below the most recently removed one
+ * (which an inconsistent heuristic or backtrack favoring can do), it's treated as equal to it, so it comes out next.
+ * <p>
+ * PathNode.heapPosition holds the bucket in the low 7 bits and the index within the bucket above that.
+ */
+public final class RadixHeapOpenSet implements IOpenSet {
+
+    private static final int BUCKETS = 65;
+
+    private static final int BUCKET_BITS = 7;
+
+    private static final int BUCKET_MASK = (1 << BUCKET_BITS) - 1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final PathNode[][] buckets = new PathNode[BUCKETS][];
+
+    private final int[] bucketSizes = new int[BUCKETS];
+
+    /**
+     * The key of the most recently removed node. Every key in the heap is at least this.
+     */
+    private long last;
+
+    private int size;
+
+    public RadixHeapOpenSet() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new PathNode[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * Quantizes a cost to hundredths of a tick, then flips the sign bit so that the keys of negative costs (some
+     * goals have a negative heuristic) still sort before positive ones when compared unsigned.
+     */
+    static long key(double cost) {
+        return (long) Math.floor(cost * 100) ^ Long.MIN_VALUE;
+    }
+
+    static int bucketOf(long key, long last) {
+        return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void insert(PathNode node) {
+        size++;
+        add(node);
+    }
+
+    private void add(PathNode node) {
+        long key = key(node.combinedCost);
+        int bucket = Long.compareUnsigned(key, last) < 0 ? 0 : bucketOf(key, last);
+        int index = bucketSizes[bucket]++;
+        if (index == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], index * 2);
+        }
+        buckets[bucket][index] = node;
+        node.heapPosition = index << BUCKET_BITS | bucket;
+    }
+
+    private void remove(PathNode node) {
+        int bucket = node.heapPosition & BUCKET_MASK;
+        int index = node.heapPosition >>> BUCKET_BITS;
+        PathNode[] array = buckets[bucket];
+        int lastIndex = --bucketSizes[bucket];
+        PathNode moved = array[lastIndex];
+        array[index] = moved;
+        moved.heapPosition = index << BUCKET_BITS | bucket;
+        array[lastIndex] = null;
+    }
+
+    @Override
+    public void update(PathNode node) {
+        remove(node);
+        add(node);
+    }
+
+    @Override
+    public PathNode removeLowest() {
+        if (size == 0) {
+            throw new IllegalStateException();
+        }
+        if (bucketSizes[0] == 0) {
+            int bucket = 1;
+            while (bucketSizes[bucket] == 0) {
+                bucket++;
+            }
+            PathNode[] array = buckets[bucket];
+            int count = bucketSizes[bucket];
+            long min = -1; // largest unsigned
+            for (int i = 0; i < count; i++) {
+                long key = key(array[i].combinedCost);
+                if (Long.compareUnsigned(key, min) < 0) {
+                    min = key;
+                }
+            }
+            if (Long.compareUnsigned(min, last) > 0) {
+                last = min;
+            }
+            // everything in this bucket moves to a strictly lower one now that last has gone up
+            bucketSizes[bucket] = 0;
+            for (int i = 0; i < count; i++) {
+                PathNode node = array[i];
+                array[i] = null;
+                add(node);
+            }
+        }
+        int index = --bucketSizes[0];
+        PathNode result = buckets[0][index];
+        buckets[0][index] = null;
+        size--;
+        return result;
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.utils.BlockStateInterface;
+import baritone.utils.pathing.PathingBlockType;
+import net.minecraft.block.*;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+
+import java.util.Arrays;
+
+/**
+ * Everything {@link MovementHelper} and ChunkPacker want to know about a block state that doesn't depend on where it
+ * is, worked out once for every registered state and looked up by state id, instead of running the instanceof chains
+ * millions of times per search.
+ * <p>
+ * The few rules that do depend on the world (snow and trapdoors in chunks we only have cached, liquid with something on
+ * top of it) get a flag saying so, and {@link MovementHelper} checks the world for just those.
+ * <p>
+ * Flags that depend on settings are baked in, so there's a table for each combination of those settings, built the
+ * first time it's asked for. It's only a few thousand states, that takes a few milliseconds. A search asks for the
+ * table of the {@link SettingsSnapshot} it started with, so changing one of those settings partway through doesn't
+ * change any flags under it.
+ */
+public final class BlockFlags {
+
+    /**
+     * {@link MovementHelper#canWalkThrough(SettingsSnapshot, int, int, int, IBlockState)}, apart from the world dependent cases below
+     */
+    public static final int WALK_THROUGH = 1;
+
+    /**
+     * Snow and trapdoors. If they're cached as a top block, we don't know their metadata, so they count as passable in
+     * chunks that aren't loaded.
+     */
+    public static final int WALK_THROUGH_IF_UNLOADED = 1 << 1;
+
+    /**
+     * A liquid that isn't flowing, which can't be walked through if there's liquid or a lily pad above it. Never set
+     * with assumeWalkOnWater on.
+     */
+    public static final int STILL_LIQUID = 1 << 2;
+
+    public static final int FULLY_PASSABLE = 1 << 3;
+
+    /**
+     * {@link MovementHelper#canWalkOn(SettingsSnapshot, int, int, int, IBlockState)}, apart from water, which depends on what's above it
+     */
+    public static final int WALK_ON = 1 << 4;
+
+    public static final int WATER = 1 << 5;
+
+    public static final int LIQUID = 1 << 6;
+
+    public static final int LILY_PAD = 1 << 7;
+
+    public static final int AVOID_WALKING_INTO = 1 << 8;
+
+    /**
+     * {@link MovementHelper#isReplacable(SettingsSnapshot, int, int, int, IBlockState)}, apart from snow in unloaded chunks, as above
+     */
+    public static final int REPLACEABLE = 1 << 9;
+
+    public static final int REPLACEABLE_IF_UNLOADED = 1 << 10;
+
+    /**
+     * The part of {@link MovementHelper#avoidBreaking(SettingsSnapshot, int, int, int, IBlockState)} that doesn't look at the neighbors
+     */
+    public static final int AVOID_BREAKING = 1 << 11;
+
+    /**
+     * The {@link PathingBlockType} ordinal is kept in the two bits from here
+     */
+    private static final int PATHING_TYPE_SHIFT = 12;
+
+    /**
+     * In the table for states that couldn't be classified up front, these are classified on every lookup
+     */
+    private static final int UNCLASSIFIED = -1;
+
+    private static final PathingBlockType[] PATHING_TYPES = PathingBlockType.values();
+
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+
+    /**
+     * Indexed by {@link SettingsSnapshot#blockFlagsStamp}
+     */
+    private static final Table[] tables = new Table[8];
+
+    private BlockFlags() {}
+
+    /**
+     * {@link #of(SettingsSnapshot, IBlockState)} with the settings as they are now
+     */
+    public static int of(IBlockState state) {
+        return of(SettingsSnapshot.current(), state);
+    }
+
+    /**
+     * @return The flags of this block state, one array load for any state the client has registered
+     */
+    public static int of(SettingsSnapshot settings, IBlockState state) {
+        int stamp = settings.blockFlagsStamp;
+        Table table = tables[stamp];
+        if (table == null) {
+            // two threads could both build it, either is fine
+            table = new Table(stamp);
+            tables[stamp] = table;
+        }
+        if (state == AIR) {
+            return table.air;
+        }
+        int id = Block.getStateId(state);
+        if (id >= 0 && id < table.flags.length && table.flags[id] != UNCLASSIFIED) {
+            return table.flags[id];
+        }
+        return classify(stamp, state);
+    }
+
+    public static PathingBlockType pathingType(IBlockState state) {
+        return PATHING_TYPES[of(state) >>> PATHING_TYPE_SHIFT & 3];
+    }
+
+    /**
+     * @param stamp The settings that get baked into the flags, see {@link SettingsSnapshot#blockFlagsStamp}
+     */
+    private static int classify(int stamp, IBlockState state) {
+        Block block = state.getBlock();
+        int flags = walkThrough(stamp, state, block) | walkOn(stamp, state, block) | replaceable(state, block);
+        if (fullyPassable(block)) {
+            flags |= FULLY_PASSABLE;
+        }
+        if (block == Blocks.WATER || block == Blocks.FLOWING_WATER) {
+            flags |= WATER;
+        }
+        if (block instanceof BlockLiquid) {
+            flags |= LIQUID;
+        }
+        if (block instanceof BlockLilyPad) {
+            flags |= LILY_PAD;
+        }
+        if (avoidWalkingInto(block)) {
+            flags |= AVOID_WALKING_INTO;
+        }
+        if (block == Blocks.ICE // ice becomes water, and water can mess up the path
+                || block instanceof BlockSilverfish) { // obvious reasons
+            flags |= AVOID_BREAKING;
+        }
+        return flags | pathingType(state, block).ordinal() << PATHING_TYPE_SHIFT;
+    }
+
+    private static int walkThrough(int stamp, IBlockState state, Block block) {
+        if (block == Blocks.AIR) {
+            return WALK_THROUGH;
+        }
+        if (block == Blocks.FIRE || block == Blocks.TRIPWIRE || block == Blocks.WEB || block == Blocks.END_PORTAL) {
+            return 0;
+        }
+        if (block instanceof BlockDoor || block instanceof BlockFenceGate) {
+            // Because there's no nice method in vanilla to check if a door is openable or not, we just have to assume
+            // that anything that isn't an iron door isn't openable, ignoring that some doors introduced in mods can't
+            // be opened by just interacting.
+            return block != Blocks.IRON_DOOR ? WALK_THROUGH : 0;
+        }
+        if (block instanceof BlockSnow) {
+            // the check in BlockSnow.isPassable is layers < 5
+            // while actually, we want < 3 because 3 or greater makes it impassable in a 2 high ceiling
+            return WALK_THROUGH_IF_UNLOADED | (state.getValue(BlockSnow.LAYERS) < 3 ? WALK_THROUGH : 0);
+        }
+        if (block instanceof BlockTrapDoor) {
+            return WALK_THROUGH_IF_UNLOADED | (!state.getValue(BlockTrapDoor.OPEN) ? WALK_THROUGH : 0); // see BlockTrapDoor.isPassable
+        }
+        if (BlockStateInterface.isFlowing(state)) {
+            return 0; // Don't walk through flowing liquids
+        }
+        if (block instanceof BlockLiquid) {
+            if ((stamp & 1) != 0) { // assumeWalkOnWater
+                return 0;
+            }
+            return STILL_LIQUID | (block == Blocks.WATER || block == Blocks.FLOWING_WATER ? WALK_THROUGH : 0);
+        }
+        // every block that overrides isPassable with anything more complicated than a "return true;" or "return false;"
+        // has already been accounted for above
+        // therefore it's safe to not construct a blockpos and instead just pass null
+        return block.isPassable(null, null) ? WALK_THROUGH : 0;
+    }
+
+    private static boolean fullyPassable(Block block) {
+        if (block == Blocks.AIR) {
+            return true;
+        }
+        // exceptions - blocks that are isPassable true, but we can't actually jump through
+        if (block == Blocks.FIRE
+                || block == Blocks.TRIPWIRE
+                || block == Blocks.WEB
+                || block == Blocks.VINE
+                || block == Blocks.LADDER
+                || block instanceof BlockDoor
+                || block instanceof BlockFenceGate
+                || block instanceof BlockSnow
+                || block instanceof BlockLiquid
+                || block instanceof BlockTrapDoor
+                || block instanceof BlockEndPortal) {
+            return false;
+        }
+        // door, fence gate, liquid, trapdoor have been accounted for, nothing else uses the world or pos parameters
+        return block.isPassable(null, null);
+    }
+
+    private static int walkOn(int stamp, IBlockState state, Block block) {
+        if (block == Blocks.AIR || block == Blocks.MAGMA) {
+            // plus magma, which is a normal cube but it hurts you
+            return 0;
+        }
+        if (state.isBlockNormalCube()) {
+            return WALK_ON;
+        }
+        if (block == Blocks.LADDER || (block == Blocks.VINE && (stamp & 2) != 0)) { // TODO reconsider this
+            return WALK_ON;
+        }
+        if (block == Blocks.FARMLAND || block == Blocks.GRASS_PATH) {
+            return WALK_ON;
+        }
+        if (block == Blocks.ENDER_CHEST || block == Blocks.CHEST) {
+            return WALK_ON;
+        }
+        if (block instanceof BlockGlass || block instanceof BlockStainedGlass) {
+            return WALK_ON;
+        }
+        if (block instanceof BlockSlab) {
+            if ((stamp & 4) == 0) { // allowWalkOnBottomSlab
+                if (((BlockSlab) block).isDouble()) {
+                    return WALK_ON;
+                }
+                return state.getValue(BlockSlab.HALF) != BlockSlab.EnumBlockHalf.BOTTOM ? WALK_ON : 0;
+            }
+            return WALK_ON;
+        }
+        if (block instanceof BlockStairs) {
+            return WALK_ON;
+        }
+        return 0; // water is worked out in canWalkOn, since it depends on what's above it
+    }
+
+    private static int replaceable(IBlockState state, Block block) {
+        // block double plant defaults to true when the block doesn't match, so don't need to check that case
+        // all other overrides just return true or false
+        // the only case to deal with is snow
+        if (block instanceof BlockSnow) {
+            // as with walking through, default to true if it's only cached
+            return REPLACEABLE_IF_UNLOADED | (state.getValue(BlockSnow.LAYERS) == 1 ? REPLACEABLE : 0);
+        }
+        if (block instanceof BlockDoublePlant) {
+            BlockDoublePlant.EnumPlantType kek = state.getValue(BlockDoublePlant.VARIANT);
+            return kek == BlockDoublePlant.EnumPlantType.FERN || kek == BlockDoublePlant.EnumPlantType.GRASS ? REPLACEABLE : 0;
+        }
+        return state.getMaterial().isReplaceable() ? REPLACEABLE : 0;
+    }
+
+    private static boolean avoidWalkingInto(Block block) {
+        return block instanceof BlockLiquid
+                || block instanceof BlockDynamicLiquid
+                || block == Blocks.MAGMA
+                || block == Blocks.CACTUS
+                || block == Blocks.FIRE
+                || block == Blocks.END_PORTAL
+                || block == Blocks.WEB;
+    }
+
+    private static PathingBlockType pathingType(IBlockState state, Block block) {
+        if (block.equals(Blocks.WATER)) {
+            // only water source blocks are plausibly usable, flowing water should be avoid
+            return PathingBlockType.WATER;
+        }
+        if (avoidWalkingInto(block) || block == Blocks.FLOWING_WATER || MovementHelper.isBottomSlab(state)) {
+            return PathingBlockType.AVOID;
+        }
+        // We used to do an AABB check here
+        // however, this failed in the nether when you were near a nether fortress
+        // because fences check their adjacent blocks in the world for their fence connection status to determine AABB shape
+        // this caused a nullpointerexception when we saved chunks on unload, because they were unable to check their neighbors
+        if (block == Blocks.AIR || block instanceof BlockTallGrass || block instanceof BlockDoublePlant || block instanceof BlockFlower) {
+            return PathingBlockType.AIR;
+        }
+        return PathingBlockType.SOLID;
+    }
+
+    private static final class Table {
+
+        final int air;
+        final int[] flags;
+
+        Table(int stamp) {
+            this.air = classify(stamp, AIR);
+            int size = 0;
+            for (IBlockState state : Block.BLOCK_STATE_IDS) {
+                size = Math.max(size, Block.getStateId(state) + 1);
+            }
+            this.flags = new int[size];
+            Arrays.fill(flags, UNCLASSIFIED);
+            for (IBlockState state : Block.BLOCK_STATE_IDS) {
+                try {
+                    flags[Block.getStateId(state)] = classify(stamp, state);
+                } catch (RuntimeException ex) {
+                    // probably a modded block that wants a world in isPassable, leave it to be classified on lookup
+                }
+            }
+        }
+    }
+}
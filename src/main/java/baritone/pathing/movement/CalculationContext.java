@@ -17,7 +17,6 @@
 
 package baritone.pathing.movement;
 
-import baritone.Baritone;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.utils.Helper;
 import baritone.utils.ToolSet;
@@ -27,6 +26,8 @@ import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.init.Items;
 import net.minecraft.item.ItemStack;
 
+import java.util.Arrays;
+
 /**
  * @author Brady
  * @since 8/7/2018 4:30 PM
@@ -36,41 +37,53 @@ public class CalculationContext implements Helper {
     private static final ItemStack STACK_BUCKET_WATER = new ItemStack(Items.WATER_BUCKET);
 
     private final ToolSet toolSet;
+    private final SettingsSnapshot settings;
     private final boolean hasWaterBucket;
     private final boolean hasThrowaway;
     private final boolean canSprint;
-    private final double placeBlockCost;
-    private final boolean allowBreak;
-    private final int maxFallHeightNoWater;
-    private final int maxFallHeightBucket;
     private final double waterWalkSpeed;
-    private final double breakBlockAdditionalCost;
     private final BetterWorldBorder worldBorder;
+    private final long[] toolInputs;
 
     public CalculationContext() {
         this(new ToolSet());
     }
 
     public CalculationContext(ToolSet toolSet) {
+        this(toolSet,
+                InventoryPlayer.isHotbar(mc.player.inventory.getSlotFor(STACK_BUCKET_WATER)) && !mc.world.provider.isNether(),
+                MovementHelper.throwaway(false),
+                mc.player.getFoodStats().getFoodLevel() > 6,
+                EnchantmentHelper.getDepthStriderModifier(mc.player),
+                new BetterWorldBorder(mc.world.getWorldBorder()));
+    }
+
+    /**
+     * Everything that would be read from the player and the world is given instead, for calculating with no game
+     * running. The settings still apply on top, e.g. hasThrowaway doesn't matter if allowPlace is off.
+     *
+     * @param hasWaterBucket Whether there's a water bucket on the hotbar, and it can be placed in this dimension
+     * @param hasThrowaway   Whether there's a throwaway block on the hotbar
+     * @param canSprint      Whether the player isn't too hungry to sprint
+     * @param depthStrider   The depth strider level of the boots
+     */
+    public CalculationContext(ToolSet toolSet, boolean hasWaterBucket, boolean hasThrowaway, boolean canSprint, int depthStrider, BetterWorldBorder worldBorder) {
+        // why cache these things here, why not let the movements just get directly from settings?
+        // because if some movements are calculated one way and others are calculated another way,
+        // then you get a wildly inconsistent path that isn't optimal for either scenario.
+        this.settings = SettingsSnapshot.current();
         this.toolSet = toolSet;
-        this.hasThrowaway = Baritone.settings().allowPlace.get() && MovementHelper.throwaway(false);
-        this.hasWaterBucket = Baritone.settings().allowWaterBucketFall.get() && InventoryPlayer.isHotbar(player().inventory.getSlotFor(STACK_BUCKET_WATER)) && !world().provider.isNether();
-        this.canSprint = Baritone.settings().allowSprint.get() && player().getFoodStats().getFoodLevel() > 6;
-        this.placeBlockCost = Baritone.settings().blockPlacementPenalty.get();
-        this.allowBreak = Baritone.settings().allowBreak.get();
-        this.maxFallHeightNoWater = Baritone.settings().maxFallHeightNoWater.get();
-        this.maxFallHeightBucket = Baritone.settings().maxFallHeightBucket.get();
-        int depth = EnchantmentHelper.getDepthStriderModifier(player());
+        this.hasThrowaway = settings.allowPlace && hasThrowaway;
+        this.hasWaterBucket = settings.allowWaterBucketFall && hasWaterBucket;
+        this.canSprint = settings.allowSprint && canSprint;
+        int depth = depthStrider;
         if (depth > 3) {
             depth = 3;
         }
         float mult = depth / 3.0F;
         this.waterWalkSpeed = ActionCosts.WALK_ONE_IN_WATER_COST * (1 - mult) + ActionCosts.WALK_ONE_BLOCK_COST * mult;
-        this.breakBlockAdditionalCost = Baritone.settings().blockBreakAdditionalPenalty.get();
-        // why cache these things here, why not let the movements just get directly from settings?
-        // because if some movements are calculated one way and others are calculated another way,
-        // then you get a wildly inconsistent path that isn't optimal for either scenario.
-        this.worldBorder = new BetterWorldBorder(world().getWorldBorder());
+        this.worldBorder = worldBorder;
+        this.toolInputs = toolSet.inputs();
     }
 
     public boolean canPlaceThrowawayAt(int x, int y, int z) {
@@ -115,19 +128,19 @@ public class CalculationContext implements Helper {
     }
 
     public double placeBlockCost() {
-        return placeBlockCost;
+        return settings.blockPlacementPenalty;
     }
 
     public boolean allowBreak() {
-        return allowBreak;
+        return settings.allowBreak;
     }
 
     public int maxFallHeightNoWater() {
-        return maxFallHeightNoWater;
+        return settings.maxFallHeightNoWater;
     }
 
     public int maxFallHeightBucket() {
-        return maxFallHeightBucket;
+        return settings.maxFallHeightBucket;
     }
 
     public double waterWalkSpeed() {
@@ -135,6 +148,34 @@ public class CalculationContext implements Helper {
     }
 
     public double breakBlockAdditionalCost() {
-        return breakBlockAdditionalCost;
+        return settings.blockBreakAdditionalPenalty;
+    }
+
+    /**
+     * @return The settings as they were when this context was made, which is what all the cost functions should read
+     */
+    public SettingsSnapshot settings() {
+        return settings;
+    }
+
+    public BetterWorldBorder worldBorder() {
+        return worldBorder;
+    }
+
+    /**
+     * Every setting that costs depend on is in the snapshot, and {@link SettingsSnapshot#current()} hands out the same
+     * one until one of them changes, so the settings are compared by identity. Everything else is compared exactly.
+     *
+     * @return Whether everything that movement costs depend on other than the world is the same in both contexts, so
+     * that they calculate the same costs
+     * @see MovementCostMemo
+     */
+    public boolean sameCostsAs(CalculationContext other) {
+        return settings == other.settings
+                && hasThrowaway == other.hasThrowaway
+                && hasWaterBucket == other.hasWaterBucket
+                && canSprint == other.canSprint
+                && Double.compare(waterWalkSpeed, other.waterWalkSpeed) == 0
+                && Arrays.equals(toolInputs, other.toolInputs);
     }
 }
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.utils.Helper;
+import net.minecraft.client.entity.EntityPlayerSP;
+import net.minecraft.client.multiplayer.WorldClient;
+import net.minecraft.entity.player.InventoryPlayer;
+import net.minecraft.init.MobEffects;
+import net.minecraft.item.ItemStack;
+import net.minecraft.potion.Potion;
+import net.minecraft.potion.PotionEffect;
+import net.minecraft.world.border.WorldBorder;
+
+/**
+ * A {@link CalculationContext} for the player that's shared between everything on the client thread that wants one,
+ * e.g. checking whether a movement is still possible, instead of each of them making a new one. Making one means a new
+ * tool set with an empty break time cache, scanning the hotbar for throwaway blocks and a water bucket, and reading
+ * the boots' enchantments.
+ * <p>
+ * The context is checked at most once per tick, and only made again if something it was made from has changed: the
+ * hotbar, offhand or boots, the potion effects, whether the player is too hungry to sprint, the world or its border, or
+ * the settings (see {@link SettingsSnapshot}). Something that changes partway through a tick is picked up on the next.
+ */
+public final class CalculationContextProvider implements Helper {
+
+    public static final CalculationContextProvider INSTANCE = new CalculationContextProvider();
+
+    /**
+     * The 9 hotbar slots, the offhand and the boots
+     */
+    private static final int SLOTS = 11;
+
+    private CalculationContext context;
+
+    private EntityPlayerSP player;
+    private int tick;
+
+    private WorldClient world;
+    private SettingsSnapshot settings;
+    private final ItemStack[] stacks = new ItemStack[SLOTS];
+    private final int[] counts = new int[SLOTS];
+    private int haste;
+    private int miningFatigue;
+    private boolean canSprint;
+    private double borderMinX;
+    private double borderMaxX;
+    private double borderMinZ;
+    private double borderMaxZ;
+
+    private CalculationContextProvider() {}
+
+    /**
+     * On the client thread, a different context than last time means something it was made from has changed, which
+     * the path executor uses to tell when to check the current movement's cost again.
+     *
+     * @return A context for the player as they are now, or as of earlier this tick
+     */
+    public CalculationContext get() {
+        EntityPlayerSP player = mc.player;
+        if (player == null || !mc.isCallingFromMinecraftThread()) {
+            // the tool set's break time cache isn't thread safe, so only the client thread gets to share one
+            return new CalculationContext();
+        }
+        if (context != null && player == this.player && player.ticksExisted == tick) {
+            return context;
+        }
+        if (context == null || player != this.player || changed(player)) {
+            context = new CalculationContext();
+            record(player);
+        }
+        this.tick = player.ticksExisted;
+        return context;
+    }
+
+    private boolean changed(EntityPlayerSP player) {
+        if (mc.world != world || SettingsSnapshot.current() != settings) {
+            return true;
+        }
+        for (int i = 0; i < SLOTS; i++) {
+            ItemStack stack = slot(player, i);
+            if (stack != stacks[i] || stack.getCount() != counts[i]) {
+                return true;
+            }
+        }
+        if (amplifier(player, MobEffects.HASTE) != haste || amplifier(player, MobEffects.MINING_FATIGUE) != miningFatigue) {
+            return true;
+        }
+        if (canSprint(player) != canSprint) {
+            return true;
+        }
+        WorldBorder border = world.getWorldBorder();
+        return border.minX() != borderMinX || border.maxX() != borderMaxX || border.minZ() != borderMinZ || border.maxZ() != borderMaxZ;
+    }
+
+    private void record(EntityPlayerSP player) {
+        this.player = player;
+        world = mc.world;
+        settings = context.settings();
+        for (int i = 0; i < SLOTS; i++) {
+            ItemStack stack = slot(player, i);
+            stacks[i] = stack;
+            counts[i] = stack.getCount();
+        }
+        haste = amplifier(player, MobEffects.HASTE);
+        miningFatigue = amplifier(player, MobEffects.MINING_FATIGUE);
+        canSprint = canSprint(player);
+        WorldBorder border = world.getWorldBorder();
+        borderMinX = border.minX();
+        borderMaxX = border.maxX();
+        borderMinZ = border.minZ();
+        borderMaxZ = border.maxZ();
+    }
+
+    private static ItemStack slot(EntityPlayerSP player, int i) {
+        InventoryPlayer inventory = player.inventory;
+        if (i < 9) {
+            return inventory.getStackInSlot(i);
+        }
+        if (i == 9) {
+            return inventory.offHandInventory.get(0);
+        }
+        return inventory.armorInventory.get(0);
+    }
+
+    private static int amplifier(EntityPlayerSP player, Potion potion) {
+        PotionEffect effect = player.getActivePotionEffect(potion);
+        return effect == null ? -1 : effect.getAmplifier();
+    }
+
+    /**
+     * The same as {@link CalculationContext} checks
+     */
+    private static boolean canSprint(EntityPlayerSP player) {
+        return player.getFoodStats().getFoodLevel() > 6;
+    }
+}
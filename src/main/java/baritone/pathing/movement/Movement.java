@@ -33,9 +33,9 @@ import net.minecraft.block.BlockLiquid;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.RayTraceResult;
-import net.minecraft.world.chunk.EmptyChunk;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,6 +45,13 @@ public abstract class Movement implements IMovement, Helper, MovementHelper {
 
     protected static final EnumFacing[] HORIZONTALS = {EnumFacing.NORTH, EnumFacing.SOUTH, EnumFacing.EAST, EnumFacing.WEST};
 
+    /**
+     * Which set a {@link BlockSetListener} is being told about
+     */
+    public static final int BREAK = 0;
+    public static final int PLACE = 1;
+    public static final int WALK_INTO = 2;
+
     private MovementState currentState = new MovementState().setStatus(MovementStatus.PREPPING);
 
     protected final BetterBlockPos src;
@@ -69,6 +76,13 @@ public abstract class Movement implements IMovement, Helper, MovementHelper {
     public List<BlockPos> toPlaceCached = null;
     public List<BlockPos> toWalkIntoCached = null;
 
+    /**
+     * Which of {@link #positionsToBreak} were in the way the last time {@link #refreshBlocks(BlockSetListener)} looked
+     */
+    private final boolean[] reportedInTheWay;
+
+    private boolean reportedPlace;
+
     private Boolean calculatedWhileLoaded;
 
     protected Movement(BetterBlockPos src, BetterBlockPos dest, BetterBlockPos[] toBreak, BetterBlockPos toPlace) {
@@ -76,6 +90,7 @@ public abstract class Movement implements IMovement, Helper, MovementHelper {
         this.dest = dest;
         this.positionsToBreak = toBreak;
         this.positionToPlace = toPlace;
+        this.reportedInTheWay = new boolean[toBreak.length];
     }
 
     protected Movement(BetterBlockPos src, BetterBlockPos dest, BetterBlockPos[] toBreak) {
@@ -85,7 +100,7 @@ public abstract class Movement implements IMovement, Helper, MovementHelper {
     @Override
     public double getCost() {
         if (cost == null) {
-            cost = calculateCost(new CalculationContext());
+            cost = calculateCost(CalculationContextProvider.INSTANCE.get());
         }
         return cost;
     }
@@ -98,13 +113,18 @@ public abstract class Movement implements IMovement, Helper, MovementHelper {
         return getCost();
     }
 
+    public double recalculateCost(CalculationContext context) {
+        cost = calculateCost(context);
+        return cost;
+    }
+
     protected void override(double cost) {
         this.cost = cost;
     }
 
     @Override
     public double calculateCostWithoutCaching() {
-        return calculateCost(new CalculationContext());
+        return calculateCost(CalculationContextProvider.INSTANCE.get());
     }
 
     /**
@@ -264,7 +284,7 @@ public abstract class Movement implements IMovement, Helper, MovementHelper {
     }
 
     public void checkLoadedChunk() {
-        calculatedWhileLoaded = !(world().getChunk(getDest()) instanceof EmptyChunk);
+        calculatedWhileLoaded = BlockStateInterface.isChunkLoaded(getDest().getX(), getDest().getZ());
     }
 
     @Override
@@ -279,15 +299,23 @@ public abstract class Movement implements IMovement, Helper, MovementHelper {
         toWalkIntoCached = null;
     }
 
+    /**
+     * @return Whether this one of {@link #positionsToBreak} only needs to be out of the way so that we don't walk into
+     * it, rather than being in the way of the movement itself
+     */
+    protected boolean walkInto(int index) {
+        return false;
+    }
+
     @Override
     public List<BlockPos> toBreak() {
         if (toBreakCached != null) {
             return toBreakCached;
         }
         List<BlockPos> result = new ArrayList<>();
-        for (BetterBlockPos positionToBreak : positionsToBreak) {
-            if (!MovementHelper.canWalkThrough(positionToBreak)) {
-                result.add(positionToBreak);
+        for (int i = 0; i < positionsToBreak.length; i++) {
+            if (!walkInto(i) && !MovementHelper.canWalkThrough(positionsToBreak[i])) {
+                result.add(positionsToBreak[i]);
             }
         }
         toBreakCached = result;
@@ -308,10 +336,90 @@ public abstract class Movement implements IMovement, Helper, MovementHelper {
     }
 
     @Override
-    public List<BlockPos> toWalkInto() { // overridden by movementdiagonal
-        if (toWalkIntoCached == null) {
-            toWalkIntoCached = new ArrayList<>();
+    public List<BlockPos> toWalkInto() {
+        if (toWalkIntoCached != null) {
+            return toWalkIntoCached;
+        }
+        List<BlockPos> result = new ArrayList<>();
+        for (int i = 0; i < positionsToBreak.length; i++) {
+            if (walkInto(i) && !MovementHelper.canWalkThrough(positionsToBreak[i])) {
+                result.add(positionsToBreak[i]);
+            }
+        }
+        toWalkIntoCached = result;
+        return result;
+    }
+
+    /**
+     * Checks which of this movement's blocks are in the way now, and tells the listener about each one that's changed
+     * since the last time. Nothing is allocated, so this is fine to call every tick. What was reported is remembered
+     * here, so only one listener should be following a movement at a time.
+     */
+    public void refreshBlocks(BlockSetListener listener) {
+        for (int i = 0; i < positionsToBreak.length; i++) {
+            boolean inTheWay = !MovementHelper.canWalkThrough(positionsToBreak[i]);
+            if (inTheWay != reportedInTheWay[i]) {
+                reportedInTheWay[i] = inTheWay;
+                report(listener, walkInto(i) ? WALK_INTO : BREAK, positionsToBreak[i], inTheWay);
+            }
+        }
+        if (positionToPlace != null) {
+            boolean needed = !MovementHelper.canWalkOn(positionToPlace);
+            if (needed != reportedPlace) {
+                reportedPlace = needed;
+                report(listener, PLACE, positionToPlace, needed);
+            }
+        }
+    }
+
+    /**
+     * Takes back everything that {@link #refreshBlocks(BlockSetListener)} has reported, e.g. once this movement is
+     * behind us
+     */
+    public void forgetBlocks(BlockSetListener listener) {
+        for (int i = 0; i < positionsToBreak.length; i++) {
+            if (reportedInTheWay[i]) {
+                reportedInTheWay[i] = false;
+                listener.remove(walkInto(i) ? WALK_INTO : BREAK, positionsToBreak[i]);
+            }
         }
-        return toWalkIntoCached;
+        if (reportedPlace) {
+            reportedPlace = false;
+            listener.remove(PLACE, positionToPlace);
+        }
+    }
+
+    /**
+     * Forgets what was reported without telling anyone, for when a new listener starts following this movement, like
+     * when it's carried over into a spliced path
+     */
+    public void resetReportedBlocks() {
+        Arrays.fill(reportedInTheWay, false);
+        reportedPlace = false;
+    }
+
+    private static void report(BlockSetListener listener, int set, BlockPos pos, boolean added) {
+        if (added) {
+            listener.add(set, pos);
+        } else {
+            listener.remove(set, pos);
+        }
+    }
+
+    /**
+     * Told about each block that starts or stops being in the way of a movement, so that the blocks for a whole path
+     * can be kept up to date without recomputing them
+     */
+    public interface BlockSetListener {
+
+        /**
+         * @param set One of {@link #BREAK}, {@link #PLACE} or {@link #WALK_INTO}
+         */
+        void add(int set, BlockPos pos);
+
+        /**
+         * @param set One of {@link #BREAK}, {@link #PLACE} or {@link #WALK_INTO}
+         */
+        void remove(int set, BlockPos pos);
     }
 }
@@ -0,0 +1,163 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.Baritone;
+import baritone.utils.BlockStateInterface;
+import baritone.utils.pathing.ChunkGenerations;
+import baritone.utils.pathing.MutableMoveResult;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remembers the result of every movement calculated, keyed by where it started and which move it was. Consecutive plan
+ * ahead segments overlap near where one ends and the next starts, so the second search gets most of the descend and
+ * parkour scans there for free. Entries only carry over from one search to the next if their contexts have
+ * {@link CalculationContext#sameCostsAs the same costs}, otherwise the whole table is dropped.
+ * <p>
+ * This is a direct mapped table of a fixed size, a new entry just overwrites whatever was in its slot. Every entry
+ * remembers the {@link ChunkGenerations} generation of the chunk it started in, as the search's block source has it,
+ * and is only used while that's current. Movements from chunks without one are never remembered.
+ * <p>
+ * Only one search can use the table at a time. A search that starts while another has it just goes without.
+ */
+public final class MovementCostMemo {
+
+    public static final MovementCostMemo INSTANCE = new MovementCostMemo();
+
+    private final AtomicBoolean inUse = new AtomicBoolean();
+
+    private long[] positions;
+
+    /**
+     * The epoch in the high half, the move ordinal plus one in the low half, 0 if the slot is empty
+     */
+    private long[] tags;
+
+    private int[] entryGenerations;
+
+    private double[] costs;
+
+    private int[] destX;
+    private int[] destY;
+    private int[] destZ;
+
+    private int mask;
+
+    /**
+     * Goes up whenever the costs change, so that every entry from before doesn't match anymore
+     */
+    private int epoch;
+
+    /**
+     * What the entries from the current epoch were calculated with
+     */
+    private CalculationContext context;
+
+    private MovementCostMemo() {}
+
+    /**
+     * @param context What the caller is going to calculate movements with
+     * @return Whether the caller now has the table to itself, until {@link #release()}
+     */
+    public boolean acquire(CalculationContext context) {
+        if (!inUse.compareAndSet(false, true)) {
+            return false;
+        }
+        if (this.context == null || !context.sameCostsAs(this.context)) {
+            this.context = context;
+            if (++epoch == 0 && tags != null) { // wrapped around, and the oldest entries could match again
+                Arrays.fill(tags, 0);
+            }
+        }
+        int size = Integer.highestOneBit(Math.max(1024, Baritone.settings().movementCostMemoSize.get()));
+        if (positions == null || positions.length != size) {
+            positions = new long[size];
+            tags = new long[size];
+            entryGenerations = new int[size];
+            costs = new double[size];
+            destX = new int[size];
+            destY = new int[size];
+            destZ = new int[size];
+            mask = size - 1;
+        }
+        return true;
+    }
+
+    public void release() {
+        inUse.set(false);
+    }
+
+    /**
+     * Read this before calculating the movement, and hand it to {@link #put}, so that a change that happens during the
+     * calculation still invalidates it
+     */
+    public int generation(int x, int z) {
+        return BlockStateInterface.generation(x, z);
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | (long) y & 0xFFFL;
+    }
+
+    private long tag(Moves moves) {
+        return (long) epoch << 32 | (moves.ordinal() + 1);
+    }
+
+    private int slot(long position, Moves moves) {
+        // the same murmur3 finalizer that fastutil uses in HashCommon.mix
+        long h = (position + moves.ordinal()) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ h >>> 16) & mask;
+    }
+
+    /**
+     * @return Whether the movement was remembered, in which case it's been copied into result
+     */
+    public boolean get(Moves moves, int x, int y, int z, int generation, MutableMoveResult result) {
+        if (generation == ChunkGenerations.NONE) {
+            return false;
+        }
+        long position = pack(x, y, z);
+        int slot = slot(position, moves);
+        if (positions[slot] != position || tags[slot] != tag(moves) || entryGenerations[slot] != generation) {
+            return false;
+        }
+        result.x = destX[slot];
+        result.y = destY[slot];
+        result.z = destZ[slot];
+        result.cost = costs[slot];
+        return true;
+    }
+
+    public void put(Moves moves, int x, int y, int z, int generation, MutableMoveResult result) {
+        if (generation == ChunkGenerations.NONE) {
+            return;
+        }
+        long position = pack(x, y, z);
+        int slot = slot(position, moves);
+        positions[slot] = position;
+        tags[slot] = tag(moves);
+        entryGenerations[slot] = generation;
+        destX[slot] = result.x;
+        destY[slot] = result.y;
+        destZ[slot] = result.z;
+        costs[slot] = result.cost;
+    }
+}
@@ -36,7 +36,6 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.NonNullList;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.chunk.EmptyChunk;
 
 /**
  * Static helpers for cost calculation
@@ -45,12 +44,27 @@ import net.minecraft.world.chunk.EmptyChunk;
  */
 public interface MovementHelper extends ActionCosts, Helper {
 
-    static boolean avoidBreaking(int x, int y, int z, IBlockState state) {
-        Block b = state.getBlock();
-        return b == Blocks.ICE // ice becomes water, and water can mess up the path
-                || b instanceof BlockSilverfish // obvious reasons
-                // call BlockStateInterface.get directly with x,y,z. no need to make 5 new BlockPos for no reason
-                || BlockStateInterface.get(x, y + 1, z).getBlock() instanceof BlockLiquid//don't break anything touching liquid on any side
+    static boolean avoidBreaking(SettingsSnapshot settings, int x, int y, int z, IBlockState state) {
+        if (SectionMasks.covers(settings, y)) {
+            return SectionMasks.get(settings, SectionMasks.AVOID_BREAKING, x, y, z);
+        }
+        return avoidBreaking(settings, state) || touchesLiquid(x, y, z);
+    }
+
+    /**
+     * The part of {@link #avoidBreaking(SettingsSnapshot, int, int, int, IBlockState)} that only depends on the block
+     * itself
+     */
+    static boolean avoidBreaking(SettingsSnapshot settings, IBlockState state) {
+        return (BlockFlags.of(settings, state) & BlockFlags.AVOID_BREAKING) != 0;
+    }
+
+    /**
+     * Don't break anything touching liquid on any side
+     */
+    static boolean touchesLiquid(int x, int y, int z) {
+        // call BlockStateInterface.get directly with x,y,z. no need to make 5 new BlockPos for no reason
+        return BlockStateInterface.get(x, y + 1, z).getBlock() instanceof BlockLiquid
                 || BlockStateInterface.get(x + 1, y, z).getBlock() instanceof BlockLiquid
                 || BlockStateInterface.get(x - 1, y, z).getBlock() instanceof BlockLiquid
                 || BlockStateInterface.get(x, y, z + 1).getBlock() instanceof BlockLiquid
@@ -64,64 +78,27 @@ public interface MovementHelper extends ActionCosts, Helper {
      * @return
      */
     static boolean canWalkThrough(BetterBlockPos pos) {
-        return canWalkThrough(pos.x, pos.y, pos.z, BlockStateInterface.get(pos));
+        return canWalkThrough(SettingsSnapshot.current(), pos.x, pos.y, pos.z, BlockStateInterface.get(pos));
     }
 
-    static boolean canWalkThrough(int x, int y, int z) {
-        return canWalkThrough(x, y, z, BlockStateInterface.get(x, y, z));
+    static boolean canWalkThrough(SettingsSnapshot settings, int x, int y, int z) {
+        if (SectionMasks.covers(settings, y)) {
+            return SectionMasks.get(settings, SectionMasks.WALK_THROUGH, x, y, z);
+        }
+        return canWalkThrough(settings, x, y, z, BlockStateInterface.get(x, y, z));
     }
 
-    static boolean canWalkThrough(int x, int y, int z, IBlockState state) {
-        Block block = state.getBlock();
-        if (block == Blocks.AIR) { // early return for most common case
+    static boolean canWalkThrough(SettingsSnapshot settings, int x, int y, int z, IBlockState state) {
+        int flags = BlockFlags.of(settings, state);
+        if ((flags & BlockFlags.WALK_THROUGH_IF_UNLOADED) != 0 && !BlockStateInterface.isChunkLoaded(x, z)) {
+            // snow or trapdoor cached as a top block, we don't know its metadata
+            // default to true (mostly because it would otherwise make long distance pathing through snowy biomes impossible)
             return true;
         }
-        if (block == Blocks.FIRE || block == Blocks.TRIPWIRE || block == Blocks.WEB || block == Blocks.END_PORTAL) {
+        if ((flags & BlockFlags.STILL_LIQUID) != 0 && (BlockFlags.of(settings, BlockStateInterface.get(x, y + 1, z)) & (BlockFlags.LIQUID | BlockFlags.LILY_PAD)) != 0) {
             return false;
         }
-        if (block instanceof BlockDoor || block instanceof BlockFenceGate) {
-            // Because there's no nice method in vanilla to check if a door is openable or not, we just have to assume
-            // that anything that isn't an iron door isn't openable, ignoring that some doors introduced in mods can't
-            // be opened by just interacting.
-            return block != Blocks.IRON_DOOR;
-        }
-        boolean snow = block instanceof BlockSnow;
-        boolean trapdoor = block instanceof BlockTrapDoor;
-        if (snow || trapdoor) {
-            // we've already checked doors and fence gates
-            // so the only remaining dynamic isPassables are snow and trapdoor
-            // if they're cached as a top block, we don't know their metadata
-            // default to true (mostly because it would otherwise make long distance pathing through snowy biomes impossible)
-            if (mc.world.getChunk(x >> 4, z >> 4) instanceof EmptyChunk) {
-                return true;
-            }
-            if (snow) {
-                // the check in BlockSnow.isPassable is layers < 5
-                // while actually, we want < 3 because 3 or greater makes it impassable in a 2 high ceiling
-                return state.getValue(BlockSnow.LAYERS) < 3;
-            }
-            if (trapdoor) {
-                return !state.getValue(BlockTrapDoor.OPEN); // see BlockTrapDoor.isPassable
-            }
-            throw new IllegalStateException();
-        }
-        if (BlockStateInterface.isFlowing(state)) {
-            return false; // Don't walk through flowing liquids
-        }
-        if (block instanceof BlockLiquid) {
-            if (Baritone.settings().assumeWalkOnWater.get()) {
-                return false;
-            }
-            IBlockState up = BlockStateInterface.get(x, y + 1, z);
-            if (up.getBlock() instanceof BlockLiquid || up.getBlock() instanceof BlockLilyPad) {
-                return false;
-            }
-            return block == Blocks.WATER || block == Blocks.FLOWING_WATER;
-        }
-        // every block that overrides isPassable with anything more complicated than a "return true;" or "return false;"
-        // has already been accounted for above
-        // therefore it's safe to not construct a blockpos from our x, y, z ints and instead just pass null
-        return block.isPassable(null, null);
+        return (flags & BlockFlags.WALK_THROUGH) != 0;
     }
 
     /**
@@ -130,57 +107,25 @@ public interface MovementHelper extends ActionCosts, Helper {
      *
      * @return
      */
-    static boolean fullyPassable(int x, int y, int z) {
-        return fullyPassable(BlockStateInterface.get(x, y, z));
+    static boolean fullyPassable(SettingsSnapshot settings, int x, int y, int z) {
+        if (SectionMasks.covers(settings, y)) {
+            return SectionMasks.get(settings, SectionMasks.FULLY_PASSABLE, x, y, z);
+        }
+        return fullyPassable(settings, BlockStateInterface.get(x, y, z));
     }
 
-    static boolean fullyPassable(IBlockState state) {
-        Block block = state.getBlock();
-        if (block == Blocks.AIR) { // early return for most common case
-            return true;
-        }
-        // exceptions - blocks that are isPassable true, but we can't actually jump through
-        if (block == Blocks.FIRE
-                || block == Blocks.TRIPWIRE
-                || block == Blocks.WEB
-                || block == Blocks.VINE
-                || block == Blocks.LADDER
-                || block instanceof BlockDoor
-                || block instanceof BlockFenceGate
-                || block instanceof BlockSnow
-                || block instanceof BlockLiquid
-                || block instanceof BlockTrapDoor
-                || block instanceof BlockEndPortal) {
-            return false;
-        }
-        // door, fence gate, liquid, trapdoor have been accounted for, nothing else uses the world or pos parameters
-        return block.isPassable(null, null);
+    static boolean fullyPassable(SettingsSnapshot settings, IBlockState state) {
+        return (BlockFlags.of(settings, state) & BlockFlags.FULLY_PASSABLE) != 0;
     }
 
-    static boolean isReplacable(int x, int y, int z, IBlockState state) {
+    static boolean isReplacable(SettingsSnapshot settings, int x, int y, int z, IBlockState state) {
         // for MovementTraverse and MovementAscend
-        // block double plant defaults to true when the block doesn't match, so don't need to check that case
-        // all other overrides just return true or false
-        // the only case to deal with is snow
-        /*
-         *  public boolean isReplaceable(IBlockAccess worldIn, BlockPos pos)
-         *     {
-         *         return ((Integer)worldIn.getBlockState(pos).getValue(LAYERS)).intValue() == 1;
-         *     }
-         */
-        Block block = state.getBlock();
-        if (block instanceof BlockSnow) {
+        int flags = BlockFlags.of(settings, state);
+        if ((flags & BlockFlags.REPLACEABLE_IF_UNLOADED) != 0 && !BlockStateInterface.isChunkLoaded(x, z)) {
             // as before, default to true (mostly because it would otherwise make long distance pathing through snowy biomes impossible)
-            if (mc.world.getChunk(x >> 4, z >> 4) instanceof EmptyChunk) {
-                return true;
-            }
-            return state.getValue(BlockSnow.LAYERS) == 1;
-        }
-        if (block instanceof BlockDoublePlant) {
-            BlockDoublePlant.EnumPlantType kek = state.getValue(BlockDoublePlant.VARIANT);
-            return kek == BlockDoublePlant.EnumPlantType.FERN || kek == BlockDoublePlant.EnumPlantType.GRASS;
+            return true;
         }
-        return state.getMaterial().isReplaceable();
+        return (flags & BlockFlags.REPLACEABLE) != 0;
     }
 
     static boolean isDoorPassable(BlockPos doorPos, BlockPos playerPos) {
@@ -230,13 +175,11 @@ public interface MovementHelper extends ActionCosts, Helper {
     }
 
     static boolean avoidWalkingInto(Block block) {
-        return block instanceof BlockLiquid
-                || block instanceof BlockDynamicLiquid
-                || block == Blocks.MAGMA
-                || block == Blocks.CACTUS
-                || block == Blocks.FIRE
-                || block == Blocks.END_PORTAL
-                || block == Blocks.WEB;
+        return avoidWalkingInto(SettingsSnapshot.current(), block);
+    }
+
+    static boolean avoidWalkingInto(SettingsSnapshot settings, Block block) {
+        return (BlockFlags.of(settings, block.getDefaultState()) & BlockFlags.AVOID_WALKING_INTO) != 0;
     }
 
     /**
@@ -246,71 +189,39 @@ public interface MovementHelper extends ActionCosts, Helper {
      *
      * @return
      */
-    static boolean canWalkOn(int x, int y, int z, IBlockState state) {
-        Block block = state.getBlock();
-        if (block == Blocks.AIR || block == Blocks.MAGMA) {
-            // early return for most common case (air)
-            // plus magma, which is a normal cube but it hurts you
-            return false;
-        }
-        if (state.isBlockNormalCube()) {
-            if (BlockStateInterface.isLava(block) || BlockStateInterface.isWater(block)) {
-                throw new IllegalStateException();
-            }
-            return true;
-        }
-        if (block == Blocks.LADDER || (block == Blocks.VINE && Baritone.settings().allowVines.get())) { // TODO reconsider this
-            return true;
-        }
-        if (block == Blocks.FARMLAND || block == Blocks.GRASS_PATH) {
-            return true;
-        }
-        if (block == Blocks.ENDER_CHEST || block == Blocks.CHEST) {
-            return true;
-        }
-        if (BlockStateInterface.isWater(block)) {
+    static boolean canWalkOn(SettingsSnapshot settings, int x, int y, int z, IBlockState state) {
+        int flags = BlockFlags.of(settings, state);
+        if ((flags & BlockFlags.WATER) != 0) {
             // since this is called literally millions of times per second, the benefit of not allocating millions of useless "pos.up()"
             // BlockPos s that we'd just garbage collect immediately is actually noticeable. I don't even think its a decrease in readability
             Block up = BlockStateInterface.get(x, y + 1, z).getBlock();
             if (up == Blocks.WATERLILY) {
                 return true;
             }
-            if (BlockStateInterface.isFlowing(state) || block == Blocks.FLOWING_WATER) {
+            if (BlockStateInterface.isFlowing(state) || state.getBlock() == Blocks.FLOWING_WATER) {
                 // the only scenario in which we can walk on flowing water is if it's under still water with jesus off
-                return BlockStateInterface.isWater(up) && !Baritone.settings().assumeWalkOnWater.get();
+                return BlockStateInterface.isWater(up) && !settings.assumeWalkOnWater;
             }
             // if assumeWalkOnWater is on, we can only walk on water if there isn't water above it
             // if assumeWalkOnWater is off, we can only walk on water if there is water above it
-            return BlockStateInterface.isWater(up) ^ Baritone.settings().assumeWalkOnWater.get();
-        }
-        if (block instanceof BlockGlass || block instanceof BlockStainedGlass) {
-            return true;
-        }
-        if (block instanceof BlockSlab) {
-            if (!Baritone.settings().allowWalkOnBottomSlab.get()) {
-                if (((BlockSlab) block).isDouble()) {
-                    return true;
-                }
-                return state.getValue(BlockSlab.HALF) != BlockSlab.EnumBlockHalf.BOTTOM;
-            }
-            return true;
+            return BlockStateInterface.isWater(up) ^ settings.assumeWalkOnWater;
         }
-        if (block instanceof BlockStairs) {
-            return true;
-        }
-        return false;
+        return (flags & BlockFlags.WALK_ON) != 0;
     }
 
     static boolean canWalkOn(BetterBlockPos pos, IBlockState state) {
-        return canWalkOn(pos.x, pos.y, pos.z, state);
+        return canWalkOn(SettingsSnapshot.current(), pos.x, pos.y, pos.z, state);
     }
 
     static boolean canWalkOn(BetterBlockPos pos) {
-        return canWalkOn(pos.x, pos.y, pos.z, BlockStateInterface.get(pos));
+        return canWalkOn(SettingsSnapshot.current(), pos.x, pos.y, pos.z, BlockStateInterface.get(pos));
     }
 
-    static boolean canWalkOn(int x, int y, int z) {
-        return canWalkOn(x, y, z, BlockStateInterface.get(x, y, z));
+    static boolean canWalkOn(SettingsSnapshot settings, int x, int y, int z) {
+        if (SectionMasks.covers(settings, y)) {
+            return SectionMasks.get(settings, SectionMasks.WALK_ON, x, y, z);
+        }
+        return canWalkOn(settings, x, y, z, BlockStateInterface.get(x, y, z));
     }
 
     static boolean canPlaceAgainst(int x, int y, int z) {
@@ -332,11 +243,11 @@ public interface MovementHelper extends ActionCosts, Helper {
 
     static double getMiningDurationTicks(CalculationContext context, int x, int y, int z, IBlockState state, boolean includeFalling) {
         Block block = state.getBlock();
-        if (!canWalkThrough(x, y, z, state)) {
+        if (!canWalkThrough(context.settings(), x, y, z, state)) {
             if (!context.canBreakAt(x, y, z)) {
                 return COST_INF;
             }
-            if (avoidBreaking(x, y, z, state)) {
+            if (avoidBreaking(context.settings(), x, y, z, state)) {
                 return COST_INF;
             }
             if (block instanceof BlockLiquid) {
@@ -0,0 +1,136 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.utils.BlockStateInterface;
+import baritone.utils.pathing.ChunkGenerations;
+import net.minecraft.block.state.IBlockState;
+
+/**
+ * The answers to the {@link MovementHelper} questions asked millions of times per search, precomputed for a whole
+ * 16x16x16 section at a time as one bit per block. A section is built the first time anything in it is asked about,
+ * then every later question is an array load and a shift instead of a chain of instanceof checks and neighbor lookups.
+ * <p>
+ * Sections are rebuilt when the {@link ChunkGenerations} generation of their chunk moves on, or when they're asked
+ * about under different settings than they were built with, see {@link SettingsSnapshot}. The table is direct mapped,
+ * so a section can also be evicted by another one. The generation is the one of whatever the asking thread reads
+ * blocks from, see {@link BlockStateInterface#generation(int, int)}, so a section built from a snapshot is never used
+ * for the live world once the two differ, and the other way around. Sections are immutable once built, so it's fine
+ * for the pathing thread and the client thread to share the table.
+ */
+public final class SectionMasks {
+
+    public static final int WALK_THROUGH = 0;
+    public static final int WALK_ON = 1;
+    public static final int FULLY_PASSABLE = 2;
+    public static final int AVOID_BREAKING = 3;
+
+    private static final int LAYERS = 4;
+
+    private static final int TABLE_SIZE = 4096;
+
+    private static final Section[] table = new Section[TABLE_SIZE];
+
+    private SectionMasks() {}
+
+    /**
+     * @return Whether this y can be answered from the masks, otherwise ask the rules in {@link MovementHelper} directly
+     */
+    public static boolean covers(SettingsSnapshot settings, int y) {
+        return y >= 0 && y < 256 && settings.useSectionMasks;
+    }
+
+    /**
+     * @param layer One of {@link #WALK_THROUGH}, {@link #WALK_ON}, {@link #FULLY_PASSABLE} or {@link #AVOID_BREAKING}
+     */
+    public static boolean get(SettingsSnapshot settings, int layer, int x, int y, int z) {
+        int sectionX = x >> 4;
+        int sectionY = y >> 4;
+        int sectionZ = z >> 4;
+        int generation = BlockStateInterface.generation(x, z);
+        if (generation == ChunkGenerations.NONE) {
+            return compute(settings, layer, x, y, z);
+        }
+        int stamp = settings.sectionMasksStamp;
+        int slot = ((sectionX & 15) << 8 | (sectionZ & 15) << 4 | sectionY) & (TABLE_SIZE - 1);
+        Section section = table[slot];
+        if (section == null || section.x != sectionX || section.y != sectionY || section.z != sectionZ || section.generation != generation || section.stamp != stamp) {
+            section = new Section(settings, sectionX, sectionY, sectionZ, generation);
+            table[slot] = section;
+        }
+        int index = (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+        return (section.bits[layer << 6 | index >> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * One bit, for blocks whose section can't be stored
+     */
+    private static boolean compute(SettingsSnapshot settings, int layer, int x, int y, int z) {
+        IBlockState state = BlockStateInterface.get(x, y, z);
+        switch (layer) {
+            case WALK_THROUGH:
+                return MovementHelper.canWalkThrough(settings, x, y, z, state);
+            case WALK_ON:
+                return MovementHelper.canWalkOn(settings, x, y, z, state);
+            case FULLY_PASSABLE:
+                return MovementHelper.fullyPassable(settings, state);
+            case AVOID_BREAKING:
+                return MovementHelper.touchesLiquid(x, y, z) || MovementHelper.avoidBreaking(settings, state);
+            default:
+                throw new IllegalArgumentException("Unknown layer " + layer);
+        }
+    }
+
+    private static final class Section {
+
+        final int x;
+        final int y;
+        final int z;
+        final int generation;
+        final int stamp;
+
+        /**
+         * 64 longs per layer, the bit for a block is at index y << 8 | z << 4 | x within its layer
+         */
+        final long[] bits = new long[LAYERS * 64];
+
+        Section(SettingsSnapshot settings, int x, int y, int z, int generation) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.generation = generation;
+            this.stamp = settings.sectionMasksStamp;
+            for (int index = 0; index < 4096; index++) {
+                int blockX = x << 4 | (index & 15);
+                int blockY = y << 4 | index >> 8;
+                int blockZ = z << 4 | (index >> 4 & 15);
+                IBlockState state = BlockStateInterface.get(blockX, blockY, blockZ);
+                set(WALK_THROUGH, index, MovementHelper.canWalkThrough(settings, blockX, blockY, blockZ, state));
+                set(WALK_ON, index, MovementHelper.canWalkOn(settings, blockX, blockY, blockZ, state));
+                set(FULLY_PASSABLE, index, MovementHelper.fullyPassable(settings, state));
+                set(AVOID_BREAKING, index, MovementHelper.touchesLiquid(blockX, blockY, blockZ) || MovementHelper.avoidBreaking(settings, state));
+            }
+        }
+
+        private void set(int layer, int index, boolean value) {
+            if (value) {
+                bits[layer << 6 | index >> 6] |= 1L << index;
+            }
+        }
+    }
+}
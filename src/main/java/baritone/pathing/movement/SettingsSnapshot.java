@@ -0,0 +1,140 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import net.minecraft.item.Item;
+
+import java.util.List;
+
+/**
+ * The settings that movement costs depend on, read once. A search keeps the one its {@link CalculationContext} was made
+ * with, so changing a setting halfway through doesn't leave it with some movements costed one way and some the other,
+ * and the cost functions read plain final fields instead of going through the settings every time.
+ * <p>
+ * {@link #current()} gives the same instance back until one of these settings changes, and the version goes up by one
+ * each time a new one has to be made, so it's cheap to tell whether anything relevant changed since some earlier
+ * snapshot.
+ */
+public final class SettingsSnapshot {
+
+    private static volatile SettingsSnapshot latest;
+
+    public final boolean allowBreak;
+    public final boolean allowPlace;
+    public final boolean allowSprint;
+    public final boolean allowWaterBucketFall;
+    public final boolean allowParkour;
+    public final boolean allowParkourPlace;
+    public final boolean assumeWalkOnWater;
+    public final boolean allowVines;
+    public final boolean allowWalkOnBottomSlab;
+    public final boolean pathThroughCachedOnly;
+    public final boolean useSectionMasks;
+    public final double blockPlacementPenalty;
+    public final double blockBreakAdditionalPenalty;
+    public final int maxFallHeightNoWater;
+    public final int maxFallHeightBucket;
+
+    /**
+     * These two only matter when a context is made from the player, they're here so that changing them makes a new
+     * snapshot. The list is compared by identity, setting it to a new list counts as a change but editing it in place
+     * doesn't.
+     */
+    public final boolean considerPotionEffects;
+    public final List<Item> acceptableThrowawayItems;
+
+    /**
+     * Goes up by one every time {@link #current()} sees the settings have changed
+     */
+    public final int version;
+
+    /**
+     * Which table of {@link BlockFlags} to use, and which {@link SectionMasks} are still valid
+     */
+    final int blockFlagsStamp;
+    final int sectionMasksStamp;
+
+    private SettingsSnapshot(Settings settings, int version) {
+        this.allowBreak = settings.allowBreak.get();
+        this.allowPlace = settings.allowPlace.get();
+        this.allowSprint = settings.allowSprint.get();
+        this.allowWaterBucketFall = settings.allowWaterBucketFall.get();
+        this.allowParkour = settings.allowParkour.get();
+        this.allowParkourPlace = settings.allowParkourPlace.get();
+        this.assumeWalkOnWater = settings.assumeWalkOnWater.get();
+        this.allowVines = settings.allowVines.get();
+        this.allowWalkOnBottomSlab = settings.allowWalkOnBottomSlab.get();
+        this.pathThroughCachedOnly = settings.pathThroughCachedOnly.get();
+        this.useSectionMasks = settings.useSectionMasks.get();
+        this.blockPlacementPenalty = settings.blockPlacementPenalty.get();
+        this.blockBreakAdditionalPenalty = settings.blockBreakAdditionalPenalty.get();
+        this.maxFallHeightNoWater = settings.maxFallHeightNoWater.get();
+        this.maxFallHeightBucket = settings.maxFallHeightBucket.get();
+        this.considerPotionEffects = settings.considerPotionEffects.get();
+        this.acceptableThrowawayItems = settings.acceptableThrowawayItems.get();
+        this.version = version;
+        this.blockFlagsStamp = (assumeWalkOnWater ? 1 : 0)
+                | (allowVines ? 2 : 0)
+                | (allowWalkOnBottomSlab ? 4 : 0);
+        this.sectionMasksStamp = blockFlagsStamp | (pathThroughCachedOnly ? 8 : 0);
+    }
+
+    /**
+     * @return The settings as they are now, the same instance as last time if none of them changed
+     */
+    public static SettingsSnapshot current() {
+        Settings settings = Baritone.settings();
+        SettingsSnapshot latest = SettingsSnapshot.latest;
+        if (latest != null && latest.matches(settings)) {
+            return latest;
+        }
+        return update(settings);
+    }
+
+    private static synchronized SettingsSnapshot update(Settings settings) {
+        SettingsSnapshot latest = SettingsSnapshot.latest;
+        if (latest != null && latest.matches(settings)) {
+            return latest; // another thread got here first
+        }
+        latest = new SettingsSnapshot(settings, latest == null ? 0 : latest.version + 1);
+        SettingsSnapshot.latest = latest;
+        return latest;
+    }
+
+    private boolean matches(Settings settings) {
+        return allowBreak == settings.allowBreak.<Boolean>get()
+                && allowPlace == settings.allowPlace.<Boolean>get()
+                && allowSprint == settings.allowSprint.<Boolean>get()
+                && allowWaterBucketFall == settings.allowWaterBucketFall.<Boolean>get()
+                && allowParkour == settings.allowParkour.<Boolean>get()
+                && allowParkourPlace == settings.allowParkourPlace.<Boolean>get()
+                && assumeWalkOnWater == settings.assumeWalkOnWater.<Boolean>get()
+                && allowVines == settings.allowVines.<Boolean>get()
+                && allowWalkOnBottomSlab == settings.allowWalkOnBottomSlab.<Boolean>get()
+                && pathThroughCachedOnly == settings.pathThroughCachedOnly.<Boolean>get()
+                && useSectionMasks == settings.useSectionMasks.<Boolean>get()
+                && blockPlacementPenalty == settings.blockPlacementPenalty.<Double>get()
+                && blockBreakAdditionalPenalty == settings.blockBreakAdditionalPenalty.<Double>get()
+                && maxFallHeightNoWater == settings.maxFallHeightNoWater.<Integer>get()
+                && maxFallHeightBucket == settings.maxFallHeightBucket.<Integer>get()
+                && considerPotionEffects == settings.considerPotionEffects.<Boolean>get()
+                && acceptableThrowawayItems == settings.acceptableThrowawayItems.value;
+    }
+}
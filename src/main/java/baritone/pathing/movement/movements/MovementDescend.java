@@ -17,7 +17,6 @@
 
 package baritone.pathing.movement.movements;
 
-import baritone.Baritone;
 import baritone.api.pathing.movement.MovementStatus;
 import baritone.api.utils.BetterBlockPos;
 import baritone.pathing.movement.CalculationContext;
@@ -89,7 +88,7 @@ public class MovementDescend extends Movement {
         //C, D, etc determine the length of the fall
 
         IBlockState below = BlockStateInterface.get(destX, y - 2, destZ);
-        if (!MovementHelper.canWalkOn(destX, y - 2, destZ, below)) {
+        if (!MovementHelper.canWalkOn(context.settings(), destX, y - 2, destZ, below)) {
             dynamicFallCost(context, x, y, z, destX, destZ, totalCost, below, res);
             return;
         }
@@ -118,7 +117,7 @@ public class MovementDescend extends Movement {
             // and potentially replace the water we're going to fall into
             return;
         }
-        if (!MovementHelper.canWalkThrough(destX, y - 2, destZ, below) && below.getBlock() != Blocks.WATER) {
+        if (!MovementHelper.canWalkThrough(context.settings(), destX, y - 2, destZ, below) && below.getBlock() != Blocks.WATER) {
             return;
         }
         for (int fallHeight = 3; true; fallHeight++) {
@@ -133,7 +132,7 @@ public class MovementDescend extends Movement {
             if (ontoBlock.getBlock() == Blocks.WATER && !BlockStateInterface.isFlowing(ontoBlock) && BlockStateInterface.getBlock(destX, newY + 1, destZ) != Blocks.WATERLILY) { // TODO flowing check required here?
                 // lilypads are canWalkThrough, but we can't end a fall that should be broken by water if it's covered by a lilypad
                 // however, don't return impossible in the lilypad scenario, because we could still jump right on it (water that's below a lilypad is canWalkOn so it works)
-                if (Baritone.settings().assumeWalkOnWater.get()) {
+                if (context.settings().assumeWalkOnWater) {
                     return; // TODO fix
                 }
                 // found a fall into water
@@ -146,10 +145,10 @@ public class MovementDescend extends Movement {
             if (ontoBlock.getBlock() == Blocks.FLOWING_WATER) {
                 return;
             }
-            if (MovementHelper.canWalkThrough(destX, newY, destZ, ontoBlock)) {
+            if (MovementHelper.canWalkThrough(context.settings(), destX, newY, destZ, ontoBlock)) {
                 continue;
             }
-            if (!MovementHelper.canWalkOn(destX, newY, destZ, ontoBlock)) {
+            if (!MovementHelper.canWalkOn(context.settings(), destX, newY, destZ, ontoBlock)) {
                 return;
             }
             if (MovementHelper.isBottomSlab(ontoBlock)) {
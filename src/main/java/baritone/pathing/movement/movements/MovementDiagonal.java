@@ -29,10 +29,6 @@ import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.math.BlockPos;
-
-import java.util.ArrayList;
-import java.util.List;
 
 public class MovementDiagonal extends Movement {
 
@@ -62,11 +58,11 @@ public class MovementDiagonal extends Movement {
             return COST_INF;
         }
         IBlockState destInto = BlockStateInterface.get(destX, y, destZ);
-        if (!MovementHelper.canWalkThrough(destX, y, destZ, destInto) || !MovementHelper.canWalkThrough(destX, y + 1, destZ)) {
+        if (!MovementHelper.canWalkThrough(context.settings(), destX, y, destZ, destInto) || !MovementHelper.canWalkThrough(context.settings(), destX, y + 1, destZ)) {
             return COST_INF;
         }
         IBlockState destWalkOn = BlockStateInterface.get(destX, y - 1, destZ);
-        if (!MovementHelper.canWalkOn(destX, y - 1, destZ, destWalkOn)) {
+        if (!MovementHelper.canWalkOn(context.settings(), destX, y - 1, destZ, destWalkOn)) {
             return COST_INF;
         }
         double multiplier = WALK_ONE_BLOCK_COST;
@@ -103,7 +99,7 @@ public class MovementDiagonal extends Movement {
         IBlockState pb3 = BlockStateInterface.get(destX, y + 1, z);
         if (optionA == 0) {
             // at this point we're done calculating optionA, so we can check if it's actually possible to edge around in that direction
-            if ((MovementHelper.avoidWalkingInto(pb2.getBlock()) && pb2.getBlock() != Blocks.WATER) || (MovementHelper.avoidWalkingInto(pb3.getBlock()) && pb3.getBlock() != Blocks.WATER)) {
+            if ((MovementHelper.avoidWalkingInto(context.settings(), pb2.getBlock()) && pb2.getBlock() != Blocks.WATER) || (MovementHelper.avoidWalkingInto(context.settings(), pb3.getBlock()) && pb3.getBlock() != Blocks.WATER)) {
                 return COST_INF;
             }
         }
@@ -114,7 +110,7 @@ public class MovementDiagonal extends Movement {
         }
         if (optionB == 0) {
             // and now that option B is fully calculated, see if we can edge around that way
-            if ((MovementHelper.avoidWalkingInto(pb0.getBlock()) && pb0.getBlock() != Blocks.WATER) || (MovementHelper.avoidWalkingInto(pb1.getBlock()) && pb1.getBlock() != Blocks.WATER)) {
+            if ((MovementHelper.avoidWalkingInto(context.settings(), pb0.getBlock()) && pb0.getBlock() != Blocks.WATER) || (MovementHelper.avoidWalkingInto(context.settings(), pb1.getBlock()) && pb1.getBlock() != Blocks.WATER)) {
                 return COST_INF;
             }
         }
@@ -162,32 +158,8 @@ public class MovementDiagonal extends Movement {
     }
 
     @Override
-    public List<BlockPos> toBreak() {
-        if (toBreakCached != null) {
-            return toBreakCached;
-        }
-        List<BlockPos> result = new ArrayList<>();
-        for (int i = 4; i < 6; i++) {
-            if (!MovementHelper.canWalkThrough(positionsToBreak[i])) {
-                result.add(positionsToBreak[i]);
-            }
-        }
-        toBreakCached = result;
-        return result;
-    }
-
-    @Override
-    public List<BlockPos> toWalkInto() {
-        if (toWalkIntoCached == null) {
-            toWalkIntoCached = new ArrayList<>();
-        }
-        List<BlockPos> result = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            if (!MovementHelper.canWalkThrough(positionsToBreak[i])) {
-                result.add(positionsToBreak[i]);
-            }
-        }
-        toWalkIntoCached = result;
-        return toWalkIntoCached;
+    protected boolean walkInto(int index) {
+        // the two columns on either side of the corner we're cutting, the last two are the destination
+        return index < 4;
     }
 }
@@ -48,7 +48,7 @@ public class MovementDownward extends Movement {
     }
 
     public static double cost(CalculationContext context, int x, int y, int z) {
-        if (!MovementHelper.canWalkOn(x, y - 2, z)) {
+        if (!MovementHelper.canWalkOn(context.settings(), x, y - 2, z)) {
             return COST_INF;
         }
         IBlockState d = BlockStateInterface.get(x, y - 1, z);
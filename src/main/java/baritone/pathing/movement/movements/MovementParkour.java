@@ -17,7 +17,6 @@
 
 package baritone.pathing.movement.movements;
 
-import baritone.Baritone;
 import baritone.api.pathing.movement.MovementStatus;
 import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.RayTraceUtils;
@@ -64,7 +63,7 @@ public class MovementParkour extends Movement {
     }
 
     public static void cost(CalculationContext context, int x, int y, int z, EnumFacing dir, MutableMoveResult res) {
-        if (!Baritone.settings().allowParkour.get()) {
+        if (!context.settings().allowParkour) {
             return;
         }
         IBlockState standingOn = BlockStateInterface.get(x, y - 1, z);
@@ -74,33 +73,33 @@ public class MovementParkour extends Movement {
         int xDiff = dir.getXOffset();
         int zDiff = dir.getZOffset();
         IBlockState adj = BlockStateInterface.get(x + xDiff, y - 1, z + zDiff);
-        if (MovementHelper.avoidWalkingInto(adj.getBlock()) && adj.getBlock() != Blocks.WATER && adj.getBlock() != Blocks.FLOWING_WATER) { // magma sucks
+        if (MovementHelper.avoidWalkingInto(context.settings(), adj.getBlock()) && adj.getBlock() != Blocks.WATER && adj.getBlock() != Blocks.FLOWING_WATER) { // magma sucks
             return;
         }
-        if (MovementHelper.canWalkOn(x + xDiff, y - 1, z + zDiff, adj)) { // don't parkour if we could just traverse (for now)
+        if (MovementHelper.canWalkOn(context.settings(), x + xDiff, y - 1, z + zDiff, adj)) { // don't parkour if we could just traverse (for now)
             return;
         }
 
-        if (!MovementHelper.fullyPassable(x + xDiff, y, z + zDiff)) {
+        if (!MovementHelper.fullyPassable(context.settings(), x + xDiff, y, z + zDiff)) {
             return;
         }
-        if (!MovementHelper.fullyPassable(x + xDiff, y + 1, z + zDiff)) {
+        if (!MovementHelper.fullyPassable(context.settings(), x + xDiff, y + 1, z + zDiff)) {
             return;
         }
-        if (!MovementHelper.fullyPassable(x + xDiff, y + 2, z + zDiff)) {
+        if (!MovementHelper.fullyPassable(context.settings(), x + xDiff, y + 2, z + zDiff)) {
             return;
         }
-        if (!MovementHelper.fullyPassable(x, y + 2, z)) {
+        if (!MovementHelper.fullyPassable(context.settings(), x, y + 2, z)) {
             return;
         }
         for (int i = 2; i <= (context.canSprint() ? 4 : 3); i++) {
             // TODO perhaps dest.up(3) doesn't need to be fullyPassable, just canWalkThrough, possibly?
             for (int y2 = 0; y2 < 4; y2++) {
-                if (!MovementHelper.fullyPassable(x + xDiff * i, y + y2, z + zDiff * i)) {
+                if (!MovementHelper.fullyPassable(context.settings(), x + xDiff * i, y + y2, z + zDiff * i)) {
                     return;
                 }
             }
-            if (MovementHelper.canWalkOn(x + xDiff * i, y - 1, z + zDiff * i)) {
+            if (MovementHelper.canWalkOn(context.settings(), x + xDiff * i, y - 1, z + zDiff * i)) {
                 res.x = x + xDiff * i;
                 res.y = y;
                 res.z = z + zDiff * i;
@@ -111,10 +110,10 @@ public class MovementParkour extends Movement {
         if (!context.canSprint()) {
             return;
         }
-        if (!Baritone.settings().allowParkourPlace.get()) {
+        if (!context.settings().allowParkourPlace) {
             return;
         }
-        if (!Baritone.settings().allowPlace.get()) {
+        if (!context.settings().allowPlace) {
             Helper.HELPER.logDirect("allowParkourPlace enabled but allowPlace disabled?");
             return;
         }
@@ -124,7 +123,7 @@ public class MovementParkour extends Movement {
         if (!context.canPlaceThrowawayAt(destX, y - 1, destZ)) {
             return;
         }
-        if (toPlace.getBlock() != Blocks.AIR && !BlockStateInterface.isWater(toPlace.getBlock()) && !MovementHelper.isReplacable(destX, y - 1, destZ, toPlace)) {
+        if (toPlace.getBlock() != Blocks.AIR && !BlockStateInterface.isWater(toPlace.getBlock()) && !MovementHelper.isReplacable(context.settings(), destX, y - 1, destZ, toPlace)) {
             return;
         }
         for (int i = 0; i < 5; i++) {
@@ -0,0 +1,141 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import baritone.api.pathing.movement.IMovement;
+import baritone.pathing.movement.Movement;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The blocks to break, place and walk into for the rest of a path, for {@link PathExecutor}. Instead of unioning the
+ * lists of every remaining movement whenever one of them changes, each movement reports the blocks that come into or
+ * go out of its way, and these keep a count of how many movements want each position. A block that two movements share
+ * stays in until both are done with it.
+ */
+final class PathBlockSets implements Movement.BlockSetListener {
+
+    /**
+     * How many movements from the current one to check again each tick. Anything further along was checked when the
+     * path started, and again whenever a block it depends on changes.
+     */
+    private static final int LOOKAHEAD = 10;
+
+    private final Object2IntOpenHashMap<BlockPos> toBreak = new Object2IntOpenHashMap<>();
+    private final Object2IntOpenHashMap<BlockPos> toPlace = new Object2IntOpenHashMap<>();
+    private final Object2IntOpenHashMap<BlockPos> toWalkInto = new Object2IntOpenHashMap<>();
+
+    private final Set<BlockPos> toBreakView = Collections.unmodifiableSet(toBreak.keySet());
+    private final Set<BlockPos> toPlaceView = Collections.unmodifiableSet(toPlace.keySet());
+    private final Set<BlockPos> toWalkIntoView = Collections.unmodifiableSet(toWalkInto.keySet());
+
+    /**
+     * The movements from here to the end of the path are the ones being counted
+     */
+    private int from;
+
+    private boolean started;
+
+    /**
+     * Catches the counts up with the path position, and checks the movements just ahead for blocks that changed
+     */
+    void update(List<IMovement> movements, int position) {
+        int end = movements.size();
+        position = Math.max(0, Math.min(position, end));
+        if (!started) {
+            started = true;
+            from = position;
+            // the movements could have been reported to the executor of the path this one was spliced from, including
+            // the ones behind us, which get refreshed again if we skip back to them
+            for (int i = 0; i < end; i++) {
+                movement(movements, i).resetReportedBlocks();
+            }
+            for (int i = position; i < end; i++) {
+                movement(movements, i).refreshBlocks(this);
+            }
+            return;
+        }
+        while (from < position) {
+            // behind us now
+            movement(movements, from++).forgetBlocks(this);
+        }
+        while (from > position) {
+            // skipped back, e.g. after lagging
+            movement(movements, --from).refreshBlocks(this);
+        }
+        for (int i = position; i < end && i < position + LOOKAHEAD; i++) {
+            movement(movements, i).refreshBlocks(this);
+        }
+    }
+
+    /**
+     * Checks one movement again, e.g. because a block it depends on changed, if it's still being counted
+     */
+    void refresh(List<IMovement> movements, int index) {
+        if (started && index >= from && index < movements.size()) {
+            movement(movements, index).refreshBlocks(this);
+        }
+    }
+
+    private static Movement movement(List<IMovement> movements, int index) {
+        // every movement in a path that we calculated is one of ours
+        return (Movement) movements.get(index);
+    }
+
+    @Override
+    public void add(int set, BlockPos pos) {
+        counts(set).addTo(pos, 1);
+    }
+
+    @Override
+    public void remove(int set, BlockPos pos) {
+        Object2IntOpenHashMap<BlockPos> counts = counts(set);
+        if (counts.addTo(pos, -1) <= 1) {
+            counts.removeInt(pos);
+        }
+    }
+
+    private Object2IntOpenHashMap<BlockPos> counts(int set) {
+        switch (set) {
+            case Movement.BREAK:
+                return toBreak;
+            case Movement.PLACE:
+                return toPlace;
+            case Movement.WALK_INTO:
+                return toWalkInto;
+            default:
+                throw new IllegalArgumentException("Unknown block set " + set);
+        }
+    }
+
+    Set<BlockPos> toBreak() {
+        return toBreakView;
+    }
+
+    Set<BlockPos> toPlace() {
+        return toPlaceView;
+    }
+
+    Set<BlockPos> toWalkInto() {
+        return toWalkIntoView;
+    }
+}
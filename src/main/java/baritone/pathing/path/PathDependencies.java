@@ -0,0 +1,118 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import baritone.api.pathing.movement.IMovement;
+import baritone.api.utils.BetterBlockPos;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Which movements of a path each block could change the cost of, for {@link PathExecutor}, so that when a block changes
+ * only the movements around it are costed again instead of polling them every tick.
+ * <p>
+ * A movement is taken to depend on everything in the box around its source and destination, one block out to the sides,
+ * two below (what it stands or lands on, and what that's supported by) and three above (head room, what it breaks, and
+ * falling blocks or liquid on top of that). That's more than any one movement actually looks at, but it's cheap and
+ * doesn't need to know about every kind of movement.
+ */
+final class PathDependencies {
+
+    private static final int SIDE = 1;
+    private static final int BELOW = 2;
+    private static final int ABOVE = 3;
+
+    /**
+     * Packed position to the indices of the movements that depend on it, in order
+     */
+    private final Long2ObjectOpenHashMap<int[]> dependents;
+
+    /**
+     * The chunks each movement's box touches, as the min and max chunk x and z, four per movement
+     */
+    private final int[] chunks;
+
+    PathDependencies(List<IMovement> movements) {
+        Long2ObjectOpenHashMap<IntArrayList> building = new Long2ObjectOpenHashMap<>();
+        chunks = new int[movements.size() * 4];
+        for (int i = 0; i < movements.size(); i++) {
+            IMovement movement = movements.get(i);
+            BetterBlockPos src = movement.getSrc();
+            BetterBlockPos dest = movement.getDest();
+            int minX = Math.min(src.x, dest.x) - SIDE;
+            int maxX = Math.max(src.x, dest.x) + SIDE;
+            int minY = Math.max(0, Math.min(src.y, dest.y) - BELOW);
+            int maxY = Math.min(255, Math.max(src.y, dest.y) + ABOVE);
+            int minZ = Math.min(src.z, dest.z) - SIDE;
+            int maxZ = Math.max(src.z, dest.z) + SIDE;
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        long key = pack(x, y, z);
+                        IntArrayList list = building.get(key);
+                        if (list == null) {
+                            list = new IntArrayList(2);
+                            building.put(key, list);
+                        }
+                        list.add(i);
+                    }
+                }
+            }
+            chunks[i * 4] = minX >> 4;
+            chunks[i * 4 + 1] = maxX >> 4;
+            chunks[i * 4 + 2] = minZ >> 4;
+            chunks[i * 4 + 3] = maxZ >> 4;
+        }
+        dependents = new Long2ObjectOpenHashMap<>(building.size());
+        for (Long2ObjectOpenHashMap.Entry<IntArrayList> entry : building.long2ObjectEntrySet()) {
+            dependents.put(entry.getLongKey(), entry.getValue().toIntArray());
+        }
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | (long) y & 0xFFFL;
+    }
+
+    /**
+     * Marks the movements that depend on this block
+     */
+    void blockChanged(BlockPos pos, BitSet affected) {
+        int[] indices = dependents.get(pack(pos.getX(), pos.getY(), pos.getZ()));
+        if (indices == null) {
+            return;
+        }
+        for (int index : indices) {
+            affected.set(index);
+        }
+    }
+
+    /**
+     * Marks the movements that depend on anything in this chunk, e.g. because it's just been loaded
+     */
+    void chunkChanged(int chunkX, int chunkZ, BitSet affected) {
+        for (int i = 0; i < chunks.length / 4; i++) {
+            if (chunkX >= chunks[i * 4] && chunkX <= chunks[i * 4 + 1] && chunkZ >= chunks[i * 4 + 2] && chunkZ <= chunks[i * 4 + 3]) {
+                affected.set(i);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ package baritone.pathing.path;
 
 import baritone.Baritone;
 import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.calc.IPathFinder;
 import baritone.api.pathing.movement.ActionCosts;
 import baritone.api.pathing.movement.IMovement;
 import baritone.api.pathing.movement.MovementStatus;
@@ -27,15 +28,18 @@ import baritone.api.utils.BetterBlockPos;
 import baritone.api.utils.VecUtils;
 import baritone.pathing.calc.AbstractNodeCostSearch;
 import baritone.pathing.movement.CalculationContext;
+import baritone.pathing.movement.CalculationContextProvider;
 import baritone.pathing.movement.MovementHelper;
+import baritone.pathing.movement.SettingsSnapshot;
 import baritone.pathing.movement.movements.*;
 import baritone.utils.BlockBreakHelper;
 import baritone.utils.BlockStateInterface;
 import baritone.utils.Helper;
 import baritone.utils.InputOverrideHandler;
+import net.minecraft.block.BlockSlab;
 import net.minecraft.init.Blocks;
-import net.minecraft.util.Tuple;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
 
 import java.util.*;
 
@@ -67,14 +71,51 @@ public class PathExecutor implements IPathExecutor, Helper {
     private Double currentMovementOriginalCostEstimate;
     private Integer costEstimateIndex;
     private boolean failed;
-    private boolean recalcBP = true;
-    private HashSet<BlockPos> toBreak = new HashSet<>();
-    private HashSet<BlockPos> toPlace = new HashSet<>();
-    private HashSet<BlockPos> toWalkInto = new HashSet<>();
+
+    /**
+     * If we cancelled because a movement became impossible or too expensive, this is its index, otherwise -1
+     */
+    private int invalidatedMovement = -1;
+    private final PathBlockSets blocks = new PathBlockSets();
+
+    /**
+     * Which movements each block could change the cost of, so a block change only costs those again
+     */
+    private final PathDependencies dependencies;
+
+    /**
+     * Movements of this path that have become impossible since it was calculated
+     */
+    private final BitSet impossible = new BitSet();
+
+    /**
+     * The movements a block or chunk change affects, reused between changes
+     */
+    private final BitSet affected = new BitSet();
+
+    /**
+     * The cost of the current movement, as of when it started or something it depends on last changed
+     */
+    private double currentCost;
+    private boolean currentCostStale = true;
+
+    /**
+     * What the costs were last checked with. A different one means something besides the blocks has changed, like the
+     * hotbar, the potion effects or the settings, so the current and upcoming movements are checked again.
+     */
+    private CalculationContext costContext;
+
+    /**
+     * {@link #playerFeet()} as of the start of this tick, kept as ints so that finding it doesn't allocate
+     */
+    private int feetX;
+    private int feetY;
+    private int feetZ;
 
     public PathExecutor(IPath path) {
         this.path = path;
         this.pathPosition = 0;
+        this.dependencies = new PathDependencies(path.movements());
     }
 
     /**
@@ -91,48 +132,47 @@ public class PathExecutor implements IPathExecutor, Helper {
             return true; // stop bugging me, I'm done
         }
         BetterBlockPos whereShouldIBe = path.positions().get(pathPosition);
-        BetterBlockPos whereAmI = playerFeet();
-        if (!whereShouldIBe.equals(whereAmI)) {
+        updateFeet();
+        if (!isFeet(whereShouldIBe)) {
 
-            if (pathPosition == 0 && whereAmI.equals(whereShouldIBe.up()) && Math.abs(player().motionY) < 0.1 && !(path.movements().get(0) instanceof MovementAscend) && !(path.movements().get(0) instanceof MovementPillar)) {
+            if (pathPosition == 0 && feetX == whereShouldIBe.x && feetY == whereShouldIBe.y + 1 && feetZ == whereShouldIBe.z && Math.abs(player().motionY) < 0.1 && !(path.movements().get(0) instanceof MovementAscend) && !(path.movements().get(0) instanceof MovementPillar)) {
                 // avoid the Wrong Y coordinate bug
                 // TODO add a timer here
-                new MovementDownward(whereAmI, whereShouldIBe).update();
+                new MovementDownward(new BetterBlockPos(feetX, feetY, feetZ), whereShouldIBe).update();
                 return false;
             }
 
             //System.out.println("Should be at " + whereShouldIBe + " actually am at " + whereAmI);
-            if (!Blocks.AIR.equals(BlockStateInterface.getBlock(whereAmI.down()))) {//do not skip if standing on air, because our position isn't stable to skip
-                for (int i = 0; i < pathPosition - 1 && i < path.length(); i++) {//this happens for example when you lag out and get teleported back a couple blocks
-                    if (whereAmI.equals(path.positions().get(i))) {
-                        logDebug("Skipping back " + (pathPosition - i) + " steps, to " + i);
-                        int previousPos = pathPosition;
-                        pathPosition = Math.max(i - 1, 0); // previous step might not actually be done
-                        for (int j = pathPosition; j <= previousPos; j++) {
-                            path.movements().get(j).reset();
-                        }
-                        onChangeInPathPosition();
-                        return false;
+            if (!Blocks.AIR.equals(BlockStateInterface.getBlock(feetX, feetY - 1, feetZ))) {//do not skip if standing on air, because our position isn't stable to skip
+                int i = path.index().indexOf(feetX, feetY, feetZ);
+                if (i != -1 && i < pathPosition - 1) {//this happens for example when you lag out and get teleported back a couple blocks
+                    logDebug("Skipping back " + (pathPosition - i) + " steps, to " + i);
+                    int previousPos = pathPosition;
+                    pathPosition = Math.max(i - 1, 0); // previous step might not actually be done
+                    for (int j = pathPosition; j <= previousPos; j++) {
+                        path.movements().get(j).reset();
                     }
+                    onChangeInPathPosition();
+                    return false;
                 }
-                for (int i = pathPosition + 3; i < path.length(); i++) { //dont check pathPosition+1. the movement tells us when it's done (e.g. sneak placing)
+                if (i >= pathPosition + 3) { //dont check pathPosition+1. the movement tells us when it's done (e.g. sneak placing)
                     // also don't check pathPosition+2 because reasons
-                    if (whereAmI.equals(path.positions().get(i))) {
-                        if (i - pathPosition > 2) {
-                            logDebug("Skipping forward " + (i - pathPosition) + " steps, to " + i);
-                        }
-                        //System.out.println("Double skip sundae");
-                        pathPosition = i - 1;
-                        onChangeInPathPosition();
-                        return false;
+                    if (i - pathPosition > 2) {
+                        logDebug("Skipping forward " + (i - pathPosition) + " steps, to " + i);
                     }
+                    //System.out.println("Double skip sundae");
+                    pathPosition = i - 1;
+                    onChangeInPathPosition();
+                    return false;
                 }
             }
         }
-        Tuple<Double, BlockPos> status = closestPathPos(path);
-        if (possiblyOffPath(status, MAX_DIST_FROM_PATH)) {
+        double distanceFromPath = distanceFromPath(path);
+        if (possiblyOffPath(distanceFromPath, MAX_DIST_FROM_PATH)) {
             ticksAway++;
-            System.out.println("FAR AWAY FROM PATH FOR " + ticksAway + " TICKS. Current distance: " + status.getFirst() + ". Threshold: " + MAX_DIST_FROM_PATH);
+            if (ticksAway % 20 == 1) { // once a second is plenty
+                System.out.println("FAR AWAY FROM PATH FOR " + ticksAway + " TICKS. Current distance: " + distanceFromPath + ". Threshold: " + MAX_DIST_FROM_PATH);
+            }
             if (ticksAway > MAX_TICKS_AWAY) {
                 logDebug("Too far away from path for too long, cancelling path");
                 cancel();
@@ -141,7 +181,7 @@ public class PathExecutor implements IPathExecutor, Helper {
         } else {
             ticksAway = 0;
         }
-        if (possiblyOffPath(status, MAX_MAX_DIST_FROM_PATH)) { // ok, stop right away, we're way too far.
+        if (possiblyOffPath(distanceFromPath, MAX_MAX_DIST_FROM_PATH)) { // ok, stop right away, we're way too far.
             logDebug("too far from path");
             cancel();
             return false;
@@ -179,65 +219,47 @@ public class PathExecutor implements IPathExecutor, Helper {
             }
         }*/
         //long start = System.nanoTime() / 1000000L;
-        for (int i = pathPosition - 10; i < pathPosition + 10; i++) {
-            if (i < 0 || i >= path.movements().size()) {
-                continue;
-            }
-            IMovement m = path.movements().get(i);
-            HashSet<BlockPos> prevBreak = new HashSet<>(m.toBreak());
-            HashSet<BlockPos> prevPlace = new HashSet<>(m.toPlace());
-            HashSet<BlockPos> prevWalkInto = new HashSet<>(m.toWalkInto());
-            m.resetBlockCache();
-            if (!prevBreak.equals(new HashSet<>(m.toBreak()))) {
-                recalcBP = true;
-            }
-            if (!prevPlace.equals(new HashSet<>(m.toPlace()))) {
-                recalcBP = true;
-            }
-            if (!prevWalkInto.equals(new HashSet<>(m.toWalkInto()))) {
-                recalcBP = true;
-            }
-        }
-        if (recalcBP) {
-            HashSet<BlockPos> newBreak = new HashSet<>();
-            HashSet<BlockPos> newPlace = new HashSet<>();
-            HashSet<BlockPos> newWalkInto = new HashSet<>();
-            for (int i = pathPosition; i < path.movements().size(); i++) {
-                newBreak.addAll(path.movements().get(i).toBreak());
-                newPlace.addAll(path.movements().get(i).toPlace());
-                newWalkInto.addAll(path.movements().get(i).toWalkInto());
-            }
-            toBreak = newBreak;
-            toPlace = newPlace;
-            toWalkInto = newWalkInto;
-            recalcBP = false;
-        }
+        blocks.update(path.movements(), pathPosition);
         /*long end = System.nanoTime() / 1000000L;
         if (end - start > 0) {
             System.out.println("Recalculating break and place took " + (end - start) + "ms");
         }*/
         IMovement movement = path.movements().get(pathPosition);
         boolean canCancel = movement.safeToCancel();
+        CalculationContext context = CalculationContextProvider.INSTANCE.get();
+        boolean contextChanged = context != costContext;
+        costContext = context;
         if (costEstimateIndex == null || costEstimateIndex != pathPosition) {
             costEstimateIndex = pathPosition;
             // do this only once, when the movement starts, and deliberately get the cost as cached when this path was calculated, not the cost as it is right now
             currentMovementOriginalCostEstimate = movement.getCost();
-            for (int i = 1; i < Baritone.settings().costVerificationLookahead.get() && pathPosition + i < path.length() - 1; i++) {
-                if (path.movements().get(pathPosition + i).calculateCostWithoutCaching() >= ActionCosts.COST_INF && canCancel) {
-                    logDebug("Something has changed in the world and a future movement has become impossible. Cancelling.");
-                    cancel();
-                    return true;
-                }
-            }
+            currentCostStale = true;
+            checkLookahead();
+        } else if (contextChanged) {
+            // e.g. ran out of throwaway blocks partway through this movement
+            currentCostStale = true;
+            checkLookahead();
+        }
+        int broken = impossible.nextSetBit(pathPosition + 1);
+        if (broken != -1 && canCancel) {
+            logDebug("Something has changed in the world and a future movement has become impossible. Cancelling.");
+            invalidatedMovement = broken;
+            cancel();
+            return true;
+        }
+        if (currentCostStale) {
+            currentCost = movement.recalculateCost();
+            currentCostStale = false;
         }
-        double currentCost = movement.recalculateCost();
         if (currentCost >= ActionCosts.COST_INF && canCancel) {
             logDebug("Something has changed in the world and this movement has become impossible. Cancelling.");
+            invalidatedMovement = pathPosition;
             cancel();
             return true;
         }
         if (!movement.calculatedWhileLoaded() && currentCost - currentMovementOriginalCostEstimate > Baritone.settings().maxCostIncrease.get() && canCancel) {
             logDebug("Original cost " + currentMovementOriginalCostEstimate + " current cost " + currentCost + ". Cancelling.");
+            invalidatedMovement = pathPosition;
             cancel();
             return true;
         }
@@ -274,32 +296,83 @@ public class PathExecutor implements IPathExecutor, Helper {
         return canCancel; // movement is in progress, but if it reports cancellable, PathingBehavior is good to cut onto the next path
     }
 
-    private Tuple<Double, BlockPos> closestPathPos(IPath path) {
-        double best = -1;
-        BlockPos bestPos = null;
-        for (BlockPos pos : path.positions()) {
-            double dist = VecUtils.entityDistanceToCenter(player(), pos);
-            if (dist < best || best == -1) {
-                best = dist;
-                bestPos = pos;
+    /**
+     * Block changes are caught as they happen, but costs also depend on what's in the inventory, so the next few
+     * movements are checked when each movement starts and whenever the context changes
+     */
+    private void checkLookahead() {
+        for (int i = 1; i < Baritone.settings().costVerificationLookahead.get() && pathPosition + i < path.length() - 1; i++) {
+            impossible.set(pathPosition + i, path.movements().get(pathPosition + i).calculateCostWithoutCaching() >= ActionCosts.COST_INF);
+        }
+    }
+
+    /**
+     * Costs the movements that depend on these blocks again, instead of checking them every tick
+     */
+    public void onBlockChange(List<BlockPos> positions) {
+        for (BlockPos pos : positions) {
+            dependencies.blockChanged(pos, affected);
+        }
+        recostAffected();
+    }
+
+    /**
+     * Costs the movements that depend on anything in this chunk again, e.g. because it's just been loaded
+     */
+    public void onChunkChange(int chunkX, int chunkZ) {
+        dependencies.chunkChanged(chunkX, chunkZ, affected);
+        recostAffected();
+    }
+
+    private void recostAffected() {
+        List<IMovement> movements = path.movements();
+        for (int i = affected.nextSetBit(pathPosition); i != -1 && i < movements.size(); i = affected.nextSetBit(i + 1)) {
+            // the toBreak, toPlace and toWalkInto lists it cached are out of date too
+            movements.get(i).resetBlockCache();
+            blocks.refresh(movements, i);
+            if (i == pathPosition) {
+                currentCostStale = true;
+            } else {
+                impossible.set(i, movements.get(i).calculateCostWithoutCaching() >= ActionCosts.COST_INF);
             }
         }
-        return new Tuple<>(best, bestPos);
+        affected.clear();
+    }
+
+    /**
+     * The same position as {@link #playerFeet()}, without allocating a BetterBlockPos for it every tick
+     */
+    private void updateFeet() {
+        feetX = MathHelper.floor(player().posX);
+        feetY = MathHelper.floor(player().posY + 0.1251);
+        feetZ = MathHelper.floor(player().posZ);
+        if (BlockStateInterface.getBlock(feetX, feetY, feetZ) instanceof BlockSlab) {
+            feetY++;
+        }
+    }
+
+    private boolean isFeet(BetterBlockPos pos) {
+        return pos.x == feetX && pos.y == feetY && pos.z == feetZ;
+    }
+
+    private double distanceFromPath(IPath path) {
+        return path.index().distanceToNearest(player().posX, player().posY, player().posZ);
     }
 
     private boolean shouldPause() {
-        Optional<AbstractNodeCostSearch> current = AbstractNodeCostSearch.getCurrentlyRunning();
+        Optional<IPathFinder> current = AbstractNodeCostSearch.getCurrentlyRunning();
         if (!current.isPresent()) {
             return false;
         }
         if (!player().onGround) {
             return false;
         }
-        if (!MovementHelper.canWalkOn(playerFeet().down())) {
+        SettingsSnapshot settings = SettingsSnapshot.current();
+        if (!MovementHelper.canWalkOn(settings, feetX, feetY - 1, feetZ)) {
             // we're in some kind of sketchy situation, maybe parkouring
             return false;
         }
-        if (!MovementHelper.canWalkThrough(playerFeet()) || !MovementHelper.canWalkThrough(playerFeet().up())) {
+        if (!MovementHelper.canWalkThrough(settings, feetX, feetY, feetZ) || !MovementHelper.canWalkThrough(settings, feetX, feetY + 1, feetZ)) {
             // suffocating?
             return false;
         }
@@ -316,12 +389,15 @@ public class PathExecutor implements IPathExecutor, Helper {
         }
         // the first block of the next path will always overlap
         // no need to pause our very last movement when it would have otherwise cleanly exited with MovementStatus SUCCESS
-        positions = positions.subList(1, positions.size());
-        return positions.contains(playerFeet());
+        for (int i = 1; i < positions.size(); i++) {
+            if (isFeet(positions.get(i))) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean possiblyOffPath(Tuple<Double, BlockPos> status, double leniency) {
-        double distanceFromPath = status.getFirst();
+    private boolean possiblyOffPath(double distanceFromPath, double leniency) {
         if (distanceFromPath > leniency) {
             // when we're midair in the middle of a fall, we're very far from both the beginning and the end, but we aren't actually off path
             if (path.movements().get(pathPosition) instanceof MovementFall) {
@@ -342,7 +418,7 @@ public class PathExecutor implements IPathExecutor, Helper {
      * Regardless of current path position, snap to the current player feet if possible
      */
     public boolean snipsnapifpossible() {
-        int index = path.positions().indexOf(playerFeet());
+        int index = path.index().indexOf(playerFeet());
         if (index == -1) {
             return false;
         }
@@ -354,7 +430,7 @@ public class PathExecutor implements IPathExecutor, Helper {
     private void sprintIfRequested() {
 
         // first and foremost, if allowSprint is off, or if we don't have enough hunger, don't try and sprint
-        if (!new CalculationContext().canSprint()) {
+        if (!CalculationContextProvider.INSTANCE.get().canSprint()) {
             Baritone.INSTANCE.getInputOverrideHandler().setInputForceState(InputOverrideHandler.Input.SPRINT, false);
             player().setSprinting(false);
             return;
@@ -378,9 +454,13 @@ public class PathExecutor implements IPathExecutor, Helper {
             // (dest - src) + dest is offset 1 more in the same direction
             // so it's the block we'd need to worry about running into if we decide to sprint straight through this descend
 
-            BlockPos into = current.getDest().subtract(current.getSrc().down()).add(current.getDest());
+            BetterBlockPos src = current.getSrc();
+            BetterBlockPos dest = current.getDest();
+            int intoX = 2 * dest.x - src.x;
+            int intoY = 2 * dest.y - src.y + 1;
+            int intoZ = 2 * dest.z - src.z;
             for (int y = 0; y <= 2; y++) { // we could hit any of the three blocks
-                if (MovementHelper.avoidWalkingInto(BlockStateInterface.getBlock(into.up(y)))) {
+                if (MovementHelper.avoidWalkingInto(BlockStateInterface.getBlock(intoX, intoY + y, intoZ))) {
                     logDebug("Sprinting would be unsafe");
                     player().setSprinting(false);
                     return;
@@ -399,7 +479,7 @@ public class PathExecutor implements IPathExecutor, Helper {
                 return;
             }
             if (canSprintInto(current, next)) {
-                if (playerFeet().equals(current.getDest())) {
+                if (isFeet(current.getDest())) {
                     pathPosition++;
                     onChangeInPathPosition();
                 }
@@ -473,19 +553,26 @@ public class PathExecutor implements IPathExecutor, Helper {
         return failed;
     }
 
+    /**
+     * @return The index of the movement that became impossible or too expensive, or -1 if that isn't why this failed
+     */
+    public int getInvalidatedMovement() {
+        return invalidatedMovement;
+    }
+
     public boolean finished() {
         return pathPosition >= path.length();
     }
 
     public Set<BlockPos> toBreak() {
-        return Collections.unmodifiableSet(toBreak);
+        return blocks.toBreak();
     }
 
     public Set<BlockPos> toPlace() {
-        return Collections.unmodifiableSet(toPlace);
+        return blocks.toPlace();
     }
 
     public Set<BlockPos> toWalkInto() {
-        return Collections.unmodifiableSet(toWalkInto);
+        return blocks.toWalkInto();
     }
 }
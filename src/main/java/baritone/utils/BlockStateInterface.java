@@ -21,12 +21,18 @@ import baritone.Baritone;
 import baritone.cache.CachedRegion;
 import baritone.cache.WorldData;
 import baritone.cache.WorldProvider;
+import baritone.utils.pathing.BlockSource;
+import baritone.utils.pathing.ChunkGenerations;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockLiquid;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.EmptyChunk;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Wraps get for chuck caching capability
@@ -35,11 +41,87 @@ import net.minecraft.world.chunk.Chunk;
  */
 public class BlockStateInterface implements Helper {
 
-    private static Chunk prev = null;
-    private static CachedRegion prevCached = null;
+    /**
+     * Each thread remembers the chunks and regions it looked at recently on its own, so the render thread, the client
+     * thread and the path threads don't keep evicting each other's
+     */
+    private static final ThreadLocal<Lookups> lookups = ThreadLocal.withInitial(Lookups::new);
+
+    /**
+     * Bumped by {@link #clearCachedChunk()}, a thread that sees a different value than its lookups were filled under
+     * throws them away
+     */
+    private static final AtomicInteger epoch = new AtomicInteger();
 
     private static final IBlockState AIR = Blocks.AIR.getDefaultState();
 
+    /**
+     * The recently used chunks and regions of one thread. Direct mapped on the lowest bit of each coordinate, so the
+     * (up to) four chunks around a chunk corner all fit at once, and a movement that straddles a border doesn't miss
+     * on every other lookup.
+     */
+    private static final class Lookups {
+
+        private final Chunk[] chunks = new Chunk[4];
+        private final CachedRegion[] regions = new CachedRegion[4];
+
+        /**
+         * What this thread reads instead of the live world, if anything, like a snapshot of it
+         */
+        private BlockSource.Reader source;
+
+        private int epoch = BlockStateInterface.epoch.get();
+
+        private void clear(int epoch) {
+            Arrays.fill(chunks, null);
+            Arrays.fill(regions, null);
+            this.epoch = epoch;
+        }
+    }
+
+    private static Lookups lookups() {
+        Lookups local = lookups.get();
+        int current = epoch.get();
+        if (local.epoch != current) {
+            local.clear(current);
+        }
+        return local;
+    }
+
+    private static int slot(int x, int z) {
+        return (x & 1) | (z & 1) << 1;
+    }
+
+    /**
+     * Have this thread read from this source instead of the live world, until it's set back to null
+     */
+    public static void setBlockSource(BlockSource source) {
+        lookups.get().source = source == null ? null : source.reader();
+    }
+
+    /**
+     * @return The source this thread is reading from, or null if it's reading the live world
+     */
+    public static BlockSource getBlockSource() {
+        BlockSource.Reader reader = lookups.get().source;
+        return reader == null ? null : reader.source();
+    }
+
+    /**
+     * Wraps a task so that it reads from this source on whatever thread it ends up running on
+     */
+    public static Runnable withBlockSource(BlockSource source, Runnable task) {
+        return () -> {
+            BlockSource outer = getBlockSource();
+            setBlockSource(source);
+            try {
+                task.run();
+            } finally {
+                setBlockSource(outer);
+            }
+        };
+    }
+
     public static IBlockState get(BlockPos pos) {
         return get(pos.getX(), pos.getY(), pos.getZ());
     }
@@ -51,74 +133,117 @@ public class BlockStateInterface implements Helper {
             return AIR;
         }
 
-        if (!Baritone.settings().pathThroughCachedOnly.get()) {
-            Chunk cached = prev;
-            // there's great cache locality in block state lookups
-            // generally it's within each movement
-            // if it's the same chunk as last time
-            // we can just skip the mc.world.getChunk lookup
-            // which is a Long2ObjectOpenHashMap.get
-            // see issue #113
-            if (cached != null && cached.x == x >> 4 && cached.z == z >> 4) {
-                return cached.getBlockState(x, y, z);
+        Lookups local = lookups();
+        BlockSource.Reader reader = local.source;
+        if (reader != null) {
+            IBlockState state = reader.get(x, y, z);
+            if (state != null) {
+                return state;
             }
-            Chunk chunk = mc.world.getChunk(x >> 4, z >> 4);
-            if (chunk.isLoaded()) {
-                prev = chunk;
+            // not in the source, e.g. not loaded when the snapshot was taken, fall through to the cache
+        } else if (!Baritone.settings().pathThroughCachedOnly.get()) {
+            Chunk chunk = loadedChunk(local, x >> 4, z >> 4);
+            if (chunk != null) {
                 return chunk.getBlockState(x, y, z);
             }
         }
-        // same idea here, skip the Long2ObjectOpenHashMap.get if at all possible
-        // except here, it's 512x512 tiles instead of 16x16, so even better repetition
-        CachedRegion cached = prevCached;
-        if (cached == null || cached.getX() != x >> 9 || cached.getZ() != z >> 9) {
-            WorldData world = WorldProvider.INSTANCE.getCurrentWorld();
-            if (world == null) {
-                return AIR;
-            }
-            CachedRegion region = world.cache.getRegion(x >> 9, z >> 9);
-            if (region == null) {
-                return AIR;
-            }
-            prevCached = region;
-            cached = region;
+        CachedRegion region = cachedRegion(local, x >> 9, z >> 9);
+        if (region == null) {
+            return AIR;
         }
-        IBlockState type = cached.getBlock(x & 511, y, z & 511);
+        IBlockState type = region.getBlock(x & 511, y, z & 511);
         if (type == null) {
             return AIR;
         }
         return type;
     }
 
-    public static boolean isLoaded(int x, int z) {
-        Chunk prevChunk = prev;
-        if (prevChunk != null && prevChunk.x == x >> 4 && prevChunk.z == z >> 4) {
-            return true;
+    /**
+     * @return The chunk from the live world, or null if it isn't loaded
+     */
+    private static Chunk loadedChunk(Lookups local, int chunkX, int chunkZ) {
+        // there's great cache locality in block state lookups
+        // generally it's within each movement
+        // if it's one of the chunks we looked at just now
+        // we can just skip the mc.world.getChunk lookup
+        // which is a Long2ObjectOpenHashMap.get
+        // see issue #113
+        int slot = slot(chunkX, chunkZ);
+        Chunk cached = local.chunks[slot];
+        if (cached != null && cached.x == chunkX && cached.z == chunkZ && cached.isLoaded()) {
+            return cached;
         }
-        prevChunk = mc.world.getChunk(x >> 4, z >> 4);
-        if (prevChunk.isLoaded()) {
-            prev = prevChunk;
-            return true;
+        Chunk chunk = mc.world.getChunk(chunkX, chunkZ);
+        if (chunk instanceof EmptyChunk || !chunk.isLoaded()) {
+            return null;
         }
-        CachedRegion prevRegion = prevCached;
-        if (prevRegion != null && prevRegion.getX() == x >> 9 && prevRegion.getZ() == z >> 9) {
-            return prevRegion.isCached(x & 511, z & 511);
+        local.chunks[slot] = chunk;
+        return chunk;
+    }
+
+    /**
+     * @return The region from the cache, or null if there isn't one
+     */
+    private static CachedRegion cachedRegion(Lookups local, int regionX, int regionZ) {
+        // same idea here, skip the Long2ObjectOpenHashMap.get if at all possible
+        // except here, it's 512x512 tiles instead of 16x16, so even better repetition
+        int slot = slot(regionX, regionZ);
+        CachedRegion cached = local.regions[slot];
+        if (cached != null && cached.getX() == regionX && cached.getZ() == regionZ) {
+            return cached;
         }
         WorldData world = WorldProvider.INSTANCE.getCurrentWorld();
         if (world == null) {
-            return false;
+            return null;
         }
-        prevRegion = world.cache.getRegion(x >> 9, z >> 9);
-        if (prevRegion == null) {
-            return false;
+        CachedRegion region = world.cache.getRegion(regionX, regionZ);
+        if (region != null) {
+            local.regions[slot] = region;
         }
-        prevCached = prevRegion;
-        return prevRegion.isCached(x & 511, z & 511);
+        return region;
     }
 
+    /**
+     * Read this before calculating anything from the blocks around here that's going to be cached, and store it
+     * alongside the result
+     *
+     * @return The generation of the chunk containing this block, in this thread's block source if it has one, or
+     * {@link ChunkGenerations#NONE} if the result shouldn't be cached at all
+     * @see BlockSource.Reader#generation(int, int)
+     */
+    public static int generation(int x, int z) {
+        BlockSource.Reader reader = lookups().source;
+        if (reader != null) {
+            return reader.generation(x, z);
+        }
+        return ChunkGenerations.INSTANCE.get(x, z);
+    }
+
+    public static boolean isLoaded(int x, int z) {
+        if (isChunkLoaded(x, z)) {
+            return true;
+        }
+        CachedRegion region = cachedRegion(lookups(), x >> 9, z >> 9);
+        return region != null && region.isCached(x & 511, z & 511);
+    }
+
+    /**
+     * Whether the chunk containing this block is loaded in the world, or in this thread's block source if it has one.
+     * Unlike {@link #isLoaded(int, int)}, this doesn't count chunks that are only in the cache.
+     */
+    public static boolean isChunkLoaded(int x, int z) {
+        Lookups local = lookups();
+        if (local.source != null) {
+            return local.source.isLoaded(x, z);
+        }
+        return loadedChunk(local, x >> 4, z >> 4) != null;
+    }
+
+    /**
+     * Forget the recently used chunks and regions, on every thread
+     */
     public static void clearCachedChunk() {
-        prev = null;
-        prevCached = null;
+        epoch.incrementAndGet();
     }
 
     public static Block getBlock(BlockPos pos) {
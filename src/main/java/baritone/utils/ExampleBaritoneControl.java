@@ -31,6 +31,7 @@ import baritone.behavior.MineBehavior;
 import baritone.behavior.PathingBehavior;
 import baritone.cache.ChunkPacker;
 import baritone.cache.Waypoint;
+import baritone.cache.WorldData;
 import baritone.cache.WorldProvider;
 import baritone.pathing.calc.AbstractNodeCostSearch;
 import baritone.pathing.movement.Movement;
@@ -272,6 +273,14 @@ public class ExampleBaritoneControl extends Behavior implements Helper {
             logDirect("ok");
             return true;
         }
+        if (msg.equals("landmarks")) {
+            WorldData world = WorldProvider.INSTANCE.getCurrentWorld();
+            List<BlockPos> candidates = world.getWaypoints().getAllWaypoints().stream().map(IWaypoint::getLocation).collect(Collectors.toList());
+            BlockPos center = playerFeet();
+            logDirect("Building landmarks in the background");
+            Baritone.INSTANCE.getExecutor().execute(() -> logDirect("Built " + world.cache.getLandmarks().rebuild(candidates, center) + " landmarks"));
+            return true;
+        }
         if (msg.equals("saveall")) {
             WorldProvider.INSTANCE.getCurrentWorld().getCachedWorld().save();
             logDirect("ok");
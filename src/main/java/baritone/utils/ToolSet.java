@@ -23,6 +23,7 @@ import net.minecraft.block.state.IBlockState;
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.init.Enchantments;
 import net.minecraft.init.MobEffects;
+import net.minecraft.item.Item;
 import net.minecraft.item.Item.ToolMaterial;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.ItemTool;
@@ -48,18 +49,53 @@ public class ToolSet implements Helper {
      */
     private final Function<Block, Double> backendCalculation;
 
+    private final double amplifier;
+
+    /**
+     * The hotbar to pick tools from, or null for the player's
+     */
+    private final ItemStack[] hotbar;
+
     public ToolSet() {
+        this(null);
+    }
+
+    /**
+     * A tool set that doesn't look at the player at all, for calculating without one. Potion effects aren't considered.
+     *
+     * @param hotbar The 9 hotbar slots, with {@link ItemStack#EMPTY} for the empty ones. Null for the player's.
+     */
+    public ToolSet(ItemStack[] hotbar) {
+        if (hotbar != null && hotbar.length != 9) {
+            throw new IllegalArgumentException("The hotbar has 9 slots, not " + hotbar.length);
+        }
+        this.hotbar = hotbar;
         breakStrengthCache = new HashMap<>();
 
-        if (Baritone.settings().considerPotionEffects.get()) {
-            double amplifier = potionAmplifier();
+        if (hotbar == null && Baritone.settings().considerPotionEffects.get()) {
+            amplifier = potionAmplifier();
             Function<Double, Double> amplify = x -> amplifier * x;
             backendCalculation = amplify.compose(this::getBestDestructionTime);
         } else {
+            amplifier = 1;
             backendCalculation = this::getBestDestructionTime;
         }
     }
 
+    /**
+     * @return Everything that could change how long a block takes to break: the potion effects, then which item and
+     * level of efficiency is in each hotbar slot. Two tool sets with equal inputs break every block equally fast.
+     */
+    public long[] inputs() {
+        long[] inputs = new long[10];
+        inputs[0] = Double.doubleToLongBits(amplifier);
+        for (int i = 0; i < 9; i++) {
+            ItemStack itemStack = slot(i);
+            inputs[i + 1] = (long) Item.getIdFromItem(itemStack.getItem()) << 32 | EnchantmentHelper.getEnchantmentLevel(Enchantments.EFFICIENCY, itemStack);
+        }
+        return inputs;
+    }
+
     /**
      * Using the best tool on the hotbar, how long would it take to mine this block
      *
@@ -70,6 +106,10 @@ public class ToolSet implements Helper {
         return breakStrengthCache.computeIfAbsent(state.getBlock(), backendCalculation);
     }
 
+    private ItemStack slot(int i) {
+        return hotbar == null ? player().inventory.getStackInSlot(i) : hotbar[i];
+    }
+
     /**
      * Evaluate the material cost of a possible tool. The priority matches the
      * listed order in the Item.ToolMaterial enum.
@@ -98,7 +138,7 @@ public class ToolSet implements Helper {
         int materialCost = Integer.MIN_VALUE;
         IBlockState blockState = b.getDefaultState();
         for (byte i = 0; i < 9; i++) {
-            ItemStack itemStack = player().inventory.getStackInSlot(i);
+            ItemStack itemStack = slot(i);
             double v = calculateStrVsBlock(itemStack, blockState);
             if (v > value) {
                 value = v;
@@ -123,7 +163,7 @@ public class ToolSet implements Helper {
      * @return A double containing the destruction ticks with the best tool
      */
     private double getBestDestructionTime(Block b) {
-        ItemStack stack = player().inventory.getStackInSlot(getBestSlot(b));
+        ItemStack stack = slot(getBestSlot(b));
         return calculateStrVsBlock(stack, b.getDefaultState());
     }
 
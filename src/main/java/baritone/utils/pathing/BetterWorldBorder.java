@@ -27,10 +27,14 @@ public class BetterWorldBorder implements Helper {
     private final double maxZ;
 
     public BetterWorldBorder(WorldBorder border) {
-        this.minX = border.minX();
-        this.maxX = border.maxX();
-        this.minZ = border.minZ();
-        this.maxZ = border.maxZ();
+        this(border.minX(), border.maxX(), border.minZ(), border.maxZ());
+    }
+
+    public BetterWorldBorder(double minX, double maxX, double minZ, double maxZ) {
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
     }
 
     public boolean entirelyContains(int x, int z) {
@@ -0,0 +1,61 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.pathing;
+
+import net.minecraft.block.state.IBlockState;
+
+/**
+ * Somewhere other than the live world for pathing to read blocks from, installed on a thread with
+ * {@link baritone.utils.BlockStateInterface#setBlockSource(BlockSource)}. A source has to be safe to read from any
+ * number of threads at once, each through its own {@link Reader}.
+ */
+public interface BlockSource {
+
+    /**
+     * @return A reader for one thread, which is allowed to remember what it looked at last
+     */
+    Reader reader();
+
+    /**
+     * Not thread safe, each thread gets its own
+     */
+    interface Reader {
+
+        BlockSource source();
+
+        /**
+         * @return The block state, or null if this source doesn't have this chunk, in which case the cache is asked
+         */
+        IBlockState get(int x, int y, int z);
+
+        /**
+         * @return Whether the chunk containing this block counts as loaded, as in full block states with metadata
+         */
+        boolean isLoaded(int x, int z);
+
+        /**
+         * What caches of things calculated from this source stamp their entries with, instead of the live
+         * {@link ChunkGenerations} counter, since the two can disagree about a chunk that changed after the source was
+         * made. A source that's just a view of data that the live counter already follows can return that.
+         *
+         * @return The generation of the chunk containing this block as this source has it, or
+         * {@link ChunkGenerations#NONE} if what's read from it around here can't be cached
+         */
+        int generation(int x, int z);
+    }
+}
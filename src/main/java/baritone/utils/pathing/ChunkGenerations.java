@@ -0,0 +1,112 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.pathing;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A counter per chunk that goes up whenever anything in or next to that chunk might have changed, for caches of things
+ * calculated from the world to tell whether they're still good. Neighbors are bumped too because what's calculated for
+ * one block usually looks at the blocks around it, or a few blocks further for movements.
+ * <p>
+ * Counters are kept for a 64 by 64 chunk window that wraps around, so chunks 1024 blocks apart share one, which only
+ * ever means invalidating more than necessary.
+ */
+public final class ChunkGenerations {
+
+    public static final ChunkGenerations INSTANCE = new ChunkGenerations();
+
+    /**
+     * Not a generation any chunk ever has, for blocks that don't come from anywhere with one, so nothing calculated
+     * from them can be stored
+     */
+    public static final int NONE = -1;
+
+    private final AtomicIntegerArray generations = new AtomicIntegerArray(64 * 64);
+
+    /**
+     * Chunks with block changes that the client might not have applied to the world yet
+     */
+    private LongOpenHashSet pending = new LongOpenHashSet();
+    private LongOpenHashSet settling = new LongOpenHashSet();
+
+    private ChunkGenerations() {}
+
+    private static int slot(int chunkX, int chunkZ) {
+        return (chunkX & 63) << 6 | (chunkZ & 63);
+    }
+
+    /**
+     * Read this before calculating anything from the world, and store it alongside the result, so that a change that
+     * happens during the calculation still invalidates it
+     *
+     * @return The generation of the chunk containing this block
+     */
+    public int get(int x, int z) {
+        return generations.get(slot(x >> 4, z >> 4)) & Integer.MAX_VALUE;
+    }
+
+    /**
+     * Bump this chunk and its neighbors. Safe to call from any thread.
+     */
+    public void invalidate(int chunkX, int chunkZ) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                generations.incrementAndGet(slot(chunkX + dx, chunkZ + dz));
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < generations.length(); i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    /**
+     * Block change packets arrive on the network thread before the client applies them to the world, so something
+     * could be recalculated from the old block and stored again. Invalidate right away, and again on the next two ticks.
+     */
+    public void onBlockChange(int x, int z) {
+        invalidate(x >> 4, z >> 4);
+        synchronized (this) {
+            pending.add((long) (x >> 4) & 0xFFFFFFFFL | ((long) (z >> 4) & 0xFFFFFFFFL) << 32);
+        }
+    }
+
+    public synchronized void onTick() {
+        if (pending.isEmpty() && settling.isEmpty()) {
+            return;
+        }
+        for (LongIterator it = settling.iterator(); it.hasNext(); ) {
+            long key = it.nextLong();
+            invalidate((int) key, (int) (key >> 32));
+        }
+        for (LongIterator it = pending.iterator(); it.hasNext(); ) {
+            long key = it.nextLong();
+            invalidate((int) key, (int) (key >> 32));
+        }
+        LongOpenHashSet empty = settling;
+        empty.clear();
+        settling = pending;
+        pending = empty;
+    }
+}
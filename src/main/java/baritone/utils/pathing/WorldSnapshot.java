@@ -0,0 +1,278 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.pathing;
+
+import baritone.utils.accessor.IBlockStateContainer;
+import baritone.utils.accessor.IChunkProviderClient;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.multiplayer.ChunkProviderClient;
+import net.minecraft.init.Blocks;
+import net.minecraft.world.chunk.BlockStateContainer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IBlockStatePalette;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.Arrays;
+
+/**
+ * A frozen copy of the loaded chunks, for a search to read on its own thread while the client thread keeps changing the
+ * real world.
+ * <p>
+ * Each 16x16x16 section is copied the way Minecraft already stores it: the packed long array of palette ids, plus the
+ * palette itself turned into a plain array. That's 2 KiB for a typical section, so taking a snapshot is a handful of
+ * array copies per chunk. A chunk whose {@link ChunkGenerations} counter hasn't moved since the last snapshot is shared
+ * with it instead of copied again, so back to back searches only copy what changed.
+ * <p>
+ * Everything in here is immutable once captured, so any number of threads can read one snapshot at the same time.
+ * <p>
+ * Caches of things calculated from the world stamp their entries with the generation each chunk was copied at, not the
+ * live one, so that they can't mix up what the snapshot has with what the world has since changed to.
+ */
+public final class WorldSnapshot implements BlockSource {
+
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+
+    /**
+     * The last snapshot taken, to share unchanged chunks with. Only touched on the client thread.
+     */
+    private static WorldSnapshot latest;
+
+    private final Long2ObjectOpenHashMap<ChunkSnapshot> chunks;
+
+    private WorldSnapshot(Long2ObjectOpenHashMap<ChunkSnapshot> chunks) {
+        this.chunks = chunks;
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return (long) chunkX & 0xFFFFFFFFL | ((long) chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+    /**
+     * Copies every loaded chunk. Must be called on the client thread, the only one that's allowed to look at the live
+     * world.
+     */
+    public static WorldSnapshot capture(ChunkProviderClient provider) {
+        WorldSnapshot previous = latest;
+        Long2ObjectMap<Chunk> loaded = ((IChunkProviderClient) provider).loadedChunks();
+        Long2ObjectOpenHashMap<ChunkSnapshot> chunks = new Long2ObjectOpenHashMap<>(loaded.size());
+        for (Chunk chunk : loaded.values()) {
+            if (!chunk.isLoaded()) {
+                continue;
+            }
+            long key = key(chunk.x, chunk.z);
+            int generation = ChunkGenerations.INSTANCE.get(chunk.x << 4, chunk.z << 4);
+            ChunkSnapshot copy = previous == null ? null : previous.chunks.get(key);
+            if (copy == null || copy.generation != generation) {
+                copy = new ChunkSnapshot(chunk, generation);
+            }
+            chunks.put(key, copy);
+        }
+        WorldSnapshot snapshot = new WorldSnapshot(chunks);
+        latest = snapshot;
+        return snapshot;
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    @Override
+    public Reader reader() {
+        return new Reader(this);
+    }
+
+    public static final class Reader implements BlockSource.Reader {
+
+        private final WorldSnapshot snapshot;
+
+        /**
+         * The last few chunks looked at, direct mapped the same way as BlockStateInterface's own
+         */
+        private final ChunkSnapshot[] recent = new ChunkSnapshot[4];
+
+        /**
+         * The last few generations looked up, by chunk, in the same slots
+         */
+        private final long[] recentGenerationKeys = new long[4];
+        private final int[] recentGenerations = new int[4];
+
+        private Reader(WorldSnapshot snapshot) {
+            this.snapshot = snapshot;
+            Arrays.fill(recentGenerations, ChunkGenerations.NONE);
+            // a key no chunk has, so nothing is found before it's been looked up
+            Arrays.fill(recentGenerationKeys, key(Integer.MIN_VALUE, Integer.MIN_VALUE));
+        }
+
+        @Override
+        public WorldSnapshot source() {
+            return snapshot;
+        }
+
+        private ChunkSnapshot chunk(int x, int z) {
+            int chunkX = x >> 4;
+            int chunkZ = z >> 4;
+            int slot = (chunkX & 1) | (chunkZ & 1) << 1;
+            ChunkSnapshot cached = recent[slot];
+            if (cached != null && cached.x == chunkX && cached.z == chunkZ) {
+                return cached;
+            }
+            cached = snapshot.chunks.get(key(chunkX, chunkZ));
+            if (cached != null) {
+                recent[slot] = cached;
+            }
+            return cached;
+        }
+
+        /**
+         * @return The block state, or null if this chunk wasn't loaded when the snapshot was taken
+         */
+        @Override
+        public IBlockState get(int x, int y, int z) {
+            ChunkSnapshot chunk = chunk(x, z);
+            if (chunk == null) {
+                return null;
+            }
+            return chunk.get(x & 15, y, z & 15);
+        }
+
+        @Override
+        public boolean isLoaded(int x, int z) {
+            return chunk(x, z) != null;
+        }
+
+        /**
+         * The generation the chunk was copied at. {@link ChunkGenerations#NONE} for chunks that weren't copied, which
+         * are read from the cache instead, and for chunks next to one of those, since what's calculated for a block
+         * looks at its neighbors and the world could have the missing chunk loaded.
+         */
+        @Override
+        public int generation(int x, int z) {
+            int chunkX = x >> 4;
+            int chunkZ = z >> 4;
+            int slot = (chunkX & 1) | (chunkZ & 1) << 1;
+            long key = key(chunkX, chunkZ);
+            if (recentGenerationKeys[slot] == key) {
+                return recentGenerations[slot];
+            }
+            int generation = ChunkGenerations.NONE;
+            ChunkSnapshot chunk = snapshot.chunks.get(key);
+            if (chunk != null && hasNeighbors(chunkX, chunkZ)) {
+                generation = chunk.generation;
+            }
+            recentGenerationKeys[slot] = key;
+            recentGenerations[slot] = generation;
+            return generation;
+        }
+
+        private boolean hasNeighbors(int chunkX, int chunkZ) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (!snapshot.chunks.containsKey(key(chunkX + dx, chunkZ + dz))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class ChunkSnapshot {
+
+        private final int x;
+        private final int z;
+        private final int generation;
+
+        /**
+         * Null for sections that are entirely air
+         */
+        private final Section[] sections = new Section[16];
+
+        private ChunkSnapshot(Chunk chunk, int generation) {
+            this.x = chunk.x;
+            this.z = chunk.z;
+            this.generation = generation;
+            ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+            for (int i = 0; i < sections.length && i < storage.length; i++) {
+                if (storage[i] != Chunk.NULL_BLOCK_STORAGE && !storage[i].isEmpty()) {
+                    sections[i] = new Section(storage[i].getData());
+                }
+            }
+        }
+
+        private IBlockState get(int x, int y, int z) {
+            if (y < 0 || y >= 256) {
+                return AIR;
+            }
+            Section section = sections[y >> 4];
+            if (section == null) {
+                return AIR;
+            }
+            return section.get((y & 15) << 8 | z << 4 | x);
+        }
+    }
+
+    private static final class Section {
+
+        private final long[] data;
+        private final int bits;
+        private final long mask;
+
+        /**
+         * Null when the section uses the global palette, in which case ids are looked up in {@link Block#BLOCK_STATE_IDS}
+         */
+        private final IBlockState[] palette;
+
+        private Section(BlockStateContainer container) {
+            IBlockStateContainer accessor = (IBlockStateContainer) container;
+            this.bits = accessor.getBits();
+            this.mask = (1L << bits) - 1L;
+            this.data = accessor.getStorage().getBackingLongArray().clone();
+            if (bits > 8) {
+                // past 8 bits the container switches over to the registry
+                this.palette = null;
+            } else {
+                IBlockStatePalette source = accessor.getPalette();
+                this.palette = new IBlockState[1 << bits];
+                for (int i = 0; i < palette.length; i++) {
+                    palette[i] = source.getBlockState(i);
+                }
+            }
+        }
+
+        /**
+         * The same unpacking as BitArray.getAt, entries can straddle two longs
+         */
+        private IBlockState get(int index) {
+            long bitIndex = (long) index * bits;
+            int first = (int) (bitIndex >> 6);
+            int last = (int) (((long) (index + 1) * bits - 1L) >> 6);
+            int offset = (int) (bitIndex ^ (long) first << 6);
+            int id;
+            if (first == last) {
+                id = (int) (data[first] >>> offset & mask);
+            } else {
+                id = (int) ((data[first] >>> offset | data[last] << (64 - offset)) & mask);
+            }
+            IBlockState state = palette != null ? palette[id] : Block.BLOCK_STATE_IDS.getByValue(id);
+            return state == null ? AIR : state;
+        }
+    }
+}
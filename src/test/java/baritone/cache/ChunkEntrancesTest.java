@@ -0,0 +1,106 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.utils.pathing.PathingBlockType;
+import net.minecraft.block.state.IBlockState;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChunkEntrancesTest {
+
+    private static void set(BitSet data, int x, int y, int z, PathingBlockType type) {
+        int index = CachedChunk.getPositionIndex(x, y, z);
+        data.set(index, type.getBits()[0]);
+        data.set(index + 1, type.getBits()[1]);
+    }
+
+    private static CachedChunk floor(BitSet data) {
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                set(data, x, 0, z, PathingBlockType.SOLID);
+            }
+        }
+        return new CachedChunk(0, 0, data, new IBlockState[256], new HashMap<>(), 0);
+    }
+
+    private static int entrance(ChunkEntrances entrances, int side) {
+        for (int i = 0; i < entrances.count; i++) {
+            if (entrances.side[i] == side) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("no entrance on side " + side);
+    }
+
+    @Test
+    public void flatChunk() {
+        ChunkEntrances entrances = ChunkEntrances.build(floor(new BitSet(CachedChunk.SIZE)));
+        assertEquals(4, entrances.count);
+        int north = entrance(entrances, ChunkEntrances.NORTH);
+        int south = entrance(entrances, ChunkEntrances.SOUTH);
+        int west = entrance(entrances, ChunkEntrances.WEST);
+        int east = entrance(entrances, ChunkEntrances.EAST);
+        assertEquals(1, entrances.y[north]);
+        assertEquals(0, entrances.from[north]);
+        assertEquals(15, entrances.to[north]);
+        assertEquals(15, entrances.steps(north, south));
+        assertEquals(15, entrances.steps(west, east));
+        assertEquals(14, entrances.steps(north, west));
+        assertEquals(0, entrances.steps(east, east));
+        int[] fromCorner = entrances.stepsFrom(0, 1, 0);
+        assertEquals(7 + 15, fromCorner[east]);
+    }
+
+    @Test
+    public void wallSplitsChunk() {
+        BitSet data = new BitSet(CachedChunk.SIZE);
+        for (int z = 0; z < 16; z++) {
+            set(data, 8, 1, z, PathingBlockType.SOLID);
+            set(data, 8, 2, z, PathingBlockType.SOLID);
+        }
+        ChunkEntrances entrances = ChunkEntrances.build(floor(data));
+        int west = entrance(entrances, ChunkEntrances.WEST);
+        int east = entrance(entrances, ChunkEntrances.EAST);
+        assertEquals(ChunkEntrances.UNREACHABLE, entrances.steps(west, east));
+        // the north and south borders are cut in two by the wall, and the top of the wall is an entrance too
+        assertEquals(2 + 3 + 3, entrances.count);
+    }
+
+    @Test
+    public void stepUpAndFall() {
+        BitSet data = new BitSet(CachedChunk.SIZE);
+        // a one block step up across the whole chunk at x = 8
+        for (int x = 8; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                set(data, x, 1, z, PathingBlockType.SOLID);
+            }
+        }
+        ChunkEntrances entrances = ChunkEntrances.build(floor(data));
+        int west = entrance(entrances, ChunkEntrances.WEST);
+        int east = entrance(entrances, ChunkEntrances.EAST);
+        assertEquals(1, entrances.y[west]);
+        assertEquals(2, entrances.y[east]);
+        assertEquals(15, entrances.steps(west, east));
+        assertEquals(15, entrances.steps(east, west));
+    }
+}
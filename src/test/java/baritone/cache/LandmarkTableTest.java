@@ -0,0 +1,185 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.cache;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.calc.AStarPathFinder;
+import baritone.pathing.movement.BlockFlags;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.ToolSet;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.PathingBlockType;
+import baritone.utils.pathing.TestWorld;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * The landmark bound has to stay under what the search actually pays, including where it has to swim or drop off a
+ * cliff, which a graph of walking steps doesn't have.
+ */
+public class LandmarkTableTest {
+
+    private static final int FLOOR = TestWorld.FLOOR;
+
+    private static final int CLIFF = 8;
+
+    private TestWorld world;
+
+    private boolean chatDebug;
+    private boolean allowBreak;
+    private boolean allowPlace;
+    private int maxFallHeightNoWater;
+    private int pathingMaxChunkBorderFetch;
+
+    @Before
+    public void setUp() {
+        world = new TestWorld(48).install();
+        Settings settings = Baritone.settings();
+        chatDebug = settings.chatDebug.value;
+        allowBreak = settings.allowBreak.value;
+        allowPlace = settings.allowPlace.value;
+        maxFallHeightNoWater = settings.maxFallHeightNoWater.value;
+        pathingMaxChunkBorderFetch = settings.pathingMaxChunkBorderFetch.value;
+        settings.chatDebug.value = false;
+        // the cache can't tell what could be broken, see LandmarkTable
+        settings.allowBreak.value = false;
+        settings.allowPlace.value = false;
+        settings.maxFallHeightNoWater.value = CLIFF;
+        settings.pathingMaxChunkBorderFetch.value = Integer.MAX_VALUE;
+
+        // a pool three deep in the middle
+        for (int x = -8; x < 8; x++) {
+            for (int z = -20; z < 20; z++) {
+                for (int y = FLOOR - 3; y < FLOOR; y++) {
+                    world.water.add(BetterBlockPos.longHash(x, y, z));
+                }
+            }
+        }
+        // and a plateau to the east, that you can only get down from by dropping off the edge
+        for (int x = 16; x < 32; x++) {
+            for (int z = -16; z < 16; z++) {
+                for (int y = FLOOR; y < FLOOR + CLIFF; y++) {
+                    world.walls.add(BetterBlockPos.longHash(x, y, z));
+                }
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        TestWorld.uninstall();
+        Settings settings = Baritone.settings();
+        settings.chatDebug.value = chatDebug;
+        settings.allowBreak.value = allowBreak;
+        settings.allowPlace.value = allowPlace;
+        settings.maxFallHeightNoWater.value = maxFallHeightNoWater;
+        settings.pathingMaxChunkBorderFetch.value = pathingMaxChunkBorderFetch;
+    }
+
+    /**
+     * The test world the way the 2 bit cache would have it
+     */
+    private LandmarkTable.ChunkSource cache() {
+        Long2ObjectOpenHashMap<CachedChunk> chunks = new Long2ObjectOpenHashMap<>();
+        return (chunkX, chunkZ) -> chunks.computeIfAbsent(LandmarkTable.chunkKey(chunkX, chunkZ), key -> {
+            BitSet data = new BitSet(CachedChunk.SIZE);
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int y = 0; y < 256; y++) {
+                        PathingBlockType type = BlockFlags.pathingType(world.get(chunkX << 4 | x, y, chunkZ << 4 | z));
+                        int index = CachedChunk.getPositionIndex(x, y, z);
+                        data.set(index, type.getBits()[0]);
+                        data.set(index + 1, type.getBits()[1]);
+                    }
+                }
+            }
+            return new CachedChunk(chunkX, chunkZ, data, new IBlockState[256], new HashMap<>(), 0);
+        });
+    }
+
+    private static double cost(BetterBlockPos start, BetterBlockPos end) {
+        ItemStack[] hotbar = new ItemStack[9];
+        Arrays.fill(hotbar, ItemStack.EMPTY);
+        AStarPathFinder finder = new AStarPathFinder(start.x, start.y, start.z, new GoalBlock(end), Optional.empty());
+        finder.setContext(new CalculationContext(new ToolSet(hotbar), false, false, true, 0, new BetterWorldBorder(-30000000, 30000000, -30000000, 30000000)));
+        Optional<IPath> path = finder.calculate(60000);
+        assertTrue(path.isPresent());
+        assertEquals(end, path.get().getDest());
+        return path.get().ticksRemainingFrom(0);
+    }
+
+    /**
+     * Only what the landmark adds, without the straight line distance of the goal itself
+     */
+    private static double bound(LandmarkTable table, BetterBlockPos start, BetterBlockPos end) {
+        Goal goal = new Goal() {
+            @Override
+            public boolean isInGoal(int x, int y, int z) {
+                return x == end.x && y == end.y && z == end.z;
+            }
+
+            @Override
+            public double heuristic(int x, int y, int z) {
+                return 0;
+            }
+        };
+        long range = table.range(end.x >> 4, end.z >> 4);
+        assertNotEquals(LandmarkTable.NO_RANGE, range);
+        LandmarkGoal landmarkGoal = new LandmarkGoal(goal, new LandmarkTable[]{table}, new int[]{LandmarkTable.min(range)}, new int[]{LandmarkTable.max(range)});
+        return landmarkGoal.heuristic(start.x, start.y, start.z);
+    }
+
+    @Test
+    public void neverMoreThanTheSearchPays() {
+        LandmarkTable table = LandmarkTable.build(cache(), new BlockPos(-40, FLOOR, 0), 5);
+        assertNotNull(table);
+        assertNull(LandmarkTable.build(cache(), new BlockPos(-40, FLOOR - 1, 0), 5)); // in the ground
+
+        BetterBlockPos[][] trips = {
+                {new BetterBlockPos(24, FLOOR + CLIFF, 0), new BetterBlockPos(-40, FLOOR, 0)}, // off the cliff
+                {new BetterBlockPos(24, FLOOR + CLIFF, 0), new BetterBlockPos(0, FLOOR - 1, 0)}, // off the cliff into the pool
+                {new BetterBlockPos(-40, FLOOR, 5), new BetterBlockPos(40, FLOOR, 0)}, // across the pool, or around it
+                {new BetterBlockPos(40, FLOOR, 30), new BetterBlockPos(-30, FLOOR, -10)}
+        };
+        boolean raised = false;
+        for (BetterBlockPos[] trip : trips) {
+            double bound = bound(table, trip[0], trip[1]);
+            double cost = cost(trip[0], trip[1]);
+            assertTrue(trip[0] + " to " + trip[1] + " bound " + bound + " but the path costs " + cost, bound <= cost);
+            raised |= bound > 0;
+        }
+        assertTrue(raised);
+    }
+}
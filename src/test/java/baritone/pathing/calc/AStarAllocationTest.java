@@ -0,0 +1,140 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.ToolSet;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.TestWorld;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.item.ItemStack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that expanding a node doesn't allocate, by searching a flat world the goal is outside of, so that the whole
+ * loaded area gets expanded, and dividing the bytes the thread allocated by the number of expansions. The node store
+ * is sized up front so that growing it doesn't count, anything left over is the open set growing and the partial path
+ * at the end, which come to a few bytes per expansion.
+ */
+public class AStarAllocationTest {
+
+    /**
+     * Boxing the favored position lookups alone was over 100 bytes per expansion
+     */
+    private static final double BYTES_PER_EXPANSION = 32;
+
+    private static final int RADIUS = 64;
+
+    private static final int FLOOR = TestWorld.FLOOR;
+
+    private boolean chatDebug;
+    private boolean useNodeStore;
+    private int pathingMapDefaultSize;
+    private int pathingMaxChunkBorderFetch;
+    private boolean movementCostMemo;
+    private boolean useSectionMasks;
+    private boolean allowBreak;
+    private boolean allowPlace;
+
+    @Before
+    public void setUp() {
+        new TestWorld(RADIUS).install();
+        Settings settings = Baritone.settings();
+        chatDebug = settings.chatDebug.value;
+        useNodeStore = settings.useNodeStore.value;
+        pathingMapDefaultSize = settings.pathingMapDefaultSize.value;
+        pathingMaxChunkBorderFetch = settings.pathingMaxChunkBorderFetch.value;
+        movementCostMemo = settings.movementCostMemo.value;
+        useSectionMasks = settings.useSectionMasks.value;
+        allowBreak = settings.allowBreak.value;
+        allowPlace = settings.allowPlace.value;
+        settings.chatDebug.value = false;
+        settings.useNodeStore.value = true;
+        settings.pathingMapDefaultSize.value = 1 << 16;
+        settings.pathingMaxChunkBorderFetch.value = Integer.MAX_VALUE;
+        // the memo would skip the movement cost functions, which are what this is checking
+        settings.movementCostMemo.value = false;
+        // the budget is for the search with the masks, which the warm up searches build
+        settings.useSectionMasks.value = true;
+        settings.allowBreak.value = false;
+        settings.allowPlace.value = false;
+    }
+
+    @After
+    public void tearDown() {
+        TestWorld.uninstall();
+        Settings settings = Baritone.settings();
+        settings.chatDebug.value = chatDebug;
+        settings.useNodeStore.value = useNodeStore;
+        settings.pathingMapDefaultSize.value = pathingMapDefaultSize;
+        settings.pathingMaxChunkBorderFetch.value = pathingMaxChunkBorderFetch;
+        settings.movementCostMemo.value = movementCostMemo;
+        settings.useSectionMasks.value = useSectionMasks;
+        settings.allowBreak.value = allowBreak;
+        settings.allowPlace.value = allowPlace;
+    }
+
+    @Test
+    public void expansionsDontAllocate() {
+        com.sun.management.ThreadMXBean threads = TestWorld.allocationCounter();
+
+        ItemStack[] hotbar = new ItemStack[9];
+        Arrays.fill(hotbar, ItemStack.EMPTY);
+        CalculationContext context = new CalculationContext(new ToolSet(hotbar), false, false, true, 0, new BetterWorldBorder(-30000000, 30000000, -30000000, 30000000));
+        // the last path went straight along x, so every movement gets checked against a non empty favored set
+        LongOpenHashSet favored = new LongOpenHashSet();
+        for (int x = -RADIUS; x < RADIUS; x++) {
+            favored.add(BetterBlockPos.longHash(x, FLOOR, 0));
+        }
+
+        // the first searches are while the JIT is still catching up, and build the section masks
+        for (int i = 0; i < 2; i++) {
+            search(context, favored);
+        }
+        AStarPathFinder finder = new AStarPathFinder(0, FLOOR, 0, new GoalBlock(1000, FLOOR, 0), Optional.of(favored));
+        finder.setContext(context);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        Optional<IPath> path = finder.calculate(60000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        int expansions = finder.getSearchStats().get().getExpansions();
+        assertTrue(path.isPresent());
+        assertTrue("only expanded " + expansions, expansions >= RADIUS * RADIUS);
+        double perExpansion = allocated / (double) expansions;
+        assertTrue(allocated + " bytes for " + expansions + " expansions is " + perExpansion + " each", perExpansion < BYTES_PER_EXPANSION);
+    }
+
+    private static void search(CalculationContext context, LongOpenHashSet favored) {
+        AStarPathFinder finder = new AStarPathFinder(0, FLOOR, 0, new GoalBlock(1000, FLOOR, 0), Optional.of(favored));
+        finder.setContext(context);
+        finder.calculate(60000);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.ToolSet;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.TestWorld;
+import net.minecraft.item.ItemStack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the anytime search into a cup that opens towards the start, so that the heavily weighted first iterations head
+ * straight into it, and checks that every path it hands over is no worse than the last, and that it ends up where a
+ * plain search does.
+ */
+public class AnytimeSearchTest {
+
+    private static final int FLOOR = TestWorld.FLOOR;
+
+    private static final GoalBlock GOAL = new GoalBlock(40, FLOOR, 0);
+
+    private boolean chatDebug;
+    private boolean useNodeStore;
+    private int pathingMaxChunkBorderFetch;
+    private boolean minimumImprovementRepropagation;
+    private double anytimeInitialHeuristicWeight;
+    private double anytimeHeuristicWeightStep;
+    private boolean allowBreak;
+    private boolean allowPlace;
+
+    private CalculationContext context;
+
+    @Before
+    public void setUp() {
+        TestWorld world = new TestWorld(48);
+        // too tall to jump, with one arm longer than the other so there's a single way around that's shortest
+        for (int y = FLOOR; y < FLOOR + 3; y++) {
+            for (int z = -6; z <= 12; z++) {
+                world.walls.add(BetterBlockPos.longHash(20, y, z));
+            }
+            for (int x = 10; x < 20; x++) {
+                world.walls.add(BetterBlockPos.longHash(x, y, -6));
+                world.walls.add(BetterBlockPos.longHash(x, y, 12));
+            }
+        }
+        world.install();
+        Settings settings = Baritone.settings();
+        chatDebug = settings.chatDebug.value;
+        useNodeStore = settings.useNodeStore.value;
+        pathingMaxChunkBorderFetch = settings.pathingMaxChunkBorderFetch.value;
+        minimumImprovementRepropagation = settings.minimumImprovementRepropagation.value;
+        anytimeInitialHeuristicWeight = settings.anytimeInitialHeuristicWeight.value;
+        anytimeHeuristicWeightStep = settings.anytimeHeuristicWeightStep.value;
+        allowBreak = settings.allowBreak.value;
+        allowPlace = settings.allowPlace.value;
+        settings.chatDebug.value = false;
+        // the anytime search always uses the node store, so the plain one it's compared to should too
+        settings.useNodeStore.value = true;
+        settings.pathingMaxChunkBorderFetch.value = Integer.MAX_VALUE;
+        // so that both searches settle on exactly the same cost, instead of to within a hundredth of a tick
+        settings.minimumImprovementRepropagation.value = false;
+        settings.anytimeInitialHeuristicWeight.value = 3D;
+        settings.anytimeHeuristicWeightStep.value = 0.5D;
+        settings.allowBreak.value = false;
+        settings.allowPlace.value = false;
+
+        ItemStack[] hotbar = new ItemStack[9];
+        Arrays.fill(hotbar, ItemStack.EMPTY);
+        context = new CalculationContext(new ToolSet(hotbar), false, false, true, 0, new BetterWorldBorder(-30000000, 30000000, -30000000, 30000000));
+    }
+
+    @After
+    public void tearDown() {
+        TestWorld.uninstall();
+        Settings settings = Baritone.settings();
+        settings.chatDebug.value = chatDebug;
+        settings.useNodeStore.value = useNodeStore;
+        settings.pathingMaxChunkBorderFetch.value = pathingMaxChunkBorderFetch;
+        settings.minimumImprovementRepropagation.value = minimumImprovementRepropagation;
+        settings.anytimeInitialHeuristicWeight.value = anytimeInitialHeuristicWeight;
+        settings.anytimeHeuristicWeightStep.value = anytimeHeuristicWeightStep;
+        settings.allowBreak.value = allowBreak;
+        settings.allowPlace.value = allowPlace;
+    }
+
+    @Test
+    public void publishedPathsOnlyGetBetter() {
+        List<IPath> published = new ArrayList<>();
+        AStarPathFinder anytime = new AStarPathFinder(0, FLOOR, 0, GOAL, Optional.empty(), published::add);
+        anytime.setContext(context);
+        Optional<IPath> result = anytime.calculate(60000);
+
+        assertTrue(result.isPresent());
+        assertFalse(published.isEmpty());
+        double last = Double.MAX_VALUE;
+        for (IPath path : published) {
+            assertTrue(GOAL.isInGoal(path.getDest()));
+            double cost = path.ticksRemainingFrom(0);
+            assertTrue(cost + " after " + last, cost <= last);
+            last = cost;
+        }
+        // the last one published is the one it returns
+        assertEquals(last, result.get().ticksRemainingFrom(0), 1e-9);
+
+        AStarPathFinder plain = new AStarPathFinder(0, FLOOR, 0, GOAL, Optional.empty());
+        plain.setContext(context);
+        Optional<IPath> optimal = plain.calculate(60000);
+        assertTrue(optimal.isPresent());
+        assertTrue(GOAL.isInGoal(result.get().getDest()));
+        assertEquals(optimal.get().ticksRemainingFrom(0), result.get().ticksRemainingFrom(0), 1e-6);
+    }
+}
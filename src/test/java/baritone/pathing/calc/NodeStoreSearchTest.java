@@ -0,0 +1,138 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.ToolSet;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.TestWorld;
+import net.minecraft.item.ItemStack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the node store search and the PathNode search over the same walled in world, and checks that they find equally
+ * cheap paths to the same place. The paths themselves can differ where two of them cost exactly the same.
+ */
+public class NodeStoreSearchTest {
+
+    private static final int FLOOR = TestWorld.FLOOR;
+
+    private boolean chatDebug;
+    private boolean useNodeStore;
+    private int pathingMaxChunkBorderFetch;
+    private boolean minimumImprovementRepropagation;
+    private boolean movementCostMemo;
+    private boolean allowBreak;
+    private boolean allowPlace;
+
+    private CalculationContext context;
+
+    @Before
+    public void setUp() {
+        TestWorld world = new TestWorld(48);
+        // rows of walls too tall to jump, each with a gap at alternating ends, and a few lone pillars in the way
+        for (int y = FLOOR; y < FLOOR + 3; y++) {
+            for (int row = 0; row < 4; row++) {
+                int x = 6 + row * 8;
+                for (int z = -30; z <= 30; z++) {
+                    boolean gap = row % 2 == 0 ? z >= 26 : z <= -26;
+                    if (!gap) {
+                        world.walls.add(BetterBlockPos.longHash(x, y, z));
+                    }
+                }
+            }
+            world.walls.add(BetterBlockPos.longHash(2, y, 1));
+            world.walls.add(BetterBlockPos.longHash(10, y, 20));
+            world.walls.add(BetterBlockPos.longHash(-5, y, -3));
+        }
+        world.install();
+        Settings settings = Baritone.settings();
+        chatDebug = settings.chatDebug.value;
+        useNodeStore = settings.useNodeStore.value;
+        pathingMaxChunkBorderFetch = settings.pathingMaxChunkBorderFetch.value;
+        minimumImprovementRepropagation = settings.minimumImprovementRepropagation.value;
+        movementCostMemo = settings.movementCostMemo.value;
+        allowBreak = settings.allowBreak.value;
+        allowPlace = settings.allowPlace.value;
+        settings.chatDebug.value = false;
+        settings.pathingMaxChunkBorderFetch.value = Integer.MAX_VALUE;
+        // otherwise either search can settle for a path a hundredth of a tick worse, depending on the order it saw them
+        settings.minimumImprovementRepropagation.value = false;
+        // so that the second search calculates every movement itself instead of reading what the first one did
+        settings.movementCostMemo.value = false;
+        settings.allowBreak.value = false;
+        settings.allowPlace.value = false;
+
+        ItemStack[] hotbar = new ItemStack[9];
+        Arrays.fill(hotbar, ItemStack.EMPTY);
+        context = new CalculationContext(new ToolSet(hotbar), false, false, true, 0, new BetterWorldBorder(-30000000, 30000000, -30000000, 30000000));
+    }
+
+    @After
+    public void tearDown() {
+        TestWorld.uninstall();
+        Settings settings = Baritone.settings();
+        settings.chatDebug.value = chatDebug;
+        settings.useNodeStore.value = useNodeStore;
+        settings.pathingMaxChunkBorderFetch.value = pathingMaxChunkBorderFetch;
+        settings.minimumImprovementRepropagation.value = minimumImprovementRepropagation;
+        settings.movementCostMemo.value = movementCostMemo;
+        settings.allowBreak.value = allowBreak;
+        settings.allowPlace.value = allowPlace;
+    }
+
+    @Test
+    public void sameCosts() {
+        GoalBlock[] goals = {
+                new GoalBlock(5, FLOOR, 0),
+                new GoalBlock(0, FLOOR, 40),
+                new GoalBlock(20, FLOOR, -10),
+                new GoalBlock(40, FLOOR, 0),
+                new GoalBlock(-40, FLOOR, -40),
+        };
+        for (GoalBlock goal : goals) {
+            IPath withNodeStore = search(true, goal);
+            IPath withPathNodes = search(false, goal);
+            assertTrue(goal.isInGoal(withNodeStore.getDest()));
+            assertEquals(goal.toString(), withPathNodes.getDest(), withNodeStore.getDest());
+            assertEquals(goal.toString(), withPathNodes.ticksRemainingFrom(0), withNodeStore.ticksRemainingFrom(0), 1e-6);
+        }
+    }
+
+    private IPath search(boolean useNodeStore, GoalBlock goal) {
+        Baritone.settings().useNodeStore.value = useNodeStore;
+        AStarPathFinder finder = new AStarPathFinder(0, FLOOR, 0, goal, Optional.empty());
+        finder.setContext(context);
+        Optional<IPath> path = finder.calculate(60000);
+        assertTrue(path.isPresent());
+        return path.get();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.pathing.movement.ActionCosts;
+import baritone.api.utils.BetterBlockPos;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The node store on its own, without a search: lookups through growth and rehashing, the columns other threads read,
+ * and assembling paths from them.
+ */
+public class NodeStoreTest {
+
+    private static final GoalBlock GOAL = new GoalBlock(100, 64, -100);
+
+    @Test
+    public void growsAndRehashes() {
+        // starts out with 16 nodes and a 32 slot table, so this grows both many times over
+        NodeStore store = new NodeStore(GOAL, 1, 0.75f);
+        List<BetterBlockPos> positions = new ArrayList<>();
+        for (int x = -20; x < 20; x++) {
+            for (int y = 0; y < 256; y += 17) {
+                for (int z = -20; z < 20; z++) {
+                    positions.add(new BetterBlockPos(x * 1000003, y, z * 7));
+                }
+            }
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            BetterBlockPos pos = positions.get(i);
+            assertEquals(i, store.getOrCreate(pos.x, pos.y, pos.z));
+        }
+        assertEquals(positions.size(), store.size());
+        for (int i = 0; i < positions.size(); i++) {
+            BetterBlockPos pos = positions.get(i);
+            assertEquals(i, store.getIfPresent(pos.x, pos.y, pos.z));
+            assertEquals(i, store.getOrCreate(pos.x, pos.y, pos.z));
+            assertEquals(pos.x, store.x(i));
+            assertEquals(pos.y, store.y(i));
+            assertEquals(pos.z, store.z(i));
+            assertEquals(GOAL.heuristic(pos.x, pos.y, pos.z), store.estimatedCostToGoal(i), 0);
+            assertEquals(ActionCosts.COST_INF, store.cost(i), 0);
+            assertEquals(NodeStore.NO_NODE, store.previous(i));
+            assertFalse(store.isOpen(i));
+        }
+        assertEquals(positions.size(), store.size());
+        assertEquals(NodeStore.NO_NODE, store.getIfPresent(1, 2, 3));
+    }
+
+    @Test
+    public void collidingKeys() {
+        // the table starts out at 32 slots, so until it's been rehashed a few times most keys probe past others
+        NodeStore store = new NodeStore(GOAL, 1, 0.75f);
+        int[] ids = new int[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = store.getOrCreate(i, 64, -i);
+        }
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i], store.getIfPresent(i, 64, -i));
+            // same coordinates in a different order, and neighbours that were never added
+            assertEquals(NodeStore.NO_NODE, store.getIfPresent(-i - 1, 64, i + 1));
+            assertEquals(NodeStore.NO_NODE, store.getIfPresent(i, 65, -i));
+        }
+        // positions only lossless packing tells apart
+        int a = store.getOrCreate(1 << 20, 0, 0);
+        int b = store.getOrCreate(0, 0, 1 << 20);
+        int c = store.getOrCreate(-(1 << 20), 255, -(1 << 20));
+        assertEquals(3, new HashSet<>(Arrays.asList(a, b, c)).size());
+        assertEquals(1 << 20, store.x(a));
+        assertEquals(1 << 20, store.z(b));
+        assertEquals(-(1 << 20), store.x(c));
+    }
+
+    @Test
+    public void publishedColumnsOutliveGrowth() {
+        NodeStore store = new NodeStore(GOAL, 16, 0.75f);
+        for (int i = 0; i < 16; i++) {
+            store.getOrCreate(i, 64, 0);
+        }
+        NodeStore.Columns before = store.columns();
+        assertTrue(before.contains(15));
+        assertFalse(before.contains(16));
+
+        int grown = store.getOrCreate(16, 64, 0);
+        NodeStore.Columns after = store.columns();
+        assertNotSame(before, after);
+        assertTrue(after.contains(grown));
+        assertFalse(before.contains(grown));
+        // the old columns still have everything that was in them, for whoever is still reading them
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, before.x[i]);
+            assertEquals(i, after.x[i]);
+        }
+    }
+
+    @Test
+    public void assemblePath() {
+        NodeStore store = new NodeStore(GOAL, 4, 0.75f);
+        List<BetterBlockPos> expected = new ArrayList<>();
+        int previous = NodeStore.NO_NODE;
+        int start = NodeStore.NO_NODE;
+        for (int i = 0; i < 50; i++) {
+            // something else in between, so the path's ids aren't consecutive
+            store.getOrCreate(i, 70, 5);
+            BetterBlockPos pos = new BetterBlockPos(i, 64, i / 2);
+            expected.add(pos);
+            int node = store.getOrCreate(pos.x, pos.y, pos.z);
+            store.setPrevious(node, previous);
+            if (previous == NodeStore.NO_NODE) {
+                start = node;
+            }
+            previous = node;
+        }
+        Path path = new Path(store, start, previous, 100, GOAL);
+        assertEquals(expected, path.positions());
+        assertEquals(expected.get(0), path.getSrc());
+        assertEquals(expected.get(expected.size() - 1), path.getDest());
+
+        // a path to the middle, from columns published before the end was created
+        NodeStore.Columns early = store.columns();
+        int middle = store.getIfPresent(25, 64, 12);
+        assertEquals(expected.subList(0, 26), new Path(early, start, middle, 100, GOAL).positions());
+        for (int i = 0; early.contains(store.size()); i++) {
+            store.getOrCreate(i, 80, 0);
+        }
+        int unpublished = store.getOrCreate(1000, 64, 0);
+        store.setPrevious(unpublished, middle);
+        try {
+            new Path(early, start, unpublished, 100, GOAL);
+            fail("Assembled a path to a node that wasn't published yet");
+        } catch (IllegalStateException ex) {
+        }
+    }
+}
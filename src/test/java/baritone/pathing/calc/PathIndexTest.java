@@ -0,0 +1,124 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.api.pathing.calc.PathIndex;
+import baritone.api.utils.BetterBlockPos;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PathIndexTest {
+
+    /**
+     * A wandering walk, that sometimes doubles back over itself
+     */
+    private static List<BetterBlockPos> walk(Random random, int length) {
+        List<BetterBlockPos> positions = new ArrayList<>();
+        int x = random.nextInt(2000) - 1000;
+        int y = 64;
+        int z = random.nextInt(2000) - 1000;
+        for (int i = 0; i < length; i++) {
+            positions.add(new BetterBlockPos(x, y, z));
+            switch (random.nextInt(6)) {
+                case 0:
+                    x++;
+                    break;
+                case 1:
+                    x--;
+                    break;
+                case 2:
+                    z++;
+                    break;
+                case 3:
+                    z--;
+                    break;
+                case 4:
+                    y = Math.min(255, y + 1);
+                    break;
+                default:
+                    y = Math.max(0, y - 1);
+                    break;
+            }
+        }
+        return positions;
+    }
+
+    @Test
+    public void indexOfIsTheFirstOccurrence() {
+        Random random = new Random(5021);
+        for (int trial = 0; trial < 20; trial++) {
+            List<BetterBlockPos> positions = walk(random, 1 + random.nextInt(500));
+            PathIndex index = new PathIndex(positions);
+            for (BetterBlockPos pos : positions) {
+                assertEquals(positions.indexOf(pos), index.indexOf(pos));
+                assertTrue(index.contains(pos));
+            }
+            BetterBlockPos first = positions.get(0);
+            for (int i = 0; i < 100; i++) {
+                BetterBlockPos pos = new BetterBlockPos(first.x + random.nextInt(41) - 20, first.y + random.nextInt(41) - 20, first.z + random.nextInt(41) - 20);
+                assertEquals(positions.indexOf(pos), index.indexOf(pos));
+            }
+        }
+    }
+
+    @Test
+    public void nearestMatchesCheckingEverything() {
+        Random random = new Random(5022);
+        for (int trial = 0; trial < 20; trial++) {
+            List<BetterBlockPos> positions = walk(random, 1 + random.nextInt(500));
+            PathIndex index = new PathIndex(positions);
+            BetterBlockPos first = positions.get(0);
+            for (int i = 0; i < 500; i++) {
+                // mostly near the path, sometimes very far from it
+                double spread = i % 10 == 0 ? 2000 : 60;
+                double x = first.x + (random.nextDouble() - 0.5) * spread;
+                double y = first.y + (random.nextDouble() - 0.5) * 40;
+                double z = first.z + (random.nextDouble() - 0.5) * spread;
+                int expected = -1;
+                double expectedDist = -1;
+                for (int j = 0; j < positions.size(); j++) {
+                    BetterBlockPos pos = positions.get(j);
+                    double dist = Math.sqrt(sq(x - pos.x - 0.5) + sq(y - pos.y - 0.5) + sq(z - pos.z - 0.5));
+                    if (expected == -1 || dist < expectedDist) {
+                        expected = j;
+                        expectedDist = dist;
+                    }
+                }
+                assertEquals(expected, index.nearest(x, y, z));
+                assertEquals(expectedDist, index.distanceToNearest(x, y, z), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void emptyPath() {
+        PathIndex index = new PathIndex(new ArrayList<>());
+        assertEquals(-1, index.indexOf(0, 0, 0));
+        assertEquals(-1, index.nearest(0, 0, 0));
+        assertEquals(-1, index.distanceToNearest(0, 0, 0), 0);
+    }
+
+    private static double sq(double d) {
+        return d * d;
+    }
+}
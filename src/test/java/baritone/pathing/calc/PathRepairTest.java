@@ -0,0 +1,189 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.ToolSet;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.TestWorld;
+import net.minecraft.item.ItemStack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Breaks paths on a flat world by walling them off, and checks that the repaired path is a detour followed by the rest
+ * of the old path, without going through anything twice.
+ */
+public class PathRepairTest {
+
+    private static final int FLOOR = TestWorld.FLOOR;
+
+    private boolean chatDebug;
+    private int pathingMaxChunkBorderFetch;
+    private boolean allowBreak;
+    private boolean allowPlace;
+
+    private TestWorld world;
+    private CalculationContext context;
+
+    @Before
+    public void setUp() {
+        world = new TestWorld(48).install();
+        Settings settings = Baritone.settings();
+        chatDebug = settings.chatDebug.value;
+        pathingMaxChunkBorderFetch = settings.pathingMaxChunkBorderFetch.value;
+        allowBreak = settings.allowBreak.value;
+        allowPlace = settings.allowPlace.value;
+        settings.chatDebug.value = false;
+        settings.pathingMaxChunkBorderFetch.value = Integer.MAX_VALUE;
+        settings.allowBreak.value = false;
+        settings.allowPlace.value = false;
+
+        ItemStack[] hotbar = new ItemStack[9];
+        Arrays.fill(hotbar, ItemStack.EMPTY);
+        context = new CalculationContext(new ToolSet(hotbar), false, false, true, 0, new BetterWorldBorder(-30000000, 30000000, -30000000, 30000000));
+    }
+
+    @After
+    public void tearDown() {
+        TestWorld.uninstall();
+        Settings settings = Baritone.settings();
+        settings.chatDebug.value = chatDebug;
+        settings.pathingMaxChunkBorderFetch.value = pathingMaxChunkBorderFetch;
+        settings.allowBreak.value = allowBreak;
+        settings.allowPlace.value = allowPlace;
+    }
+
+    @Test
+    public void spliceOntoWindow() {
+        // straight along x, with a pillar in the way of the second movement
+        List<BetterBlockPos> positions = new ArrayList<>();
+        line(positions, 0, 0, 30, 0);
+        wall(2, 0, 0);
+
+        IPath repaired = repair(positions, 1);
+
+        assertEquals(positions.get(1), repaired.getSrc());
+        assertEquals(positions.get(positions.size() - 1), repaired.getDest());
+        assertNoDuplicates(repaired.positions());
+        assertEndsWith(repaired.positions(), positions, 1);
+    }
+
+    @Test
+    public void detourCrossingTheTailIsCutShort() {
+        // east, then north, then back west above where it started. the broken movement is behind a wall that only ends
+        // at the leg going back west, which is past the rejoin window, so the detour has to cross it to get around
+        List<BetterBlockPos> positions = new ArrayList<>();
+        line(positions, 0, 0, 10, 0);
+        line(positions, 10, 1, 10, 12);
+        line(positions, 9, 12, -10, 12);
+        wall(2, -40, 11);
+
+        IPath repaired = repair(positions, 1);
+
+        assertEquals(positions.get(1), repaired.getSrc());
+        assertEquals(positions.get(positions.size() - 1), repaired.getDest());
+        assertNoDuplicates(repaired.positions());
+        assertEndsWith(repaired.positions(), positions, 1);
+        // it gets back on at the west leg and carries on from there, instead of going all the way round the old path
+        assertTrue(repaired.positions().size() < positions.size());
+    }
+
+    @Test
+    public void spliceCutsAtFirstSharedPosition() {
+        List<BetterBlockPos> old = new ArrayList<>();
+        line(old, 0, 0, 9, 0);
+        List<BetterBlockPos> detour = new ArrayList<>();
+        line(detour, 0, 1, 6, 1);
+        detour.add(new BetterBlockPos(6, FLOOR, 0)); // where it meets the old path
+        detour.add(new BetterBlockPos(5, FLOOR, 0)); // and then wanders back along it
+        detour.add(new BetterBlockPos(4, FLOOR, 0));
+
+        List<BetterBlockPos> spliced = PathRepair.splice(detour, old, 3);
+
+        List<BetterBlockPos> expected = new ArrayList<>(detour.subList(0, 8));
+        expected.addAll(old.subList(7, old.size()));
+        assertEquals(expected, spliced);
+    }
+
+    private IPath repair(List<BetterBlockPos> positions, int brokenMovement) {
+        IPath broken = new Path(positions, 0, new GoalBlock(positions.get(positions.size() - 1)));
+        Optional<IPath> repaired = PathRepair.repair(positions.get(brokenMovement), broken, brokenMovement, 60000, context);
+        assertTrue(repaired.isPresent());
+        return repaired.get();
+    }
+
+    /**
+     * Adds the positions from one end to the other, both included, along one axis
+     */
+    private static void line(List<BetterBlockPos> positions, int x1, int z1, int x2, int z2) {
+        int dx = Integer.signum(x2 - x1);
+        int dz = Integer.signum(z2 - z1);
+        for (int x = x1, z = z1; ; x += dx, z += dz) {
+            positions.add(new BetterBlockPos(x, FLOOR, z));
+            if (x == x2 && z == z2) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Too tall to jump over, along z
+     */
+    private void wall(int x, int z1, int z2) {
+        for (int y = FLOOR; y < FLOOR + 3; y++) {
+            for (int z = z1; z <= z2; z++) {
+                world.walls.add(BetterBlockPos.longHash(x, y, z));
+            }
+        }
+    }
+
+    private static void assertNoDuplicates(List<BetterBlockPos> positions) {
+        assertEquals(positions.size(), new HashSet<>(positions).size());
+    }
+
+    /**
+     * Checks that from the first position the repaired path has in common with the old one after the broken movement,
+     * it's exactly the rest of the old path
+     */
+    private static void assertEndsWith(List<BetterBlockPos> repaired, List<BetterBlockPos> old, int brokenMovement) {
+        for (int i = 0; i < repaired.size(); i++) {
+            int rejoinAt = old.indexOf(repaired.get(i));
+            if (rejoinAt > brokenMovement) {
+                assertEquals(old.subList(rejoinAt, old.size()), repaired.subList(i, repaired.size()));
+                return;
+            }
+        }
+        throw new AssertionError("Never rejoined the old path");
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.calc;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import baritone.api.pathing.calc.IPath;
+import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.goals.GoalBlock;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.CalculationContext;
+import baritone.utils.ToolSet;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.TestWorld;
+import net.minecraft.item.ItemStack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Two member portfolios where each member searches for a goal of its own, so which one's path gets used can be told
+ * from where it ends, whatever order they happen to finish in.
+ */
+public class PortfolioPathFinderTest {
+
+    private static final int FLOOR = TestWorld.FLOOR;
+
+    private boolean chatDebug;
+    private int pathingMaxChunkBorderFetch;
+    private boolean allowBreak;
+    private boolean allowPlace;
+
+    private CalculationContext context;
+
+    @Before
+    public void setUp() {
+        new TestWorld(256).install();
+        Settings settings = Baritone.settings();
+        chatDebug = settings.chatDebug.value;
+        pathingMaxChunkBorderFetch = settings.pathingMaxChunkBorderFetch.value;
+        allowBreak = settings.allowBreak.value;
+        allowPlace = settings.allowPlace.value;
+        settings.chatDebug.value = false;
+        // a search for a goal outside the loaded area expands all of it before giving up
+        settings.pathingMaxChunkBorderFetch.value = Integer.MAX_VALUE;
+        settings.allowBreak.value = false;
+        settings.allowPlace.value = false;
+
+        ItemStack[] hotbar = new ItemStack[9];
+        Arrays.fill(hotbar, ItemStack.EMPTY);
+        context = new CalculationContext(new ToolSet(hotbar), false, false, true, 0, new BetterWorldBorder(-30000000, 30000000, -30000000, 30000000));
+    }
+
+    @After
+    public void tearDown() {
+        TestWorld.uninstall();
+        Settings settings = Baritone.settings();
+        settings.chatDebug.value = chatDebug;
+        settings.pathingMaxChunkBorderFetch.value = pathingMaxChunkBorderFetch;
+        settings.allowBreak.value = allowBreak;
+        settings.allowPlace.value = allowPlace;
+    }
+
+    @Test
+    public void goalReachingMemberWins() {
+        GoalBlock goal = new GoalBlock(20, FLOOR, 0);
+        // this one would go on expanding the whole loaded area for a long time, it has to be stopped
+        AStarPathFinder slow = member(new GoalBlock(10000, FLOOR, 0));
+        AStarPathFinder fast = member(goal);
+        PortfolioPathFinder portfolio = new PortfolioPathFinder(goal, Arrays.asList(slow, fast));
+
+        Optional<IPath> path = portfolio.calculate(60000);
+
+        assertTrue(path.isPresent());
+        assertEquals(new BetterBlockPos(20, FLOOR, 0), path.get().getDest());
+        assertFinished(portfolio, slow, fast);
+    }
+
+    @Test
+    public void lowestIndexPartialPath() {
+        // neither member is looking for the portfolio's goal, so both paths are partial as far as it's concerned
+        Goal goal = new GoalBlock(0, FLOOR, 10000);
+        AStarPathFinder east = member(new GoalBlock(15, FLOOR, 0));
+        AStarPathFinder west = member(new GoalBlock(-15, FLOOR, 0));
+        PortfolioPathFinder portfolio = new PortfolioPathFinder(goal, Arrays.asList(east, west));
+
+        Optional<IPath> path = portfolio.calculate(60000);
+
+        assertTrue(path.isPresent());
+        assertEquals(new BetterBlockPos(15, FLOOR, 0), path.get().getDest());
+        assertFinished(portfolio, east, west);
+    }
+
+    private AStarPathFinder member(Goal goal) {
+        AStarPathFinder member = new AStarPathFinder(0, FLOOR, 0, goal, Optional.empty());
+        member.setContext(context);
+        return member;
+    }
+
+    /**
+     * Every member was told to stop whether it won or not, and nothing is left registered as running
+     */
+    private static void assertFinished(PortfolioPathFinder portfolio, AStarPathFinder... members) {
+        assertTrue(portfolio.isFinished());
+        assertFalse(AbstractNodeCostSearch.getCurrentlyRunning().isPresent());
+        for (AStarPathFinder member : members) {
+            assertTrue(member.cancelRequested);
+            // calculate holds this lock, so this waits for a member that's still running to notice and stop. the pool
+            // hands each member its own thread straight away, so they've all got as far as calculate by now
+            synchronized (member) {
+                assertTrue(member.isFinished());
+            }
+        }
+    }
+}
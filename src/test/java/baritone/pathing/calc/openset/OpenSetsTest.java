@@ -18,6 +18,7 @@
 package baritone.pathing.calc.openset;
 
 import baritone.api.pathing.goals.Goal;
+import baritone.api.pathing.movement.ActionCosts;
 import baritone.pathing.calc.PathNode;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -167,4 +168,205 @@ public class OpenSetsTest {
             assertTrue(set.isEmpty());
         }
     }
-}
\ No newline at end of file
+
+    private static PathNode newNode(double combinedCost) {
+        PathNode pn = new PathNode(0, 0, 0, new Goal() {
+            @Override
+            public boolean isInGoal(int x, int y, int z) {
+                return false;
+            }
+
+            @Override
+            public double heuristic(int x, int y, int z) {
+                return 0;
+            }
+        });
+        pn.combinedCost = combinedCost;
+        return pn;
+    }
+
+    private static long quantize(double cost) {
+        return (long) Math.floor(cost * 100);
+    }
+
+    private static double removeAndTestQuantized(int amount, IOpenSet expected, IOpenSet actual, Set<PathNode> expectedRemoved, Set<PathNode> actualRemoved) {
+        double highest = 0;
+        for (int i = 0; i < amount; i++) {
+            PathNode e = expected.removeLowest();
+            PathNode a = actual.removeLowest();
+            expectedRemoved.add(e);
+            actualRemoved.add(a);
+            assertEquals(quantize(e.combinedCost), quantize(a.combinedCost));
+            highest = Math.max(highest, Math.max(e.combinedCost, a.combinedCost));
+        }
+        return highest;
+    }
+
+    @Test
+    public void testRadixHeap() {
+        // the radix heap only orders to within a hundredth of a tick, so check it against the binary heap on the
+        // quantized costs. both of them use heapPosition, so each needs its own copy of the nodes
+        PathNode[] expectedNodes = new PathNode[size];
+        PathNode[] actualNodes = new PathNode[size];
+        for (int i = 0; i < size; i++) {
+            double cost = Math.random() * 100;
+            expectedNodes[i] = newNode(cost);
+            actualNodes[i] = newNode(cost);
+        }
+        BinaryHeapOpenSet expected = new BinaryHeapOpenSet();
+        RadixHeapOpenSet actual = new RadixHeapOpenSet();
+        assertTrue(actual.isEmpty());
+        for (int i = 0; i < size; i++) {
+            expected.insert(expectedNodes[i]);
+            actual.insert(actualNodes[i]);
+        }
+        assertEquals(size, actual.size());
+        Set<PathNode> expectedRemoved = new HashSet<>();
+        Set<PathNode> actualRemoved = new HashSet<>();
+        double highest = removeAndTestQuantized(size / 4, expected, actual, expectedRemoved, actualRemoved);
+
+        // decrease-key, but not below what's already been removed, since that's what A* does (almost always)
+        for (int i = 0; i < size; i++) {
+            if (expectedRemoved.contains(expectedNodes[i]) || actualRemoved.contains(actualNodes[i]) || Math.random() < 0.5) {
+                continue;
+            }
+            double cost = highest + (expectedNodes[i].combinedCost - highest) * Math.random();
+            expectedNodes[i].combinedCost = cost;
+            actualNodes[i].combinedCost = cost;
+            expected.update(expectedNodes[i]);
+            actual.update(actualNodes[i]);
+        }
+        removeAndTestQuantized(size - size / 4, expected, actual, expectedRemoved, actualRemoved);
+        assertTrue(actual.isEmpty());
+        assertEquals(0, actual.size());
+
+        // and when a node does go below what's already been removed, it should come out next
+        actual.insert(newNode(50));
+        actual.removeLowest();
+        PathNode below = newNode(10);
+        actual.insert(newNode(60));
+        actual.insert(below);
+        assertSame(below, actual.removeLowest());
+        actual.removeLowest();
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    public void testDaryHeap() {
+        // the d-ary heaps should come out in exactly the same order as the binary heap, including after decrease-key
+        for (int arity : new int[]{2, 3, 4, 8}) {
+            PathNode[] expectedNodes = new PathNode[size];
+            PathNode[] actualNodes = new PathNode[size];
+            for (int i = 0; i < size; i++) {
+                double cost = Math.random();
+                expectedNodes[i] = newNode(cost);
+                actualNodes[i] = newNode(cost);
+            }
+            BinaryHeapOpenSet expected = new BinaryHeapOpenSet();
+            DaryHeapOpenSet actual = new DaryHeapOpenSet(arity, 4); // small initial capacity to exercise growing
+            for (int i = 0; i < size; i++) {
+                expected.insert(expectedNodes[i]);
+                actual.insert(actualNodes[i]);
+            }
+            assertEquals(size, actual.size());
+            for (int i = 0; i < size / 4; i++) {
+                assertEquals(expected.removeLowest().combinedCost, actual.removeLowest().combinedCost, 0);
+            }
+            for (int i = 0; i < size; i++) {
+                if (expectedNodes[i].heapPosition == -1 || Math.random() < 0.5) { // already removed
+                    continue;
+                }
+                double cost = expectedNodes[i].combinedCost * Math.random();
+                expectedNodes[i].combinedCost = cost;
+                actualNodes[i].combinedCost = cost;
+                expected.update(expectedNodes[i]);
+                actual.update(actualNodes[i]);
+            }
+            while (!expected.isEmpty()) {
+                assertFalse(actual.isEmpty());
+                assertEquals(expected.removeLowest().combinedCost, actual.removeLowest().combinedCost, 0);
+            }
+            assertTrue(actual.isEmpty());
+            assertEquals(0, actual.size());
+        }
+    }
+
+    /**
+     * Dijkstra over a side by side grid, with the cost of stepping onto each cell in cellCosts
+     *
+     * @return The final cost of every cell
+     */
+    private static double[] gridSearch(IOpenSet openSet, int side, double[] cellCosts) {
+        Goal goal = new Goal() {
+            @Override
+            public boolean isInGoal(int x, int y, int z) {
+                return false;
+            }
+
+            @Override
+            public double heuristic(int x, int y, int z) {
+                return 0;
+            }
+        };
+        PathNode[] nodes = new PathNode[side * side];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new PathNode(i % side, 0, i / side, goal);
+        }
+        nodes[0].cost = 0;
+        nodes[0].combinedCost = 0;
+        nodes[0].isOpen = true;
+        openSet.insert(nodes[0]);
+        while (!openSet.isEmpty()) {
+            PathNode current = openSet.removeLowest();
+            current.isOpen = false;
+            for (int dir = 0; dir < 4; dir++) {
+                int x = current.x + (dir == 0 ? 1 : dir == 1 ? -1 : 0);
+                int z = current.z + (dir == 2 ? 1 : dir == 3 ? -1 : 0);
+                if (x < 0 || x >= side || z < 0 || z >= side) {
+                    continue;
+                }
+                PathNode neighbor = nodes[z * side + x];
+                double tentativeCost = current.cost + cellCosts[z * side + x];
+                if (tentativeCost < neighbor.cost) {
+                    neighbor.cost = tentativeCost;
+                    neighbor.combinedCost = tentativeCost;
+                    if (neighbor.isOpen) {
+                        openSet.update(neighbor);
+                    } else {
+                        neighbor.isOpen = true;
+                        openSet.insert(neighbor);
+                    }
+                }
+            }
+        }
+        double[] result = new double[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            result[i] = nodes[i].cost;
+        }
+        return result;
+    }
+
+    @Test
+    public void testGridSearch() {
+        // every open set has to give the same costs for a search shaped like a real one, lots of decrease-keys on
+        // costs that are sums of movement costs. the radix heap pops out of order by less than a hundredth of a tick,
+        // which can cost extra work, but not a worse answer
+        double[] stepCosts = {
+                ActionCosts.SPRINT_ONE_BLOCK_COST,
+                ActionCosts.WALK_ONE_BLOCK_COST,
+                ActionCosts.WALK_ONE_BLOCK_COST + ActionCosts.JUMP_ONE_BLOCK_COST,
+                ActionCosts.WALK_OFF_BLOCK_COST + ActionCosts.FALL_N_BLOCKS_COST[2],
+                ActionCosts.SNEAK_ONE_BLOCK_COST
+        };
+        int side = (int) Math.sqrt(size) + 1;
+        Random random = new Random(size);
+        double[] cellCosts = new double[side * side];
+        for (int i = 0; i < cellCosts.length; i++) {
+            cellCosts[i] = stepCosts[random.nextInt(stepCosts.length)];
+        }
+        double[] expected = gridSearch(new LinkedListOpenSet(), side, cellCosts);
+        for (IOpenSet set : new IOpenSet[]{new BinaryHeapOpenSet(), new DaryHeapOpenSet(4), new DaryHeapOpenSet(8), new RadixHeapOpenSet()}) {
+            assertArrayEquals(expected, gridSearch(set, side, cellCosts), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.goals;
+
+import baritone.api.pathing.goals.*;
+import baritone.api.utils.interfaces.IGoalRenderPos;
+import net.minecraft.util.math.BlockPos;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The indexed GoalComposite and GoalRunAway have to say exactly the same thing as checking every goal. Only isInGoal is
+ * checked here, since the heuristics need the settings, which need Minecraft.
+ */
+public class SpatialGoalIndexTest {
+
+    private static Goal randomGoal(Random random, int spread) {
+        int x = random.nextInt(spread) - spread / 2;
+        int y = random.nextInt(256);
+        int z = random.nextInt(spread) - spread / 2;
+        switch (random.nextInt(5)) {
+            case 0:
+                return new GoalBlock(x, y, z);
+            case 1:
+                return new GoalTwoBlocks(x, y, z);
+            case 2:
+                return new GoalGetToBlock(new BlockPos(x, y, z));
+            case 3:
+                return new GoalXZ(x, z);
+            default:
+                return new GoalNear(new BlockPos(x, y, z), 3); // not indexed
+        }
+    }
+
+    @Test
+    public void composite() {
+        Random random = new Random(8);
+        for (int size : new int[]{1, 7, 8, 64, 500}) {
+            for (int spread : new int[]{4, 50, 1000, 100000}) {
+                Goal[] goals = new Goal[size];
+                for (int i = 0; i < size; i++) {
+                    goals[i] = randomGoal(random, spread);
+                }
+                GoalComposite composite = new GoalComposite(goals);
+                for (int i = 0; i < 20000; i++) {
+                    // pick positions right next to goals most of the time, since random ones would almost never be in any
+                    Goal near = goals[random.nextInt(size)];
+                    BlockPos pos;
+                    if (near instanceof IGoalRenderPos && random.nextBoolean()) {
+                        pos = ((IGoalRenderPos) near).getGoalPos().add(random.nextInt(5) - 2, random.nextInt(5) - 2, random.nextInt(5) - 2);
+                    } else {
+                        pos = new BlockPos(random.nextInt(spread * 2) - spread, random.nextInt(256), random.nextInt(spread * 2) - spread);
+                    }
+                    boolean expected = false;
+                    for (Goal goal : goals) {
+                        expected |= goal.isInGoal(pos);
+                    }
+                    assertEquals(size + " " + spread + " " + pos, expected, composite.isInGoal(pos));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void runAway() {
+        Random random = new Random(9);
+        for (int size : new int[]{1, 8, 100}) {
+            for (double distance : new double[]{0.5, 5, 20, 150}) {
+                BlockPos[] from = new BlockPos[size];
+                for (int i = 0; i < size; i++) {
+                    from[i] = new BlockPos(random.nextInt(400) - 200, 64, random.nextInt(400) - 200);
+                }
+                GoalRunAway goal = new GoalRunAway(distance, from);
+                for (int i = 0; i < 20000; i++) {
+                    int x = random.nextInt(800) - 400;
+                    int z = random.nextInt(800) - 400;
+                    boolean expected = true;
+                    for (BlockPos p : from) {
+                        int diffX = x - p.getX();
+                        int diffZ = z - p.getZ();
+                        if (diffX * diffX + diffZ * diffZ < distance * distance) {
+                            expected = false;
+                        }
+                    }
+                    assertEquals(size + " " + distance + " " + x + "," + z, expected, goal.isInGoal(x, 64, z));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.Baritone;
+import baritone.api.utils.BetterBlockPos;
+import baritone.utils.BlockStateInterface;
+import baritone.utils.ToolSet;
+import baritone.utils.pathing.BetterWorldBorder;
+import baritone.utils.pathing.ChunkGenerations;
+import baritone.utils.pathing.MutableMoveResult;
+import baritone.utils.pathing.TestWorld;
+import net.minecraft.item.ItemStack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * A search reads from a snapshot while the client thread reads the live world, and they share the section masks and
+ * the movement cost memo. Once a block changes after the snapshot is taken, neither can be handed what the other one
+ * calculated.
+ */
+public class CacheGenerationsTest {
+
+    private static final int FLOOR = TestWorld.FLOOR;
+
+    private TestWorld live;
+    private TestWorld snapshot;
+
+    private boolean useSectionMasks;
+
+    @Before
+    public void setUp() {
+        live = new TestWorld().install();
+        useSectionMasks = Baritone.settings().useSectionMasks.value;
+        Baritone.settings().useSectionMasks.value = true;
+        snapshot = live.freeze();
+        // mined out from under the floor after the snapshot was taken
+        live.holes.add(BetterBlockPos.longHash(5, FLOOR - 1, 5));
+        ChunkGenerations.INSTANCE.invalidate(0, 0);
+    }
+
+    @After
+    public void tearDown() {
+        TestWorld.uninstall();
+        Baritone.settings().useSectionMasks.value = useSectionMasks;
+    }
+
+    @Test
+    public void sectionMasks() {
+        SettingsSnapshot settings = SettingsSnapshot.current();
+        assertTrue(SectionMasks.covers(settings, FLOOR - 1));
+        for (int i = 0; i < 2; i++) {
+            BlockStateInterface.setBlockSource(snapshot);
+            assertTrue(SectionMasks.get(settings, SectionMasks.WALK_ON, 5, FLOOR - 1, 5));
+            BlockStateInterface.setBlockSource(live);
+            assertFalse(SectionMasks.get(settings, SectionMasks.WALK_ON, 5, FLOOR - 1, 5));
+        }
+    }
+
+    @Test
+    public void movementCostMemo() {
+        MovementCostMemo memo = MovementCostMemo.INSTANCE;
+        ItemStack[] hotbar = new ItemStack[9];
+        Arrays.fill(hotbar, ItemStack.EMPTY);
+        assertTrue(memo.acquire(new CalculationContext(new ToolSet(hotbar), false, false, true, 0, new BetterWorldBorder(-30000000, 30000000, -30000000, 30000000))));
+        try {
+            MutableMoveResult result = new MutableMoveResult();
+            result.x = 5;
+            result.y = FLOOR;
+            result.z = 4;
+            result.cost = 10;
+
+            BlockStateInterface.setBlockSource(snapshot);
+            memo.put(Moves.TRAVERSE_NORTH, 5, FLOOR, 5, memo.generation(5, 5), result);
+            assertTrue(memo.get(Moves.TRAVERSE_NORTH, 5, FLOOR, 5, memo.generation(5, 5), new MutableMoveResult()));
+            BlockStateInterface.setBlockSource(live);
+            assertFalse(memo.get(Moves.TRAVERSE_NORTH, 5, FLOOR, 5, memo.generation(5, 5), new MutableMoveResult()));
+
+            memo.put(Moves.TRAVERSE_NORTH, 5, FLOOR, 5, memo.generation(5, 5), result);
+            BlockStateInterface.setBlockSource(snapshot);
+            assertFalse(memo.get(Moves.TRAVERSE_NORTH, 5, FLOOR, 5, memo.generation(5, 5), new MutableMoveResult()));
+        } finally {
+            memo.release();
+        }
+    }
+}
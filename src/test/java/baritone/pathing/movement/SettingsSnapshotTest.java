@@ -0,0 +1,97 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.movement;
+
+import baritone.Baritone;
+import baritone.api.Settings;
+import baritone.utils.ToolSet;
+import baritone.utils.pathing.BetterWorldBorder;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SettingsSnapshotTest {
+
+    @Before
+    public void setUp() {
+        Baritone.INSTANCE.initHeadless();
+    }
+
+    @After
+    public void tearDown() {
+        Settings settings = Baritone.settings();
+        settings.allowParkour.value = settings.allowParkour.defaultValue;
+        settings.chatDebug.value = settings.chatDebug.defaultValue;
+    }
+
+    @Test
+    public void sameInstanceUntilSomethingChanges() {
+        SettingsSnapshot first = SettingsSnapshot.current();
+        assertSame(first, SettingsSnapshot.current());
+
+        // not something costs depend on
+        Baritone.settings().chatDebug.value = !Baritone.settings().chatDebug.<Boolean>get();
+        assertSame(first, SettingsSnapshot.current());
+
+        Baritone.settings().allowParkour.value = !first.allowParkour;
+        SettingsSnapshot second = SettingsSnapshot.current();
+        assertNotSame(first, second);
+        assertEquals(!first.allowParkour, second.allowParkour);
+        assertEquals(first.version + 1, second.version);
+        assertSame(second, SettingsSnapshot.current());
+    }
+
+    @Test
+    public void snapshotDoesntChangeUnderneath() {
+        SettingsSnapshot before = SettingsSnapshot.current();
+        boolean parkour = before.allowParkour;
+        Baritone.settings().allowParkour.value = !parkour;
+        assertEquals(parkour, before.allowParkour);
+    }
+
+    private static CalculationContext context(ItemStack[] hotbar) {
+        return new CalculationContext(new ToolSet(hotbar.clone()), false, true, true, 0, new BetterWorldBorder(-30000000, 30000000, -30000000, 30000000));
+    }
+
+    @Test
+    public void contextsWithTheSameCosts() {
+        ItemStack[] hotbar = new ItemStack[9];
+        Arrays.fill(hotbar, ItemStack.EMPTY);
+        CalculationContext first = context(hotbar);
+        assertTrue(first.sameCostsAs(context(hotbar)));
+
+        hotbar[3] = new ItemStack(Items.DIAMOND_PICKAXE);
+        assertFalse(first.sameCostsAs(context(hotbar)));
+        hotbar[3] = ItemStack.EMPTY;
+
+        // turned off and on again, the settings are the same but the snapshot isn't, so it's not worth comparing them
+        Baritone.settings().allowParkour.value = !first.settings().allowParkour;
+        CalculationContext second = context(hotbar);
+        Baritone.settings().allowParkour.value = first.settings().allowParkour;
+        CalculationContext third = context(hotbar);
+        assertFalse(first.sameCostsAs(second));
+        assertFalse(first.sameCostsAs(third));
+        assertTrue(third.sameCostsAs(context(hotbar)));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.pathing.path;
+
+import baritone.api.pathing.movement.IMovement;
+import baritone.api.utils.BetterBlockPos;
+import baritone.pathing.movement.movements.MovementDiagonal;
+import baritone.pathing.movement.movements.MovementTraverse;
+import baritone.utils.pathing.TestWorld;
+import net.minecraft.util.EnumFacing;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PathBlockSetsTest {
+
+    private static final int FLOOR = TestWorld.FLOOR;
+
+    private TestWorld world;
+
+    @Before
+    public void setUp() {
+        world = new TestWorld().install();
+    }
+
+    @After
+    public void tearDown() {
+        TestWorld.uninstall();
+    }
+
+    /**
+     * Walks along +x from 0 to length
+     */
+    private static List<IMovement> straight(int length) {
+        List<IMovement> movements = new ArrayList<>();
+        for (int x = 0; x < length; x++) {
+            movements.add(new MovementTraverse(new BetterBlockPos(x, FLOOR, 0), new BetterBlockPos(x + 1, FLOOR, 0)));
+        }
+        return Collections.unmodifiableList(movements);
+    }
+
+    @Test
+    public void followsTheWorldAndThePosition() {
+        world.walls.add(BetterBlockPos.longHash(5, FLOOR, 0));
+        world.walls.add(BetterBlockPos.longHash(5, FLOOR + 1, 0));
+        world.holes.add(BetterBlockPos.longHash(7, FLOOR - 1, 0));
+        List<IMovement> movements = straight(20);
+        PathBlockSets blocks = new PathBlockSets();
+        blocks.update(movements, 0);
+        assertEquals(2, blocks.toBreak().size());
+        assertTrue(blocks.toBreak().contains(new BetterBlockPos(5, FLOOR, 0)));
+        assertTrue(blocks.toBreak().contains(new BetterBlockPos(5, FLOOR + 1, 0)));
+        assertEquals(Collections.singleton(new BetterBlockPos(7, FLOOR - 1, 0)), blocks.toPlace());
+        assertTrue(blocks.toWalkInto().isEmpty());
+
+        // broken by someone else
+        world.walls.remove(BetterBlockPos.longHash(5, FLOOR + 1, 0));
+        blocks.update(movements, 0);
+        assertEquals(Collections.singleton(new BetterBlockPos(5, FLOOR, 0)), blocks.toBreak());
+
+        // past the wall
+        blocks.update(movements, 6);
+        assertTrue(blocks.toBreak().isEmpty());
+        assertEquals(1, blocks.toPlace().size());
+
+        // lagged back
+        blocks.update(movements, 3);
+        assertEquals(Collections.singleton(new BetterBlockPos(5, FLOOR, 0)), blocks.toBreak());
+
+        // placed
+        world.holes.clear();
+        blocks.update(movements, 3);
+        assertTrue(blocks.toPlace().isEmpty());
+
+        // finished, or cancelled
+        blocks.update(movements, movements.size() + 3);
+        assertTrue(blocks.toBreak().isEmpty());
+    }
+
+    @Test
+    public void splicedPathCanSkipBackBeforeWhereItStarted() {
+        world.walls.add(BetterBlockPos.longHash(2, FLOOR, 0));
+        List<IMovement> movements = straight(10);
+        // the path these movements came from got as far as reporting the wall
+        PathBlockSets previous = new PathBlockSets();
+        previous.update(movements, 0);
+        assertEquals(Collections.singleton(new BetterBlockPos(2, FLOOR, 0)), previous.toBreak());
+
+        // spliced onto the new path past the wall, then lagged back in front of it
+        PathBlockSets blocks = new PathBlockSets();
+        blocks.update(movements, 4);
+        assertTrue(blocks.toBreak().isEmpty());
+        blocks.update(movements, 0);
+        assertEquals(Collections.singleton(new BetterBlockPos(2, FLOOR, 0)), blocks.toBreak());
+    }
+
+    @Test
+    public void sharedBlocksStayUntilNobodyWantsThem() {
+        // 0,0 to 1,1 then 1,1 to 2,0, both cutting the corner at 1,0
+        world.walls.add(BetterBlockPos.longHash(1, FLOOR, 0));
+        List<IMovement> movements = new ArrayList<>();
+        movements.add(new MovementDiagonal(new BetterBlockPos(0, FLOOR, 0), EnumFacing.SOUTH, EnumFacing.EAST));
+        movements.add(new MovementDiagonal(new BetterBlockPos(1, FLOOR, 1), EnumFacing.NORTH, EnumFacing.EAST));
+        PathBlockSets blocks = new PathBlockSets();
+        blocks.update(movements, 0);
+        assertEquals(Collections.singleton(new BetterBlockPos(1, FLOOR, 0)), blocks.toWalkInto());
+        blocks.update(movements, 1);
+        assertEquals(Collections.singleton(new BetterBlockPos(1, FLOOR, 0)), blocks.toWalkInto());
+        blocks.update(movements, 2);
+        assertTrue(blocks.toWalkInto().isEmpty());
+    }
+
+    @Test
+    public void steadyStateTickDoesntAllocate() {
+        com.sun.management.ThreadMXBean threads = TestWorld.allocationCounter();
+
+        for (int x = 0; x < 500; x += 3) {
+            world.walls.add(BetterBlockPos.longHash(x, FLOOR + 1, 0));
+        }
+        List<IMovement> movements = straight(500);
+        PathBlockSets blocks = new PathBlockSets();
+        blocks.update(movements, 0);
+        for (int i = 0; i < 20000; i++) {
+            blocks.update(movements, 250);
+        }
+        int ticks = 100000;
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ticks; i++) {
+            blocks.update(movements, 250);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(allocated + " bytes over " + ticks + " ticks", allocated / (double) ticks < 1);
+        assertFalse(blocks.toBreak().isEmpty());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of Baritone.
+ *
+ * Baritone is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Baritone is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Baritone.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package baritone.utils.pathing;
+
+import baritone.Baritone;
+import baritone.api.utils.BetterBlockPos;
+import baritone.utils.BlockStateInterface;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * A world for tests to search and walk in without a game: stone below {@link #FLOOR} except for holes, and air above
+ * it except for walls. Water goes over either. Only the square within the radius of 0,0 counts as loaded.
+ * <p>
+ * Caches follow the live {@link ChunkGenerations} counter for it, like they do for the real world, so a test that
+ * changes a block should invalidate its chunk there too. {@link #freeze()} makes a copy that has the generations of
+ * when it was made instead, like a {@link WorldSnapshot}.
+ */
+public final class TestWorld implements BlockSource, BlockSource.Reader {
+
+    public static final int FLOOR = 64;
+
+    private static final IBlockState STONE = Blocks.STONE.getDefaultState();
+    private static final IBlockState AIR = Blocks.AIR.getDefaultState();
+    private static final IBlockState WATER = Blocks.WATER.getDefaultState();
+
+    public final LongOpenHashSet walls = new LongOpenHashSet();
+    public final LongOpenHashSet holes = new LongOpenHashSet();
+    public final LongOpenHashSet water = new LongOpenHashSet();
+
+    private final int radius;
+
+    /**
+     * Null unless this is a frozen copy, in which case it's every slot of the live counter when it was copied
+     */
+    private final int[] generations;
+
+    public TestWorld() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public TestWorld(int radius) {
+        this(radius, null);
+    }
+
+    private TestWorld(int radius, int[] generations) {
+        this.radius = radius;
+        this.generations = generations;
+    }
+
+    /**
+     * @return A copy of this world as it is now, which doesn't follow later changes to this one
+     */
+    public TestWorld freeze() {
+        int[] generations = new int[64 * 64];
+        // the live counter wraps around every 64 chunks
+        for (int chunkX = 0; chunkX < 64; chunkX++) {
+            for (int chunkZ = 0; chunkZ < 64; chunkZ++) {
+                generations[chunkX << 6 | chunkZ] = ChunkGenerations.INSTANCE.get(chunkX << 4, chunkZ << 4);
+            }
+        }
+        TestWorld copy = new TestWorld(radius, generations);
+        copy.walls.addAll(walls);
+        copy.holes.addAll(holes);
+        copy.water.addAll(water);
+        return copy;
+    }
+
+    /**
+     * Start Baritone without a game, if it isn't already, and have this thread read from this world
+     */
+    public TestWorld install() {
+        Baritone.INSTANCE.initHeadless();
+        BlockStateInterface.setBlockSource(this);
+        return this;
+    }
+
+    public static void uninstall() {
+        BlockStateInterface.setBlockSource(null);
+    }
+
+    /**
+     * Skips the test if this JVM can't count the bytes each thread allocates
+     */
+    public static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        return threads;
+    }
+
+    @Override
+    public Reader reader() {
+        return this;
+    }
+
+    @Override
+    public BlockSource source() {
+        return this;
+    }
+
+    @Override
+    public IBlockState get(int x, int y, int z) {
+        long key = BetterBlockPos.longHash(x, y, z);
+        if (water.contains(key)) {
+            return WATER;
+        }
+        if (y < FLOOR) {
+            return holes.contains(key) ? AIR : STONE;
+        }
+        return walls.contains(key) ? STONE : AIR;
+    }
+
+    @Override
+    public boolean isLoaded(int x, int z) {
+        return x >= -radius && x < radius && z >= -radius && z < radius;
+    }
+
+    @Override
+    public int generation(int x, int z) {
+        if (generations == null) {
+            return ChunkGenerations.INSTANCE.get(x, z);
+        }
+        return generations[(x >> 4 & 63) << 6 | (z >> 4 & 63)];
+    }
+}